@@ -16,6 +16,7 @@
 package io.atomix.cluster;
 
 import io.atomix.cluster.impl.DefaultClusterMembershipService;
+import io.atomix.cluster.impl.SwimClusterMembershipService;
 import io.atomix.cluster.messaging.BroadcastService;
 import io.atomix.cluster.messaging.ClusterCommunicationService;
 import io.atomix.cluster.messaging.ClusterEventingService;
@@ -23,6 +24,7 @@ import io.atomix.cluster.messaging.ManagedBroadcastService;
 import io.atomix.cluster.messaging.ManagedClusterCommunicationService;
 import io.atomix.cluster.messaging.ManagedClusterEventingService;
 import io.atomix.cluster.messaging.ManagedMessagingService;
+import io.atomix.cluster.messaging.MessagingConfig;
 import io.atomix.cluster.messaging.MessagingService;
 import io.atomix.cluster.messaging.impl.DefaultClusterCommunicationService;
 import io.atomix.cluster.messaging.impl.DefaultClusterEventingService;
@@ -40,6 +42,7 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.stream.Collectors;
@@ -106,7 +109,7 @@ public class AtomixCluster implements Managed<Void> {
     this.broadcastService = buildBroadcastService(config);
     this.membershipService = buildClusterMembershipService(config, messagingService, broadcastService);
     this.communicationService = buildClusterMessagingService(membershipService, messagingService);
-    this.eventingService = buildClusterEventService(membershipService, messagingService);
+    this.eventingService = buildClusterEventService(membershipService, messagingService, config.getMessagingConfig());
   }
 
   /**
@@ -243,6 +246,7 @@ public class AtomixCluster implements Managed<Void> {
     return NettyMessagingService.builder()
         .withName(config.getName())
         .withAddress(config.getLocalMember().getAddress())
+        .withMessagingConfig(config.getMessagingConfig())
         .build();
   }
 
@@ -272,12 +276,19 @@ public class AtomixCluster implements Managed<Void> {
     } else {
       localMember = new Member(config.getLocalMember());
     }
-    return new DefaultClusterMembershipService(
-        localMember,
-        config.getMembers()
-            .stream()
-            .map(Member::new)
-            .collect(Collectors.toList()), messagingService, broadcastService, config.getMembershipConfig());
+    List<Member> bootstrapMembers = config.getMembers()
+        .stream()
+        .map(Member::new)
+        .collect(Collectors.toList());
+    switch (config.getMembershipConfig().getProtocol()) {
+      case SWIM:
+        return new SwimClusterMembershipService(
+            localMember, bootstrapMembers, messagingService, broadcastService, config.getMembershipConfig());
+      case HEARTBEAT:
+      default:
+        return new DefaultClusterMembershipService(
+            localMember, bootstrapMembers, messagingService, broadcastService, config.getMembershipConfig());
+    }
   }
 
   /**
@@ -292,8 +303,8 @@ public class AtomixCluster implements Managed<Void> {
    * Builds a cluster event service.
    */
   protected static ManagedClusterEventingService buildClusterEventService(
-      ClusterMembershipService membershipService, MessagingService messagingService) {
-    return new DefaultClusterEventingService(membershipService, messagingService);
+      ClusterMembershipService membershipService, MessagingService messagingService, MessagingConfig config) {
+    return new DefaultClusterEventingService(membershipService, messagingService, config);
   }
 
   /**
@@ -24,10 +24,59 @@ public class GroupMembershipConfig implements Config {
   private static final int DEFAULT_HEARTBEAT_INTERVAL = 100;
   private static final int DEFAULT_FAILURE_TIMEOUT = 10000;
   private static final int DEFAULT_PHI_FAILURE_THRESHOLD = 10;
+  private static final int DEFAULT_PROBE_INTERVAL = 1000;
+  private static final int DEFAULT_PROBE_TIMEOUT = 500;
+  private static final int DEFAULT_INDIRECT_PROBES = 3;
+  private static final int DEFAULT_SUSPECT_TIMEOUT = 5000;
+  private static final int DEFAULT_MAX_GOSSIP_UPDATES = 16;
 
+  /**
+   * Group membership protocol.
+   */
+  public enum Protocol {
+
+    /**
+     * Every member sends a heartbeat to every other member each heartbeat interval and detects failures with a
+     * phi accrual failure detector.
+     */
+    HEARTBEAT,
+
+    /**
+     * Members detect failures with the SWIM protocol, probing a single member each probe interval and
+     * disseminating membership changes by piggybacking them on probes.
+     */
+    SWIM,
+  }
+
+  private Protocol protocol = Protocol.HEARTBEAT;
   private int heartbeatInterval = DEFAULT_HEARTBEAT_INTERVAL;
   private int phiFailureThreshold = DEFAULT_PHI_FAILURE_THRESHOLD;
   private int failureTimeout = DEFAULT_FAILURE_TIMEOUT;
+  private int probeInterval = DEFAULT_PROBE_INTERVAL;
+  private int probeTimeout = DEFAULT_PROBE_TIMEOUT;
+  private int indirectProbes = DEFAULT_INDIRECT_PROBES;
+  private int suspectTimeout = DEFAULT_SUSPECT_TIMEOUT;
+  private int maxGossipUpdates = DEFAULT_MAX_GOSSIP_UPDATES;
+
+  /**
+   * Returns the group membership protocol.
+   *
+   * @return the group membership protocol
+   */
+  public Protocol getProtocol() {
+    return protocol;
+  }
+
+  /**
+   * Sets the group membership protocol.
+   *
+   * @param protocol the group membership protocol
+   * @return the group membership configuration
+   */
+  public GroupMembershipConfig setProtocol(Protocol protocol) {
+    this.protocol = protocol;
+    return this;
+  }
 
   /**
    * Returns the failure detector heartbeat interval.
@@ -88,4 +137,104 @@ public class GroupMembershipConfig implements Config {
     this.failureTimeout = failureTimeout;
     return this;
   }
+
+  /**
+   * Returns the SWIM probe interval.
+   *
+   * @return the SWIM probe interval in milliseconds
+   */
+  public int getProbeInterval() {
+    return probeInterval;
+  }
+
+  /**
+   * Sets the SWIM probe interval.
+   *
+   * @param probeInterval the SWIM probe interval in milliseconds
+   * @return the group membership configuration
+   */
+  public GroupMembershipConfig setProbeInterval(int probeInterval) {
+    this.probeInterval = probeInterval;
+    return this;
+  }
+
+  /**
+   * Returns the SWIM probe timeout.
+   *
+   * @return the SWIM probe timeout in milliseconds
+   */
+  public int getProbeTimeout() {
+    return probeTimeout;
+  }
+
+  /**
+   * Sets the SWIM probe timeout.
+   *
+   * @param probeTimeout the SWIM probe timeout in milliseconds
+   * @return the group membership configuration
+   */
+  public GroupMembershipConfig setProbeTimeout(int probeTimeout) {
+    this.probeTimeout = probeTimeout;
+    return this;
+  }
+
+  /**
+   * Returns the number of members through which to indirectly probe a member that fails a direct probe.
+   *
+   * @return the number of indirect probes
+   */
+  public int getIndirectProbes() {
+    return indirectProbes;
+  }
+
+  /**
+   * Sets the number of members through which to indirectly probe a member that fails a direct probe.
+   *
+   * @param indirectProbes the number of indirect probes
+   * @return the group membership configuration
+   */
+  public GroupMembershipConfig setIndirectProbes(int indirectProbes) {
+    this.indirectProbes = indirectProbes;
+    return this;
+  }
+
+  /**
+   * Returns the time after which a suspected member is declared dead.
+   *
+   * @return the SWIM suspect timeout in milliseconds
+   */
+  public int getSuspectTimeout() {
+    return suspectTimeout;
+  }
+
+  /**
+   * Sets the time after which a suspected member is declared dead.
+   *
+   * @param suspectTimeout the SWIM suspect timeout in milliseconds
+   * @return the group membership configuration
+   */
+  public GroupMembershipConfig setSuspectTimeout(int suspectTimeout) {
+    this.suspectTimeout = suspectTimeout;
+    return this;
+  }
+
+  /**
+   * Returns the maximum number of membership updates to piggyback on a single SWIM message.
+   *
+   * @return the maximum number of membership updates per message
+   */
+  public int getMaxGossipUpdates() {
+    return maxGossipUpdates;
+  }
+
+  /**
+   * Sets the maximum number of membership updates to piggyback on a single SWIM message.
+   *
+   * @param maxGossipUpdates the maximum number of membership updates per message
+   * @return the group membership configuration
+   */
+  public GroupMembershipConfig setMaxGossipUpdates(int maxGossipUpdates) {
+    this.maxGossipUpdates = maxGossipUpdates;
+    return this;
+  }
 }
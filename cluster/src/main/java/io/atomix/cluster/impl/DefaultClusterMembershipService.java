@@ -334,7 +334,7 @@ public class DefaultClusterMembershipService
   /**
    * Address serializer.
    */
-  private static class AddressSerializer extends com.esotericsoftware.kryo.Serializer<Address> {
+  static class AddressSerializer extends com.esotericsoftware.kryo.Serializer<Address> {
     @Override
     public void write(Kryo kryo, Output output, Address address) {
       output.writeString(address.address().getHostAddress());
@@ -0,0 +1,574 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.cluster.impl;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import io.atomix.cluster.ClusterMembershipEvent;
+import io.atomix.cluster.ClusterMembershipEventListener;
+import io.atomix.cluster.ClusterMembershipService;
+import io.atomix.cluster.GroupMembershipConfig;
+import io.atomix.cluster.ManagedClusterMembershipService;
+import io.atomix.cluster.Member;
+import io.atomix.cluster.Member.State;
+import io.atomix.cluster.MemberId;
+import io.atomix.cluster.impl.SwimMember.Status;
+import io.atomix.cluster.messaging.BroadcastService;
+import io.atomix.cluster.messaging.MessagingService;
+import io.atomix.utils.concurrent.Futures;
+import io.atomix.utils.event.AbstractListenerManager;
+import io.atomix.utils.net.Address;
+import io.atomix.utils.serializer.KryoNamespace;
+import io.atomix.utils.serializer.KryoNamespaces;
+import io.atomix.utils.serializer.Serializer;
+import org.slf4j.Logger;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BiFunction;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.atomix.utils.concurrent.Threads.namedThreads;
+import static org.slf4j.LoggerFactory.getLogger;
+
+/**
+ * SWIM based cluster membership service.
+ * <p>
+ * Rather than sending heartbeats to every member, each protocol period the local member probes a single member
+ * selected in randomized round-robin order. If the member does not acknowledge the probe, the local member asks
+ * {@link GroupMembershipConfig#getIndirectProbes() k} other members to probe it on its behalf. A member that can't
+ * be reached either directly or indirectly is suspected, and suspected members that don't refute the suspicion by
+ * incrementing their incarnation number within the suspect timeout are declared dead.
+ * <p>
+ * Membership changes are disseminated by piggybacking a bounded number of updates on probes and their responses,
+ * so the load on each member is constant regardless of the size of the cluster. Members joining the cluster
+ * receive the full membership list in the response to their first probe.
+ * <p>
+ * All protocol state is confined to a single thread.
+ */
+public class SwimClusterMembershipService
+    extends AbstractListenerManager<ClusterMembershipEvent, ClusterMembershipEventListener>
+    implements ManagedClusterMembershipService {
+
+  private static final Logger LOGGER = getLogger(SwimClusterMembershipService.class);
+
+  private static final String PROBE_MESSAGE = "atomix-membership-probe";
+  private static final String PROBE_REQUEST_MESSAGE = "atomix-membership-probe-request";
+
+  // Each update is disseminated on GOSSIP_RETRANSMIT_MULTIPLIER * log2(n + 1) messages.
+  private static final int GOSSIP_RETRANSMIT_MULTIPLIER = 3;
+
+  private static final Serializer SERIALIZER = Serializer.using(
+      KryoNamespace.builder()
+          .register(KryoNamespaces.BASIC)
+          .nextId(KryoNamespaces.BEGIN_USER_CUSTOM_ID)
+          .register(MemberId.class)
+          .register(MemberId.Type.class)
+          .register(Member.State.class)
+          .register(SwimMember.class)
+          .register(SwimMember.Status.class)
+          .register(SwimMessage.class)
+          .register(new DefaultClusterMembershipService.AddressSerializer(), Address.class)
+          .build("SwimClusterMembershipService"));
+
+  private final MessagingService messagingService;
+  private final BroadcastService broadcastService;
+  private final List<Member> bootstrapMembers;
+
+  private final int probeInterval;
+  private final int probeTimeout;
+  private final int indirectProbes;
+  private final int suspectTimeout;
+  private final int maxGossipUpdates;
+
+  private final AtomicBoolean started = new AtomicBoolean();
+  private final SwimMember localMember;
+  private final Map<MemberId, SwimMember> members = Maps.newConcurrentMap();
+  private final Map<MemberId, Gossip> gossips = new LinkedHashMap<>();
+  private final List<MemberId> probeMembers = new ArrayList<>();
+  private int probeIndex;
+  private int bootstrapIndex;
+  private Map<String, String> localMetadata;
+  private final Consumer<byte[]> broadcastListener = this::handleBroadcastMessage;
+
+  private final ScheduledExecutorService swimScheduler = Executors.newSingleThreadScheduledExecutor(
+      namedThreads("atomix-cluster-membership-swim", LOGGER));
+  private ScheduledFuture<?> probeFuture;
+
+  public SwimClusterMembershipService(
+      Member localMember,
+      Collection<Member> bootstrapMembers,
+      MessagingService messagingService,
+      BroadcastService broadcastService,
+      GroupMembershipConfig config) {
+    this.messagingService = checkNotNull(messagingService, "messagingService cannot be null");
+    this.broadcastService = checkNotNull(broadcastService, "broadcastService cannot be null");
+    this.localMember = new SwimMember(
+        localMember.id(),
+        localMember.address(),
+        localMember.zone(),
+        localMember.rack(),
+        localMember.host(),
+        localMember.metadata(),
+        0,
+        Status.DEAD);
+    this.bootstrapMembers = bootstrapMembers.stream()
+        .filter(member -> !member.id().equals(localMember.id()))
+        .collect(Collectors.toList());
+    checkArgument(config.getProbeInterval() > 0, "probeInterval must be positive");
+    checkArgument(config.getProbeTimeout() > 0, "probeTimeout must be positive");
+    checkArgument(config.getIndirectProbes() >= 0, "indirectProbes cannot be negative");
+    checkArgument(config.getMaxGossipUpdates() > 0, "maxGossipUpdates must be positive");
+    this.probeInterval = config.getProbeInterval();
+    this.probeTimeout = config.getProbeTimeout();
+    this.indirectProbes = config.getIndirectProbes();
+    this.suspectTimeout = config.getSuspectTimeout();
+    this.maxGossipUpdates = config.getMaxGossipUpdates();
+  }
+
+  @Override
+  public Member getLocalMember() {
+    return localMember;
+  }
+
+  @Override
+  public Set<Member> getMembers() {
+    return ImmutableSet.copyOf(members.values()
+        .stream()
+        .filter(member -> member.getState() == State.ACTIVE)
+        .collect(Collectors.toList()));
+  }
+
+  @Override
+  public Member getMember(MemberId memberId) {
+    Member member = members.get(memberId);
+    return member != null && member.getState() == State.ACTIVE ? member : null;
+  }
+
+  /**
+   * Broadcasts this member's identity.
+   */
+  private void broadcastIdentity() {
+    broadcastService.broadcast(SERIALIZER.encode(localMember.copy()));
+  }
+
+  /**
+   * Handles a broadcast message.
+   */
+  private void handleBroadcastMessage(byte[] message) {
+    SwimMember member = SERIALIZER.decode(message);
+    try {
+      swimScheduler.execute(() -> updateMember(member));
+    } catch (RejectedExecutionException e) {
+      LOGGER.debug("{} - Ignoring broadcast from {}", localMember.id(), member.id());
+    }
+  }
+
+  /**
+   * Runs a single protocol period.
+   */
+  private void probe() {
+    updateLocalMember();
+    expireSuspects();
+
+    SwimMember member = nextProbeMember();
+    if (member != null) {
+      probe(member);
+    }
+
+    // Probe members in the bootstrap list that are not known to be alive to (re)join the cluster.
+    Member bootstrapMember = nextBootstrapMember();
+    if (bootstrapMember != null) {
+      sendProbe(bootstrapMember.address(), members.get(bootstrapMember.id()));
+    }
+  }
+
+  /**
+   * Disseminates changes to the local member's metadata by incrementing its incarnation number.
+   */
+  private void updateLocalMember() {
+    if (!localMember.metadata().equals(localMetadata)) {
+      localMetadata = new HashMap<>(localMember.metadata());
+      localMember.setIncarnation(localMember.incarnation() + 1);
+      gossip(localMember.copy());
+    }
+  }
+
+  /**
+   * Declares suspected members whose suspect timeout has expired dead.
+   */
+  private void expireSuspects() {
+    long currentTime = System.currentTimeMillis();
+    for (SwimMember member : members.values()) {
+      if (member.status() == Status.SUSPECT && currentTime - member.updated() > suspectTimeout) {
+        updateMember(member.copy(member.incarnation(), Status.DEAD));
+      }
+    }
+  }
+
+  /**
+   * Returns the next member to probe.
+   * <p>
+   * Members are probed in round-robin order, and the order is shuffled after each round.
+   */
+  private SwimMember nextProbeMember() {
+    while (true) {
+      if (probeIndex >= probeMembers.size()) {
+        probeMembers.clear();
+        members.values().stream()
+            .filter(member -> !member.id().equals(localMember.id()) && member.status() != Status.DEAD)
+            .forEach(member -> probeMembers.add(member.id()));
+        Collections.shuffle(probeMembers);
+        probeIndex = 0;
+        if (probeMembers.isEmpty()) {
+          return null;
+        }
+      }
+
+      SwimMember member = members.get(probeMembers.get(probeIndex++));
+      if (member != null && member.status() != Status.DEAD) {
+        return member;
+      }
+    }
+  }
+
+  /**
+   * Returns the next bootstrap member that is not known to be alive.
+   */
+  private Member nextBootstrapMember() {
+    for (int i = 0; i < bootstrapMembers.size(); i++) {
+      Member member = bootstrapMembers.get(bootstrapIndex++ % bootstrapMembers.size());
+      SwimMember swimMember = members.get(member.id());
+      if (swimMember == null || swimMember.status() == Status.DEAD) {
+        return member;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Probes the given member, falling back to indirect probes if the member does not respond.
+   */
+  private void probe(SwimMember member) {
+    sendProbe(member.address(), member).thenAccept(acknowledged -> {
+      if (!acknowledged) {
+        LOGGER.debug("{} - Failed to probe {}", localMember.id(), member.id());
+        probeIndirect(member);
+      }
+    });
+  }
+
+  /**
+   * Sends a probe to the given address.
+   * <p>
+   * If the member is suspected or believed to be dead, its record is included in the probe to give the member an
+   * opportunity to refute it.
+   *
+   * @param address the address to probe
+   * @param member  the member being probed if known
+   * @return a future to be completed with a boolean indicating whether the probe was acknowledged
+   */
+  private CompletableFuture<Boolean> sendProbe(Address address, SwimMember member) {
+    List<SwimMember> updates = nextUpdates();
+    if (member != null && member.status() != Status.ALIVE) {
+      updates.add(member.copy());
+    }
+    byte[] payload = SERIALIZER.encode(new SwimMessage(localMember.copy(), null, updates));
+    return messagingService.sendAndReceive(address, PROBE_MESSAGE, payload, Duration.ofMillis(probeTimeout), swimScheduler)
+        .thenApply(response -> {
+          handleMessage(SERIALIZER.decode(response));
+          return true;
+        })
+        .exceptionally(error -> false);
+  }
+
+  /**
+   * Asks a random set of members to probe the given member, suspecting the member if none of the probes succeeds.
+   */
+  private void probeIndirect(SwimMember member) {
+    List<SwimMember> peers = members.values().stream()
+        .filter(peer -> !peer.id().equals(localMember.id())
+            && !peer.id().equals(member.id())
+            && peer.status() == Status.ALIVE)
+        .collect(Collectors.toList());
+    Collections.shuffle(peers);
+    peers = peers.subList(0, Math.min(indirectProbes, peers.size()));
+    if (peers.isEmpty()) {
+      suspect(member);
+      return;
+    }
+
+    byte[] payload = SERIALIZER.encode(new SwimMessage(localMember.copy(), member.copy(), nextUpdates()));
+    Futures.allOf(peers.stream()
+        .map(peer -> messagingService.sendAndReceive(
+            peer.address(), PROBE_REQUEST_MESSAGE, payload, Duration.ofMillis(probeTimeout * 2), swimScheduler)
+            .thenApply(response -> SERIALIZER.<Boolean>decode(response))
+            .exceptionally(error -> false))
+        .collect(Collectors.toList()))
+        .thenAccept(results -> {
+          if (!results.contains(true)) {
+            suspect(member);
+          }
+        });
+  }
+
+  /**
+   * Suspects the given member if its state has not changed since it was probed.
+   */
+  private void suspect(SwimMember member) {
+    SwimMember currentMember = members.get(member.id());
+    if (currentMember != null && currentMember.incarnation() == member.incarnation()
+        && currentMember.status() == Status.ALIVE) {
+      LOGGER.debug("{} - Suspecting {}", localMember.id(), member.id());
+      updateMember(member.copy(member.incarnation(), Status.SUSPECT));
+    }
+  }
+
+  /**
+   * Handles a probe.
+   */
+  private byte[] handleProbe(Address address, byte[] payload) {
+    SwimMessage message = SERIALIZER.decode(payload);
+
+    // If the source is joining the cluster, send it the full membership list.
+    SwimMember source = members.get(message.source().id());
+    boolean joining = source == null || source.status() == Status.DEAD;
+    handleMessage(message);
+
+    List<SwimMember> updates = joining
+        ? members.values().stream()
+        .filter(member -> !member.id().equals(localMember.id()))
+        .map(SwimMember::copy)
+        .collect(Collectors.toList())
+        : nextUpdates();
+    return SERIALIZER.encode(new SwimMessage(localMember.copy(), null, updates));
+  }
+
+  /**
+   * Handles a request to probe a member on behalf of another member.
+   */
+  private CompletableFuture<byte[]> handleProbeRequest(Address address, byte[] payload) {
+    SwimMessage message = SERIALIZER.decode(payload);
+    return CompletableFuture.supplyAsync(() -> {
+      handleMessage(message);
+      return sendProbe(message.target().address(), null);
+    }, swimScheduler)
+        .thenCompose(future -> future)
+        .thenApply(SERIALIZER::encode);
+  }
+
+  /**
+   * Handles the membership updates in the given message.
+   */
+  private void handleMessage(SwimMessage message) {
+    updateMember(message.source());
+    for (SwimMember update : message.updates()) {
+      updateMember(update);
+    }
+  }
+
+  /**
+   * Applies a membership update.
+   */
+  private void updateMember(SwimMember update) {
+    if (update.id().equals(localMember.id())) {
+      // Refute suspicion of the local member's failure by incrementing its incarnation number.
+      if (update.status() != Status.ALIVE && update.incarnation() >= localMember.incarnation()) {
+        LOGGER.debug("{} - Refuting {}", localMember.id(), update);
+        localMember.setIncarnation(update.incarnation() + 1);
+        gossip(localMember.copy());
+      }
+      return;
+    }
+
+    SwimMember member = members.get(update.id());
+    if (member == null) {
+      if (update.status() != Status.DEAD) {
+        SwimMember newMember = update.copy();
+        LOGGER.info("{} - Member added: {}", localMember.id(), newMember);
+        members.put(newMember.id(), newMember);
+        gossip(newMember.copy());
+        post(new ClusterMembershipEvent(ClusterMembershipEvent.Type.MEMBER_ADDED, newMember));
+      }
+      return;
+    }
+
+    // Updates with a higher incarnation number override updates with a lower incarnation number. For the same
+    // incarnation number, a suspect update overrides an alive update and a dead update overrides both.
+    switch (update.status()) {
+      case ALIVE:
+        if (update.incarnation() <= member.incarnation()) {
+          return;
+        }
+        break;
+      case SUSPECT:
+        if (update.incarnation() < member.incarnation()
+            || (update.incarnation() == member.incarnation() && member.status() != Status.ALIVE)) {
+          return;
+        }
+        break;
+      case DEAD:
+        if (update.incarnation() < member.incarnation() || member.status() == Status.DEAD) {
+          return;
+        }
+        break;
+      default:
+        return;
+    }
+
+    SwimMember newMember = update.copy();
+    members.put(newMember.id(), newMember);
+    gossip(newMember.copy());
+    if (member.status() == Status.DEAD && newMember.status() != Status.DEAD) {
+      LOGGER.info("{} - Member activated: {}", localMember.id(), newMember);
+      post(new ClusterMembershipEvent(ClusterMembershipEvent.Type.MEMBER_ADDED, newMember));
+    } else if (member.status() != Status.DEAD && newMember.status() == Status.DEAD) {
+      LOGGER.info("{} - Member deactivated: {}", localMember.id(), newMember);
+      post(new ClusterMembershipEvent(ClusterMembershipEvent.Type.MEMBER_REMOVED, newMember));
+    } else if (newMember.status() != Status.DEAD && !member.metadata().equals(newMember.metadata())) {
+      LOGGER.info("{} - Member updated: {}", localMember.id(), newMember);
+      post(new ClusterMembershipEvent(ClusterMembershipEvent.Type.MEMBER_UPDATED, newMember));
+    }
+  }
+
+  /**
+   * Enqueues the given membership update for dissemination.
+   */
+  private void gossip(SwimMember update) {
+    int retransmits = GOSSIP_RETRANSMIT_MULTIPLIER * (32 - Integer.numberOfLeadingZeros(members.size() + 1));
+    gossips.put(update.id(), new Gossip(update, retransmits));
+  }
+
+  /**
+   * Returns the next set of membership updates to piggyback on a message.
+   */
+  private List<SwimMember> nextUpdates() {
+    List<SwimMember> updates = new ArrayList<>(Math.min(gossips.size(), maxGossipUpdates) + 1);
+    Iterator<Gossip> iterator = gossips.values().iterator();
+    while (iterator.hasNext() && updates.size() < maxGossipUpdates) {
+      Gossip gossip = iterator.next();
+      updates.add(gossip.member);
+      if (--gossip.retransmits <= 0) {
+        iterator.remove();
+      }
+    }
+    return updates;
+  }
+
+  /**
+   * Notifies a random set of members that the local member is leaving the cluster.
+   */
+  private void leave() {
+    SwimMember leave = localMember.copy(localMember.incarnation(), Status.DEAD);
+    byte[] payload = SERIALIZER.encode(new SwimMessage(leave, null, new ArrayList<>()));
+    List<SwimMember> peers = members.values().stream()
+        .filter(member -> !member.id().equals(localMember.id()) && member.status() == Status.ALIVE)
+        .collect(Collectors.toList());
+    Collections.shuffle(peers);
+    for (SwimMember peer : peers.subList(0, Math.min(indirectProbes + 1, peers.size()))) {
+      messagingService.sendAsync(peer.address(), PROBE_MESSAGE, payload);
+    }
+  }
+
+  @Override
+  public CompletableFuture<ClusterMembershipService> start() {
+    if (started.compareAndSet(false, true)) {
+      broadcastService.addListener(broadcastListener);
+      localMember.setIncarnation(System.currentTimeMillis());
+      localMember.setStatus(Status.ALIVE);
+      localMetadata = new HashMap<>(localMember.metadata());
+      LOGGER.info("{} - Member activated: {}", localMember.id(), localMember);
+      members.put(localMember.id(), localMember);
+      messagingService.registerHandler(PROBE_MESSAGE, (BiFunction<Address, byte[], byte[]>) this::handleProbe, swimScheduler);
+      messagingService.registerHandler(PROBE_REQUEST_MESSAGE, this::handleProbeRequest);
+
+      CompletableFuture<Void> future = CompletableFuture.supplyAsync(() -> {
+        broadcastIdentity();
+        return Futures.allOf(bootstrapMembers.stream()
+            .map(member -> sendProbe(member.address(), null))
+            .collect(Collectors.toList()));
+      }, swimScheduler).thenCompose(f -> f).thenApply(v -> null);
+
+      probeFuture = swimScheduler.scheduleWithFixedDelay(() -> {
+        broadcastIdentity();
+        probe();
+      }, probeInterval, probeInterval, TimeUnit.MILLISECONDS);
+
+      return future.thenApply(v -> {
+        LOGGER.info("Started");
+        return this;
+      });
+    }
+    return CompletableFuture.completedFuture(null);
+  }
+
+  @Override
+  public boolean isRunning() {
+    return started.get();
+  }
+
+  @Override
+  public CompletableFuture<Void> stop() {
+    if (started.compareAndSet(true, false)) {
+      probeFuture.cancel(false);
+      try {
+        CompletableFuture.runAsync(this::leave, swimScheduler).join();
+      } catch (RuntimeException e) {
+        LOGGER.debug("{} - Failed to notify members of departure", localMember.id(), e);
+      }
+      swimScheduler.shutdownNow();
+      broadcastService.removeListener(broadcastListener);
+      messagingService.unregisterHandler(PROBE_MESSAGE);
+      messagingService.unregisterHandler(PROBE_REQUEST_MESSAGE);
+      LOGGER.info("{} - Member deactivated: {}", localMember.id(), localMember);
+      localMember.setStatus(Status.DEAD);
+      members.clear();
+      LOGGER.info("Stopped");
+    }
+    return CompletableFuture.completedFuture(null);
+  }
+
+  /**
+   * Membership update queued for dissemination.
+   */
+  private static final class Gossip {
+    private final SwimMember member;
+    private int retransmits;
+
+    Gossip(SwimMember member, int retransmits) {
+      this.member = member;
+      this.retransmits = retransmits;
+    }
+  }
+}
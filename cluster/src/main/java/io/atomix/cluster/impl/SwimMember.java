@@ -0,0 +1,140 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.cluster.impl;
+
+import io.atomix.cluster.MemberId;
+import io.atomix.utils.net.Address;
+
+import java.util.Map;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+/**
+ * SWIM cluster member.
+ * <p>
+ * In addition to the member's public state, SWIM members track the member's incarnation number and its status in
+ * the SWIM protocol. Suspected members are still considered {@link State#ACTIVE active}; only dead members are
+ * considered {@link State#INACTIVE inactive}.
+ */
+final class SwimMember extends StatefulMember {
+
+  /**
+   * SWIM member status.
+   */
+  enum Status {
+    ALIVE,
+    SUSPECT,
+    DEAD,
+  }
+
+  private volatile long incarnation;
+  private volatile Status status;
+  private transient long updated;
+
+  SwimMember(
+      MemberId id,
+      Address address,
+      String zone,
+      String rack,
+      String host,
+      Map<String, String> metadata,
+      long incarnation,
+      Status status) {
+    super(id, address, zone, rack, host, metadata);
+    this.incarnation = incarnation;
+    setStatus(status);
+  }
+
+  /**
+   * Returns the member's incarnation number.
+   * <p>
+   * Incarnation numbers are only incremented by the member itself, either to refute suspicion of its failure or to
+   * disseminate a change to its metadata.
+   *
+   * @return the member's incarnation number
+   */
+  long incarnation() {
+    return incarnation;
+  }
+
+  /**
+   * Updates the member's incarnation number.
+   *
+   * @param incarnation the member's incarnation number
+   */
+  void setIncarnation(long incarnation) {
+    this.incarnation = incarnation;
+  }
+
+  /**
+   * Returns the member's SWIM status.
+   *
+   * @return the member's SWIM status
+   */
+  Status status() {
+    return status;
+  }
+
+  /**
+   * Updates the member's SWIM status.
+   *
+   * @param status the member's SWIM status
+   */
+  void setStatus(Status status) {
+    this.status = status;
+    this.updated = System.currentTimeMillis();
+    setState(status == Status.DEAD ? State.INACTIVE : State.ACTIVE);
+  }
+
+  /**
+   * Returns the time at which the member's status was last updated.
+   *
+   * @return the time at which the member's status was last updated
+   */
+  long updated() {
+    return updated;
+  }
+
+  /**
+   * Returns a copy of the member.
+   *
+   * @return the copied member
+   */
+  SwimMember copy() {
+    return copy(incarnation, status);
+  }
+
+  /**
+   * Returns a copy of the member with the given incarnation number and status.
+   *
+   * @param incarnation the incarnation number of the copy
+   * @param status      the status of the copy
+   * @return the copied member
+   */
+  SwimMember copy(long incarnation, Status status) {
+    return new SwimMember(id(), address(), zone(), rack(), host(), metadata(), incarnation, status);
+  }
+
+  @Override
+  public String toString() {
+    return toStringHelper(this)
+        .add("id", id())
+        .add("address", address())
+        .add("incarnation", incarnation)
+        .add("status", status)
+        .toString();
+  }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.cluster.impl;
+
+import java.util.List;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+/**
+ * SWIM protocol message.
+ * <p>
+ * Each message carries the sender's own membership record and a bounded list of membership updates piggybacked
+ * for dissemination. Probe requests additionally identify the member to probe on the sender's behalf.
+ */
+final class SwimMessage {
+  private final SwimMember source;
+  private final SwimMember target;
+  private final List<SwimMember> updates;
+
+  SwimMessage(SwimMember source, SwimMember target, List<SwimMember> updates) {
+    this.source = source;
+    this.target = target;
+    this.updates = updates;
+  }
+
+  /**
+   * Returns the membership record of the member that sent the message.
+   *
+   * @return the sender's membership record
+   */
+  SwimMember source() {
+    return source;
+  }
+
+  /**
+   * Returns the member to probe.
+   *
+   * @return the member to probe or {@code null} if the message is not a probe request
+   */
+  SwimMember target() {
+    return target;
+  }
+
+  /**
+   * Returns the membership updates piggybacked on the message.
+   *
+   * @return the membership updates piggybacked on the message
+   */
+  List<SwimMember> updates() {
+    return updates;
+  }
+
+  @Override
+  public String toString() {
+    return toStringHelper(this)
+        .add("source", source)
+        .add("target", target)
+        .add("updates", updates)
+        .toString();
+  }
+}
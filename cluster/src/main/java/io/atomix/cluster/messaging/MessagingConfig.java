@@ -0,0 +1,534 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.cluster.messaging;
+
+import io.atomix.utils.config.Config;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Messaging service configuration.
+ */
+public class MessagingConfig implements Config {
+  private static final int DEFAULT_CONNECTION_POOL_SIZE = 8;
+  private static final int DEFAULT_PRIORITY_POOL_SIZE = 1;
+  private static final int DEFAULT_MAX_BATCH_SIZE = 64 * 1024;
+  private static final int DEFAULT_COMPRESSION_THRESHOLD = 4 * 1024;
+  private static final List<String> DEFAULT_PRIORITY_SUBJECTS = Arrays.asList(".*heartbeat", ".*-poll", ".*-vote");
+
+  /**
+   * Strategy for selecting a connection from the connection pool.
+   */
+  public enum ConnectionPoolStrategy {
+
+    /**
+     * Selects a connection by hashing the message subject. All messages for a subject are sent on the same
+     * connection, preserving the order of messages sent for the subject.
+     */
+    HASH,
+
+    /**
+     * Selects connections in round-robin order. Messages for the same subject may be reordered.
+     */
+    ROUND_ROBIN,
+
+    /**
+     * Selects the connection with the fewest outstanding requests, avoiding connections that are not writable.
+     * Messages for the same subject may be reordered.
+     */
+    LEAST_LOADED,
+  }
+
+  /**
+   * Network transport type.
+   */
+  public enum TransportType {
+
+    /**
+     * Uses the native epoll transport if it's available on the current platform, otherwise uses NIO.
+     */
+    AUTO,
+
+    /**
+     * Uses the native epoll transport. Startup fails if the transport is not available on the current platform.
+     */
+    EPOLL,
+
+    /**
+     * Uses the Java NIO transport.
+     */
+    NIO,
+  }
+
+  private int connectionPoolSize = DEFAULT_CONNECTION_POOL_SIZE;
+  private ConnectionPoolStrategy connectionPoolStrategy = ConnectionPoolStrategy.HASH;
+  private int priorityPoolSize = DEFAULT_PRIORITY_POOL_SIZE;
+  private List<String> prioritySubjects = new ArrayList<>(DEFAULT_PRIORITY_SUBJECTS);
+  private boolean backpressureEnabled = false;
+  private boolean batchingEnabled = false;
+  private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+  private TransportType transportType = TransportType.AUTO;
+  private int clientThreads = 0;
+  private int serverThreads = 0;
+  private boolean tcpNoDelay = true;
+  private boolean tcpQuickAck = false;
+  private int busyPollMicros = 0;
+  private boolean edgeTriggered = true;
+  private boolean pooledAllocator = true;
+  private boolean directBuffers = true;
+  private boolean subjectInterningEnabled = false;
+  private boolean compressionEnabled = false;
+  private int compressionThreshold = DEFAULT_COMPRESSION_THRESHOLD;
+  private int broadcastFanout = 0;
+
+  /**
+   * Returns the number of connections to open to each peer.
+   *
+   * @return the number of connections to open to each peer
+   */
+  public int getConnectionPoolSize() {
+    return connectionPoolSize;
+  }
+
+  /**
+   * Sets the number of connections to open to each peer.
+   *
+   * @param connectionPoolSize the number of connections to open to each peer
+   * @return the messaging configuration
+   */
+  public MessagingConfig setConnectionPoolSize(int connectionPoolSize) {
+    this.connectionPoolSize = connectionPoolSize;
+    return this;
+  }
+
+  /**
+   * Returns the strategy with which to select connections from the connection pool.
+   *
+   * @return the connection pool strategy
+   */
+  public ConnectionPoolStrategy getConnectionPoolStrategy() {
+    return connectionPoolStrategy;
+  }
+
+  /**
+   * Sets the strategy with which to select connections from the connection pool.
+   *
+   * @param connectionPoolStrategy the connection pool strategy
+   * @return the messaging configuration
+   */
+  public MessagingConfig setConnectionPoolStrategy(ConnectionPoolStrategy connectionPoolStrategy) {
+    this.connectionPoolStrategy = connectionPoolStrategy;
+    return this;
+  }
+
+  /**
+   * Returns the number of dedicated connections to open to each peer for priority subjects.
+   *
+   * @return the number of dedicated connections for priority subjects
+   */
+  public int getPriorityPoolSize() {
+    return priorityPoolSize;
+  }
+
+  /**
+   * Sets the number of dedicated connections to open to each peer for priority subjects.
+   * <p>
+   * If the priority pool size is {@code 0}, priority subjects share the connection pool with all other subjects.
+   *
+   * @param priorityPoolSize the number of dedicated connections for priority subjects
+   * @return the messaging configuration
+   */
+  public MessagingConfig setPriorityPoolSize(int priorityPoolSize) {
+    this.priorityPoolSize = priorityPoolSize;
+    return this;
+  }
+
+  /**
+   * Returns the patterns matching subjects to send on dedicated priority connections.
+   *
+   * @return the regular expressions matching priority subjects
+   */
+  public List<String> getPrioritySubjects() {
+    return prioritySubjects;
+  }
+
+  /**
+   * Sets the patterns matching subjects to send on dedicated priority connections.
+   * <p>
+   * By default, heartbeat, poll and vote messages are sent on priority connections to ensure failure detection and
+   * leader elections are not delayed by bulk traffic.
+   *
+   * @param prioritySubjects the regular expressions matching priority subjects
+   * @return the messaging configuration
+   */
+  public MessagingConfig setPrioritySubjects(List<String> prioritySubjects) {
+    this.prioritySubjects = prioritySubjects;
+    return this;
+  }
+
+  /**
+   * Returns whether backpressure is enabled.
+   *
+   * @return whether backpressure is enabled
+   */
+  public boolean isBackpressureEnabled() {
+    return backpressureEnabled;
+  }
+
+  /**
+   * Sets whether backpressure is enabled.
+   * <p>
+   * When backpressure is enabled, messages sent on a connection whose outbound buffer has exceeded its high water
+   * mark fail with a {@link MessagingException.Backpressure} exception rather than being buffered. Messages sent
+   * on priority connections are never rejected.
+   *
+   * @param backpressureEnabled whether backpressure is enabled
+   * @return the messaging configuration
+   */
+  public MessagingConfig setBackpressureEnabled(boolean backpressureEnabled) {
+    this.backpressureEnabled = backpressureEnabled;
+    return this;
+  }
+
+  /**
+   * Returns whether outbound message batching is enabled.
+   *
+   * @return whether outbound message batching is enabled
+   */
+  public boolean isBatchingEnabled() {
+    return batchingEnabled;
+  }
+
+  /**
+   * Sets whether outbound message batching is enabled.
+   *
+   * @param batchingEnabled whether outbound message batching is enabled
+   * @return the messaging configuration
+   */
+  public MessagingConfig setBatchingEnabled(boolean batchingEnabled) {
+    this.batchingEnabled = batchingEnabled;
+    return this;
+  }
+
+  /**
+   * Returns the maximum number of bytes to write to a connection before flushing a batch.
+   *
+   * @return the maximum batch size in bytes
+   */
+  public int getMaxBatchSize() {
+    return maxBatchSize;
+  }
+
+  /**
+   * Sets the maximum number of bytes to write to a connection before flushing a batch.
+   *
+   * @param maxBatchSize the maximum batch size in bytes
+   * @return the messaging configuration
+   */
+  public MessagingConfig setMaxBatchSize(int maxBatchSize) {
+    this.maxBatchSize = maxBatchSize;
+    return this;
+  }
+
+  /**
+   * Returns the network transport type.
+   *
+   * @return the network transport type
+   */
+  public TransportType getTransportType() {
+    return transportType;
+  }
+
+  /**
+   * Sets the network transport type.
+   *
+   * @param transportType the network transport type
+   * @return the messaging configuration
+   */
+  public MessagingConfig setTransportType(TransportType transportType) {
+    this.transportType = transportType;
+    return this;
+  }
+
+  /**
+   * Returns the number of event loop threads used for outbound connections.
+   *
+   * @return the number of client event loop threads, or {@code 0} to use the Netty default
+   */
+  public int getClientThreads() {
+    return clientThreads;
+  }
+
+  /**
+   * Sets the number of event loop threads used for outbound connections.
+   *
+   * @param clientThreads the number of client event loop threads, or {@code 0} to use the Netty default
+   * @return the messaging configuration
+   */
+  public MessagingConfig setClientThreads(int clientThreads) {
+    this.clientThreads = clientThreads;
+    return this;
+  }
+
+  /**
+   * Returns the number of event loop threads used to accept and service inbound connections.
+   *
+   * @return the number of server event loop threads, or {@code 0} to use the Netty default
+   */
+  public int getServerThreads() {
+    return serverThreads;
+  }
+
+  /**
+   * Sets the number of event loop threads used to accept and service inbound connections.
+   *
+   * @param serverThreads the number of server event loop threads, or {@code 0} to use the Netty default
+   * @return the messaging configuration
+   */
+  public MessagingConfig setServerThreads(int serverThreads) {
+    this.serverThreads = serverThreads;
+    return this;
+  }
+
+  /**
+   * Returns whether {@code TCP_NODELAY} is enabled on connections.
+   *
+   * @return whether {@code TCP_NODELAY} is enabled
+   */
+  public boolean isTcpNoDelay() {
+    return tcpNoDelay;
+  }
+
+  /**
+   * Sets whether {@code TCP_NODELAY} is enabled on connections.
+   *
+   * @param tcpNoDelay whether {@code TCP_NODELAY} is enabled
+   * @return the messaging configuration
+   */
+  public MessagingConfig setTcpNoDelay(boolean tcpNoDelay) {
+    this.tcpNoDelay = tcpNoDelay;
+    return this;
+  }
+
+  /**
+   * Returns whether {@code TCP_QUICKACK} is enabled on connections.
+   * <p>
+   * This option is only supported by the epoll transport and is ignored by other transports.
+   *
+   * @return whether {@code TCP_QUICKACK} is enabled
+   */
+  public boolean isTcpQuickAck() {
+    return tcpQuickAck;
+  }
+
+  /**
+   * Sets whether {@code TCP_QUICKACK} is enabled on connections.
+   * <p>
+   * This option is only supported by the epoll transport and is ignored by other transports.
+   *
+   * @param tcpQuickAck whether {@code TCP_QUICKACK} is enabled
+   * @return the messaging configuration
+   */
+  public MessagingConfig setTcpQuickAck(boolean tcpQuickAck) {
+    this.tcpQuickAck = tcpQuickAck;
+    return this;
+  }
+
+  /**
+   * Returns the {@code SO_BUSY_POLL} timeout for connections.
+   * <p>
+   * This option is only supported by the epoll transport and is ignored by other transports.
+   *
+   * @return the busy poll timeout in microseconds, or {@code 0} to disable busy polling
+   */
+  public int getBusyPollMicros() {
+    return busyPollMicros;
+  }
+
+  /**
+   * Sets the {@code SO_BUSY_POLL} timeout for connections.
+   * <p>
+   * This option is only supported by the epoll transport and is ignored by other transports.
+   *
+   * @param busyPollMicros the busy poll timeout in microseconds, or {@code 0} to disable busy polling
+   * @return the messaging configuration
+   */
+  public MessagingConfig setBusyPollMicros(int busyPollMicros) {
+    this.busyPollMicros = busyPollMicros;
+    return this;
+  }
+
+  /**
+   * Returns whether the epoll transport uses edge-triggered mode.
+   * <p>
+   * This option is only supported by the epoll transport and is ignored by other transports.
+   *
+   * @return whether edge-triggered mode is enabled, otherwise level-triggered mode is used
+   */
+  public boolean isEdgeTriggered() {
+    return edgeTriggered;
+  }
+
+  /**
+   * Sets whether the epoll transport uses edge-triggered mode.
+   * <p>
+   * This option is only supported by the epoll transport and is ignored by other transports.
+   *
+   * @param edgeTriggered whether edge-triggered mode is enabled, otherwise level-triggered mode is used
+   * @return the messaging configuration
+   */
+  public MessagingConfig setEdgeTriggered(boolean edgeTriggered) {
+    this.edgeTriggered = edgeTriggered;
+    return this;
+  }
+
+  /**
+   * Returns whether connections use a pooled buffer allocator.
+   *
+   * @return whether connections use a pooled buffer allocator
+   */
+  public boolean isPooledAllocator() {
+    return pooledAllocator;
+  }
+
+  /**
+   * Sets whether connections use a pooled buffer allocator.
+   *
+   * @param pooledAllocator whether connections use a pooled buffer allocator
+   * @return the messaging configuration
+   */
+  public MessagingConfig setPooledAllocator(boolean pooledAllocator) {
+    this.pooledAllocator = pooledAllocator;
+    return this;
+  }
+
+  /**
+   * Returns whether the buffer allocator prefers direct buffers.
+   *
+   * @return whether the buffer allocator prefers direct buffers
+   */
+  public boolean isDirectBuffers() {
+    return directBuffers;
+  }
+
+  /**
+   * Sets whether the buffer allocator prefers direct buffers.
+   *
+   * @param directBuffers whether the buffer allocator prefers direct buffers
+   * @return the messaging configuration
+   */
+  public MessagingConfig setDirectBuffers(boolean directBuffers) {
+    this.directBuffers = directBuffers;
+    return this;
+  }
+
+  /**
+   * Returns whether request subjects are interned per connection.
+   *
+   * @return whether request subjects are interned per connection
+   */
+  public boolean isSubjectInterningEnabled() {
+    return subjectInterningEnabled;
+  }
+
+  /**
+   * Sets whether request subjects are interned per connection.
+   * <p>
+   * When enabled, each subject is sent once per connection and later requests carry only a short subject ID. The
+   * interned format is announced in the connection header, so members with interning enabled can still receive
+   * requests from members that have it disabled. Members running versions without subject interning cannot decode
+   * the connection header or the interned format, however, so all members must be upgraded before interning is
+   * enabled on any of them.
+   *
+   * @param subjectInterningEnabled whether request subjects are interned per connection
+   * @return the messaging configuration
+   */
+  public MessagingConfig setSubjectInterningEnabled(boolean subjectInterningEnabled) {
+    this.subjectInterningEnabled = subjectInterningEnabled;
+    return this;
+  }
+
+  /**
+   * Returns whether message compression is enabled.
+   *
+   * @return whether message compression is enabled
+   */
+  public boolean isCompressionEnabled() {
+    return compressionEnabled;
+  }
+
+  /**
+   * Sets whether message compression is enabled.
+   * <p>
+   * Compression is disabled by default. When enabled, support for compression is advertised in the connection
+   * header, and payloads are only compressed on connections to peers that have also enabled compression. Members
+   * running versions without compression support cannot decode the connection header once compression is enabled,
+   * however, so all members must be upgraded before compression is enabled on any of them.
+   *
+   * @param compressionEnabled whether message compression is enabled
+   * @return the messaging configuration
+   */
+  public MessagingConfig setCompressionEnabled(boolean compressionEnabled) {
+    this.compressionEnabled = compressionEnabled;
+    return this;
+  }
+
+  /**
+   * Returns the minimum payload size in bytes above which payloads are compressed.
+   *
+   * @return the compression threshold in bytes
+   */
+  public int getCompressionThreshold() {
+    return compressionThreshold;
+  }
+
+  /**
+   * Sets the minimum payload size in bytes above which payloads are compressed.
+   *
+   * @param compressionThreshold the compression threshold in bytes
+   * @return the messaging configuration
+   */
+  public MessagingConfig setCompressionThreshold(int compressionThreshold) {
+    this.compressionThreshold = compressionThreshold;
+    return this;
+  }
+
+  /**
+   * Returns the fan-out of the relay tree used to broadcast cluster events.
+   *
+   * @return the broadcast fan-out, or {@code 0} if events are broadcast directly to all subscribers
+   */
+  public int getBroadcastFanout() {
+    return broadcastFanout;
+  }
+
+  /**
+   * Sets the fan-out of the relay tree used to broadcast cluster events.
+   * <p>
+   * When the fan-out is positive and a topic has more subscriber nodes than the fan-out, events are sent by the
+   * publisher to at most {@code broadcastFanout} nodes which relay them on to the remaining subscribers. This reduces
+   * the cost of publishing to a large number of nodes from linear to logarithmic at the expense of additional hops.
+   *
+   * @param broadcastFanout the broadcast fan-out, or {@code 0} to broadcast events directly to all subscribers
+   * @return the messaging configuration
+   */
+  public MessagingConfig setBroadcastFanout(int broadcastFanout) {
+    this.broadcastFanout = broadcastFanout;
+    return this;
+  }
+}
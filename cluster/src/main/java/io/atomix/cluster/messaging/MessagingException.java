@@ -64,4 +64,13 @@ public class MessagingException extends IOException {
       super("Failed to process message due to invalid message structure");
     }
   }
+
+  /**
+   * Exception indicating a message was rejected because the connection's outbound buffer is full.
+   */
+  public static class Backpressure extends MessagingException {
+    public Backpressure() {
+      super("Connection outbound buffer is full");
+    }
+  }
 }
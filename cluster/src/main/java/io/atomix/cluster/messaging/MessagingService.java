@@ -16,6 +16,9 @@
 package io.atomix.cluster.messaging;
 
 import io.atomix.utils.net.Address;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
 
 import java.time.Duration;
 import java.util.concurrent.CompletableFuture;
@@ -116,6 +119,98 @@ public interface MessagingService {
    */
   void registerHandler(String type, BiFunction<Address, byte[], CompletableFuture<byte[]>> handler);
 
+  /**
+   * Sends a message asynchronously to the specified communication address using a buffer payload.
+   * <p>
+   * Ownership of the payload buffer is transferred to the messaging service, which releases the buffer once the
+   * message has been written.
+   *
+   * @param address address to send the message to.
+   * @param type    type of message.
+   * @param payload message payload buffer.
+   * @return future that is completed when the message is sent
+   */
+  default CompletableFuture<Void> sendBufferAsync(Address address, String type, ByteBuf payload) {
+    byte[] bytes;
+    try {
+      bytes = ByteBufUtil.getBytes(payload);
+    } finally {
+      payload.release();
+    }
+    return sendAsync(address, type, bytes);
+  }
+
+  /**
+   * Sends a message asynchronously using a buffer payload and expects a buffer response.
+   * <p>
+   * Ownership of the payload buffer is transferred to the messaging service, and ownership of the response buffer
+   * is transferred to the caller, which must release the response buffer once it's done with it.
+   *
+   * @param address address to send the message to.
+   * @param type    type of message.
+   * @param payload message payload buffer.
+   * @return a response future
+   */
+  default CompletableFuture<ByteBuf> sendAndReceiveBuffer(Address address, String type, ByteBuf payload) {
+    return sendAndReceiveBuffer(address, type, payload, null);
+  }
+
+  /**
+   * Sends a message asynchronously using a buffer payload and expects a buffer response.
+   * <p>
+   * Ownership of the payload buffer is transferred to the messaging service, and ownership of the response buffer
+   * is transferred to the caller, which must release the response buffer once it's done with it.
+   *
+   * @param address address to send the message to.
+   * @param type    type of message.
+   * @param payload message payload buffer.
+   * @param timeout response timeout
+   * @return a response future
+   */
+  default CompletableFuture<ByteBuf> sendAndReceiveBuffer(Address address, String type, ByteBuf payload, Duration timeout) {
+    byte[] bytes;
+    try {
+      bytes = ByteBufUtil.getBytes(payload);
+    } finally {
+      payload.release();
+    }
+    return sendAndReceive(address, type, bytes, timeout).thenApply(Unpooled::wrappedBuffer);
+  }
+
+  /**
+   * Registers a new message handler for message type that consumes buffer payloads.
+   * <p>
+   * Ownership of the payload buffer is transferred to the handler, which must release the buffer.
+   *
+   * @param type     message type.
+   * @param handler  message handler
+   * @param executor executor to use for running message handler logic.
+   */
+  default void registerBufferHandler(String type, BiConsumer<Address, ByteBuf> handler, Executor executor) {
+    registerHandler(type, (BiConsumer<Address, byte[]>) (address, payload) ->
+        handler.accept(address, Unpooled.wrappedBuffer(payload)), executor);
+  }
+
+  /**
+   * Registers a new message handler for message type that consumes and produces buffer payloads.
+   * <p>
+   * Ownership of the payload buffer is transferred to the handler, which must release the buffer. Ownership of the
+   * response buffer is transferred to the messaging service.
+   *
+   * @param type    message type.
+   * @param handler message handler
+   */
+  default void registerBufferHandler(String type, BiFunction<Address, ByteBuf, CompletableFuture<ByteBuf>> handler) {
+    registerHandler(type, (BiFunction<Address, byte[], CompletableFuture<byte[]>>) (address, payload) ->
+        handler.apply(address, Unpooled.wrappedBuffer(payload)).thenApply(response -> {
+          try {
+            return ByteBufUtil.getBytes(response);
+          } finally {
+            response.release();
+          }
+        }));
+  }
+
   /**
    * Unregister current handler, if one exists for message type.
    *
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.cluster.messaging.impl;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+/**
+ * Message compression statistics for a single subject.
+ */
+public final class CompressionStats {
+  private final LongAdder messageCount = new LongAdder();
+  private final LongAdder uncompressedBytes = new LongAdder();
+  private final LongAdder compressedBytes = new LongAdder();
+  private final LongAdder compressionTime = new LongAdder();
+
+  /**
+   * Records the compression of a single message payload.
+   *
+   * @param uncompressedLength the length of the payload before compression
+   * @param compressedLength   the length of the payload after compression
+   * @param time               the time taken to compress the payload in nanoseconds
+   */
+  void record(int uncompressedLength, int compressedLength, long time) {
+    messageCount.increment();
+    uncompressedBytes.add(uncompressedLength);
+    compressedBytes.add(compressedLength);
+    compressionTime.add(time);
+  }
+
+  /**
+   * Returns the number of compressed messages.
+   *
+   * @return the number of compressed messages
+   */
+  public long getMessageCount() {
+    return messageCount.sum();
+  }
+
+  /**
+   * Returns the total number of payload bytes before compression.
+   *
+   * @return the total number of payload bytes before compression
+   */
+  public long getUncompressedBytes() {
+    return uncompressedBytes.sum();
+  }
+
+  /**
+   * Returns the total number of payload bytes after compression.
+   *
+   * @return the total number of payload bytes after compression
+   */
+  public long getCompressedBytes() {
+    return compressedBytes.sum();
+  }
+
+  /**
+   * Returns the ratio of uncompressed to compressed bytes.
+   *
+   * @return the compression ratio
+   */
+  public double getCompressionRatio() {
+    long compressedBytes = getCompressedBytes();
+    return compressedBytes > 0 ? getUncompressedBytes() / (double) compressedBytes : 0;
+  }
+
+  /**
+   * Returns the total time spent compressing payloads.
+   *
+   * @return the total time spent compressing payloads
+   */
+  public Duration getCompressionTime() {
+    return Duration.ofNanos(compressionTime.sum());
+  }
+
+  @Override
+  public String toString() {
+    return toStringHelper(this)
+        .add("messageCount", getMessageCount())
+        .add("uncompressedBytes", getUncompressedBytes())
+        .add("compressedBytes", getCompressedBytes())
+        .add("compressionRatio", getCompressionRatio())
+        .add("compressionTime", getCompressionTime())
+        .toString();
+  }
+}
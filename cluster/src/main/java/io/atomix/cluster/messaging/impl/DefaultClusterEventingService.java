@@ -23,6 +23,7 @@ import io.atomix.cluster.Member;
 import io.atomix.cluster.MemberId;
 import io.atomix.cluster.messaging.ClusterEventingService;
 import io.atomix.cluster.messaging.ManagedClusterEventingService;
+import io.atomix.cluster.messaging.MessagingConfig;
 import io.atomix.cluster.messaging.Subscription;
 import io.atomix.cluster.messaging.MessagingException;
 import io.atomix.cluster.messaging.MessagingService;
@@ -41,9 +42,11 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
@@ -55,13 +58,32 @@ import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.BiFunction;
 import java.util.function.Consumer;
 import java.util.function.Function;
+import java.util.function.LongFunction;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static io.atomix.utils.concurrent.Threads.namedThreads;
 
 /**
  * Cluster event service.
+ * <p>
+ * Subscriptions are replicated using version vector based anti-entropy. Every change to the local subscriptions
+ * is assigned a version from the local logical clock, and each node tracks the highest version it has received
+ * from every other node. Gossip exchanges carry only the subscriptions the peer has not yet seen according to the
+ * last version vector received from it, and local changes made within a short window are pushed to peers in a
+ * single batch.
+ * <p>
+ * When a broadcast fan-out is configured and a topic has more subscriber nodes than the fan-out, broadcasts are
+ * disseminated through a relay tree rather than sent by the publisher to every subscriber node. The publisher
+ * encodes the event once together with a randomly ordered list of the subscriber nodes, which forms a complete
+ * tree of the configured degree rooted at the publisher. Each node forwards the encoded message unchanged to its
+ * children in the tree, so the publisher only sends to as many nodes as the fan-out.
+ * <p>
+ * Every hop in the relay tree is acknowledged. If a node does not acknowledge the message within a short timeout,
+ * because it has crashed, cannot be reached or no longer handles the topic, its children are adopted by its parent.
+ * The children of a node that acknowledges too late may therefore receive the message twice.
  */
 public class DefaultClusterEventingService implements ManagedClusterEventingService {
   private static final Logger LOGGER = LoggerFactory.getLogger(DefaultClusterEventingService.class);
@@ -73,6 +95,7 @@ public class DefaultClusterEventingService implements ManagedClusterEventingServ
       .register(LogicalTimestamp.class)
       .register(WallClockTimestamp.class)
       .register(InternalSubscriptionInfo.class)
+      .register(GossipMessage.class)
       .register(InternalMessage.class)
       .register(InternalMessage.Type.class)
       .build());
@@ -80,32 +103,123 @@ public class DefaultClusterEventingService implements ManagedClusterEventingServ
   private static final String GOSSIP_MESSAGE_SUBJECT = "ClusterEventingService-update";
 
   private static final long GOSSIP_INTERVAL_MILLIS = 1000;
+  private static final long UPDATE_BATCH_MILLIS = 10;
   private static final long TOMBSTONE_EXPIRATION_MILLIS = 1000 * 60;
+  private static final Duration RELAY_TIMEOUT = Duration.ofMillis(500);
 
   private final ClusterMembershipService membershipService;
   private final MessagingService messagingService;
   private final MemberId localMemberId;
-  private final AtomicLong logicalTime = new AtomicLong();
+  // Start the logical clock at the wall clock time so that versions remain monotonic across restarts.
+  private final AtomicLong logicalTime = new AtomicLong(System.currentTimeMillis());
   private ScheduledExecutorService gossipExecutor;
-  private final Map<MemberId, Long> updateTimes = Maps.newConcurrentMap();
+  private final Map<MemberId, Long> versions = Maps.newConcurrentMap();
+  private final Map<MemberId, Map<MemberId, Long>> peerVersions = Maps.newConcurrentMap();
+  private final List<CompletableFuture<Void>> pendingUpdates = new ArrayList<>();
   private final Map<String, InternalTopic> topics = Maps.newConcurrentMap();
   private final AtomicBoolean started = new AtomicBoolean();
+  private final int broadcastFanout;
+  private final Map<String, DeliveryStats> deliveryStats = Maps.newConcurrentMap();
 
   public DefaultClusterEventingService(ClusterMembershipService membershipService, MessagingService messagingService) {
+    this(membershipService, messagingService, new MessagingConfig());
+  }
+
+  public DefaultClusterEventingService(
+      ClusterMembershipService membershipService, MessagingService messagingService, MessagingConfig config) {
+    checkArgument(config.getBroadcastFanout() >= 0, "broadcastFanout cannot be negative");
     this.membershipService = membershipService;
     this.messagingService = messagingService;
     this.localMemberId = membershipService.getLocalMember().id();
+    this.broadcastFanout = config.getBroadcastFanout();
+  }
+
+  /**
+   * Returns event delivery statistics by topic.
+   * <p>
+   * Statistics are only recorded for broadcast events delivered to the local node.
+   *
+   * @return event delivery statistics by topic
+   */
+  public Map<String, DeliveryStats> getDeliveryStats() {
+    return Collections.unmodifiableMap(deliveryStats);
   }
 
   @Override
   public <M> void broadcast(String topic, M message, Function<M, byte[]> encoder) {
-    byte[] payload = SERIALIZER.encode(new InternalMessage(InternalMessage.Type.ALL, encoder.apply(message)));
-    getSubscriberNodes(topic).forEach(memberId -> {
-      Member member = membershipService.getMember(memberId);
-      if (member != null && member.getState() == Member.State.ACTIVE) {
-        messagingService.sendAsync(member.address(), topic, payload);
+    List<MemberId> members = getSubscriberNodes(topic)
+        .filter(memberId -> {
+          Member member = membershipService.getMember(memberId);
+          return member != null && member.getState() == Member.State.ACTIVE;
+        })
+        .collect(Collectors.toList());
+
+    if (broadcastFanout > 0 && members.size() > broadcastFanout) {
+      boolean localSubscriber = members.remove(localMemberId);
+      Collections.shuffle(members);
+
+      List<MemberId> tree = new ArrayList<>(members.size() + 1);
+      tree.add(localMemberId);
+      tree.addAll(members);
+      InternalMessage internalMessage = new InternalMessage(
+          InternalMessage.Type.TREE, encoder.apply(message), broadcastFanout, tree);
+      byte[] payload = SERIALIZER.encode(internalMessage);
+      if (localSubscriber) {
+        messagingService.sendAsync(membershipService.getLocalMember().address(), topic, payload);
       }
-    });
+      relayToChildren(topic, internalMessage, 0, payload);
+    } else {
+      byte[] payload = SERIALIZER.encode(new InternalMessage(InternalMessage.Type.ALL, encoder.apply(message)));
+      members.forEach(memberId -> {
+        Member member = membershipService.getMember(memberId);
+        if (member != null) {
+          messagingService.sendAsync(member.address(), topic, payload);
+        }
+      });
+    }
+  }
+
+  /**
+   * Relays an encoded broadcast to the children of the given node in the message's relay tree.
+   *
+   * @param topic the topic to which the message was published
+   * @param message the decoded message
+   * @param index the index of the node in the relay tree
+   * @param payload the encoded message
+   */
+  private void relayToChildren(String topic, InternalMessage message, int index, byte[] payload) {
+    List<MemberId> members = message.members();
+    long firstChild = (long) index * message.fanout() + 1;
+    long lastChild = Math.min(firstChild + message.fanout(), members.size());
+    for (long child = firstChild; child < lastChild; child++) {
+      relay(topic, message, (int) child, payload);
+    }
+  }
+
+  /**
+   * Relays an encoded broadcast to the given node in the message's relay tree.
+   * <p>
+   * If the node is not active or does not acknowledge the message, the message is relayed directly to the node's
+   * children.
+   *
+   * @param topic the topic to which the message was published
+   * @param message the decoded message
+   * @param index the index of the node in the relay tree
+   * @param payload the encoded message
+   */
+  private void relay(String topic, InternalMessage message, int index, byte[] payload) {
+    Member member = membershipService.getMember(message.members().get(index));
+    if (member != null && member.getState() == Member.State.ACTIVE) {
+      deliveryStats.computeIfAbsent(topic, t -> new DeliveryStats()).recordRelay();
+      messagingService.sendAndReceive(member.address(), topic, payload, RELAY_TIMEOUT).whenComplete((result, error) -> {
+        if (error != null) {
+          LOGGER.debug("Failed to relay message to {}, relaying to its children", member.id(), error);
+          relayToChildren(topic, message, index, payload);
+        }
+      });
+    } else {
+      relayToChildren(topic, message, index, payload);
+    }
   }
 
   @Override
@@ -201,35 +315,66 @@ public class DefaultClusterEventingService implements ManagedClusterEventingServ
   }
 
   /**
-   * Handles a collection of subscription updates received via the gossip protocol.
+   * Applies a change to the local subscriptions.
+   * <p>
+   * Local changes are serialized so that the local version is only advanced once every change up to that version
+   * is visible to the gossip protocol.
    *
-   * @param subscriptions a collection of subscriptions provided by the sender
+   * @param update the update to apply with the version of the change
+   * @return the result of the update
    */
-  private void update(Collection<InternalSubscriptionInfo> subscriptions) {
-    for (InternalSubscriptionInfo subscription : subscriptions) {
-      InternalTopic topic = topics.computeIfAbsent(subscription.topic, InternalTopic::new);
-      InternalSubscriptionInfo matchingSubscription = topic.remoteSubscriptions().stream()
-          .filter(s -> s.memberId().equals(subscription.memberId()) && s.logicalTimestamp().equals(subscription.logicalTimestamp()))
-          .findFirst()
-          .orElse(null);
-      if (matchingSubscription == null) {
-        topic.addRemoteSubscription(subscription);
-      } else if (subscription.isTombstone()) {
-        topic.removeRemoteSubscription(subscription);
+  private synchronized <T> T updateLocal(LongFunction<T> update) {
+    long version = logicalTime.incrementAndGet();
+    T result = update.apply(version);
+    versions.put(localMemberId, version);
+    return result;
+  }
+
+  /**
+   * Returns a gossip message containing the subscriptions changed since the given version vector.
+   *
+   * @param base the version vector of the peer to which the message will be sent
+   * @return the gossip message
+   */
+  private GossipMessage getUpdates(Map<MemberId, Long> base) {
+    // Read the version vector before the subscriptions to ensure every change it covers is included.
+    Map<MemberId, Long> versions = new HashMap<>(this.versions);
+    List<InternalSubscriptionInfo> subscriptions = topics.values()
+        .stream()
+        .flatMap(t -> t.remoteSubscriptions().stream())
+        .filter(subscription -> subscription.version() > base.getOrDefault(subscription.memberId(), 0L))
+        .collect(Collectors.toList());
+    return new GossipMessage(localMemberId, versions, new HashMap<>(base), subscriptions);
+  }
+
+  /**
+   * Handles a gossip message received from a peer.
+   * <p>
+   * The version of a member is only advanced if the message was computed from a version no newer than the local
+   * version for that member. Otherwise the message may be missing changes the local node has not seen, and they
+   * will be recovered by a later anti-entropy round.
+   *
+   * @param message the gossip message
+   */
+  private void update(GossipMessage message) {
+    for (InternalSubscriptionInfo subscription : message.subscriptions()) {
+      if (!subscription.memberId().equals(localMemberId)) {
+        topics.computeIfAbsent(subscription.topic(), InternalTopic::new).updateRemoteSubscription(subscription);
       }
     }
+    message.versions().forEach((memberId, version) -> {
+      if (!memberId.equals(localMemberId)
+          && message.base().getOrDefault(memberId, 0L) <= versions.getOrDefault(memberId, 0L)) {
+        versions.merge(memberId, version, Math::max);
+      }
+    });
   }
 
   /**
    * Sends a gossip message to an active peer.
    */
   private void gossip() {
-    List<Member> members = membershipService.getMembers()
-        .stream()
-        .filter(node -> !localMemberId.equals(node.id()))
-        .filter(node -> node.getState() == Member.State.ACTIVE)
-        .collect(Collectors.toList());
-
+    List<Member> members = getActivePeers();
     if (!members.isEmpty()) {
       Collections.shuffle(members);
       Member member = members.get(0);
@@ -238,53 +383,114 @@ public class DefaultClusterEventingService implements ManagedClusterEventingServ
   }
 
   /**
-   * Updates all active peers with a given subscription.
+   * Returns the list of active peers.
+   *
+   * @return the list of active peers
    */
-  private CompletableFuture<Void> updateNodes() {
-    List<CompletableFuture<Void>> futures = membershipService.getMembers()
+  private List<Member> getActivePeers() {
+    return membershipService.getMembers()
         .stream()
         .filter(node -> !localMemberId.equals(node.id()))
-        .map(this::updateNode)
+        .filter(node -> node.getState() == Member.State.ACTIVE)
         .collect(Collectors.toList());
-    return CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()]));
   }
 
   /**
-   * Sends an update to the given node.
+   * Schedules an update of all active peers with the local subscription changes.
+   * <p>
+   * Changes made within {@link #UPDATE_BATCH_MILLIS} of one another are sent to peers in a single update.
    *
-   * @param member the node to which to send the update
+   * @return a future to be completed once the change has been sent to all active peers
    */
-  private CompletableFuture<Void> updateNode(Member member) {
-    long updateTime = System.currentTimeMillis();
-    long lastUpdateTime = updateTimes.getOrDefault(member.id(), 0L);
+  private CompletableFuture<Void> scheduleUpdate() {
+    CompletableFuture<Void> future = new CompletableFuture<>();
+    synchronized (pendingUpdates) {
+      ScheduledExecutorService gossipExecutor = this.gossipExecutor;
+      if (!started.get() || gossipExecutor == null) {
+        // The change will be propagated by anti-entropy once the service is started.
+        future.complete(null);
+        return future;
+      }
+      pendingUpdates.add(future);
+      if (pendingUpdates.size() == 1) {
+        gossipExecutor.schedule(this::updateNodes, UPDATE_BATCH_MILLIS, TimeUnit.MILLISECONDS);
+      }
+    }
+    return future;
+  }
+
+  /**
+   * Updates all active peers with the pending subscription changes.
+   */
+  private void updateNodes() {
+    List<CompletableFuture<Void>> updates;
+    synchronized (pendingUpdates) {
+      updates = new ArrayList<>(pendingUpdates);
+      pendingUpdates.clear();
+    }
 
-    Collection<InternalSubscriptionInfo> subscriptions = topics.values()
+    List<CompletableFuture<Void>> futures = getActivePeers()
         .stream()
-        .flatMap(t -> t.remoteSubscriptions().stream().filter(subscriber -> subscriber.timestamp().unixTimestamp() >= lastUpdateTime))
+        .map(this::updateNode)
         .collect(Collectors.toList());
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()]))
+        .whenComplete((result, error) -> updates.forEach(future -> future.complete(null)));
+  }
 
+  /**
+   * Exchanges updates with the given node.
+   * <p>
+   * The request carries the local version vector and the changes the node has not yet seen according to the last
+   * version vector received from it. The node responds with the changes the local node has not yet seen.
+   *
+   * @param member the node with which to exchange updates
+   */
+  private CompletableFuture<Void> updateNode(Member member) {
+    GossipMessage message = getUpdates(peerVersions.getOrDefault(member.id(), Collections.emptyMap()));
     CompletableFuture<Void> future = new CompletableFuture<>();
-    messagingService.sendAndReceive(member.address(), GOSSIP_MESSAGE_SUBJECT, SERIALIZER.encode(subscriptions))
-        .whenComplete((result, error) -> {
+    messagingService.sendAndReceive(member.address(), GOSSIP_MESSAGE_SUBJECT, SERIALIZER.encode(message))
+        .whenCompleteAsync((response, error) -> {
           if (error == null) {
-            updateTimes.put(member.id(), updateTime);
+            GossipMessage reply = SERIALIZER.decode(response);
+            peerVersions.put(reply.memberId(), reply.versions());
+            update(reply);
           }
           future.complete(null);
-        });
+        }, gossipExecutor);
     return future;
   }
 
+  /**
+   * Handles a gossip message from a peer, returning the changes the peer has not yet seen.
+   *
+   * @param message the gossip message
+   * @return the reply to the peer
+   */
+  private GossipMessage handleUpdate(GossipMessage message) {
+    update(message);
+    peerVersions.put(message.memberId(), message.versions());
+    return getUpdates(message.versions());
+  }
+
   /**
    * Purges tombstones from the subscription list.
+   * <p>
+   * A tombstone is purged once it has expired and the version vectors received from all known peers show that
+   * every peer has seen it.
    */
   private void purgeTombstones() {
-    long minTombstoneTime = membershipService.getMembers()
+    Set<MemberId> memberIds = membershipService.getMembers()
         .stream()
-        .map(node -> updateTimes.getOrDefault(node.id(), 0L))
-        .reduce(Math::min)
-        .orElse(0L);
+        .map(Member::id)
+        .filter(memberId -> !localMemberId.equals(memberId))
+        .collect(Collectors.toSet());
+    peerVersions.keySet().retainAll(memberIds);
+
+    long minTombstoneTime = System.currentTimeMillis() - TOMBSTONE_EXPIRATION_MILLIS;
     for (InternalTopic topic : topics.values()) {
-      topic.purgeTombstones(minTombstoneTime);
+      topic.purgeTombstones(subscription -> subscription.timestamp().unixTimestamp() < minTombstoneTime
+          && memberIds.stream().allMatch(memberId -> peerVersions.getOrDefault(memberId, Collections.emptyMap())
+          .getOrDefault(subscription.memberId(), 0L) >= subscription.version()));
     }
   }
 
@@ -303,10 +509,8 @@ public class DefaultClusterEventingService implements ManagedClusterEventingServ
           TOMBSTONE_EXPIRATION_MILLIS,
           TOMBSTONE_EXPIRATION_MILLIS,
           TimeUnit.MILLISECONDS);
-      messagingService.registerHandler(GOSSIP_MESSAGE_SUBJECT, (address, payload) -> {
-        update(SERIALIZER.decode(payload));
-        return new byte[0];
-      }, gossipExecutor);
+      messagingService.registerHandler(GOSSIP_MESSAGE_SUBJECT, (BiFunction<Address, byte[], byte[]>) (address, payload) ->
+          SERIALIZER.encode(handleUpdate(SERIALIZER.decode(payload))), gossipExecutor);
       LOGGER.info("Started");
     }
     return CompletableFuture.completedFuture(this);
@@ -323,6 +527,10 @@ public class DefaultClusterEventingService implements ManagedClusterEventingServ
       if (gossipExecutor != null) {
         gossipExecutor.shutdown();
       }
+      synchronized (pendingUpdates) {
+        pendingUpdates.forEach(future -> future.complete(null));
+        pendingUpdates.clear();
+      }
       LOGGER.info("Stopped");
     }
     return CompletableFuture.completedFuture(null);
@@ -335,14 +543,25 @@ public class DefaultClusterEventingService implements ManagedClusterEventingServ
     private enum Type {
       DIRECT,
       ALL,
+      TREE,
     }
 
     private final Type type;
     private final byte[] payload;
+    private final long timestamp;
+    private final int fanout;
+    private final List<MemberId> members;
 
     InternalMessage(Type type, byte[] payload) {
+      this(type, payload, 0, Collections.emptyList());
+    }
+
+    InternalMessage(Type type, byte[] payload, int fanout, List<MemberId> members) {
       this.type = type;
       this.payload = payload;
+      this.timestamp = System.currentTimeMillis();
+      this.fanout = fanout;
+      this.members = members;
     }
 
     /**
@@ -362,6 +581,33 @@ public class DefaultClusterEventingService implements ManagedClusterEventingServ
     public byte[] payload() {
       return payload;
     }
+
+    /**
+     * Returns the wall clock time at which the message was published.
+     *
+     * @return the wall clock time at which the message was published
+     */
+    public long timestamp() {
+      return timestamp;
+    }
+
+    /**
+     * Returns the degree of the relay tree.
+     *
+     * @return the degree of the relay tree
+     */
+    public int fanout() {
+      return fanout;
+    }
+
+    /**
+     * Returns the relay tree members in breadth-first order, starting with the publisher.
+     *
+     * @return the relay tree members
+     */
+    public List<MemberId> members() {
+      return members;
+    }
   }
 
   /**
@@ -369,12 +615,13 @@ public class DefaultClusterEventingService implements ManagedClusterEventingServ
    */
   private class InternalTopic {
     private final String topic;
-    private final InternalSubscriber subscribers = new InternalSubscriber();
+    private final InternalSubscriber subscribers;
     private final List<InternalSubscriptionInfo> subscriptions = Lists.newCopyOnWriteArrayList();
     private TopicIterator iterator;
 
     InternalTopic(String topic) {
       this.topic = topic;
+      this.subscribers = new InternalSubscriber(topic);
     }
 
     /**
@@ -409,7 +656,7 @@ public class DefaultClusterEventingService implements ManagedClusterEventingServ
      */
     <M, R> CompletableFuture<Subscription> subscribe(
         Function<byte[], M> decoder, Function<M, R> handler, Function<R, byte[]> encoder, Executor executor) {
-      return addLocalSubscription(new InternalSubscription(this, payload -> {
+      return addLocalSubscription(payload -> {
         CompletableFuture<byte[]> future = new CompletableFuture<>();
         executor.execute(() -> {
           try {
@@ -419,7 +666,7 @@ public class DefaultClusterEventingService implements ManagedClusterEventingServ
           }
         });
         return future;
-      }));
+      });
     }
 
     /**
@@ -427,9 +674,9 @@ public class DefaultClusterEventingService implements ManagedClusterEventingServ
      */
     <M, R> CompletableFuture<Subscription> subscribe(
         Function<byte[], M> decoder, Function<M, CompletableFuture<R>> handler, Function<R, byte[]> encoder) {
-      return addLocalSubscription(new InternalSubscription(this, payload -> {
+      return addLocalSubscription(payload -> {
         return handler.apply(decoder.apply(payload)).thenApply(encoder);
-      }));
+      });
     }
 
     /**
@@ -437,7 +684,7 @@ public class DefaultClusterEventingService implements ManagedClusterEventingServ
      */
     <M> CompletableFuture<Subscription> subscribe(
         Function<byte[], M> decoder, Consumer<M> handler, Executor executor) {
-      return addLocalSubscription(new InternalSubscription(this, payload -> {
+      return addLocalSubscription(payload -> {
         executor.execute(() -> {
           try {
             handler.accept(decoder.apply(payload));
@@ -445,20 +692,26 @@ public class DefaultClusterEventingService implements ManagedClusterEventingServ
           }
         });
         return CompletableFuture.completedFuture(null);
-      }));
+      });
     }
 
     /**
      * Registers the node as a subscriber for the given topic.
      *
-     * @param subscription the subscription to register
+     * @param callback the subscription callback
      */
-    private synchronized CompletableFuture<Subscription> addLocalSubscription(InternalSubscription subscription) {
-      subscribers.add(subscription);
-      subscriptions.add(subscription.metadata);
-      iterator = new TopicIterator(subscriptions);
-      messagingService.registerHandler(subscription.topic(), subscribers);
-      return updateNodes().thenApply(v -> subscription);
+    private CompletableFuture<Subscription> addLocalSubscription(Function<byte[], CompletableFuture<byte[]>> callback) {
+      InternalSubscription subscription = updateLocal(version -> {
+        synchronized (this) {
+          InternalSubscription newSubscription = new InternalSubscription(this, version, callback);
+          subscribers.add(newSubscription);
+          subscriptions.add(newSubscription.metadata);
+          iterator = new TopicIterator(subscriptions);
+          messagingService.registerHandler(topic, subscribers);
+          return newSubscription;
+        }
+      });
+      return scheduleUpdate().thenApply(v -> subscription);
     }
 
     /**
@@ -466,49 +719,65 @@ public class DefaultClusterEventingService implements ManagedClusterEventingServ
      *
      * @param subscription the subscription to unregister
      */
-    private synchronized CompletableFuture<Void> removeLocalSubscription(InternalSubscription subscription) {
-      subscribers.remove(subscription);
-      subscriptions.remove(subscription.metadata);
-      subscriptions.add(subscription.metadata.asTombstone());
-      iterator = new TopicIterator(subscriptions);
-      if (subscriptions.stream().filter(s -> s.isTombstone()).count() == 0) {
-        messagingService.unregisterHandler(subscription.topic());
-      }
-      return updateNodes();
+    private CompletableFuture<Void> removeLocalSubscription(InternalSubscription subscription) {
+      updateLocal(version -> {
+        synchronized (this) {
+          subscribers.remove(subscription);
+          replaceSubscription(subscription.metadata, subscription.metadata.asTombstone(version));
+          iterator = new TopicIterator(subscriptions);
+          if (subscriptions.stream().filter(s -> s.isTombstone()).count() == 0) {
+            messagingService.unregisterHandler(subscription.topic());
+          }
+          return null;
+        }
+      });
+      return scheduleUpdate();
     }
 
     /**
-     * Adds a subscription to the topic.
+     * Adds or updates a remote subscription to the topic.
+     * <p>
+     * The subscription replaces an existing subscription with the same identity only if it has a newer version.
      *
-     * @param subscription the subscription to add
+     * @param subscription the subscription to add or update
      */
-    synchronized void addRemoteSubscription(InternalSubscriptionInfo subscription) {
-      subscriptions.add(subscription);
+    synchronized void updateRemoteSubscription(InternalSubscriptionInfo subscription) {
+      InternalSubscriptionInfo matchingSubscription = subscriptions.stream()
+          .filter(s -> s.memberId().equals(subscription.memberId()) && s.logicalTimestamp().equals(subscription.logicalTimestamp()))
+          .findFirst()
+          .orElse(null);
+      if (matchingSubscription == null) {
+        subscriptions.add(subscription);
+      } else if (subscription.version() > matchingSubscription.version()) {
+        replaceSubscription(matchingSubscription, subscription);
+      } else {
+        return;
+      }
       iterator = new TopicIterator(subscriptions);
     }
 
     /**
-     * Updates a subscription to the topic.
+     * Replaces a subscription in place, adding the new subscription if the old one is not present.
      *
-     * @param subscription the subscription to update
+     * @param oldSubscription the subscription to replace
+     * @param newSubscription the replacement subscription
      */
-    synchronized void removeRemoteSubscription(InternalSubscriptionInfo subscription) {
-      subscriptions.remove(subscription);
-      subscriptions.add(subscription);
-      iterator = new TopicIterator(subscriptions);
+    private void replaceSubscription(InternalSubscriptionInfo oldSubscription, InternalSubscriptionInfo newSubscription) {
+      int index = subscriptions.indexOf(oldSubscription);
+      if (index >= 0) {
+        subscriptions.set(index, newSubscription);
+      } else {
+        subscriptions.add(newSubscription);
+      }
     }
 
     /**
      * Purges tombstones from the topic.
      *
-     * @param minTombstoneTime the time before which tombstones can be removed
+     * @param predicate a predicate indicating whether a tombstone can be removed
      */
-    synchronized void purgeTombstones(long minTombstoneTime) {
-      int startSize = subscriptions.size();
-      subscriptions.removeIf(subscription -> {
-        return subscription.isTombstone() && subscription.timestamp().unixTimestamp() < minTombstoneTime;
-      });
-      if (subscriptions.size() != startSize) {
+    synchronized void purgeTombstones(Predicate<InternalSubscriptionInfo> predicate) {
+      if (subscriptions.removeIf(subscription -> subscription.isTombstone() && predicate.test(subscription))) {
         iterator = new TopicIterator(subscriptions);
       }
     }
@@ -543,10 +812,15 @@ public class DefaultClusterEventingService implements ManagedClusterEventingServ
   /**
    * Internal subscriber.
    */
-  private static class InternalSubscriber implements BiFunction<Address, byte[], CompletableFuture<byte[]>> {
+  private class InternalSubscriber implements BiFunction<Address, byte[], CompletableFuture<byte[]>> {
+    private final String topic;
     private final AtomicInteger counter = new AtomicInteger();
     private InternalSubscription[] subscriptions = new InternalSubscription[0];
 
+    InternalSubscriber(String topic) {
+      this.topic = topic;
+    }
+
     /**
      * Returns a list of subscriptions within the subscriber.
      *
@@ -573,8 +847,17 @@ public class DefaultClusterEventingService implements ManagedClusterEventingServ
         case DIRECT:
           InternalSubscription subscription = next();
           return subscription.callback.apply(message.payload());
+        case TREE:
+          // The root of the tree is the publisher, which has already sent the message to its children.
+          int index = message.members().indexOf(localMemberId);
+          if (index > 0) {
+            relayToChildren(topic, message, index, payload);
+          }
+          // Fall through to deliver the message to the local subscriptions.
         case ALL:
         default:
+          deliveryStats.computeIfAbsent(topic, t -> new DeliveryStats())
+              .recordDelivery(System.currentTimeMillis() - message.timestamp());
           for (InternalSubscription s : subscriptions) {
             s.callback.apply(message.payload());
           }
@@ -614,9 +897,9 @@ public class DefaultClusterEventingService implements ManagedClusterEventingServ
     private final InternalSubscriptionInfo metadata;
     private final Function<byte[], CompletableFuture<byte[]>> callback;
 
-    public InternalSubscription(InternalTopic topic, Function<byte[], CompletableFuture<byte[]>> callback) {
+    public InternalSubscription(InternalTopic topic, long version, Function<byte[], CompletableFuture<byte[]>> callback) {
       this.topic = topic;
-      this.metadata = new InternalSubscriptionInfo(localMemberId, topic.topic, new LogicalTimestamp(logicalTime.incrementAndGet()));
+      this.metadata = new InternalSubscriptionInfo(localMemberId, topic.topic, new LogicalTimestamp(version));
       this.callback = callback;
     }
 
@@ -638,17 +921,19 @@ public class DefaultClusterEventingService implements ManagedClusterEventingServ
     private final MemberId memberId;
     private final String topic;
     private final LogicalTimestamp logicalTimestamp;
+    private final long version;
     private final boolean tombstone;
     private final WallClockTimestamp timestamp = new WallClockTimestamp();
 
     InternalSubscriptionInfo(MemberId memberId, String topic, LogicalTimestamp logicalTimestamp) {
-      this(memberId, topic, logicalTimestamp, false);
+      this(memberId, topic, logicalTimestamp, logicalTimestamp.value(), false);
     }
 
-    InternalSubscriptionInfo(MemberId memberId, String topic, LogicalTimestamp logicalTimestamp, boolean tombstone) {
+    InternalSubscriptionInfo(MemberId memberId, String topic, LogicalTimestamp logicalTimestamp, long version, boolean tombstone) {
       this.memberId = memberId;
       this.topic = topic;
       this.logicalTimestamp = logicalTimestamp;
+      this.version = version;
       this.tombstone = tombstone;
     }
 
@@ -679,6 +964,15 @@ public class DefaultClusterEventingService implements ManagedClusterEventingServ
       return logicalTimestamp;
     }
 
+    /**
+     * Returns the version of the subscription's owner at which the subscription was last changed.
+     *
+     * @return the version at which the subscription was last changed
+     */
+    long version() {
+      return version;
+    }
+
     /**
      * Returns the wall clock time at which the subscription was created.
      *
@@ -700,10 +994,68 @@ public class DefaultClusterEventingService implements ManagedClusterEventingServ
     /**
      * Returns a new subscription as a tombstone.
      *
+     * @param version the version at which the subscription was removed
      * @return the subscription as a tombstone
      */
-    InternalSubscriptionInfo asTombstone() {
-      return new InternalSubscriptionInfo(memberId, topic, logicalTimestamp, true);
+    InternalSubscriptionInfo asTombstone(long version) {
+      return new InternalSubscriptionInfo(memberId, topic, logicalTimestamp, version, true);
+    }
+  }
+
+  /**
+   * Subscription gossip message.
+   */
+  private static class GossipMessage {
+    private final MemberId memberId;
+    private final Map<MemberId, Long> versions;
+    private final Map<MemberId, Long> base;
+    private final Collection<InternalSubscriptionInfo> subscriptions;
+
+    GossipMessage(
+        MemberId memberId,
+        Map<MemberId, Long> versions,
+        Map<MemberId, Long> base,
+        Collection<InternalSubscriptionInfo> subscriptions) {
+      this.memberId = memberId;
+      this.versions = versions;
+      this.base = base;
+      this.subscriptions = subscriptions;
+    }
+
+    /**
+     * Returns the member that sent the message.
+     *
+     * @return the member that sent the message
+     */
+    MemberId memberId() {
+      return memberId;
+    }
+
+    /**
+     * Returns the sender's version vector.
+     *
+     * @return the sender's version vector
+     */
+    Map<MemberId, Long> versions() {
+      return versions;
+    }
+
+    /**
+     * Returns the version vector from which the subscription changes were computed.
+     *
+     * @return the version vector from which the subscription changes were computed
+     */
+    Map<MemberId, Long> base() {
+      return base;
+    }
+
+    /**
+     * Returns the changed subscriptions.
+     *
+     * @return the changed subscriptions
+     */
+    Collection<InternalSubscriptionInfo> subscriptions() {
+      return subscriptions;
     }
   }
 }
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.cluster.messaging.impl;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+/**
+ * Event delivery statistics for a single topic.
+ * <p>
+ * Latencies are measured from the publisher's wall clock time to the receiver's wall clock time and therefore
+ * include any clock skew between the two nodes.
+ */
+public final class DeliveryStats {
+  private final LongAdder messageCount = new LongAdder();
+  private final LongAdder relayCount = new LongAdder();
+  private final LongAdder totalLatency = new LongAdder();
+  private final LongAccumulator maxLatency = new LongAccumulator(Math::max, 0);
+
+  /**
+   * Records the delivery of a single event.
+   *
+   * @param latency the time between publishing and delivery of the event in milliseconds
+   */
+  void recordDelivery(long latency) {
+    long boundedLatency = Math.max(latency, 0);
+    messageCount.increment();
+    totalLatency.add(boundedLatency);
+    maxLatency.accumulate(boundedLatency);
+  }
+
+  /**
+   * Records the relay of a single event to another node.
+   */
+  void recordRelay() {
+    relayCount.increment();
+  }
+
+  /**
+   * Returns the number of events delivered to the local node.
+   *
+   * @return the number of events delivered
+   */
+  public long getMessageCount() {
+    return messageCount.sum();
+  }
+
+  /**
+   * Returns the number of events the local node relayed to other nodes.
+   *
+   * @return the number of events relayed
+   */
+  public long getRelayCount() {
+    return relayCount.sum();
+  }
+
+  /**
+   * Returns the average delivery latency.
+   *
+   * @return the average delivery latency
+   */
+  public Duration getAverageLatency() {
+    long messageCount = getMessageCount();
+    return Duration.ofMillis(messageCount > 0 ? totalLatency.sum() / messageCount : 0);
+  }
+
+  /**
+   * Returns the maximum delivery latency.
+   *
+   * @return the maximum delivery latency
+   */
+  public Duration getMaxLatency() {
+    return Duration.ofMillis(maxLatency.get());
+  }
+
+  @Override
+  public String toString() {
+    return toStringHelper(this)
+        .add("messageCount", getMessageCount())
+        .add("relayCount", getRelayCount())
+        .add("averageLatency", getAverageLatency())
+        .add("maxLatency", getMaxLatency())
+        .toString();
+  }
+}
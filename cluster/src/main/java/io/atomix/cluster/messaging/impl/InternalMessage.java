@@ -15,6 +15,11 @@
  */
 package io.atomix.cluster.messaging.impl;
 
+import io.atomix.utils.misc.ArraySizeHashPrinter;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+
 /**
  * Base class for internal messages.
  */
@@ -60,9 +65,14 @@ public abstract class InternalMessage {
     }
   }
 
+  private static final byte[] EMPTY_PAYLOAD = new byte[0];
+
   private final int preamble;
   private final long id;
-  private final byte[] payload;
+  private final int payloadLength;
+  private byte[] payload;
+  private ByteBuf buffer;
+  private boolean released;
 
   protected InternalMessage(int preamble,
                             long id,
@@ -70,6 +80,16 @@ public abstract class InternalMessage {
     this.preamble = preamble;
     this.id = id;
     this.payload = payload;
+    this.payloadLength = payload.length;
+  }
+
+  protected InternalMessage(int preamble,
+                            long id,
+                            ByteBuf payload) {
+    this.preamble = preamble;
+    this.id = id;
+    this.buffer = payload;
+    this.payloadLength = payload.readableBytes();
   }
 
   public abstract Type type();
@@ -90,7 +110,117 @@ public abstract class InternalMessage {
     return id;
   }
 
-  public byte[] payload() {
+  /**
+   * Returns the length of the message payload.
+   *
+   * @return the length of the message payload
+   */
+  public int payloadLength() {
+    return payloadLength;
+  }
+
+  /**
+   * Returns a boolean indicating whether the payload is stored in a reference counted buffer.
+   *
+   * @return indicates whether the payload is stored in a reference counted buffer
+   */
+  public synchronized boolean hasPayloadBuffer() {
+    return buffer != null;
+  }
+
+  /**
+   * Returns the message payload as a byte array.
+   * <p>
+   * If the payload is stored in a buffer, the buffer is copied to an array and released.
+   *
+   * @return the message payload
+   */
+  public synchronized byte[] payload() {
+    if (payload == null) {
+      if (buffer != null) {
+        payload = ByteBufUtil.getBytes(buffer);
+        buffer.release();
+        buffer = null;
+      } else {
+        payload = EMPTY_PAYLOAD;
+      }
+    }
     return payload;
   }
+
+  /**
+   * Transfers ownership of the message payload to the caller as a buffer.
+   * <p>
+   * The caller is responsible for releasing the returned buffer. Once the buffer has been transferred, this method
+   * returns {@code null} until the message is released.
+   *
+   * @return the message payload buffer or {@code null} if the payload has been transferred or released
+   */
+  public synchronized ByteBuf payloadBuffer() {
+    if (released) {
+      return null;
+    }
+    released = true;
+    if (buffer != null) {
+      ByteBuf buffer = this.buffer;
+      this.buffer = null;
+      return buffer;
+    }
+    return Unpooled.wrappedBuffer(payload != null ? payload : EMPTY_PAYLOAD);
+  }
+
+  /**
+   * Writes the payload length and payload bytes to the given buffer.
+   * <p>
+   * If the payload is stored in a buffer, the buffer is released once it has been written.
+   *
+   * @param out the buffer to which to write the payload
+   * @return indicates whether the payload was written; {@code false} if the payload has already been released
+   */
+  public synchronized boolean writePayload(ByteBuf out) {
+    if (released) {
+      return false;
+    }
+    released = true;
+    if (buffer != null) {
+      out.writeInt(buffer.readableBytes());
+      out.writeBytes(buffer, buffer.readerIndex(), buffer.readableBytes());
+      buffer.release();
+      buffer = null;
+    } else {
+      byte[] payload = this.payload != null ? this.payload : EMPTY_PAYLOAD;
+      out.writeInt(payload.length);
+      out.writeBytes(payload);
+    }
+    return true;
+  }
+
+  /**
+   * Returns a boolean indicating whether the message payload has been transferred or released.
+   *
+   * @return indicates whether the message payload has been transferred or released
+   */
+  public synchronized boolean isReleased() {
+    return released;
+  }
+
+  /**
+   * Releases the message payload buffer if it has not been transferred.
+   */
+  public synchronized void release() {
+    released = true;
+    if (buffer != null) {
+      buffer.release();
+      buffer = null;
+    }
+  }
+
+  /**
+   * Returns a printable representation of the payload that does not consume the payload buffer.
+   *
+   * @return a printable representation of the payload
+   */
+  protected synchronized Object printablePayload() {
+    return payload != null ? ArraySizeHashPrinter.of(payload) : "ByteBuf{length=" + payloadLength + "}";
+  }
 }
\ No newline at end of file
@@ -16,7 +16,7 @@
 package io.atomix.cluster.messaging.impl;
 
 import com.google.common.base.MoreObjects;
-import io.atomix.utils.misc.ArraySizeHashPrinter;
+import io.netty.buffer.ByteBuf;
 
 /**
  * Internal reply message.
@@ -88,6 +88,7 @@ public final class InternalReply extends InternalMessage {
     }
 
     private final Status status;
+    private final String subject;
 
     public InternalReply(int preamble,
             long id,
@@ -99,7 +100,33 @@ public final class InternalReply extends InternalMessage {
             long id,
             byte[] payload,
             Status status) {
+        this(preamble, id, null, payload, status);
+    }
+
+    public InternalReply(int preamble,
+            long id,
+            String subject,
+            byte[] payload,
+            Status status) {
+        super(preamble, id, payload);
+        this.subject = subject;
+        this.status = status;
+    }
+
+    public InternalReply(int preamble,
+            long id,
+            ByteBuf payload,
+            Status status) {
+        this(preamble, id, null, payload, status);
+    }
+
+    public InternalReply(int preamble,
+            long id,
+            String subject,
+            ByteBuf payload,
+            Status status) {
         super(preamble, id, payload);
+        this.subject = subject;
         this.status = status;
     }
 
@@ -112,12 +139,23 @@ public final class InternalReply extends InternalMessage {
         return status;
     }
 
+    /**
+     * Returns the subject of the request to which this is a reply.
+     * <p>
+     * The subject is only known to the sender of the reply and is not written to the wire.
+     *
+     * @return the subject of the request to which this is a reply, or {@code null} if the subject is unknown
+     */
+    public String subject() {
+        return subject;
+    }
+
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this)
                 .add("id", id())
                 .add("status", status())
-                .add("payload", ArraySizeHashPrinter.of(payload()))
+                .add("payload", printablePayload())
                 .toString();
     }
 }
\ No newline at end of file
@@ -0,0 +1,216 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.cluster.messaging.impl;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outbound message batcher.
+ * <p>
+ * The batcher accepts messages from any thread and drains them on the channel's event loop. Drained messages are
+ * encoded directly into a shared outbound buffer which is written and flushed once per event loop task or whenever
+ * the buffer reaches the maximum batch size. Messages with buffer payloads are written without copying the payload
+ * as part of the same flush. This reduces the number of buffer allocations and flushes - and thus
+ * the number of system calls - when many messages are sent on the same channel concurrently.
+ */
+class MessageBatcher {
+  private final Channel channel;
+  private final int maxBatchSize;
+  private final LongAdder messageCount;
+  private final LongAdder flushCount;
+  private final Queue<PendingMessage> messages = new ConcurrentLinkedQueue<>();
+  private final AtomicBoolean scheduled = new AtomicBoolean();
+  private MessageEncoder encoder;
+
+  MessageBatcher(Channel channel, int maxBatchSize, LongAdder messageCount, LongAdder flushCount) {
+    this.channel = channel;
+    this.maxBatchSize = maxBatchSize;
+    this.messageCount = messageCount;
+    this.flushCount = flushCount;
+  }
+
+  /**
+   * Enqueues a message to be written to the channel.
+   *
+   * @param message the message to write
+   * @param future  a future to be completed once the message has been written, or {@code null}
+   */
+  void write(InternalMessage message, CompletableFuture<Void> future) {
+    messages.add(new PendingMessage(message, future));
+    if (scheduled.compareAndSet(false, true)) {
+      try {
+        channel.eventLoop().execute(this::drain);
+      } catch (RejectedExecutionException e) {
+        scheduled.set(false);
+        fail(e);
+      }
+    }
+  }
+
+  /**
+   * Drains pending messages to the channel.
+   */
+  private void drain() {
+    // Reset the scheduled flag before draining to ensure messages enqueued during the drain schedule another task.
+    scheduled.set(false);
+
+    if (encoder == null) {
+      encoder = channel.pipeline().get(MessageEncoder.class);
+    }
+
+    ByteBuf buffer = null;
+    List<CompletableFuture<Void>> futures = new ArrayList<>();
+    int batchSize = 0;
+    PendingMessage pending;
+    while ((pending = messages.poll()) != null) {
+      // Messages with buffer payloads are written as separate composite buffers to avoid copying the payload.
+      if (pending.message.hasPayloadBuffer()) {
+        if (buffer != null) {
+          batchSize += buffer.readableBytes();
+          write(buffer, futures);
+          buffer = null;
+          futures = new ArrayList<>();
+        }
+
+        ByteBuf composite;
+        try {
+          composite = encoder.encode(pending.message, channel.alloc());
+        } catch (Exception e) {
+          if (pending.future != null) {
+            pending.future.completeExceptionally(e);
+          }
+          continue;
+        }
+
+        if (composite != null) {
+          messageCount.increment();
+          batchSize += composite.readableBytes();
+          write(composite, pending.future != null ? Collections.singletonList(pending.future) : Collections.emptyList());
+        }
+      } else {
+        if (buffer == null) {
+          buffer = channel.alloc().ioBuffer(maxBatchSize);
+        }
+
+        int writerIndex = buffer.writerIndex();
+        try {
+          encoder.encode(pending.message, buffer);
+        } catch (Exception e) {
+          buffer.writerIndex(writerIndex);
+          if (pending.future != null) {
+            pending.future.completeExceptionally(e);
+          }
+          continue;
+        }
+
+        if (buffer.writerIndex() > writerIndex) {
+          messageCount.increment();
+          if (pending.future != null) {
+            futures.add(pending.future);
+          }
+        }
+
+        if (buffer.readableBytes() >= maxBatchSize) {
+          batchSize += buffer.readableBytes();
+          write(buffer, futures);
+          buffer = null;
+          futures = new ArrayList<>();
+        }
+      }
+
+      if (batchSize >= maxBatchSize) {
+        flush();
+        batchSize = 0;
+      }
+    }
+
+    if (buffer != null) {
+      if (buffer.isReadable()) {
+        batchSize += buffer.readableBytes();
+        write(buffer, futures);
+      } else {
+        buffer.release();
+      }
+    }
+
+    if (batchSize > 0) {
+      flush();
+    }
+  }
+
+  /**
+   * Writes the given buffer to the channel without flushing.
+   */
+  private void write(ByteBuf buffer, List<CompletableFuture<Void>> futures) {
+    if (futures.isEmpty()) {
+      channel.write(buffer, channel.voidPromise());
+    } else {
+      channel.write(buffer).addListener(channelFuture -> {
+        for (CompletableFuture<Void> future : futures) {
+          if (channelFuture.isSuccess()) {
+            future.complete(null);
+          } else {
+            future.completeExceptionally(channelFuture.cause());
+          }
+        }
+      });
+    }
+  }
+
+  /**
+   * Flushes writes to the channel.
+   */
+  private void flush() {
+    flushCount.increment();
+    channel.flush();
+  }
+
+  /**
+   * Fails all pending messages.
+   */
+  private void fail(Throwable error) {
+    PendingMessage pending;
+    while ((pending = messages.poll()) != null) {
+      if (pending.future != null) {
+        pending.future.completeExceptionally(error);
+      }
+    }
+  }
+
+  /**
+   * Pending outbound message.
+   */
+  private static final class PendingMessage {
+    private final InternalMessage message;
+    private final CompletableFuture<Void> future;
+
+    PendingMessage(InternalMessage message, CompletableFuture<Void> future) {
+      this.message = message;
+      this.future = future;
+    }
+  }
+}
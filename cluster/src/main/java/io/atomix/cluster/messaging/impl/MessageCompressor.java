@@ -0,0 +1,155 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.cluster.messaging.impl;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.handler.codec.compression.Snappy;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static com.google.common.base.Preconditions.checkState;
+
+/**
+ * Per-connection message payload compressor.
+ * <p>
+ * The compressor is shared by the encoder and decoder of a single channel and must only be used from the channel's
+ * event loop. Compression is negotiated per connection: each side advertises whether it supports compression when
+ * it writes its address to the channel, and payloads are only compressed once the remote side has advertised
+ * support for compression.
+ * <p>
+ * Compressed payloads are written as the uncompressed length followed by a sequence of length-prefixed Snappy
+ * chunks. Payloads are split into chunks since the Snappy encoder can only reference offsets within 32KB.
+ */
+final class MessageCompressor {
+  private static final int MAX_CHUNK_SIZE = Short.MAX_VALUE;
+  private static final int INT_SIZE = 4;
+
+  private final Snappy snappy = new Snappy();
+  private final boolean enabled;
+  private final int threshold;
+  private final Map<String, CompressionStats> stats;
+  private volatile boolean remoteEnabled;
+
+  MessageCompressor() {
+    this(false, Integer.MAX_VALUE, Collections.emptyMap());
+  }
+
+  MessageCompressor(boolean enabled, int threshold, Map<String, CompressionStats> stats) {
+    this.enabled = enabled;
+    this.threshold = threshold;
+    this.stats = stats;
+  }
+
+  /**
+   * Returns a boolean indicating whether compression is enabled on the local side of the connection.
+   *
+   * @return indicates whether compression is enabled locally
+   */
+  boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Sets whether compression is supported by the remote side of the connection.
+   *
+   * @param remoteEnabled whether compression is supported by the remote side of the connection
+   */
+  void setRemoteEnabled(boolean remoteEnabled) {
+    this.remoteEnabled = remoteEnabled;
+  }
+
+  /**
+   * Returns a boolean indicating whether a payload of the given length should be compressed.
+   *
+   * @param length the payload length
+   * @return indicates whether the payload should be compressed
+   */
+  boolean shouldCompress(int length) {
+    return enabled && remoteEnabled && length >= threshold;
+  }
+
+  /**
+   * Compresses the given payload into the given buffer.
+   *
+   * @param subject the message subject for which to record statistics, or {@code null} if the subject is unknown
+   * @param in      the payload to compress
+   * @param out     the buffer to which to write the compressed payload
+   */
+  void compress(String subject, ByteBuf in, ByteBuf out) {
+    long startTime = System.nanoTime();
+    int startIndex = out.writerIndex();
+    int length = in.readableBytes();
+    out.writeInt(length);
+    for (int offset = 0; offset < length; offset += MAX_CHUNK_SIZE) {
+      int chunkLength = Math.min(length - offset, MAX_CHUNK_SIZE);
+      int lengthIndex = out.writerIndex();
+      out.writeInt(0);
+      snappy.encode(in.slice(in.readerIndex() + offset, chunkLength), out, chunkLength);
+      out.setInt(lengthIndex, out.writerIndex() - lengthIndex - INT_SIZE);
+    }
+    in.skipBytes(length);
+
+    if (subject != null) {
+      CompressionStats subjectStats = stats.get(subject);
+      if (subjectStats == null) {
+        subjectStats = stats.computeIfAbsent(subject, s -> new CompressionStats());
+      }
+      subjectStats.record(length, out.writerIndex() - startIndex, System.nanoTime() - startTime);
+    }
+  }
+
+  /**
+   * Returns the maximum uncompressed length of a payload with the given compressed length.
+   * <p>
+   * Each length-prefixed chunk decompresses to at most {@link #MAX_CHUNK_SIZE} bytes, so the uncompressed length is
+   * bounded by the number of chunks that can fit in the compressed payload. This prevents a corrupt or malicious
+   * length from forcing an arbitrarily large allocation.
+   */
+  private static long getMaxUncompressedLength(int compressedLength) {
+    return (long) (compressedLength / (INT_SIZE + 1) + 1) * MAX_CHUNK_SIZE;
+  }
+
+  /**
+   * Decompresses the given compressed payload.
+   *
+   * @param in    the compressed payload
+   * @param alloc the allocator with which to allocate the decompressed payload
+   * @return the decompressed payload
+   */
+  ByteBuf decompress(ByteBuf in, ByteBufAllocator alloc) {
+    int length = in.readInt();
+    checkState(length >= 0 && length <= getMaxUncompressedLength(in.readableBytes()),
+        "Invalid uncompressed length " + length);
+    ByteBuf out = alloc.buffer(length);
+    try {
+      while (in.isReadable()) {
+        int chunkLength = in.readInt();
+        checkState(chunkLength >= 0 && chunkLength <= in.readableBytes(), "Invalid chunk length " + chunkLength);
+        snappy.decode(in.readSlice(chunkLength), out);
+        snappy.reset();
+        checkState(out.readableBytes() <= length, "Decompressed payload length exceeds " + length);
+      }
+      checkState(out.readableBytes() == length, "Decompressed payload length does not match");
+      return out;
+    } catch (RuntimeException e) {
+      snappy.reset();
+      out.release();
+      throw e;
+    }
+  }
+}
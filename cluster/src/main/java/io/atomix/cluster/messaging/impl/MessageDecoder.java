@@ -17,6 +17,7 @@ package io.atomix.cluster.messaging.impl;
 
 import io.atomix.utils.net.Address;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.ByteToMessageDecoder;
 import org.slf4j.Logger;
@@ -24,6 +25,7 @@ import org.slf4j.LoggerFactory;
 
 import java.net.InetAddress;
 import java.nio.charset.Charset;
+import java.util.Arrays;
 import java.util.List;
 
 import static com.google.common.base.Preconditions.checkState;
@@ -38,23 +40,41 @@ public class MessageDecoder extends ByteToMessageDecoder {
 
   private static final byte[] EMPTY_PAYLOAD = new byte[0];
 
+  // Payloads of at least this size are passed to handlers as slices of the inbound buffer rather than copied.
+  private static final int MIN_BUFFER_PAYLOAD_SIZE = 8 * 1024;
+
   private static final int BYTE_SIZE = 1;
   private static final int SHORT_SIZE = 2;
   private static final int INT_SIZE = 4;
   private static final int LONG_SIZE = 8;
 
+  private final MessageCompressor compressor;
+
   private DecoderState currentState = DecoderState.READ_SENDER_IP;
 
   private InetAddress senderIp;
   private int senderPort;
   private Address address;
 
+  private boolean subjectsInterned;
   private InternalMessage.Type type;
+  private boolean compressed;
   private int preamble;
   private long messageId;
   private int contentLength;
   private byte[] content;
+  private ByteBuf contentBuffer;
+  private int subjectId;
   private int subjectLength;
+  private String[] subjects = new String[16];
+
+  public MessageDecoder() {
+    this(new MessageCompressor());
+  }
+
+  MessageDecoder(MessageCompressor compressor) {
+    this.compressor = compressor;
+  }
 
   @Override
   @SuppressWarnings("squid:S128") // suppress switch fall through warning
@@ -70,10 +90,15 @@ public class MessageDecoder extends ByteToMessageDecoder {
         }
         buffer.markReaderIndex();
         int octetsLength = buffer.readByte();
+        boolean compressionSupported = (octetsLength & MessageEncoder.COMPRESSION_SUPPORTED) != 0;
+        boolean subjectsInterned = (octetsLength & MessageEncoder.SUBJECTS_INTERNED) != 0;
+        octetsLength &= ~(MessageEncoder.COMPRESSION_SUPPORTED | MessageEncoder.SUBJECTS_INTERNED);
         if (buffer.readableBytes() < octetsLength) {
           buffer.resetReaderIndex();
           return;
         }
+        compressor.setRemoteEnabled(compressionSupported);
+        this.subjectsInterned = subjectsInterned;
 
         byte[] octets = new byte[octetsLength];
         buffer.readBytes(octets);
@@ -90,7 +115,9 @@ public class MessageDecoder extends ByteToMessageDecoder {
         if (buffer.readableBytes() < BYTE_SIZE) {
           return;
         }
-        type = InternalMessage.Type.forId(buffer.readByte());
+        int typeId = buffer.readByte();
+        compressed = (typeId & MessageEncoder.COMPRESSED) != 0;
+        type = InternalMessage.Type.forId(typeId & ~MessageEncoder.COMPRESSED);
         currentState = DecoderState.READ_PREAMBLE;
       case READ_PREAMBLE:
         if (buffer.readableBytes() < INT_SIZE) {
@@ -114,7 +141,12 @@ public class MessageDecoder extends ByteToMessageDecoder {
         if (buffer.readableBytes() < contentLength) {
           return;
         }
-        if (contentLength > 0) {
+        if (compressed) {
+          decompressContent(context, buffer.readSlice(contentLength));
+        } else if (contentLength >= MIN_BUFFER_PAYLOAD_SIZE) {
+          content = null;
+          contentBuffer = buffer.readRetainedSlice(contentLength);
+        } else if (contentLength > 0) {
           // TODO: Perform a sanity check on the size before allocating
           content = new byte[contentLength];
           buffer.readBytes(content);
@@ -124,7 +156,13 @@ public class MessageDecoder extends ByteToMessageDecoder {
 
         switch (type) {
           case REQUEST:
-            currentState = DecoderState.READ_SUBJECT_LENGTH;
+            // Senders that do not intern subjects write only the subject string.
+            if (subjectsInterned) {
+              currentState = DecoderState.READ_SUBJECT_ID;
+            } else {
+              subjectId = 0;
+              currentState = DecoderState.READ_SUBJECT_LENGTH;
+            }
             break;
           case REPLY:
             currentState = DecoderState.READ_STATUS;
@@ -140,24 +178,42 @@ public class MessageDecoder extends ByteToMessageDecoder {
     switch (type) {
       case REQUEST:
         switch (currentState) {
+          case READ_SUBJECT_ID:
+            if (buffer.readableBytes() < SHORT_SIZE) {
+              return;
+            }
+            subjectId = buffer.readShort();
+
+            // If the subject has already been interned, look up the subject by its ID.
+            if (subjectId > 0) {
+              checkState(subjectId < subjects.length && subjects[subjectId] != null, "Unknown subject ID " + subjectId);
+              out.add(newRequest(subjects[subjectId]));
+              currentState = DecoderState.READ_TYPE;
+              break;
+            }
+            currentState = DecoderState.READ_SUBJECT_LENGTH;
           case READ_SUBJECT_LENGTH:
             if (buffer.readableBytes() < SHORT_SIZE) {
               return;
             }
-            subjectLength = buffer.readShort();
+            subjectLength = buffer.readUnsignedShort();
             currentState = DecoderState.READ_SUBJECT;
           case READ_SUBJECT:
             if (buffer.readableBytes() < subjectLength) {
               return;
             }
             final String subject = readString(buffer, subjectLength, UTF_8);
-            InternalRequest message = new InternalRequest(
-                preamble,
-                messageId,
-                address,
-                subject,
-                content);
-            out.add(message);
+
+            // A negative subject ID indicates the subject is being interned with the negated ID.
+            if (subjectId < 0) {
+              subjectId = -subjectId;
+              if (subjectId >= subjects.length) {
+                subjects = Arrays.copyOf(subjects, Math.max(subjectId + 1, subjects.length * 2));
+              }
+              subjects[subjectId] = subject;
+            }
+
+            out.add(newRequest(subject));
             currentState = DecoderState.READ_TYPE;
             break;
           default:
@@ -171,10 +227,10 @@ public class MessageDecoder extends ByteToMessageDecoder {
               return;
             }
             InternalReply.Status status = InternalReply.Status.forId(buffer.readByte());
-            InternalReply message = new InternalReply(preamble,
-                messageId,
-                content,
-                status);
+            InternalReply message = contentBuffer != null
+                ? new InternalReply(preamble, messageId, contentBuffer, status)
+                : new InternalReply(preamble, messageId, content, status);
+            contentBuffer = null;
             out.add(message);
             currentState = DecoderState.READ_TYPE;
             break;
@@ -187,6 +243,43 @@ public class MessageDecoder extends ByteToMessageDecoder {
     }
   }
 
+  /**
+   * Decompresses the given compressed content into the decoded message state.
+   */
+  private void decompressContent(ChannelHandlerContext context, ByteBuf compressedContent) {
+    ByteBuf decompressed = compressor.decompress(compressedContent, context.alloc());
+    if (decompressed.readableBytes() >= MIN_BUFFER_PAYLOAD_SIZE) {
+      content = null;
+      contentBuffer = decompressed;
+    } else {
+      try {
+        content = decompressed.isReadable() ? ByteBufUtil.getBytes(decompressed) : EMPTY_PAYLOAD;
+      } finally {
+        decompressed.release();
+      }
+    }
+  }
+
+  /**
+   * Creates a new request from the decoded message state.
+   */
+  private InternalRequest newRequest(String subject) {
+    InternalRequest request = contentBuffer != null
+        ? new InternalRequest(preamble, messageId, address, subject, subjectId, contentBuffer)
+        : new InternalRequest(preamble, messageId, address, subject, subjectId, content);
+    contentBuffer = null;
+    return request;
+  }
+
+  @Override
+  protected void handlerRemoved0(ChannelHandlerContext context) throws Exception {
+    // Release the payload of a partially decoded message.
+    if (contentBuffer != null) {
+      contentBuffer.release();
+      contentBuffer = null;
+    }
+  }
+
   static String readString(ByteBuf buffer, int length, Charset charset) {
     if (buffer.isDirect()) {
       final String result = buffer.toString(buffer.readerIndex(), length, charset);
@@ -17,14 +17,20 @@ package io.atomix.cluster.messaging.impl;
 
 import io.atomix.utils.net.Address;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
 import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelPromise;
 import io.netty.handler.codec.MessageToByteEncoder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.InetAddress;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Encode InternalMessage out into a byte buffer.
@@ -33,16 +39,52 @@ public class MessageEncoder extends MessageToByteEncoder<Object> {
 // Effectively MessageToByteEncoder<InternalMessage>,
 // had to specify <Object> to avoid Class Loader not being able to find some classes.
 
+  private static final int MAX_SUBJECT_IDS = Short.MAX_VALUE;
+
+  // Set in the address length to advertise support for compression and in the type to flag a compressed payload.
+  // Older decoders read the address length as is, so these flags may only be set once all members are upgraded.
+  static final int COMPRESSION_SUPPORTED = 0x40;
+  static final int COMPRESSED = 0x40;
+
+  // Set in the address length to indicate that request subjects are interned on the connection. Like the
+  // compression flag, this is only set when enabled in the configuration.
+  static final int SUBJECTS_INTERNED = 0x20;
+
+  private static final int HEADER_SIZE = 64;
+  private static final int TRAILER_SIZE = 64;
+
   private final Logger log = LoggerFactory.getLogger(getClass());
 
   private final Address address;
   private final int preamble;
+  private final MessageCompressor compressor;
+  private final boolean internSubjects;
+  private final Map<String, Integer> subjectIds = new HashMap<>();
   private boolean addressWritten;
 
   public MessageEncoder(Address address, int preamble) {
+    this(address, preamble, new MessageCompressor(), false);
+  }
+
+  MessageEncoder(Address address, int preamble, MessageCompressor compressor, boolean internSubjects) {
     super();
     this.address = address;
     this.preamble = preamble;
+    this.compressor = compressor;
+    this.internSubjects = internSubjects;
+  }
+
+  @Override
+  public void write(ChannelHandlerContext context, Object message, ChannelPromise promise) throws Exception {
+    // Messages with buffer payloads are written as a composite of the encoded header, the payload buffer itself,
+    // and the encoded trailer to avoid copying the payload into the outbound buffer.
+    if (message instanceof InternalMessage && ((InternalMessage) message).hasPayloadBuffer()
+        && !compressor.shouldCompress(((InternalMessage) message).payloadLength())) {
+      ByteBuf buffer = encode((InternalMessage) message, context.alloc());
+      context.write(buffer != null ? buffer : Unpooled.EMPTY_BUFFER, promise);
+    } else {
+      super.write(context, message, promise);
+    }
   }
 
   @Override
@@ -50,19 +92,138 @@ public class MessageEncoder extends MessageToByteEncoder<Object> {
       ChannelHandlerContext context,
       Object rawMessage,
       ByteBuf out) throws Exception {
-    if (rawMessage instanceof InternalRequest) {
-      encodeRequest((InternalRequest) rawMessage, out);
-    } else if (rawMessage instanceof InternalReply) {
-      encodeReply((InternalReply) rawMessage, out);
+    encode((InternalMessage) rawMessage, out);
+  }
+
+  /**
+   * Encodes the given message into the given buffer.
+   * <p>
+   * This method must be called on the channel's event loop. If the message's payload has already been released,
+   * nothing is written to the buffer.
+   *
+   * @param message the message to encode
+   * @param out     the buffer into which to encode the message
+   */
+  void encode(InternalMessage message, ByteBuf out) {
+    if (compressor.shouldCompress(message.payloadLength())) {
+      encodeCompressed(message, out);
+      return;
+    }
+
+    int writerIndex = out.writerIndex();
+    boolean addressWritten = this.addressWritten;
+    encodeHeader(message, out, false);
+    if (!message.writePayload(out)) {
+      out.writerIndex(writerIndex);
+      this.addressWritten = addressWritten;
+      return;
+    }
+    encodeTrailer(message, out);
+  }
+
+  /**
+   * Encodes the given message into the given buffer with a compressed payload.
+   */
+  private void encodeCompressed(InternalMessage message, ByteBuf out) {
+    ByteBuf payload = message.payloadBuffer();
+    if (payload == null) {
+      return;
+    }
+
+    int writerIndex = out.writerIndex();
+    boolean addressWritten = this.addressWritten;
+    try {
+      encodeHeader(message, out, true);
+      int lengthIndex = out.writerIndex();
+      out.writeInt(0);
+      compressor.compress(subject(message), payload, out);
+      out.setInt(lengthIndex, out.writerIndex() - lengthIndex - Integer.BYTES);
+      encodeTrailer(message, out);
+    } catch (RuntimeException e) {
+      out.writerIndex(writerIndex);
+      this.addressWritten = addressWritten;
+      throw e;
+    } finally {
+      payload.release();
+    }
+  }
+
+  /**
+   * Returns the subject of the given message for compression statistics.
+   */
+  private static String subject(InternalMessage message) {
+    if (message instanceof InternalRequest) {
+      return ((InternalRequest) message).subject();
+    } else if (message instanceof InternalReply) {
+      return ((InternalReply) message).subject();
     }
+    return null;
   }
 
-  private void encodeMessage(InternalMessage message, ByteBuf out) {
+  /**
+   * Encodes the given message into a composite buffer that wraps the message's payload buffer.
+   * <p>
+   * This method must be called on the channel's event loop. Ownership of the message's payload buffer is
+   * transferred to the returned buffer. If encoding fails, the payload buffer is released.
+   *
+   * @param message the message to encode
+   * @param alloc   the allocator with which to allocate the header and trailer buffers
+   * @return the encoded message or {@code null} if the message's payload has already been released
+   */
+  ByteBuf encode(InternalMessage message, ByteBufAllocator alloc) {
+    // Compressed payloads must be copied, so encode the message into a single buffer.
+    if (compressor.shouldCompress(message.payloadLength())) {
+      ByteBuf buffer = alloc.ioBuffer(HEADER_SIZE + message.payloadLength() + TRAILER_SIZE);
+      try {
+        encodeCompressed(message, buffer);
+      } catch (RuntimeException e) {
+        buffer.release();
+        throw e;
+      }
+      if (!buffer.isReadable()) {
+        buffer.release();
+        return null;
+      }
+      return buffer;
+    }
+
+    ByteBuf payload = message.payloadBuffer();
+    if (payload == null) {
+      return null;
+    }
+
+    ByteBuf header = alloc.ioBuffer(HEADER_SIZE);
+    ByteBuf trailer = null;
+    boolean addressWritten = this.addressWritten;
+    try {
+      encodeHeader(message, header, false);
+      header.writeInt(payload.readableBytes());
+
+      trailer = alloc.ioBuffer(TRAILER_SIZE);
+      encodeTrailer(message, trailer);
+    } catch (RuntimeException e) {
+      this.addressWritten = addressWritten;
+      header.release();
+      if (trailer != null) {
+        trailer.release();
+      }
+      payload.release();
+      throw e;
+    }
+
+    CompositeByteBuf buffer = alloc.compositeDirectBuffer(3);
+    buffer.addComponents(true, header, payload, trailer);
+    return buffer;
+  }
+
+  private void encodeHeader(InternalMessage message, ByteBuf out, boolean compressed) {
     // If the address hasn't been written to the channel, write it.
     if (!addressWritten) {
       final InetAddress senderIp = address.address();
       final byte[] senderIpBytes = senderIp.getAddress();
-      out.writeByte(senderIpBytes.length);
+      out.writeByte(senderIpBytes.length
+          | (compressor.isEnabled() ? COMPRESSION_SUPPORTED : 0)
+          | (internSubjects ? SUBJECTS_INTERNED : 0));
       out.writeBytes(senderIpBytes);
 
       // write sender port
@@ -71,41 +232,63 @@ public class MessageEncoder extends MessageToByteEncoder<Object> {
       addressWritten = true;
     }
 
-    out.writeByte(message.type().id());
+    out.writeByte(message.type().id() | (compressed ? COMPRESSED : 0));
     out.writeInt(this.preamble);
 
     // write message id
     out.writeLong(message.id());
+  }
 
-    final byte[] payload = message.payload();
-
-    // write payload length
-    out.writeInt(payload.length);
-
-    // write payload.
-    out.writeBytes(payload);
+  private void encodeTrailer(InternalMessage message, ByteBuf out) {
+    if (message instanceof InternalRequest) {
+      encodeSubject((InternalRequest) message, out);
+    } else if (message instanceof InternalReply) {
+      // write message status value
+      out.writeByte(((InternalReply) message).status().id());
+    }
   }
 
-  private void encodeRequest(InternalRequest request, ByteBuf out) {
-    encodeMessage(request, out);
+  /**
+   * Encodes a request subject.
+   * <p>
+   * If subject interning is enabled, subjects are interned per connection. The first time a subject is sent on the
+   * connection, the encoder assigns the subject a positive ID and writes the negated ID followed by the subject
+   * string. Subsequent requests for the same subject are written with only the ID. Once all IDs have been assigned,
+   * new subjects are written with a zero ID followed by the subject string. Otherwise, only the subject string is
+   * written.
+   */
+  private void encodeSubject(InternalRequest request, ByteBuf out) {
+    final String subject = request.subject();
+    if (!internSubjects) {
+      writeSubject(subject, out);
+      return;
+    }
 
-    final ByteBuf buf = out.alloc().buffer(ByteBufUtil.utf8MaxBytes(request.subject()));
-    try {
-      final int length = ByteBufUtil.writeUtf8(buf, request.subject());
-      // write length of message type
-      out.writeShort(length);
-      // write message type bytes
-      out.writeBytes(buf);
-    } finally {
-      buf.release();
+    final Integer subjectId = subjectIds.get(subject);
+    if (subjectId != null) {
+      // write the interned message type ID
+      out.writeShort(subjectId);
+      return;
     }
-  }
 
-  private void encodeReply(InternalReply reply, ByteBuf out) {
-    encodeMessage(reply, out);
+    if (subjectIds.size() < MAX_SUBJECT_IDS) {
+      final int nextId = subjectIds.size() + 1;
+      subjectIds.put(subject, nextId);
+      out.writeShort(-nextId);
+    } else {
+      out.writeShort(0);
+    }
+    writeSubject(subject, out);
+  }
 
-    // write message status value
-    out.writeByte(reply.status().id());
+  /**
+   * Writes the length of the given subject followed by the subject bytes.
+   */
+  private static void writeSubject(String subject, ByteBuf out) {
+    final int lengthIndex = out.writerIndex();
+    out.writeShort(0);
+    final int length = ByteBufUtil.writeUtf8(out, subject);
+    out.setShort(lengthIndex, length);
   }
 
   @Override
@@ -22,12 +22,19 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.util.concurrent.MoreExecutors;
 import io.atomix.cluster.messaging.ManagedMessagingService;
+import io.atomix.cluster.messaging.MessagingConfig;
 import io.atomix.cluster.messaging.MessagingException;
 import io.atomix.cluster.messaging.MessagingService;
+import io.atomix.utils.concurrent.Futures;
 import io.atomix.utils.net.Address;
 import io.netty.bootstrap.Bootstrap;
 import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
 import io.netty.channel.Channel;
 import io.netty.channel.ChannelFuture;
 import io.netty.channel.ChannelFutureListener;
@@ -39,13 +46,18 @@ import io.netty.channel.EventLoopGroup;
 import io.netty.channel.ServerChannel;
 import io.netty.channel.SimpleChannelInboundHandler;
 import io.netty.channel.WriteBufferWaterMark;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
 import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollMode;
 import io.netty.channel.epoll.EpollServerSocketChannel;
 import io.netty.channel.epoll.EpollSocketChannel;
 import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.channel.socket.SocketChannel;
 import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.util.HashedWheelTimer;
+import io.netty.util.Timeout;
 import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
 import org.apache.commons.math3.stat.descriptive.SynchronizedDescriptiveStatistics;
 import org.slf4j.Logger;
@@ -65,8 +77,9 @@ import java.security.MessageDigest;
 import java.security.cert.Certificate;
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Enumeration;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -75,18 +88,20 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Executor;
-import java.util.concurrent.Executors;
 import java.util.concurrent.RejectedExecutionException;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
 import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
 
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 import static io.atomix.utils.concurrent.Threads.namedThreads;
 
@@ -111,6 +126,7 @@ public class NettyMessagingService implements ManagedMessagingService {
   public static class Builder extends MessagingService.Builder {
     private String name = DEFAULT_NAME;
     private Address address;
+    private MessagingConfig config = new MessagingConfig();
 
     /**
      * Sets the cluster name.
@@ -136,26 +152,66 @@ public class NettyMessagingService implements ManagedMessagingService {
       return this;
     }
 
+    /**
+     * Sets whether outbound message batching is enabled.
+     * <p>
+     * When batching is enabled, messages sent on a connection are queued and drained on the connection's event loop,
+     * and all messages drained in a single event loop task are written to the socket with a single flush.
+     *
+     * @param batchingEnabled whether outbound message batching is enabled
+     * @return the Netty messaging service builder
+     */
+    public Builder withBatchingEnabled(boolean batchingEnabled) {
+      config.setBatchingEnabled(batchingEnabled);
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of bytes to write to a connection before flushing a batch.
+     *
+     * @param maxBatchSize the maximum number of bytes to write before flushing a batch
+     * @return the Netty messaging service builder
+     * @throws IllegalArgumentException if the batch size is not positive
+     */
+    public Builder withMaxBatchSize(int maxBatchSize) {
+      checkArgument(maxBatchSize > 0, "maxBatchSize must be positive");
+      config.setMaxBatchSize(maxBatchSize);
+      return this;
+    }
+
+    /**
+     * Sets the messaging configuration.
+     *
+     * @param config the messaging configuration
+     * @return the Netty messaging service builder
+     * @throws NullPointerException if the configuration is null
+     */
+    public Builder withMessagingConfig(MessagingConfig config) {
+      this.config = checkNotNull(config);
+      return this;
+    }
+
     @Override
     public ManagedMessagingService build() {
       if (address == null) {
         address = Address.local();
       }
-      return new NettyMessagingService(name.hashCode(), address);
+      return new NettyMessagingService(name.hashCode(), address, config);
     }
   }
 
   private static final long HISTORY_EXPIRE_MILLIS = Duration.ofMinutes(1).toMillis();
   private static final long MIN_TIMEOUT_MILLIS = 100;
   private static final long MAX_TIMEOUT_MILLIS = 5000;
-  private static final long TIMEOUT_INTERVAL = 50;
+  private static final long TIMER_TICK_MILLIS = 10;
+  private static final int TIMER_WHEEL_SIZE = 512;
   private static final int WINDOW_SIZE = 10;
   private static final int WINDOW_UPDATE_SAMPLE_SIZE = 100;
   private static final long WINDOW_UPDATE_MILLIS = 60000;
   private static final int MIN_SAMPLES = 25;
   private static final double PHI_FACTOR = 1.0 / Math.log(10.0);
   private static final int PHI_FAILURE_THRESHOLD = 12;
-  private static final int CHANNEL_POOL_SIZE = 8;
+  private static final int MAX_PRIORITY_SUBJECT_CACHE_SIZE = 10000;
 
   private static final byte[] EMPTY_PAYLOAD = new byte[0];
 
@@ -174,11 +230,33 @@ public class NettyMessagingService implements ManagedMessagingService {
   private final int preamble;
   private final AtomicBoolean started = new AtomicBoolean(false);
   private final Map<String, BiConsumer<InternalRequest, ServerConnection>> handlers = new ConcurrentHashMap<>();
+  private final AtomicInteger handlersVersion = new AtomicInteger();
   private final Map<Channel, RemoteClientConnection> clientConnections = Maps.newConcurrentMap();
   private final Map<Channel, RemoteServerConnection> serverConnections = Maps.newConcurrentMap();
   private final AtomicLong messageIdGenerator = new AtomicLong(0);
-
-  private ScheduledFuture<?> timeoutFuture;
+  private final boolean batchingEnabled;
+  private final int maxBatchSize;
+  private final int connectionPoolSize;
+  private final int priorityPoolSize;
+  private final MessagingConfig.ConnectionPoolStrategy connectionPoolStrategy;
+  private final List<Pattern> prioritySubjects;
+  private final Map<String, Boolean> prioritySubjectCache = new ConcurrentHashMap<>();
+  private final boolean backpressureEnabled;
+  private final AtomicInteger channelCounter = new AtomicInteger();
+  private final MessagingConfig.TransportType transportType;
+  private final int clientThreads;
+  private final int serverThreads;
+  private final boolean tcpNoDelay;
+  private final boolean tcpQuickAck;
+  private final int busyPollMicros;
+  private final EpollMode epollMode;
+  private final ByteBufAllocator allocator;
+  private final boolean subjectInterningEnabled;
+  private final boolean compressionEnabled;
+  private final int compressionThreshold;
+  private final Map<String, CompressionStats> compressionStats = new ConcurrentHashMap<>();
+  private final LongAdder messageCount = new LongAdder();
+  private final LongAdder flushCount = new LongAdder();
 
   private final Map<Address, List<CompletableFuture<Channel>>> channels = Maps.newConcurrentMap();
 
@@ -186,7 +264,9 @@ public class NettyMessagingService implements ManagedMessagingService {
   private EventLoopGroup clientGroup;
   private Class<? extends ServerChannel> serverChannelClass;
   private Class<? extends Channel> clientChannelClass;
-  private ScheduledExecutorService timeoutExecutor;
+  private boolean epoll;
+  private ChannelOption<Integer> busyPollOption;
+  private HashedWheelTimer timeoutTimer;
   private Channel serverChannel;
 
   protected static final boolean TLS_ENABLED = true;
@@ -197,8 +277,43 @@ public class NettyMessagingService implements ManagedMessagingService {
   protected KeyManagerFactory keyManager;
 
   protected NettyMessagingService(int preamble, Address address) {
+    this(preamble, address, new MessagingConfig());
+  }
+
+  protected NettyMessagingService(int preamble, Address address, MessagingConfig config) {
+    checkArgument(config.getConnectionPoolSize() > 0, "connectionPoolSize must be positive");
+    checkArgument(config.getPriorityPoolSize() >= 0, "priorityPoolSize cannot be negative");
+    checkArgument(config.getMaxBatchSize() > 0, "maxBatchSize must be positive");
+    checkArgument(config.getCompressionThreshold() >= 0, "compressionThreshold cannot be negative");
     this.preamble = preamble;
     this.localAddress = address;
+    this.batchingEnabled = config.isBatchingEnabled();
+    this.maxBatchSize = config.getMaxBatchSize();
+    this.connectionPoolSize = config.getConnectionPoolSize();
+    this.priorityPoolSize = config.getPriorityPoolSize();
+    this.connectionPoolStrategy = checkNotNull(config.getConnectionPoolStrategy(), "connectionPoolStrategy cannot be null");
+    this.prioritySubjects = config.getPrioritySubjects().stream()
+        .map(Pattern::compile)
+        .collect(Collectors.toList());
+    this.backpressureEnabled = config.isBackpressureEnabled();
+    this.transportType = checkNotNull(config.getTransportType(), "transportType cannot be null");
+    checkArgument(config.getClientThreads() >= 0, "clientThreads cannot be negative");
+    checkArgument(config.getServerThreads() >= 0, "serverThreads cannot be negative");
+    checkArgument(config.getBusyPollMicros() >= 0, "busyPollMicros cannot be negative");
+    this.clientThreads = config.getClientThreads();
+    this.serverThreads = config.getServerThreads();
+    this.tcpNoDelay = config.isTcpNoDelay();
+    this.tcpQuickAck = config.isTcpQuickAck();
+    this.busyPollMicros = config.getBusyPollMicros();
+    this.epollMode = config.isEdgeTriggered() ? EpollMode.EDGE_TRIGGERED : EpollMode.LEVEL_TRIGGERED;
+    this.subjectInterningEnabled = config.isSubjectInterningEnabled();
+    this.compressionEnabled = config.isCompressionEnabled();
+    this.compressionThreshold = config.getCompressionThreshold();
+    if (config.isPooledAllocator()) {
+      this.allocator = config.isDirectBuffers() ? PooledByteBufAllocator.DEFAULT : new PooledByteBufAllocator(false);
+    } else {
+      this.allocator = config.isDirectBuffers() ? UnpooledByteBufAllocator.DEFAULT : new UnpooledByteBufAllocator(false);
+    }
   }
 
   @Override
@@ -206,6 +321,68 @@ public class NettyMessagingService implements ManagedMessagingService {
     return localAddress;
   }
 
+  /**
+   * Returns the total number of messages written to remote connections.
+   *
+   * @return the total number of messages written to remote connections
+   */
+  public long getMessageCount() {
+    return messageCount.sum();
+  }
+
+  /**
+   * Returns the total number of flushes to remote connections.
+   * <p>
+   * Each flush results in at least one write system call, so the ratio of messages to flushes indicates the
+   * effectiveness of outbound message batching.
+   *
+   * @return the total number of flushes to remote connections
+   */
+  public long getFlushCount() {
+    return flushCount.sum();
+  }
+
+  /**
+   * Returns the average number of messages written per flush.
+   *
+   * @return the average number of messages written per flush
+   */
+  public double getMessagesPerFlush() {
+    long flushes = flushCount.sum();
+    return flushes > 0 ? messageCount.sum() / (double) flushes : 0;
+  }
+
+  /**
+   * Returns message compression statistics by subject.
+   * <p>
+   * Statistics are recorded for messages compressed by this node, including replies, which are recorded under the
+   * subject of the request to which they reply.
+   *
+   * @return message compression statistics by subject
+   */
+  public Map<String, CompressionStats> getCompressionStats() {
+    return Collections.unmodifiableMap(compressionStats);
+  }
+
+  /**
+   * Returns the number of request timeouts pending in the timing wheel.
+   * <p>
+   * Cancelled timeouts are removed from the wheel on the next tick.
+   *
+   * @return the number of pending request timeouts
+   */
+  long getPendingTimeouts() {
+    HashedWheelTimer timeoutTimer = this.timeoutTimer;
+    return timeoutTimer != null ? timeoutTimer.pendingTimeouts() : 0;
+  }
+
+  /**
+   * Creates a new message compressor for a channel.
+   */
+  private MessageCompressor newCompressor() {
+    return new MessageCompressor(compressionEnabled, compressionThreshold, compressionStats);
+  }
+
   @Override
   public CompletableFuture<MessagingService> start() {
     getTlsParameters();
@@ -214,12 +391,14 @@ public class NettyMessagingService implements ManagedMessagingService {
       return CompletableFuture.completedFuture(this);
     }
 
-    initEventLoopGroup();
+    try {
+      initEventLoopGroup();
+    } catch (IllegalStateException e) {
+      return Futures.exceptionalFuture(e);
+    }
+    timeoutTimer = new HashedWheelTimer(
+        namedThreads("netty-messaging-timeout-%d", log), TIMER_TICK_MILLIS, TimeUnit.MILLISECONDS, TIMER_WHEEL_SIZE);
     return startAcceptingConnections().thenRun(() -> {
-      timeoutExecutor = Executors.newSingleThreadScheduledExecutor(
-          namedThreads("netty-messaging-timeout-%d", log));
-      timeoutFuture = timeoutExecutor.scheduleAtFixedRate(
-          this::timeoutAllCallbacks, TIMEOUT_INTERVAL, TIMEOUT_INTERVAL, TimeUnit.MILLISECONDS);
       started.set(true);
       log.info("Started");
     }).thenApply(v -> this);
@@ -310,34 +489,69 @@ public class NettyMessagingService implements ManagedMessagingService {
   }
 
   private void initEventLoopGroup() {
-    // try Epoll first and if that does work, use nio.
-    try {
-      clientGroup = new EpollEventLoopGroup(0, namedThreads("netty-messaging-event-epoll-client-%d", log));
-      serverGroup = new EpollEventLoopGroup(0, namedThreads("netty-messaging-event-epoll-server-%d", log));
-      serverChannelClass = EpollServerSocketChannel.class;
-      clientChannelClass = EpollSocketChannel.class;
-      return;
-    } catch (Throwable e) {
-      log.debug("Failed to initialize native (epoll) transport. "
-          + "Reason: {}. Proceeding with nio.", e.getMessage());
+    switch (transportType) {
+      case EPOLL:
+        if (!Epoll.isAvailable()) {
+          throw new IllegalStateException("Native (epoll) transport is not available", Epoll.unavailabilityCause());
+        }
+        initEpollEventLoopGroup();
+        break;
+      case NIO:
+        initNioEventLoopGroup();
+        break;
+      case AUTO:
+      default:
+        // try Epoll first and if that does work, use nio.
+        try {
+          initEpollEventLoopGroup();
+          return;
+        } catch (Throwable e) {
+          log.debug("Failed to initialize native (epoll) transport. "
+              + "Reason: {}. Proceeding with nio.", e.getMessage());
+        }
+        initNioEventLoopGroup();
+        break;
+    }
+  }
+
+  private void initEpollEventLoopGroup() {
+    clientGroup = new EpollEventLoopGroup(clientThreads, namedThreads("netty-messaging-event-epoll-client-%d", log));
+    serverGroup = new EpollEventLoopGroup(serverThreads, namedThreads("netty-messaging-event-epoll-server-%d", log));
+    serverChannelClass = EpollServerSocketChannel.class;
+    clientChannelClass = EpollSocketChannel.class;
+    epoll = true;
+    if (busyPollMicros > 0) {
+      busyPollOption = getBusyPollOption();
+      if (busyPollOption == null) {
+        log.warn("SO_BUSY_POLL is not supported by the native transport. Proceeding without busy polling.");
+      }
     }
-    clientGroup = new NioEventLoopGroup(0, namedThreads("netty-messaging-event-nio-client-%d", log));
-    serverGroup = new NioEventLoopGroup(0, namedThreads("netty-messaging-event-nio-server-%d", log));
-    serverChannelClass = NioServerSocketChannel.class;
-    clientChannelClass = NioSocketChannel.class;
   }
 
   /**
-   * Times out response callbacks.
+   * Returns the native {@code SO_BUSY_POLL} option.
+   * <p>
+   * The option is resolved reflectively since it's only exposed by newer versions of the native transport.
+   *
+   * @return the native {@code SO_BUSY_POLL} option or {@code null} if the option is not supported
    */
-  private void timeoutAllCallbacks() {
-    // Iterate through all connections and time out callbacks.
-    localClientConnection.timeoutCallbacks();
-    for (RemoteClientConnection connection : clientConnections.values()) {
-      connection.timeoutCallbacks();
+  @SuppressWarnings("unchecked")
+  private static ChannelOption<Integer> getBusyPollOption() {
+    try {
+      return (ChannelOption<Integer>) EpollChannelOption.class.getField("SO_BUSY_POLL").get(null);
+    } catch (NoSuchFieldException | IllegalAccessException e) {
+      return null;
     }
   }
 
+  private void initNioEventLoopGroup() {
+    clientGroup = new NioEventLoopGroup(clientThreads, namedThreads("netty-messaging-event-nio-client-%d", log));
+    serverGroup = new NioEventLoopGroup(serverThreads, namedThreads("netty-messaging-event-nio-server-%d", log));
+    serverChannelClass = NioServerSocketChannel.class;
+    clientChannelClass = NioSocketChannel.class;
+    epoll = false;
+  }
+
   @Override
   public CompletableFuture<Void> sendAsync(Address address, String type, byte[] payload) {
     InternalRequest message = new InternalRequest(preamble,
@@ -374,28 +588,144 @@ public class NettyMessagingService implements ManagedMessagingService {
     return executeOnPooledConnection(address, type, c -> c.sendAndReceive(message, timeout), executor);
   }
 
+  @Override
+  public CompletableFuture<Void> sendBufferAsync(Address address, String type, ByteBuf payload) {
+    InternalRequest message = new InternalRequest(preamble,
+        messageIdGenerator.incrementAndGet(),
+        localAddress,
+        type,
+        payload);
+    return releaseOnFailure(message,
+        executeOnPooledConnection(address, type, c -> c.sendAsync(message), MoreExecutors.directExecutor()));
+  }
+
+  @Override
+  public CompletableFuture<ByteBuf> sendAndReceiveBuffer(Address address, String type, ByteBuf payload, Duration timeout) {
+    InternalRequest message = new InternalRequest(preamble,
+        messageIdGenerator.incrementAndGet(),
+        localAddress,
+        type,
+        payload);
+    return releaseOnFailure(message,
+        executeOnPooledConnection(address, type, c -> c.sendAndReceiveBuffer(message, timeout), MoreExecutors.directExecutor()));
+  }
+
+  /**
+   * Releases the given message's payload if the given future fails before the payload has been written.
+   */
+  private <T> CompletableFuture<T> releaseOnFailure(InternalMessage message, CompletableFuture<T> future) {
+    return future.whenComplete((result, error) -> {
+      if (error != null) {
+        message.release();
+      }
+    });
+  }
+
   private List<CompletableFuture<Channel>> getChannelPool(Address address) {
     List<CompletableFuture<Channel>> channelPool = channels.get(address);
     if (channelPool != null) {
       return channelPool;
     }
     return channels.computeIfAbsent(address, e -> {
-      List<CompletableFuture<Channel>> defaultList = new ArrayList<>(CHANNEL_POOL_SIZE);
-      for (int i = 0; i < CHANNEL_POOL_SIZE; i++) {
+      int size = connectionPoolSize + priorityPoolSize;
+      List<CompletableFuture<Channel>> defaultList = new ArrayList<>(size);
+      for (int i = 0; i < size; i++) {
         defaultList.add(null);
       }
       return Lists.newCopyOnWriteArrayList(defaultList);
     });
   }
 
-  private int getChannelOffset(String messageType) {
-    return Math.abs(messageType.hashCode() % CHANNEL_POOL_SIZE);
+  /**
+   * Returns a boolean indicating whether the given subject should be sent on a priority connection.
+   *
+   * @param messageType the message subject
+   * @return indicates whether the subject is a priority subject
+   */
+  private boolean isPrioritySubject(String messageType) {
+    if (priorityPoolSize == 0 || prioritySubjects.isEmpty()) {
+      return false;
+    }
+    Boolean priority = prioritySubjectCache.get(messageType);
+    if (priority == null) {
+      priority = prioritySubjects.stream().anyMatch(pattern -> pattern.matcher(messageType).matches());
+      if (prioritySubjectCache.size() >= MAX_PRIORITY_SUBJECT_CACHE_SIZE) {
+        prioritySubjectCache.clear();
+      }
+      prioritySubjectCache.put(messageType, priority);
+    }
+    return priority;
+  }
+
+  /**
+   * Returns the offset of the connection in the given pool on which to send a message of the given type.
+   * <p>
+   * Priority subjects are sent on the dedicated priority connections at the end of the pool. All other subjects are
+   * distributed across the remaining connections according to the configured connection pool strategy.
+   */
+  private int getChannelOffset(List<CompletableFuture<Channel>> channelPool, String messageType) {
+    if (isPrioritySubject(messageType)) {
+      return connectionPoolSize + Math.abs(messageType.hashCode() % priorityPoolSize);
+    }
+
+    switch (connectionPoolStrategy) {
+      case ROUND_ROBIN:
+        return Math.abs(channelCounter.getAndIncrement() % connectionPoolSize);
+      case LEAST_LOADED:
+        return getLeastLoadedChannelOffset(channelPool);
+      case HASH:
+      default:
+        return Math.abs(messageType.hashCode() % connectionPoolSize);
+    }
+  }
+
+  /**
+   * Returns the offset of the least loaded connection in the given pool.
+   */
+  private int getLeastLoadedChannelOffset(List<CompletableFuture<Channel>> channelPool) {
+    int offset = 0;
+    long minLoad = Long.MAX_VALUE;
+    for (int i = 0; i < connectionPoolSize; i++) {
+      long load = getChannelLoad(channelPool.get(i));
+      if (load < minLoad) {
+        minLoad = load;
+        offset = i;
+        if (load == 0) {
+          break;
+        }
+      }
+    }
+    return offset;
+  }
+
+  /**
+   * Returns the load on the given connection.
+   * <p>
+   * The load of an open connection is the number of outstanding requests on the connection. Connections that are
+   * not writable are considered fully loaded, and connections that have not yet been opened are preferred only over
+   * connections with outstanding requests.
+   */
+  private long getChannelLoad(CompletableFuture<Channel> channelFuture) {
+    if (channelFuture == null || !channelFuture.isDone() || channelFuture.isCompletedExceptionally()) {
+      return 1;
+    }
+    Channel channel = channelFuture.getNow(null);
+    if (channel == null || !channel.isActive()) {
+      return 1;
+    }
+    if (!channel.isWritable()) {
+      return Integer.MAX_VALUE;
+    }
+    RemoteClientConnection connection = clientConnections.get(channel);
+    return connection != null ? connection.futures.size() : 0;
   }
 
   private CompletableFuture<Channel> getChannel(Address address, String messageType) {
     List<CompletableFuture<Channel>> channelPool = getChannelPool(address);
-    int offset = getChannelOffset(messageType);
+    return getChannel(address, channelPool, getChannelOffset(channelPool, messageType));
+  }
 
+  private CompletableFuture<Channel> getChannel(Address address, List<CompletableFuture<Channel>> channelPool, int offset) {
     CompletableFuture<Channel> channelFuture = channelPool.get(offset);
     if (channelFuture == null || channelFuture.isCompletedExceptionally()) {
       synchronized (channelPool) {
@@ -429,7 +759,7 @@ public class NettyMessagingService implements ManagedMessagingService {
           }
 
           if (currentFuture == finalFuture) {
-            getChannel(address, messageType).whenComplete((recursiveResult, recursiveError) -> {
+            getChannel(address, channelPool, offset).whenComplete((recursiveResult, recursiveError) -> {
               if (recursiveError == null) {
                 future.complete(recursiveResult);
               } else {
@@ -484,6 +814,12 @@ public class NettyMessagingService implements ManagedMessagingService {
 
     getChannel(address, type).whenComplete((channel, channelError) -> {
       if (channelError == null) {
+        // If backpressure is enabled and the connection's outbound buffer is full, reject the message.
+        if (backpressureEnabled && !channel.isWritable() && !isPrioritySubject(type)) {
+          executor.execute(() -> future.completeExceptionally(new MessagingException.Backpressure()));
+          return;
+        }
+
         final ClientConnection connection = getOrCreateRemoteClientConnection(channel);
         callback.apply(connection).whenComplete((result, sendError) -> {
           if (sendError == null) {
@@ -517,6 +853,7 @@ public class NettyMessagingService implements ManagedMessagingService {
   public void registerHandler(String type, BiConsumer<Address, byte[]> handler, Executor executor) {
     handlers.put(type, (message, connection) -> executor.execute(() ->
         handler.accept(message.sender(), message.payload())));
+    handlersVersion.incrementAndGet();
   }
 
   @Override
@@ -532,6 +869,7 @@ public class NettyMessagingService implements ManagedMessagingService {
       }
       connection.reply(message, status, Optional.ofNullable(responsePayload));
     }));
+    handlersVersion.incrementAndGet();
   }
 
   @Override
@@ -548,23 +886,56 @@ public class NettyMessagingService implements ManagedMessagingService {
         connection.reply(message, status, Optional.ofNullable(result));
       });
     });
+    handlersVersion.incrementAndGet();
+  }
+
+  @Override
+  public void registerBufferHandler(String type, BiConsumer<Address, ByteBuf> handler, Executor executor) {
+    handlers.put(type, (message, connection) -> executor.execute(() ->
+        handler.accept(message.sender(), message.payloadBuffer())));
+    handlersVersion.incrementAndGet();
+  }
+
+  @Override
+  public void registerBufferHandler(String type, BiFunction<Address, ByteBuf, CompletableFuture<ByteBuf>> handler) {
+    handlers.put(type, (message, connection) -> {
+      handler.apply(message.sender(), message.payloadBuffer()).whenComplete((result, error) -> {
+        InternalReply.Status status;
+        if (error == null) {
+          status = InternalReply.Status.OK;
+        } else {
+          log.warn("An error occurred in a message handler: {}", error);
+          status = InternalReply.Status.ERROR_HANDLER_EXCEPTION;
+        }
+        connection.reply(message, status, result);
+      });
+    });
+    handlersVersion.incrementAndGet();
   }
 
   @Override
   public void unregisterHandler(String type) {
     handlers.remove(type);
+    handlersVersion.incrementAndGet();
   }
 
   private Bootstrap bootstrapClient(Address address) {
     Bootstrap bootstrap = new Bootstrap();
-    bootstrap.option(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT);
+    bootstrap.option(ChannelOption.ALLOCATOR, allocator);
     bootstrap.option(ChannelOption.WRITE_BUFFER_WATER_MARK,
         new WriteBufferWaterMark(10 * 32 * 1024, 10 * 64 * 1024));
     bootstrap.option(ChannelOption.SO_RCVBUF, 1024 * 1024);
     bootstrap.option(ChannelOption.SO_SNDBUF, 1024 * 1024);
     bootstrap.option(ChannelOption.SO_KEEPALIVE, true);
-    bootstrap.option(ChannelOption.TCP_NODELAY, true);
+    bootstrap.option(ChannelOption.TCP_NODELAY, tcpNoDelay);
     bootstrap.option(ChannelOption.CONNECT_TIMEOUT_MILLIS, 1000);
+    if (epoll) {
+      bootstrap.option(EpollChannelOption.EPOLL_MODE, epollMode);
+      bootstrap.option(EpollChannelOption.TCP_QUICKACK, tcpQuickAck);
+      if (busyPollOption != null) {
+        bootstrap.option(busyPollOption, busyPollMicros);
+      }
+    }
     bootstrap.group(clientGroup);
     // TODO: Make this faster:
     // http://normanmaurer.me/presentations/2014-facebook-eng-netty/slides.html#37.0
@@ -588,9 +959,17 @@ public class NettyMessagingService implements ManagedMessagingService {
     b.childOption(ChannelOption.SO_RCVBUF, 1024 * 1024);
     b.childOption(ChannelOption.SO_SNDBUF, 1024 * 1024);
     b.childOption(ChannelOption.SO_KEEPALIVE, true);
-    b.childOption(ChannelOption.TCP_NODELAY, true);
-    b.childOption(ChannelOption.ALLOCATOR, PooledByteBufAllocator.DEFAULT);
-    b.group(serverGroup, clientGroup);
+    b.childOption(ChannelOption.TCP_NODELAY, tcpNoDelay);
+    b.childOption(ChannelOption.ALLOCATOR, allocator);
+    if (epoll) {
+      b.option(EpollChannelOption.EPOLL_MODE, epollMode);
+      b.childOption(EpollChannelOption.EPOLL_MODE, epollMode);
+      b.childOption(EpollChannelOption.TCP_QUICKACK, tcpQuickAck);
+      if (busyPollOption != null) {
+        b.childOption(busyPollOption, busyPollMicros);
+      }
+    }
+    b.group(serverGroup);
     b.channel(serverChannelClass);
     if (enableNettyTls) {
       b.childHandler(new SslServerCommunicationChannelInitializer());
@@ -637,8 +1016,7 @@ public class NettyMessagingService implements ManagedMessagingService {
       serverChannel.close().addListener(f -> {
         serverGroup.shutdownGracefully();
         clientGroup.shutdownGracefully();
-        timeoutFuture.cancel(false);
-        timeoutExecutor.shutdown();
+        timeoutTimer.stop();
         started.set(false);
         log.info("Stopped");
         future.complete(null);
@@ -657,6 +1035,7 @@ public class NettyMessagingService implements ManagedMessagingService {
 
     @Override
     protected void initChannel(SocketChannel channel) throws Exception {
+      MessageCompressor compressor = newCompressor();
       SSLContext serverContext = SSLContext.getInstance("TLS");
       serverContext.init(keyManager.getKeyManagers(), trustManager.getTrustManagers(), null);
 
@@ -669,8 +1048,8 @@ public class NettyMessagingService implements ManagedMessagingService {
       serverSslEngine.setEnableSessionCreation(true);
 
       channel.pipeline().addLast("ssl", new io.netty.handler.ssl.SslHandler(serverSslEngine))
-          .addLast("encoder", new MessageEncoder(localAddress, preamble))
-          .addLast("decoder", new MessageDecoder())
+          .addLast("encoder", new MessageEncoder(localAddress, preamble, compressor, subjectInterningEnabled))
+          .addLast("decoder", new MessageDecoder(compressor))
           .addLast("handler", dispatcher);
     }
   }
@@ -683,6 +1062,7 @@ public class NettyMessagingService implements ManagedMessagingService {
 
     @Override
     protected void initChannel(SocketChannel channel) throws Exception {
+      MessageCompressor compressor = newCompressor();
       SSLContext clientContext = SSLContext.getInstance("TLS");
       clientContext.init(keyManager.getKeyManagers(), trustManager.getTrustManagers(), null);
 
@@ -694,8 +1074,8 @@ public class NettyMessagingService implements ManagedMessagingService {
       clientSslEngine.setEnableSessionCreation(true);
 
       channel.pipeline().addLast("ssl", new io.netty.handler.ssl.SslHandler(clientSslEngine))
-          .addLast("encoder", new MessageEncoder(localAddress, preamble))
-          .addLast("decoder", new MessageDecoder())
+          .addLast("encoder", new MessageEncoder(localAddress, preamble, compressor, subjectInterningEnabled))
+          .addLast("decoder", new MessageDecoder(compressor))
           .addLast("handler", dispatcher);
     }
   }
@@ -708,9 +1088,10 @@ public class NettyMessagingService implements ManagedMessagingService {
 
     @Override
     protected void initChannel(SocketChannel channel) throws Exception {
+      MessageCompressor compressor = newCompressor();
       channel.pipeline()
-          .addLast("encoder", new MessageEncoder(localAddress, preamble))
-          .addLast("decoder", new MessageDecoder())
+          .addLast("encoder", new MessageEncoder(localAddress, preamble, compressor, subjectInterningEnabled))
+          .addLast("decoder", new MessageDecoder(compressor))
           .addLast("handler", dispatcher);
     }
   }
@@ -739,6 +1120,7 @@ public class NettyMessagingService implements ManagedMessagingService {
         }
       } catch (RejectedExecutionException e) {
         log.warn("Unable to dispatch message due to {}", e.getMessage());
+        message.release();
       }
     }
 
@@ -792,20 +1174,44 @@ public class NettyMessagingService implements ManagedMessagingService {
     private final String type;
     private final long timeout;
     private final CompletableFuture<byte[]> future;
+    private final CompletableFuture<ByteBuf> bufferFuture;
     private final long time = System.currentTimeMillis();
+    private volatile Timeout timer;
 
-    Callback(String type, Duration timeout, CompletableFuture<byte[]> future) {
+    Callback(String type, Duration timeout, CompletableFuture<byte[]> future, CompletableFuture<ByteBuf> bufferFuture) {
       this.type = type;
       this.timeout = timeout != null ? timeout.toMillis() : 0;
       this.future = future;
+      this.bufferFuture = bufferFuture;
     }
 
-    public void complete(byte[] value) {
-      future.complete(value);
+    public void complete(InternalReply reply) {
+      if (bufferFuture != null) {
+        ByteBuf payload = reply.payloadBuffer();
+        if (payload != null && !bufferFuture.complete(payload)) {
+          payload.release();
+        }
+      } else {
+        future.complete(reply.payload());
+      }
+    }
+
+    /**
+     * Cancels the callback's timeout.
+     */
+    void cancelTimer() {
+      Timeout timer = this.timer;
+      if (timer != null) {
+        timer.cancel();
+      }
     }
 
     public void completeExceptionally(Throwable error) {
-      future.completeExceptionally(error);
+      if (bufferFuture != null) {
+        bufferFuture.completeExceptionally(error);
+      } else {
+        future.completeExceptionally(error);
+      }
     }
   }
 
@@ -831,6 +1237,15 @@ public class NettyMessagingService implements ManagedMessagingService {
      */
     CompletableFuture<byte[]> sendAndReceive(InternalRequest message, Duration timeout);
 
+    /**
+     * Sends a message to the other side of the connection, awaiting a buffer reply.
+     *
+     * @param message the message to send
+     * @param timeout the response timeout
+     * @return a completable future to be completed with the reply buffer once a reply is received
+     */
+    CompletableFuture<ByteBuf> sendAndReceiveBuffer(InternalRequest message, Duration timeout);
+
     /**
      * Closes the connection.
      */
@@ -852,6 +1267,27 @@ public class NettyMessagingService implements ManagedMessagingService {
      */
     void reply(InternalRequest message, InternalReply.Status status, Optional<byte[]> payload);
 
+    /**
+     * Sends a buffer reply to the other side of the connection.
+     * <p>
+     * Ownership of the payload buffer is transferred to the connection.
+     *
+     * @param message the message to which to reply
+     * @param status  the reply status
+     * @param payload the response payload buffer, or {@code null} for an empty payload
+     */
+    default void reply(InternalRequest message, InternalReply.Status status, ByteBuf payload) {
+      byte[] bytes = null;
+      if (payload != null) {
+        try {
+          bytes = ByteBufUtil.getBytes(payload);
+        } finally {
+          payload.release();
+        }
+      }
+      reply(message, status, Optional.ofNullable(bytes));
+    }
+
     /**
      * Closes the connection.
      */
@@ -870,50 +1306,103 @@ public class NettyMessagingService implements ManagedMessagingService {
     final AtomicBoolean closed = new AtomicBoolean(false);
 
     /**
-     * Times out callbacks for this connection.
+     * Registers a callback and schedules its timeout.
      */
-    void timeoutCallbacks() {
-      // Store the current time.
-      long currentTime = System.currentTimeMillis();
-
-      // Iterate through future callbacks and time out callbacks that have been alive
-      // longer than the current timeout according to the message type.
-      Iterator<Map.Entry<Long, Callback>> iterator = futures.entrySet().iterator();
-      while (iterator.hasNext()) {
-        Callback callback = iterator.next().getValue();
-        try {
-          long elapsedTime = currentTime - callback.time;
+    private void registerCallback(long id, Callback callback) {
+      futures.put(id, callback);
+      scheduleTimeout(id, callback, getTimeout(callback));
+    }
+
+    /**
+     * Returns the time in milliseconds after which the given callback should be timed out.
+     * <p>
+     * If a timeout was provided for the callback, the provided timeout is used. Otherwise, the timeout is computed
+     * from the {@link RequestMonitor} for the callback's subject.
+     */
+    private long getTimeout(Callback callback) {
+      if (callback.timeout > 0) {
+        return callback.timeout;
+      }
+      try {
+        return requestMonitors.get(callback.type, RequestMonitor::new).getTimeout();
+      } catch (ExecutionException e) {
+        throw new AssertionError();
+      }
+    }
 
-          // If a timeout for the callback was provided and the timeout elapsed, timeout the future but don't
-          // record the response time.
-          if (callback.timeout > 0 && elapsedTime > callback.timeout) {
-            iterator.remove();
+    /**
+     * Schedules the timeout for the given callback in the timing wheel.
+     */
+    private void scheduleTimeout(long id, Callback callback, long delay) {
+      try {
+        callback.timer = timeoutTimer.newTimeout(
+            t -> timeoutCallback(id, callback), Math.max(delay, TIMER_TICK_MILLIS), TimeUnit.MILLISECONDS);
+      } catch (IllegalStateException | RejectedExecutionException e) {
+        // The timer has been stopped.
+        if (futures.remove(id, callback)) {
+          callback.completeExceptionally(new TimeoutException("Messaging service stopped"));
+        }
+      }
+    }
+
+    /**
+     * Times out the given callback if it is still pending.
+     * <p>
+     * Adaptive timeouts are re-evaluated when the timer expires since the {@link RequestMonitor} for the subject may
+     * have been updated after the timeout was scheduled. If the callback has not yet timed out according to the
+     * current monitor state, the timeout is rescheduled.
+     */
+    private void timeoutCallback(long id, Callback callback) {
+      if (futures.get(id) != callback) {
+        return;
+      }
+
+      long elapsedTime = System.currentTimeMillis() - callback.time;
+
+      // If a timeout for the callback was provided and the timeout elapsed, timeout the future but don't
+      // record the response time.
+      if (callback.timeout > 0) {
+        if (elapsedTime >= callback.timeout) {
+          if (futures.remove(id, callback)) {
             callback.completeExceptionally(
                 new TimeoutException("Request timed out in " + elapsedTime + " milliseconds"));
-          } else {
-            // If no timeout was provided, use the RequestMonitor to calculate the dynamic timeout and determine
-            // whether to timeout the response future.
-            RequestMonitor requestMonitor = requestMonitors.get(callback.type, RequestMonitor::new);
-            if (callback.timeout == 0 && (elapsedTime > MAX_TIMEOUT_MILLIS || (elapsedTime > MIN_TIMEOUT_MILLIS && requestMonitor.isTimedOut(elapsedTime)))) {
-              iterator.remove();
-              requestMonitor.addReplyTime(elapsedTime);
-              callback.completeExceptionally(
-                  new TimeoutException("Request timed out in " + elapsedTime + " milliseconds"));
-            }
           }
-        } catch (ExecutionException e) {
-          throw new AssertionError();
+        } else {
+          scheduleTimeout(id, callback, callback.timeout - elapsedTime);
         }
+        return;
+      }
+
+      // If no timeout was provided, use the RequestMonitor to calculate the dynamic timeout and determine
+      // whether to timeout the response future.
+      try {
+        RequestMonitor requestMonitor = requestMonitors.get(callback.type, RequestMonitor::new);
+        if (elapsedTime > MAX_TIMEOUT_MILLIS || (elapsedTime > MIN_TIMEOUT_MILLIS && requestMonitor.isTimedOut(elapsedTime))) {
+          if (futures.remove(id, callback)) {
+            requestMonitor.addReplyTime(elapsedTime);
+            callback.completeExceptionally(
+                new TimeoutException("Request timed out in " + elapsedTime + " milliseconds"));
+          }
+        } else {
+          scheduleTimeout(id, callback, requestMonitor.getTimeout() - elapsedTime);
+        }
+      } catch (ExecutionException e) {
+        throw new AssertionError();
       }
     }
 
     protected void registerCallback(long id, String subject, Duration timeout, CompletableFuture<byte[]> future) {
-      futures.put(id, new Callback(subject, timeout, future));
+      registerCallback(id, new Callback(subject, timeout, future, null));
+    }
+
+    protected void registerBufferCallback(long id, String subject, Duration timeout, CompletableFuture<ByteBuf> future) {
+      registerCallback(id, new Callback(subject, timeout, null, future));
     }
 
     protected Callback completeCallback(long id) {
       Callback callback = futures.remove(id);
       if (callback != null) {
+        callback.cancelTimer();
         try {
           RequestMonitor requestMonitor = requestMonitors.get(callback.type, RequestMonitor::new);
           requestMonitor.addReplyTime(System.currentTimeMillis() - callback.time);
@@ -925,13 +1414,18 @@ public class NettyMessagingService implements ManagedMessagingService {
     }
 
     protected Callback failCallback(long id) {
-      return futures.remove(id);
+      Callback callback = futures.remove(id);
+      if (callback != null) {
+        callback.cancelTimer();
+      }
+      return callback;
     }
 
     @Override
     public void close() {
       if (closed.compareAndSet(false, true)) {
         for (Callback callback : futures.values()) {
+          callback.cancelTimer();
           callback.completeExceptionally(new ConnectException());
         }
       }
@@ -950,6 +1444,7 @@ public class NettyMessagingService implements ManagedMessagingService {
         handler.accept(message, localServerConnection);
       } else {
         log.debug("{} - No handler for message type {} from {}", localAddress, message.subject(), message.sender());
+        message.release();
       }
       return CompletableFuture.completedFuture(null);
     }
@@ -965,11 +1460,17 @@ public class NettyMessagingService implements ManagedMessagingService {
         handler.accept(message, new LocalServerConnection(future));
       } else {
         log.debug("{} - No handler for message type {} from {}", localAddress, message.subject(), message.sender());
+        message.release();
         new LocalServerConnection(future)
             .reply(message, InternalReply.Status.ERROR_NO_HANDLER, Optional.empty());
       }
       return future;
     }
+
+    @Override
+    public CompletableFuture<ByteBuf> sendAndReceiveBuffer(InternalRequest message, Duration timeout) {
+      return sendAndReceive(message, timeout).thenApply(Unpooled::wrappedBuffer);
+    }
   }
 
   /**
@@ -1003,14 +1504,23 @@ public class NettyMessagingService implements ManagedMessagingService {
    */
   private final class RemoteClientConnection extends AbstractClientConnection {
     private final Channel channel;
+    private final MessageBatcher batcher;
 
     RemoteClientConnection(Channel channel) {
       this.channel = channel;
+      this.batcher = batchingEnabled ? new MessageBatcher(channel, maxBatchSize, messageCount, flushCount) : null;
     }
 
     @Override
     public CompletableFuture<Void> sendAsync(InternalRequest message) {
       CompletableFuture<Void> future = new CompletableFuture<>();
+      if (batcher != null) {
+        batcher.write(message, future);
+        return future;
+      }
+
+      messageCount.increment();
+      flushCount.increment();
       channel.writeAndFlush(message).addListener(channelFuture -> {
         if (!channelFuture.isSuccess()) {
           future.completeExceptionally(channelFuture.cause());
@@ -1025,6 +1535,40 @@ public class NettyMessagingService implements ManagedMessagingService {
     public CompletableFuture<byte[]> sendAndReceive(InternalRequest message, Duration timeout) {
       CompletableFuture<byte[]> future = new CompletableFuture<>();
       registerCallback(message.id(), message.subject(), timeout, future);
+      sendRequest(message);
+      return future;
+    }
+
+    @Override
+    public CompletableFuture<ByteBuf> sendAndReceiveBuffer(InternalRequest message, Duration timeout) {
+      CompletableFuture<ByteBuf> future = new CompletableFuture<>();
+      registerBufferCallback(message.id(), message.subject(), timeout, future);
+      sendRequest(message);
+      return future;
+    }
+
+    /**
+     * Writes a request for which a callback has been registered to the channel.
+     *
+     * @param message the request to write
+     */
+    private void sendRequest(InternalRequest message) {
+      if (batcher != null) {
+        CompletableFuture<Void> writeFuture = new CompletableFuture<>();
+        writeFuture.whenComplete((result, error) -> {
+          if (error != null) {
+            Callback callback = failCallback(message.id());
+            if (callback != null) {
+              callback.completeExceptionally(error);
+            }
+          }
+        });
+        batcher.write(message, writeFuture);
+        return;
+      }
+
+      messageCount.increment();
+      flushCount.increment();
       channel.writeAndFlush(message).addListener(channelFuture -> {
         if (!channelFuture.isSuccess()) {
           Callback callback = failCallback(message.id());
@@ -1033,7 +1577,6 @@ public class NettyMessagingService implements ManagedMessagingService {
           }
         }
       });
-      return future;
     }
 
     /**
@@ -1044,14 +1587,19 @@ public class NettyMessagingService implements ManagedMessagingService {
     private void dispatch(InternalReply message) {
       if (message.preamble() != preamble) {
         log.debug("Received {} with invalid preamble", message.type());
+        message.release();
         return;
       }
 
       Callback callback = completeCallback(message.id());
       if (callback != null) {
         if (message.status() == InternalReply.Status.OK) {
-          callback.complete(message.payload());
-        } else if (message.status() == InternalReply.Status.ERROR_NO_HANDLER) {
+          callback.complete(message);
+          return;
+        }
+
+        message.release();
+        if (message.status() == InternalReply.Status.ERROR_NO_HANDLER) {
           callback.completeExceptionally(new MessagingException.NoRemoteHandler());
         } else if (message.status() == InternalReply.Status.ERROR_HANDLER_EXCEPTION) {
           callback.completeExceptionally(new MessagingException.RemoteHandlerFailure());
@@ -1062,16 +1610,7 @@ public class NettyMessagingService implements ManagedMessagingService {
         log.debug("Received a reply for message id:[{}] "
             + "but was unable to locate the"
             + " request handle", message.id());
-      }
-    }
-
-    @Override
-    public void close() {
-      if (closed.compareAndSet(false, true)) {
-        timeoutFuture.cancel(false);
-        for (Callback callback : futures.values()) {
-          callback.completeExceptionally(new ConnectException());
-        }
+        message.release();
       }
     }
   }
@@ -1081,9 +1620,14 @@ public class NettyMessagingService implements ManagedMessagingService {
    */
   private final class RemoteServerConnection implements ServerConnection {
     private final Channel channel;
+    private final MessageBatcher batcher;
+    @SuppressWarnings("unchecked")
+    private BiConsumer<InternalRequest, ServerConnection>[] handlerCache = new BiConsumer[16];
+    private int handlerCacheVersion;
 
     RemoteServerConnection(Channel channel) {
       this.channel = channel;
+      this.batcher = batchingEnabled ? new MessageBatcher(channel, maxBatchSize, messageCount, flushCount) : null;
     }
 
     /**
@@ -1094,27 +1638,81 @@ public class NettyMessagingService implements ManagedMessagingService {
     private void dispatch(InternalRequest message) {
       if (message.preamble() != preamble) {
         log.debug("Received {} with invalid preamble from {}", message.type(), message.sender());
+        message.release();
         reply(message, InternalReply.Status.PROTOCOL_EXCEPTION, Optional.empty());
         return;
       }
 
-      BiConsumer<InternalRequest, ServerConnection> handler = handlers.get(message.subject());
+      BiConsumer<InternalRequest, ServerConnection> handler = getHandler(message);
       if (handler != null) {
         log.trace("{} - Received message type {} from {}", localAddress, message.subject(), message.sender());
         handler.accept(message, this);
       } else {
         log.debug("{} - No handler for message type {} from {}", localAddress, message.subject(), message.sender());
+        message.release();
         reply(message, InternalReply.Status.ERROR_NO_HANDLER, Optional.empty());
       }
     }
 
+    /**
+     * Returns the handler for the given message.
+     * <p>
+     * Handlers for subjects interned on the connection are cached in an array indexed by the subject ID. The cache
+     * is cleared whenever a handler is registered or unregistered.
+     *
+     * @param message the message for which to return the handler
+     * @return the handler for the given message or {@code null} if no handler is registered
+     */
+    private BiConsumer<InternalRequest, ServerConnection> getHandler(InternalRequest message) {
+      int subjectId = message.subjectId();
+      if (subjectId <= 0) {
+        return handlers.get(message.subject());
+      }
+
+      int version = handlersVersion.get();
+      if (version != handlerCacheVersion) {
+        Arrays.fill(handlerCache, null);
+        handlerCacheVersion = version;
+      }
+
+      if (subjectId >= handlerCache.length) {
+        handlerCache = Arrays.copyOf(handlerCache, Math.max(subjectId + 1, handlerCache.length * 2));
+      }
+
+      BiConsumer<InternalRequest, ServerConnection> handler = handlerCache[subjectId];
+      if (handler == null) {
+        handler = handlers.get(message.subject());
+        handlerCache[subjectId] = handler;
+      }
+      return handler;
+    }
+
     @Override
     public void reply(InternalRequest message, InternalReply.Status status, Optional<byte[]> payload) {
-      InternalReply response = new InternalReply(preamble,
+      reply(new InternalReply(preamble,
           message.id(),
+          message.subject(),
           payload.orElse(EMPTY_PAYLOAD),
-          status);
-      channel.writeAndFlush(response, channel.voidPromise());
+          status));
+    }
+
+    @Override
+    public void reply(InternalRequest message, InternalReply.Status status, ByteBuf payload) {
+      if (payload == null) {
+        reply(message, status, Optional.empty());
+      } else {
+        reply(new InternalReply(preamble, message.id(), message.subject(), payload, status));
+      }
+    }
+
+    private void reply(InternalReply response) {
+      if (batcher != null) {
+        batcher.write(response, null);
+      } else {
+        messageCount.increment();
+        flushCount.increment();
+        channel.writeAndFlush(response, channel.voidPromise());
+      }
     }
   }
 
@@ -1163,6 +1761,22 @@ public class NettyMessagingService implements ManagedMessagingService {
       return samples.getN() == WINDOW_SIZE && phi(elapsedTime) >= PHI_FAILURE_THRESHOLD;
     }
 
+    /**
+     * Returns the elapsed time after which a request will be timed out according to the current samples.
+     * <p>
+     * This is the inverse of {@link #isTimedOut(long)}: the time at which phi reaches the failure threshold, bounded
+     * by the minimum and maximum timeouts.
+     *
+     * @return the elapsed time in milliseconds after which a request will be timed out
+     */
+    long getTimeout() {
+      if (samples.getN() != WINDOW_SIZE || samples.getN() < MIN_SAMPLES) {
+        return MAX_TIMEOUT_MILLIS + 1;
+      }
+      long timeout = (long) Math.ceil(PHI_FAILURE_THRESHOLD * samples.getMean() / PHI_FACTOR);
+      return Math.min(Math.max(timeout, MIN_TIMEOUT_MILLIS + 1), MAX_TIMEOUT_MILLIS + 1);
+    }
+
     /**
      * Compute phi for the specified node id.
      *
@@ -0,0 +1,175 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.cluster.impl;
+
+import io.atomix.cluster.ClusterMembershipEvent;
+import io.atomix.cluster.ClusterMembershipEventListener;
+import io.atomix.cluster.GroupMembershipConfig;
+import io.atomix.cluster.ManagedClusterMembershipService;
+import io.atomix.cluster.Member;
+import io.atomix.cluster.Member.State;
+import io.atomix.cluster.MemberId;
+import io.atomix.cluster.messaging.impl.TestBroadcastServiceFactory;
+import io.atomix.cluster.messaging.impl.TestMessagingServiceFactory;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * SWIM cluster membership service test.
+ */
+public class SwimClusterMembershipServiceTest {
+  private static final long TIMEOUT = 10000;
+
+  private final TestMessagingServiceFactory messagingServiceFactory = new TestMessagingServiceFactory();
+  private final TestBroadcastServiceFactory broadcastServiceFactory = new TestBroadcastServiceFactory();
+
+  private Member buildMember(int memberId) {
+    return Member.builder(String.valueOf(memberId))
+        .withAddress("localhost", memberId)
+        .build();
+  }
+
+  private Collection<Member> buildBootstrapMembers(Integer... bootstrapNodes) {
+    List<Member> bootstrap = new ArrayList<>(bootstrapNodes.length);
+    for (int bootstrapNode : bootstrapNodes) {
+      bootstrap.add(Member.builder(String.valueOf(bootstrapNode))
+          .withAddress("localhost", bootstrapNode)
+          .build());
+    }
+    return bootstrap;
+  }
+
+  private ManagedClusterMembershipService buildService(Member localMember, Collection<Member> bootstrapMembers) {
+    return new SwimClusterMembershipService(
+        localMember,
+        bootstrapMembers,
+        messagingServiceFactory.newMessagingService(localMember.address()).start().join(),
+        broadcastServiceFactory.newBroadcastService().start().join(),
+        new GroupMembershipConfig()
+            .setProtocol(GroupMembershipConfig.Protocol.SWIM)
+            .setProbeInterval(100)
+            .setProbeTimeout(50)
+            .setSuspectTimeout(1000));
+  }
+
+  private void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+    long endTime = System.currentTimeMillis() + TIMEOUT;
+    while (!condition.getAsBoolean() && System.currentTimeMillis() < endTime) {
+      Thread.sleep(10);
+    }
+    assertTrue(condition.getAsBoolean());
+  }
+
+  @Test
+  public void testClusterService() throws Exception {
+    Collection<Member> bootstrapNodes = buildBootstrapMembers(1, 2, 3);
+
+    Member localMember1 = buildMember(1);
+    ManagedClusterMembershipService clusterService1 = buildService(localMember1, bootstrapNodes);
+    Member localMember2 = buildMember(2);
+    ManagedClusterMembershipService clusterService2 = buildService(localMember2, bootstrapNodes);
+    Member localMember3 = buildMember(3);
+    ManagedClusterMembershipService clusterService3 = buildService(localMember3, bootstrapNodes);
+
+    assertEquals(State.INACTIVE, clusterService1.getLocalMember().getState());
+    assertNull(clusterService1.getMember(MemberId.from("1")));
+
+    CompletableFuture.allOf(new CompletableFuture[]{clusterService1.start(), clusterService2.start(),
+        clusterService3.start()}).join();
+
+    awaitTrue(() -> clusterService1.getMembers().size() == 3
+        && clusterService2.getMembers().size() == 3
+        && clusterService3.getMembers().size() == 3);
+    assertEquals(State.ACTIVE, clusterService1.getLocalMember().getState());
+    assertEquals(State.ACTIVE, clusterService1.getMember(MemberId.from("2")).getState());
+
+    // An ephemeral member joins through the bootstrap members and is disseminated to the rest of the cluster.
+    Member ephemeralMember = buildMember(4);
+    ManagedClusterMembershipService ephemeralClusterService = buildService(ephemeralMember, bootstrapNodes);
+    ephemeralClusterService.start().join();
+
+    awaitTrue(() -> clusterService1.getMembers().size() == 4
+        && clusterService2.getMembers().size() == 4
+        && clusterService3.getMembers().size() == 4
+        && ephemeralClusterService.getMembers().size() == 4);
+
+    // A partitioned member is suspected and eventually removed from the cluster.
+    messagingServiceFactory.partition(localMember1.address());
+    awaitTrue(() -> clusterService2.getMember(MemberId.from("1")) == null
+        && clusterService3.getMember(MemberId.from("1")) == null
+        && ephemeralClusterService.getMember(MemberId.from("1")) == null);
+    assertEquals(3, clusterService2.getMembers().size());
+
+    // Once the partition heals, the member refutes its death and rejoins the cluster.
+    messagingServiceFactory.heal(localMember1.address());
+    awaitTrue(() -> clusterService1.getMembers().size() == 4
+        && clusterService2.getMembers().size() == 4
+        && clusterService3.getMembers().size() == 4
+        && ephemeralClusterService.getMembers().size() == 4);
+
+    // A member that leaves the cluster is removed from the cluster.
+    ephemeralClusterService.stop().join();
+    awaitTrue(() -> clusterService1.getMembers().size() == 3
+        && clusterService2.getMembers().size() == 3
+        && clusterService3.getMembers().size() == 3);
+    assertNull(clusterService2.getMember(MemberId.from("4")));
+
+    // Metadata changes are disseminated to the rest of the cluster.
+    TestClusterMembershipEventListener eventListener = new TestClusterMembershipEventListener();
+    clusterService2.addListener(eventListener);
+
+    clusterService3.getLocalMember().metadata().put("foo", "bar");
+
+    // Skip any events from members refuting stale failures disseminated after the partition healed.
+    ClusterMembershipEvent event;
+    do {
+      event = eventListener.nextEvent();
+    } while (event.type() != ClusterMembershipEvent.Type.MEMBER_UPDATED);
+    assertEquals(MemberId.from("3"), event.subject().id());
+    assertEquals("bar", event.subject().metadata().get("foo"));
+
+    CompletableFuture.allOf(new CompletableFuture[]{clusterService1.stop(), clusterService2.stop(),
+        clusterService3.stop()}).join();
+  }
+
+  private class TestClusterMembershipEventListener implements ClusterMembershipEventListener {
+    private BlockingQueue<ClusterMembershipEvent> queue = new LinkedBlockingQueue<>();
+
+    @Override
+    public void onEvent(ClusterMembershipEvent event) {
+      queue.add(event);
+    }
+
+    ClusterMembershipEvent nextEvent() {
+      try {
+        return queue.take();
+      } catch (InterruptedException e) {
+        return null;
+      }
+    }
+  }
+}
@@ -23,7 +23,10 @@ import io.atomix.cluster.Member;
 import io.atomix.cluster.impl.DefaultClusterMembershipService;
 import io.atomix.cluster.messaging.ClusterEventingService;
 import io.atomix.cluster.messaging.ManagedClusterEventingService;
+import io.atomix.cluster.messaging.MessagingConfig;
+import io.atomix.cluster.messaging.MessagingException;
 import io.atomix.cluster.messaging.MessagingService;
+import io.atomix.cluster.messaging.Subscription;
 import io.atomix.utils.serializer.KryoNamespaces;
 import io.atomix.utils.serializer.Serializer;
 import org.junit.Test;
@@ -31,12 +34,18 @@ import org.junit.Test;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 /**
  * Cluster event service test.
@@ -182,4 +191,181 @@ public class DefaultClusterEventingServiceTest {
     CompletableFuture.allOf(new CompletableFuture[]{clusterService1.stop(), clusterService2.stop(),
         clusterService3.stop()}).join();
   }
+
+  @Test
+  public void testUnsubscribe() throws Exception {
+    TestMessagingServiceFactory messagingServiceFactory = new TestMessagingServiceFactory();
+    TestBroadcastServiceFactory broadcastServiceFactory = new TestBroadcastServiceFactory();
+
+    Collection<Member> bootstrapMembers = buildBootstrapMembers(1, 2);
+
+    Member localMember1 = buildNode(1);
+    MessagingService messagingService1 = messagingServiceFactory.newMessagingService(localMember1.address()).start().join();
+    ManagedClusterMembershipService clusterService1 = new DefaultClusterMembershipService(
+        localMember1,
+        bootstrapMembers,
+        messagingService1,
+        broadcastServiceFactory.newBroadcastService().start().join(),
+        new GroupMembershipConfig());
+    ClusterMembershipService clusterMembershipService1 = clusterService1.start().join();
+    ManagedClusterEventingService clusterEventingService1 = new DefaultClusterEventingService(clusterMembershipService1, messagingService1);
+    ClusterEventingService eventService1 = clusterEventingService1.start().join();
+
+    Member localMember2 = buildNode(2);
+    MessagingService messagingService2 = messagingServiceFactory.newMessagingService(localMember2.address()).start().join();
+    ManagedClusterMembershipService clusterService2 = new DefaultClusterMembershipService(
+        localMember2,
+        bootstrapMembers,
+        messagingService2,
+        broadcastServiceFactory.newBroadcastService().start().join(),
+        new GroupMembershipConfig());
+    ClusterMembershipService clusterMembershipService2 = clusterService2.start().join();
+    ManagedClusterEventingService clusterEventingService2 = new DefaultClusterEventingService(clusterMembershipService2, messagingService2);
+    ClusterEventingService eventService2 = clusterEventingService2.start().join();
+
+    Thread.sleep(100);
+
+    Set<Integer> events = new CopyOnWriteArraySet<>();
+
+    List<Subscription> subscriptions = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      int id = i;
+      subscriptions.add(eventService1.<String>subscribe("test", SERIALIZER::decode, message -> {
+        events.add(id);
+      }, MoreExecutors.directExecutor()).join());
+    }
+
+    eventService2.broadcast("test", "Hello world!", SERIALIZER::encode);
+    Thread.sleep(100);
+    assertEquals(10, events.size());
+    events.clear();
+
+    CompletableFuture.allOf(subscriptions.stream()
+        .map(Subscription::close)
+        .toArray(CompletableFuture[]::new)).join();
+
+    try {
+      eventService2.send("test", "Hello world!").join();
+      fail();
+    } catch (CompletionException e) {
+      assertTrue(e.getCause() instanceof MessagingException.NoRemoteHandler);
+    }
+
+    CompletableFuture.allOf(new CompletableFuture[]{clusterEventingService1.stop(), clusterEventingService2.stop()}).join();
+    CompletableFuture.allOf(new CompletableFuture[]{clusterService1.stop(), clusterService2.stop()}).join();
+  }
+
+  @Test
+  public void testBroadcastTree() throws Exception {
+    TestMessagingServiceFactory messagingServiceFactory = new TestMessagingServiceFactory();
+    TestBroadcastServiceFactory broadcastServiceFactory = new TestBroadcastServiceFactory();
+
+    Collection<Member> bootstrapMembers = buildBootstrapMembers(1, 2, 3, 4, 5);
+
+    List<ManagedClusterMembershipService> clusterServices = new ArrayList<>();
+    List<DefaultClusterEventingService> eventServices = new ArrayList<>();
+    for (int i = 1; i <= 5; i++) {
+      Member localMember = buildNode(i);
+      MessagingService messagingService = messagingServiceFactory.newMessagingService(localMember.address()).start().join();
+      ManagedClusterMembershipService clusterService = new DefaultClusterMembershipService(
+          localMember,
+          bootstrapMembers,
+          messagingService,
+          broadcastServiceFactory.newBroadcastService().start().join(),
+          new GroupMembershipConfig());
+      clusterServices.add(clusterService);
+      DefaultClusterEventingService eventService = new DefaultClusterEventingService(
+          clusterService.start().join(), messagingService, new MessagingConfig().setBroadcastFanout(2));
+      eventService.start().join();
+      eventServices.add(eventService);
+    }
+
+    Thread.sleep(100);
+
+    Set<Integer> events = new CopyOnWriteArraySet<>();
+    for (int i = 0; i < 4; i++) {
+      int id = i;
+      eventServices.get(i).<String>subscribe("test", SERIALIZER::decode, message -> {
+        assertEquals(message, "Hello world!");
+        events.add(id);
+      }, MoreExecutors.directExecutor()).join();
+    }
+
+    eventServices.get(4).broadcast("test", "Hello world!", SERIALIZER::encode);
+    Thread.sleep(100);
+
+    assertEquals(4, events.size());
+    assertEquals(2, eventServices.get(4).getDeliveryStats().get("test").getRelayCount());
+    assertEquals(4, eventServices.subList(0, 4).stream()
+        .mapToLong(eventService -> eventService.getDeliveryStats().get("test").getMessageCount())
+        .sum());
+
+    CompletableFuture.allOf(eventServices.stream()
+        .map(DefaultClusterEventingService::stop)
+        .toArray(CompletableFuture[]::new)).join();
+    CompletableFuture.allOf(clusterServices.stream()
+        .map(ManagedClusterMembershipService::stop)
+        .toArray(CompletableFuture[]::new)).join();
+  }
+
+  @Test
+  public void testBroadcastTreeUnsubscribedRelay() throws Exception {
+    TestMessagingServiceFactory messagingServiceFactory = new TestMessagingServiceFactory();
+    TestBroadcastServiceFactory broadcastServiceFactory = new TestBroadcastServiceFactory();
+
+    Collection<Member> bootstrapMembers = buildBootstrapMembers(1, 2, 3, 4, 5);
+
+    List<ManagedClusterMembershipService> clusterServices = new ArrayList<>();
+    List<MessagingService> messagingServices = new ArrayList<>();
+    List<DefaultClusterEventingService> eventServices = new ArrayList<>();
+    for (int i = 1; i <= 5; i++) {
+      Member localMember = buildNode(i);
+      MessagingService messagingService = messagingServiceFactory.newMessagingService(localMember.address()).start().join();
+      messagingServices.add(messagingService);
+      ManagedClusterMembershipService clusterService = new DefaultClusterMembershipService(
+          localMember,
+          bootstrapMembers,
+          messagingService,
+          broadcastServiceFactory.newBroadcastService().start().join(),
+          new GroupMembershipConfig());
+      clusterServices.add(clusterService);
+      DefaultClusterEventingService eventService = new DefaultClusterEventingService(
+          clusterService.start().join(), messagingService, new MessagingConfig().setBroadcastFanout(1));
+      eventService.start().join();
+      eventServices.add(eventService);
+    }
+
+    Thread.sleep(100);
+
+    Map<Integer, AtomicInteger> events = new ConcurrentHashMap<>();
+    for (int i = 0; i < 4; i++) {
+      int id = i;
+      eventServices.get(i).<String>subscribe("test", SERIALIZER::decode, message -> {
+        events.computeIfAbsent(id, k -> new AtomicInteger()).incrementAndGet();
+      }, MoreExecutors.directExecutor()).join();
+    }
+
+    Thread.sleep(100);
+
+    // Stop handling the topic on one of the nodes before the publisher learns of it. With a fan-out of 1 the relay
+    // tree is a chain, so the node is an interior relay in most broadcasts.
+    messagingServices.get(0).unregisterHandler("test");
+
+    for (int i = 0; i < 10; i++) {
+      eventServices.get(4).broadcast("test", "Hello world!", SERIALIZER::encode);
+    }
+    Thread.sleep(100);
+
+    assertNull(events.get(0));
+    for (int i = 1; i < 4; i++) {
+      assertEquals(10, events.get(i).get());
+    }
+
+    CompletableFuture.allOf(eventServices.stream()
+        .map(DefaultClusterEventingService::stop)
+        .toArray(CompletableFuture[]::new)).join();
+    CompletableFuture.allOf(clusterServices.stream()
+        .map(ManagedClusterMembershipService::stop)
+        .toArray(CompletableFuture[]::new)).join();
+  }
 }
@@ -15,13 +15,20 @@
  */
 package io.atomix.cluster.messaging.impl;
 
+import io.atomix.utils.net.Address;
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.Unpooled;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.embedded.EmbeddedChannel;
 import org.junit.Test;
 
 import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * Message decoder test.
@@ -59,4 +66,113 @@ public class MessageDecoderTest {
             byteBuf.release();
         }
     }
+
+    @Test
+    public void testInternSubjects() throws Exception {
+        Address address = Address.from("127.0.0.1", 5000);
+        MessageEncoder encoder = new MessageEncoder(address, 1, new MessageCompressor(), true);
+        EmbeddedChannel channel = new EmbeddedChannel(new MessageDecoder());
+
+        String subject = "raft-partition-1-append";
+        ByteBuf first = Unpooled.buffer();
+        encoder.encode(new InternalRequest(1, 1, address, subject, new byte[0]), first);
+        ByteBuf second = Unpooled.buffer();
+        encoder.encode(new InternalRequest(1, 2, address, subject, new byte[0]), second);
+        ByteBuf third = Unpooled.buffer();
+        encoder.encode(new InternalRequest(1, 3, address, "raft-partition-2-append", new byte[0]), third);
+
+        // The second request should be encoded with only the subject ID.
+        assertTrue(second.readableBytes() < third.readableBytes());
+
+        channel.writeInbound(first, second, third);
+        InternalRequest request1 = channel.readInbound();
+        InternalRequest request2 = channel.readInbound();
+        InternalRequest request3 = channel.readInbound();
+        assertEquals(subject, request1.subject());
+        assertEquals(subject, request2.subject());
+        assertEquals("raft-partition-2-append", request3.subject());
+        assertEquals(1, request1.subjectId());
+        assertEquals(1, request2.subjectId());
+        assertEquals(2, request3.subjectId());
+        assertEquals(2, request2.id());
+        channel.finish();
+    }
+
+    @Test
+    public void testUninternedSubjects() throws Exception {
+        Address address = Address.from("127.0.0.1", 5000);
+        MessageEncoder encoder = new MessageEncoder(address, 1);
+        EmbeddedChannel channel = new EmbeddedChannel(new MessageDecoder());
+
+        String subject = "raft-partition-1-append";
+        ByteBuf first = Unpooled.buffer();
+        encoder.encode(new InternalRequest(1, 1, address, subject, new byte[0]), first);
+        ByteBuf second = Unpooled.buffer();
+        encoder.encode(new InternalRequest(1, 2, address, subject, new byte[0]), second);
+
+        // Without interning, every request carries the full subject.
+        assertTrue(second.toString(StandardCharsets.UTF_8).contains(subject));
+
+        channel.writeInbound(first, second);
+        InternalRequest request1 = channel.readInbound();
+        InternalRequest request2 = channel.readInbound();
+        assertEquals(subject, request1.subject());
+        assertEquals(subject, request2.subject());
+        assertEquals(0, request1.subjectId());
+        assertEquals(0, request2.subjectId());
+        channel.finish();
+    }
+
+    @Test
+    public void testCompressPayloads() throws Exception {
+        Address address = Address.from("127.0.0.1", 5000);
+        Map<String, CompressionStats> stats = new ConcurrentHashMap<>();
+        MessageCompressor encoderCompressor = new MessageCompressor(true, 1024, stats);
+        encoderCompressor.setRemoteEnabled(true);
+        MessageEncoder encoder = new MessageEncoder(address, 1, encoderCompressor, false);
+        MessageCompressor decoderCompressor = new MessageCompressor(true, 1024, new ConcurrentHashMap<>());
+        EmbeddedChannel channel = new EmbeddedChannel(new MessageDecoder(decoderCompressor));
+
+        // Use a payload that spans multiple compressed chunks.
+        byte[] largePayload = new byte[100 * 1024];
+        for (int i = 0; i < largePayload.length; i++) {
+            largePayload[i] = (byte) (i % 64);
+        }
+        byte[] smallPayload = "Hello world!".getBytes(StandardCharsets.UTF_8);
+
+        ByteBuf first = Unpooled.buffer();
+        encoder.encode(new InternalRequest(1, 1, address, "large", largePayload), first);
+        ByteBuf second = Unpooled.buffer();
+        encoder.encode(new InternalRequest(1, 2, address, "small", smallPayload), second);
+        assertTrue(first.readableBytes() < largePayload.length);
+
+        channel.writeInbound(first, second);
+        InternalRequest request1 = channel.readInbound();
+        InternalRequest request2 = channel.readInbound();
+
+        // The decoder learns that the remote side supports compression from the address header.
+        assertTrue(decoderCompressor.shouldCompress(1024));
+        assertArrayEquals(largePayload, request1.payload());
+        assertArrayEquals(smallPayload, request2.payload());
+
+        assertEquals(1, stats.size());
+        assertEquals(1, stats.get("large").getMessageCount());
+        assertEquals(largePayload.length, stats.get("large").getUncompressedBytes());
+        assertTrue(stats.get("large").getCompressionRatio() > 1);
+        channel.finish();
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testRejectInvalidUncompressedLength() throws Exception {
+        MessageCompressor compressor = new MessageCompressor(true, 1024, new ConcurrentHashMap<>());
+        ByteBuf compressed = Unpooled.buffer();
+        compressed.writeInt(Integer.MAX_VALUE);
+        compressed.writeInt(1);
+        compressed.writeByte(0);
+        try {
+            compressor.decompress(compressed, UnpooledByteBufAllocator.DEFAULT);
+        } finally {
+            compressed.release();
+        }
+    }
 }
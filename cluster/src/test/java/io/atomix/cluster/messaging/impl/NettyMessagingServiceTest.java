@@ -18,7 +18,11 @@ package io.atomix.cluster.messaging.impl;
 import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.Uninterruptibles;
 import io.atomix.cluster.messaging.ManagedMessagingService;
+import io.atomix.cluster.messaging.MessagingConfig;
 import io.atomix.utils.net.Address;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
 import org.junit.After;
 import org.junit.Before;
 import org.junit.Ignore;
@@ -29,13 +33,17 @@ import java.io.IOException;
 import java.net.ConnectException;
 import java.net.ServerSocket;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
@@ -168,6 +176,44 @@ public class NettyMessagingServiceTest {
     }
   }
 
+  @Test
+  public void testSendTimeoutCancelledOnReply() {
+    NettyMessagingService messagingService = (NettyMessagingService) netty1;
+    String subject = nextSubject();
+    netty2.registerHandler(subject, (BiFunction<Address, byte[], byte[]>) (ep, payload) -> payload,
+        MoreExecutors.directExecutor());
+
+    // Completing the request should cancel its timeout in the timing wheel.
+    byte[] response = netty1.sendAndReceive(ep2, subject, "hello world".getBytes(), Duration.ofMinutes(1)).join();
+    assertTrue(Arrays.equals("hello world".getBytes(), response));
+    awaitPendingTimeouts(messagingService, 0);
+
+    String timeoutSubject = nextSubject();
+    BiFunction<Address, byte[], CompletableFuture<byte[]>> handler = (ep, payload) -> new CompletableFuture<>();
+    netty2.registerHandler(timeoutSubject, handler);
+
+    CompletableFuture<byte[]> future =
+        netty1.sendAndReceive(ep2, timeoutSubject, "hello world".getBytes(), Duration.ofMillis(500));
+    awaitPendingTimeouts(messagingService, 1);
+    try {
+      future.join();
+      fail();
+    } catch (CompletionException e) {
+      assertTrue(e.getCause() instanceof TimeoutException);
+    }
+    awaitPendingTimeouts(messagingService, 0);
+  }
+
+  /**
+   * Waits for the number of pending request timeouts to reach the given count.
+   */
+  private void awaitPendingTimeouts(NettyMessagingService messagingService, long count) {
+    for (int i = 0; i < 100 && messagingService.getPendingTimeouts() != count; i++) {
+      Uninterruptibles.sleepUninterruptibly(10, TimeUnit.MILLISECONDS);
+    }
+    assertEquals(count, messagingService.getPendingTimeouts());
+  }
+
   @Test
   public void testSendAutoTimeout() {
     String subject = nextSubject();
@@ -182,6 +228,103 @@ public class NettyMessagingServiceTest {
     }
   }
 
+  @Test
+  public void testSendAndReceiveBuffer() throws Exception {
+    String subject = nextSubject();
+    netty2.registerBufferHandler(subject, (ep, payload) -> CompletableFuture.completedFuture(payload));
+
+    for (int size : new int[]{16, 64 * 1024}) {
+      byte[] bytes = new byte[size];
+      new Random().nextBytes(bytes);
+      ByteBuf response = netty1.sendAndReceiveBuffer(ep2, subject, Unpooled.wrappedBuffer(bytes)).join();
+      try {
+        assertTrue(Arrays.equals(bytes, ByteBufUtil.getBytes(response)));
+      } finally {
+        response.release();
+      }
+    }
+  }
+
+  @Test
+  public void testSendAndReceiveBatched() throws Exception {
+    Address address1 = Address.from(findAvailablePort(5005));
+    NettyMessagingService batched1 = (NettyMessagingService) NettyMessagingService.builder()
+        .withAddress(address1)
+        .withBatchingEnabled(true)
+        .build()
+        .start()
+        .join();
+
+    Address address2 = Address.from(findAvailablePort(5007));
+    NettyMessagingService batched2 = (NettyMessagingService) NettyMessagingService.builder()
+        .withAddress(address2)
+        .withBatchingEnabled(true)
+        .build()
+        .start()
+        .join();
+
+    try {
+      String subject = nextSubject();
+      batched2.registerHandler(subject, (BiFunction<Address, byte[], byte[]>) (ep, payload) -> payload, MoreExecutors.directExecutor());
+
+      List<CompletableFuture<byte[]>> futures = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+        futures.add(batched1.sendAndReceive(address2, subject, String.valueOf(i).getBytes()));
+      }
+      for (int i = 0; i < futures.size(); i++) {
+        assertTrue(Arrays.equals(String.valueOf(i).getBytes(), futures.get(i).join()));
+      }
+
+      assertEquals(100, batched1.getMessageCount());
+      assertTrue(batched1.getFlushCount() <= batched1.getMessageCount());
+      assertTrue(batched1.getMessagesPerFlush() >= 1);
+    } finally {
+      batched1.stop().join();
+      batched2.stop().join();
+    }
+  }
+
+  @Test
+  public void testSendAndReceivePooled() throws Exception {
+    for (MessagingConfig.ConnectionPoolStrategy strategy : MessagingConfig.ConnectionPoolStrategy.values()) {
+      Address address1 = Address.from(findAvailablePort(5005));
+      NettyMessagingService pooled1 = (NettyMessagingService) NettyMessagingService.builder()
+          .withAddress(address1)
+          .withMessagingConfig(new MessagingConfig()
+              .setConnectionPoolSize(4)
+              .setConnectionPoolStrategy(strategy)
+              .setPrioritySubjects(Arrays.asList(".*-priority")))
+          .build()
+          .start()
+          .join();
+
+      Address address2 = Address.from(findAvailablePort(5007));
+      NettyMessagingService pooled2 = (NettyMessagingService) NettyMessagingService.builder()
+          .withAddress(address2)
+          .build()
+          .start()
+          .join();
+
+      try {
+        String subject = nextSubject();
+        String prioritySubject = nextSubject() + "-priority";
+        pooled2.registerHandler(subject, (BiFunction<Address, byte[], byte[]>) (ep, payload) -> payload, MoreExecutors.directExecutor());
+        pooled2.registerHandler(prioritySubject, (BiFunction<Address, byte[], byte[]>) (ep, payload) -> payload, MoreExecutors.directExecutor());
+
+        List<CompletableFuture<byte[]>> futures = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+          futures.add(pooled1.sendAndReceive(address2, i % 10 == 0 ? prioritySubject : subject, String.valueOf(i).getBytes()));
+        }
+        for (int i = 0; i < futures.size(); i++) {
+          assertTrue(Arrays.equals(String.valueOf(i).getBytes(), futures.get(i).join()));
+        }
+      } finally {
+        pooled1.stop().join();
+        pooled2.stop().join();
+      }
+    }
+  }
+
   /*
    * Supplies executors when registering a handler and calling sendAndReceive and verifies the request handling
    * and response completion occurs on the expected thread.
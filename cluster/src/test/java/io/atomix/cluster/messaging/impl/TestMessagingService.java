@@ -23,11 +23,14 @@ import io.atomix.utils.concurrent.ComposableFuture;
 import io.atomix.utils.concurrent.Futures;
 
 import java.time.Duration;
+import java.util.Collections;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
@@ -40,12 +43,18 @@ import static com.google.common.base.Preconditions.checkNotNull;
 public class TestMessagingService implements ManagedMessagingService {
   private final Address address;
   private final Map<Address, TestMessagingService> services;
+  private final Set<Address> partitions;
   private final Map<String, BiFunction<Address, byte[], CompletableFuture<byte[]>>> handlers = new ConcurrentHashMap<>();
   private final AtomicBoolean started = new AtomicBoolean();
 
   public TestMessagingService(Address address, Map<Address, TestMessagingService> services) {
+    this(address, services, Collections.emptySet());
+  }
+
+  public TestMessagingService(Address address, Map<Address, TestMessagingService> services, Set<Address> partitions) {
     this.address = address;
     this.services = services;
+    this.partitions = partitions;
   }
 
   /**
@@ -60,6 +69,9 @@ public class TestMessagingService implements ManagedMessagingService {
    * Returns the given handler for the given address.
    */
   private BiFunction<Address, byte[], CompletableFuture<byte[]>> getHandler(Address address, String type) {
+    if (partitions.contains(this.address) || partitions.contains(address)) {
+      return (e, p) -> Futures.exceptionalFuture(new TimeoutException());
+    }
     TestMessagingService service = getService(address);
     if (service == null) {
       return (e, p) -> Futures.exceptionalFuture(new NoRemoteHandler());
@@ -78,7 +90,16 @@ public class TestMessagingService implements ManagedMessagingService {
 
   @Override
   public CompletableFuture<Void> sendAsync(Address address, String type, byte[] payload) {
-    return getHandler(address, type).apply(this.address, payload).thenApply(v -> null);
+    // Like the Netty messaging service, only report failures to reach the receiver. Whether the receiver has a
+    // handler for the message and whether the handler succeeds is not reported to the sender.
+    if (partitions.contains(this.address) || partitions.contains(address)) {
+      return Futures.exceptionalFuture(new TimeoutException());
+    }
+    if (getService(address) == null) {
+      return Futures.exceptionalFuture(new NoRemoteHandler());
+    }
+    getHandler(address, type).apply(this.address, payload);
+    return CompletableFuture.completedFuture(null);
   }
 
   @Override
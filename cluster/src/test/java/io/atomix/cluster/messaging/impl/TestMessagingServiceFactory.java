@@ -16,16 +16,19 @@
 package io.atomix.cluster.messaging.impl;
 
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import io.atomix.utils.net.Address;
 import io.atomix.cluster.messaging.ManagedMessagingService;
 
 import java.util.Map;
+import java.util.Set;
 
 /**
  * Test messaging service factory.
  */
 public class TestMessagingServiceFactory {
   private final Map<Address, TestMessagingService> services = Maps.newConcurrentMap();
+  private final Set<Address> partitions = Sets.newConcurrentHashSet();
 
   /**
    * Returns a new test messaging service for the given address.
@@ -34,6 +37,24 @@ public class TestMessagingServiceFactory {
    * @return the messaging service for the given address
    */
   public ManagedMessagingService newMessagingService(Address address) {
-    return new TestMessagingService(address, services);
+    return new TestMessagingService(address, services, partitions);
+  }
+
+  /**
+   * Partitions the given address from all other addresses.
+   *
+   * @param address the address to partition
+   */
+  public void partition(Address address) {
+    partitions.add(address);
+  }
+
+  /**
+   * Heals a partition of the given address.
+   *
+   * @param address the address to heal
+   */
+  public void heal(Address address) {
+    partitions.remove(address);
   }
 }
@@ -46,6 +46,7 @@ import io.atomix.primitive.service.BackupOutput;
 import io.atomix.primitive.service.Commit;
 import io.atomix.primitive.service.ServiceConfig;
 import io.atomix.primitive.service.ServiceExecutor;
+import io.atomix.primitive.service.ServiceSnapshot;
 import io.atomix.primitive.session.PrimitiveSession;
 import io.atomix.utils.concurrent.Scheduled;
 import io.atomix.utils.serializer.KryoNamespace;
@@ -57,11 +58,14 @@ import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -115,6 +119,7 @@ public class ConsistentMapService extends AbstractPrimitiveService {
 
   protected Map<Long, PrimitiveSession> listeners = new LinkedHashMap<>();
   private Map<String, MapEntryValue> map;
+  private final List<Map<String, Optional<MapEntryValue>>> snapshots = new CopyOnWriteArrayList<>();
   protected Set<String> preparedKeys = Sets.newHashSet();
   protected Map<TransactionId, TransactionScope> activeTransactions = Maps.newHashMap();
   protected long currentVersion;
@@ -124,14 +129,98 @@ public class ConsistentMapService extends AbstractPrimitiveService {
     map = createMap();
   }
 
+  /**
+   * Creates the map in which to store entries.
+   * <p>
+   * Snapshots are written from another thread while the service continues to modify the map, so the map must
+   * support concurrent iteration.
+   *
+   * @return a new concurrent map
+   */
   protected Map<String, MapEntryValue> createMap() {
-    return Maps.newHashMap();
+    return new ConcurrentHashMap<>();
   }
 
   protected Map<String, MapEntryValue> entries() {
     return map;
   }
 
+  /**
+   * Puts the given entry in the map.
+   *
+   * @param key   the entry key
+   * @param value the entry value
+   * @return the previous value or {@code null} if the key was not present
+   */
+  private MapEntryValue putEntry(String key, MapEntryValue value) {
+    preserveEntry(key);
+    return map.put(key, value);
+  }
+
+  /**
+   * Removes the given key from the map.
+   *
+   * @param key the key to remove
+   * @return the removed value or {@code null} if the key was not present
+   */
+  private MapEntryValue removeEntry(String key) {
+    preserveEntry(key);
+    return map.remove(key);
+  }
+
+  /**
+   * Removes the given key from the map if it is mapped to the given value.
+   *
+   * @param key   the key to remove
+   * @param value the value to remove
+   */
+  private void removeEntry(String key, MapEntryValue value) {
+    if (Objects.equals(map.get(key), value)) {
+      removeEntry(key);
+    }
+  }
+
+  /**
+   * Preserves the current value of the given key for snapshots that are being written.
+   * <p>
+   * Each snapshot that is being written keeps the value every key had when the snapshot was taken, recorded the
+   * first time the key is modified during the snapshot. The map itself is never copied, so taking a snapshot is
+   * constant time and each modification made while a snapshot is being written costs a constant extra amount.
+   *
+   * @param key the key that is about to be modified
+   */
+  private void preserveEntry(String key) {
+    for (Map<String, Optional<MapEntryValue>> snapshot : snapshots) {
+      if (!snapshot.containsKey(key)) {
+        snapshot.put(key, Optional.ofNullable(map.get(key)));
+      }
+    }
+  }
+
+  /**
+   * Returns the map entries as they were when a snapshot was taken.
+   * <p>
+   * Values are read from the map before checking whether they were modified during the snapshot. Since a key's
+   * previous value is always preserved before the key is modified, a modified value read from the map is always
+   * replaced by its preserved value.
+   *
+   * @param entries   the map entries
+   * @param preserved the values of the keys modified since the snapshot was taken
+   * @return the map entries at the time of the snapshot
+   */
+  private static Map<String, MapEntryValue> snapshotEntries(
+      Map<String, MapEntryValue> entries, Map<String, Optional<MapEntryValue>> preserved) {
+    Map<String, MapEntryValue> snapshot = Maps.newHashMapWithExpectedSize(entries.size());
+    for (Map.Entry<String, MapEntryValue> entry : entries.entrySet()) {
+      MapEntryValue value = entry.getValue();
+      if (!preserved.containsKey(entry.getKey())) {
+        snapshot.put(entry.getKey(), value);
+      }
+    }
+    preserved.forEach((key, value) -> value.ifPresent(v -> snapshot.put(key, v)));
+    return snapshot;
+  }
+
   @Override
   public Serializer serializer() {
     return SERIALIZER;
@@ -141,11 +230,36 @@ public class ConsistentMapService extends AbstractPrimitiveService {
   public void backup(BackupOutput writer) {
     writer.writeObject(Sets.newHashSet(listeners.keySet()));
     writer.writeObject(preparedKeys);
-    writer.writeObject(entries());
+    writer.writeObject(Maps.newHashMap(entries()));
     writer.writeObject(activeTransactions);
     writer.writeLong(currentVersion);
   }
 
+  @Override
+  public ServiceSnapshot snapshot() {
+    // Map entry values and transaction scopes are immutable, so shallow copies of the service state are a stable
+    // point-in-time view that can be serialized while the service continues to apply commands. Rather than copying
+    // the map, the values of keys modified while the snapshot is being written are preserved for the snapshot.
+    Set<Long> listeners = Sets.newHashSet(this.listeners.keySet());
+    Set<String> preparedKeys = Sets.newHashSet(this.preparedKeys);
+    Map<String, MapEntryValue> entries = entries();
+    Map<String, Optional<MapEntryValue>> preserved = new ConcurrentHashMap<>();
+    snapshots.add(preserved);
+    Map<TransactionId, TransactionScope> activeTransactions = Maps.newHashMap(this.activeTransactions);
+    long currentVersion = this.currentVersion;
+    return writer -> {
+      try {
+        writer.writeObject(listeners);
+        writer.writeObject(preparedKeys);
+        writer.writeObject(snapshotEntries(entries, preserved));
+        writer.writeObject(activeTransactions);
+        writer.writeLong(currentVersion);
+      } finally {
+        snapshots.remove(preserved);
+      }
+    };
+  }
+
   @Override
   public void restore(BackupInput reader) {
     listeners = new LinkedHashMap<>();
@@ -153,13 +267,14 @@ public class ConsistentMapService extends AbstractPrimitiveService {
       listeners.put(sessionId, getSession(sessionId));
     }
     preparedKeys = reader.readObject(serializer()::decode);
-    map = reader.readObject(serializer()::decode);
+    map = createMap();
+    map.putAll(reader.readObject(serializer()::decode));
     activeTransactions = reader.readObject(serializer()::decode);
     currentVersion = reader.readLong();
     map.forEach((key, value) -> {
       if (value.ttl() > 0) {
         value.timer = getScheduler().schedule(Duration.ofMillis(value.ttl() - (getWallClock().getTime().unixTimestamp() - value.created())), () -> {
-          entries().remove(key, value);
+          removeEntry(key, value);
           publish(new MapEvent<>(MapEvent.Type.REMOVE, "", key, null, toVersioned(value)));
         });
       }
@@ -361,7 +476,7 @@ public class ConsistentMapService extends AbstractPrimitiveService {
    * @param value the value to update
    */
   protected void putValue(String key, MapEntryValue value) {
-    MapEntryValue oldValue = entries().put(key, value);
+    MapEntryValue oldValue = putEntry(key, value);
     cancelTtl(oldValue);
     scheduleTtl(key, value);
   }
@@ -374,7 +489,7 @@ public class ConsistentMapService extends AbstractPrimitiveService {
   protected void scheduleTtl(String key, MapEntryValue value) {
     if (value.ttl() > 0) {
       value.timer = getScheduler().schedule(Duration.ofMillis(value.ttl()), () -> {
-        entries().remove(key, value);
+        removeEntry(key, value);
         publish(new MapEvent<>(MapEvent.Type.REMOVE, "", key, null, toVersioned(value)));
       });
     }
@@ -544,9 +659,9 @@ public class ConsistentMapService extends AbstractPrimitiveService {
 
     // If no transactions are active, remove the key. Otherwise, replace it with a tombstone.
     if (activeTransactions.isEmpty()) {
-      entries().remove(key);
+      removeEntry(key);
     } else {
-      entries().put(key, new MapEntryValue(MapEntryValue.Type.TOMBSTONE, index, null, 0, 0));
+      putEntry(key, new MapEntryValue(MapEntryValue.Type.TOMBSTONE, index, null, 0, 0));
     }
 
     // Cancel the timer if one is scheduled.
@@ -677,10 +792,9 @@ public class ConsistentMapService extends AbstractPrimitiveService {
    * @return clear result
    */
   protected MapEntryUpdateResult.Status clear() {
-    Iterator<Map.Entry<String, MapEntryValue>> iterator = entries().entrySet().iterator();
     Map<String, MapEntryValue> entriesToAdd = new HashMap<>();
-    while (iterator.hasNext()) {
-      Map.Entry<String, MapEntryValue> entry = iterator.next();
+    List<String> keysToRemove = Lists.newArrayList();
+    for (Map.Entry<String, MapEntryValue> entry : entries().entrySet()) {
       String key = entry.getKey();
       MapEntryValue value = entry.getValue();
       if (!valueIsNull(value)) {
@@ -688,13 +802,14 @@ public class ConsistentMapService extends AbstractPrimitiveService {
         publish(new MapEvent<>(MapEvent.Type.REMOVE, "", key, null, removedValue));
         cancelTtl(value);
         if (activeTransactions.isEmpty()) {
-          iterator.remove();
+          keysToRemove.add(key);
         } else {
           entriesToAdd.put(key, new MapEntryValue(MapEntryValue.Type.TOMBSTONE, value.version, null, 0, 0));
         }
       }
     }
-    entries().putAll(entriesToAdd);
+    keysToRemove.forEach(this::removeEntry);
+    entriesToAdd.forEach(this::putEntry);
     return MapEntryUpdateResult.Status.OK;
   }
 
@@ -867,7 +982,7 @@ public class ConsistentMapService extends AbstractPrimitiveService {
         continue;
       }
 
-      MapEntryValue previousValue = entries().remove(key);
+      MapEntryValue previousValue = removeEntry(key);
 
       // Cancel the previous timer if set.
       cancelTtl(previousValue);
@@ -884,7 +999,7 @@ public class ConsistentMapService extends AbstractPrimitiveService {
 
       MapEvent<String, byte[]> event;
       if (newValue != null) {
-        entries().put(key, newValue);
+        putEntry(key, newValue);
         if (!valueIsNull(newValue)) {
           if (!valueIsNull(previousValue)) {
             event = new MapEvent<>(
@@ -957,26 +1072,17 @@ public class ConsistentMapService extends AbstractPrimitiveService {
    * Discards tombstones no longer needed by active transactions.
    */
   private void discardTombstones() {
-    if (activeTransactions.isEmpty()) {
-      Iterator<Map.Entry<String, MapEntryValue>> iterator = entries().entrySet().iterator();
-      while (iterator.hasNext()) {
-        MapEntryValue value = iterator.next().getValue();
-        if (value.type() == MapEntryValue.Type.TOMBSTONE) {
-          iterator.remove();
-        }
-      }
-    } else {
-      long lowWaterMark = activeTransactions.values().stream()
-          .mapToLong(TransactionScope::version)
-          .min().getAsLong();
-      Iterator<Map.Entry<String, MapEntryValue>> iterator = entries().entrySet().iterator();
-      while (iterator.hasNext()) {
-        MapEntryValue value = iterator.next().getValue();
-        if (value.type() == MapEntryValue.Type.TOMBSTONE && value.version < lowWaterMark) {
-          iterator.remove();
-        }
+    long lowWaterMark = activeTransactions.isEmpty() ? Long.MAX_VALUE : activeTransactions.values().stream()
+        .mapToLong(TransactionScope::version)
+        .min().getAsLong();
+    List<String> tombstones = Lists.newArrayList();
+    for (Map.Entry<String, MapEntryValue> entry : entries().entrySet()) {
+      MapEntryValue value = entry.getValue();
+      if (value.type() == MapEntryValue.Type.TOMBSTONE && value.version < lowWaterMark) {
+        tombstones.add(entry.getKey());
       }
     }
+    tombstones.forEach(this::removeEntry);
   }
 
   /**
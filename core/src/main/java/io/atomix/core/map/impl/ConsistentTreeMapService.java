@@ -41,6 +41,8 @@ import java.util.HashMap;
 import java.util.Map;
 import java.util.NavigableMap;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 
 import static io.atomix.core.map.impl.ConsistentTreeMapOperations.CEILING_ENTRY;
 import static io.atomix.core.map.impl.ConsistentTreeMapOperations.CEILING_KEY;
@@ -58,7 +60,7 @@ import static io.atomix.core.map.impl.ConsistentTreeMapOperations.SUB_MAP;
 
 /**
  * State machine corresponding to {@link ConsistentTreeMapProxy} backed by a
- * {@link TreeMap}.
+ * {@link ConcurrentSkipListMap}.
  */
 public class ConsistentTreeMapService extends ConsistentMapService {
 
@@ -82,13 +84,13 @@ public class ConsistentTreeMapService extends ConsistentMapService {
   }
 
   @Override
-  protected TreeMap<String, MapEntryValue> createMap() {
-    return Maps.newTreeMap();
+  protected ConcurrentNavigableMap<String, MapEntryValue> createMap() {
+    return new ConcurrentSkipListMap<>();
   }
 
   @Override
-  protected TreeMap<String, MapEntryValue> entries() {
-    return (TreeMap<String, MapEntryValue>) super.entries();
+  protected ConcurrentNavigableMap<String, MapEntryValue> entries() {
+    return (ConcurrentNavigableMap<String, MapEntryValue>) super.entries();
   }
 
   @Override
@@ -17,7 +17,9 @@ package io.atomix.core.map.impl;
 
 import io.atomix.core.map.impl.ConsistentMapOperations.Get;
 import io.atomix.core.map.impl.ConsistentMapOperations.Put;
+import io.atomix.core.map.impl.ConsistentMapOperations.Remove;
 import io.atomix.primitive.service.ServiceConfig;
+import io.atomix.primitive.service.ServiceSnapshot;
 import io.atomix.primitive.service.impl.DefaultBackupInput;
 import io.atomix.primitive.service.impl.DefaultBackupOutput;
 import io.atomix.primitive.service.impl.DefaultCommit;
@@ -31,11 +33,16 @@ import io.atomix.utils.time.WallClock;
 import org.junit.Test;
 
 import java.time.Duration;
+import java.util.Map;
 
 import static io.atomix.core.map.impl.ConsistentMapOperations.GET;
 import static io.atomix.core.map.impl.ConsistentMapOperations.PUT;
+import static io.atomix.core.map.impl.ConsistentMapOperations.REMOVE;
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.mock;
 
 /**
@@ -73,6 +80,111 @@ public class ConsistentMapServiceTest {
     assertNotNull(service.entries().get("foo").timer);
   }
 
+  @Test
+  @SuppressWarnings("unchecked")
+  public void testAsyncSnapshot() throws Exception {
+    ConsistentMapService service = new TestConsistentMapService(new ServiceConfig());
+
+    service.put(new DefaultCommit<>(
+        2,
+        PUT,
+        new Put("foo", "Hello world!".getBytes(), 0),
+        mock(PrimitiveSession.class),
+        System.currentTimeMillis()));
+
+    ServiceSnapshot snapshot = service.snapshot();
+
+    // Modify the service after the snapshot is captured.
+    service.put(new DefaultCommit<>(
+        3,
+        PUT,
+        new Put("foo", "Goodbye world!".getBytes(), 0),
+        mock(PrimitiveSession.class),
+        System.currentTimeMillis()));
+
+    Buffer buffer = HeapBuffer.allocate();
+    snapshot.backup(new DefaultBackupOutput(buffer, service.serializer()));
+
+    service = new TestConsistentMapService(new ServiceConfig());
+    service.restore(new DefaultBackupInput(buffer.flip(), service.serializer()));
+
+    Versioned<byte[]> value = service.get(new DefaultCommit<>(
+        3,
+        GET,
+        new Get("foo"),
+        mock(PrimitiveSession.class),
+        System.currentTimeMillis()));
+    assertNotNull(value);
+    assertArrayEquals("Hello world!".getBytes(), value.value());
+  }
+
+  @Test
+  public void testSnapshotCopyOnWrite() throws Exception {
+    ConsistentMapService service = new TestConsistentMapService(new ServiceConfig());
+    service.put(new DefaultCommit<>(
+        2,
+        PUT,
+        new Put("foo", "Hello world!".getBytes(), 0),
+        mock(PrimitiveSession.class),
+        System.currentTimeMillis()));
+    service.put(new DefaultCommit<>(
+        3,
+        PUT,
+        new Put("bar", "Hello world!".getBytes(), 0),
+        mock(PrimitiveSession.class),
+        System.currentTimeMillis()));
+
+    // Writes made while a snapshot is being written modify the map in place without copying it.
+    Map<String, ConsistentMapService.MapEntryValue> entries = service.entries();
+    ServiceSnapshot snapshot = service.snapshot();
+    service.put(new DefaultCommit<>(
+        4,
+        PUT,
+        new Put("foo", "Goodbye world!".getBytes(), 0),
+        mock(PrimitiveSession.class),
+        System.currentTimeMillis()));
+    service.remove(new DefaultCommit<>(
+        5,
+        REMOVE,
+        new Remove("bar"),
+        mock(PrimitiveSession.class),
+        System.currentTimeMillis()));
+    service.put(new DefaultCommit<>(
+        6,
+        PUT,
+        new Put("baz", "Hello world!".getBytes(), 0),
+        mock(PrimitiveSession.class),
+        System.currentTimeMillis()));
+    assertSame(entries, service.entries());
+    assertEquals(2, entries.size());
+
+    // The snapshot still contains the map as it was when the snapshot was taken.
+    Buffer buffer = HeapBuffer.allocate();
+    snapshot.backup(new DefaultBackupOutput(buffer, service.serializer()));
+    ConsistentMapService restored = new TestConsistentMapService(new ServiceConfig());
+    restored.restore(new DefaultBackupInput(buffer.flip(), restored.serializer()));
+    assertEquals(2, restored.entries().size());
+    assertArrayEquals("Hello world!".getBytes(), restored.entries().get("foo").value());
+    assertNotNull(restored.entries().get("bar"));
+    assertNull(restored.entries().get("baz"));
+
+    // A later snapshot contains the writes made while the previous snapshot was being written.
+    service.put(new DefaultCommit<>(
+        7,
+        PUT,
+        new Put("foo", "Hello again!".getBytes(), 0),
+        mock(PrimitiveSession.class),
+        System.currentTimeMillis()));
+    buffer = HeapBuffer.allocate();
+    service.snapshot().backup(new DefaultBackupOutput(buffer, service.serializer()));
+    restored = new TestConsistentMapService(new ServiceConfig());
+    restored.restore(new DefaultBackupInput(buffer.flip(), restored.serializer()));
+    assertSame(entries, service.entries());
+    assertEquals(2, restored.entries().size());
+    assertArrayEquals("Hello again!".getBytes(), restored.entries().get("foo").value());
+    assertNotNull(restored.entries().get("baz"));
+  }
+
   private static class TestConsistentMapService extends ConsistentMapService {
     TestConsistentMapService(ServiceConfig config) {
       super(config);
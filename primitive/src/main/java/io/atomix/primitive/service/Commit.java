@@ -36,6 +36,11 @@ public interface Commit<T> {
    * Raft guarantees that this index will be unique for {@link PrimitiveOperation} commits and will be the same for all
    * instances of the given operation on all servers in the cluster.
    * <p>
+   * <b>The index is logical and is not always a Raft log index.</b> Commands that the leader batches into a single log
+   * entry are assigned consecutive indexes starting at the entry's log index, so the indexes of a batch's later
+   * commands may equal or exceed the log indexes of the entries that follow it. Indexes remain unique and increasing
+   * for commands, but must not be used to look up or compare against positions in the Raft log.
+   * <p>
    * For {@link PrimitiveOperation} operations, the returned {@code index} may actually be representative of the last committed
    * index in the Raft log since queries are not actually written to disk. Thus, query commits cannot be assumed
    * to have unique indexes.
@@ -58,6 +58,21 @@ public interface PrimitiveService {
    */
   void backup(BackupOutput output);
 
+  /**
+   * Captures a point-in-time view of the service state to be backed up asynchronously.
+   * <p>
+   * This method is called on the service thread and should be cheap, e.g. by freezing a persistent or copy-on-write
+   * data structure. The returned snapshot is written on a separate thread while the service continues to apply
+   * commands, so it must be immutable with respect to subsequent changes to the service state. Services that do
+   * not support asynchronous backups should return {@code null}, in which case the service will be backed up
+   * synchronously via {@link #backup(BackupOutput)}.
+   *
+   * @return a point-in-time view of the service state or {@code null} if asynchronous backups are not supported
+   */
+  default ServiceSnapshot snapshot() {
+    return null;
+  }
+
   /**
    * Restores the service state from the given buffer.
    *
@@ -68,6 +68,11 @@ public interface ServiceContext {
    * The state index is indicative of the index of the current operation
    * being applied to the server state machine. If a query is being applied,
    * the index of the last command applied will be used.
+   * <p>
+   * <b>The index is logical and is not always a log index.</b> It increases with
+   * every command, but protocols that batch several commands into a single log
+   * entry assign consecutive indexes to the batched commands, after which the
+   * index may run ahead of the log. See {@link Commit#index()}.
    *
    * @return The current state machine index.
    */
@@ -0,0 +1,35 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.primitive.service;
+
+/**
+ * Point-in-time view of a primitive service's state.
+ * <p>
+ * A service snapshot is captured by {@link PrimitiveService#snapshot()} on the service thread and may be written
+ * to a {@link BackupOutput} on a different thread while the service continues to apply commands. Implementations
+ * must therefore not reference any state that is modified by the service after the snapshot is captured.
+ */
+@FunctionalInterface
+public interface ServiceSnapshot {
+
+  /**
+   * Backs up the captured service state to the given buffer.
+   *
+   * @param output the buffer to which to back up the service state
+   */
+  void backup(BackupOutput output);
+
+}
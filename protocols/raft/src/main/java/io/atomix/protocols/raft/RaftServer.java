@@ -23,6 +23,7 @@ import io.atomix.primitive.operation.OperationType;
 import io.atomix.primitive.service.PrimitiveService;
 import io.atomix.protocols.raft.cluster.RaftCluster;
 import io.atomix.protocols.raft.cluster.RaftMember;
+import io.atomix.protocols.raft.cluster.impl.RaftMemberContext;
 import io.atomix.protocols.raft.impl.DefaultRaftServer;
 import io.atomix.protocols.raft.protocol.RaftServerProtocol;
 import io.atomix.protocols.raft.storage.RaftStorage;
@@ -553,6 +554,10 @@ public interface RaftServer {
     private static final Duration DEFAULT_SESSION_TIMEOUT = Duration.ofMillis(5000);
     private static final ThreadModel DEFAULT_THREAD_MODEL = ThreadModel.SHARED_THREAD_POOL;
     private static final int DEFAULT_THREAD_POOL_SIZE = Runtime.getRuntime().availableProcessors();
+    private static final int DEFAULT_SNAPSHOT_CHUNK_SIZE = 1024 * 1024;
+    private static final int DEFAULT_SNAPSHOT_INSTALL_WINDOW = 4;
+    private static final int DEFAULT_APPEND_WINDOW = 4;
+    private static final int DEFAULT_MAX_APPEND_BATCH_SIZE = 1024 * 1024;
 
     protected String name;
     protected MemberId localMemberId;
@@ -566,6 +571,11 @@ public interface RaftServer {
     protected PrimitiveTypeRegistry primitiveTypes = new PrimitiveTypeRegistry(classLoader);
     protected ThreadModel threadModel = DEFAULT_THREAD_MODEL;
     protected int threadPoolSize = DEFAULT_THREAD_POOL_SIZE;
+    protected int snapshotChunkSize = DEFAULT_SNAPSHOT_CHUNK_SIZE;
+    protected int snapshotInstallWindow = DEFAULT_SNAPSHOT_INSTALL_WINDOW;
+    protected int appendWindow = DEFAULT_APPEND_WINDOW;
+    protected int maxAppendBatchSize = DEFAULT_MAX_APPEND_BATCH_SIZE;
+    protected boolean sessionLeasesEnabled;
 
     protected Builder(MemberId localMemberId) {
       this.localMemberId = checkNotNull(localMemberId, "localMemberId cannot be null");
@@ -735,5 +745,80 @@ public interface RaftServer {
       this.threadPoolSize = threadPoolSize;
       return this;
     }
+
+    /**
+     * Sets the maximum size of a snapshot chunk sent to a follower in a single install request.
+     * <p>
+     * Snapshot chunks start small and grow up to the maximum chunk size as chunks are successfully installed.
+     *
+     * @param snapshotChunkSize The maximum snapshot chunk size in bytes.
+     * @return The server builder.
+     * @throws IllegalArgumentException if the chunk size is less than the minimum snapshot chunk size of 32KB
+     */
+    public Builder withSnapshotChunkSize(int snapshotChunkSize) {
+      checkArgument(snapshotChunkSize >= RaftMemberContext.MIN_SNAPSHOT_CHUNK_SIZE,
+          "snapshotChunkSize must be at least %s", RaftMemberContext.MIN_SNAPSHOT_CHUNK_SIZE);
+      this.snapshotChunkSize = snapshotChunkSize;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of snapshot chunks that may be in flight to a single follower.
+     *
+     * @param snapshotInstallWindow The snapshot install window size.
+     * @return The server builder.
+     * @throws IllegalArgumentException if the window size is not positive
+     */
+    public Builder withSnapshotInstallWindow(int snapshotInstallWindow) {
+      checkArgument(snapshotInstallWindow > 0, "snapshotInstallWindow must be positive");
+      this.snapshotInstallWindow = snapshotInstallWindow;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of append requests that may be in flight to a single follower.
+     *
+     * @param appendWindow The append window size.
+     * @return The server builder.
+     * @throws IllegalArgumentException if the window size is not positive
+     */
+    public Builder withAppendWindow(int appendWindow) {
+      checkArgument(appendWindow > 0, "appendWindow must be positive");
+      this.appendWindow = appendWindow;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of bytes of entries sent to a follower in a single append request.
+     * <p>
+     * Append batches start small and grow up to the maximum batch size while appends to the follower complete
+     * quickly, and shrink again when appends to the follower slow down.
+     *
+     * @param maxAppendBatchSize The maximum append batch size in bytes.
+     * @return The server builder.
+     * @throws IllegalArgumentException if the batch size is less than the minimum append batch size of 32KB
+     */
+    public Builder withMaxAppendBatchSize(int maxAppendBatchSize) {
+      checkArgument(maxAppendBatchSize >= RaftMemberContext.MIN_APPEND_BATCH_SIZE,
+          "maxAppendBatchSize must be at least %s", RaftMemberContext.MIN_APPEND_BATCH_SIZE);
+      this.maxAppendBatchSize = maxAppendBatchSize;
+      return this;
+    }
+
+    /**
+     * Sets whether session keep-alives are tracked as leases in the leader's memory.
+     * <p>
+     * When session leases are enabled, the leader renews a session's lease on each keep-alive without writing to
+     * the Raft log, and sessions are expired only by the leader once their lease has lapsed. Changes to the command
+     * sequence numbers and event indexes acknowledged by clients are periodically committed in batches. All servers
+     * in the cluster must be configured with the same setting.
+     *
+     * @param sessionLeasesEnabled whether to enable session leases
+     * @return The server builder.
+     */
+    public Builder withSessionLeases(boolean sessionLeasesEnabled) {
+      this.sessionLeasesEnabled = sessionLeasesEnabled;
+      return this;
+    }
   }
 }
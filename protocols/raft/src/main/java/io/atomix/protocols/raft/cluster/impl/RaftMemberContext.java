@@ -17,8 +17,12 @@ package io.atomix.protocols.raft.cluster.impl;
 
 import io.atomix.protocols.raft.storage.log.RaftLog;
 import io.atomix.protocols.raft.storage.log.RaftLogReader;
+import io.atomix.protocols.raft.storage.snapshot.SnapshotReader;
 import org.apache.commons.math3.stat.descriptive.DescriptiveStatistics;
 
+import java.util.HashSet;
+import java.util.Set;
+
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -27,21 +31,36 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * Cluster member state.
  */
 public final class RaftMemberContext {
-  private static final int MAX_APPENDS = 2;
+
+  /**
+   * The minimum number of bytes of a snapshot sent to a member in a single install request.
+   */
+  public static final int MIN_SNAPSHOT_CHUNK_SIZE = 1024 * 32;
+
+  /**
+   * The minimum number of bytes of entries sent to a member in a single append request.
+   */
+  public static final int MIN_APPEND_BATCH_SIZE = 1024 * 32;
+
   private static final int APPEND_WINDOW_SIZE = 8;
   private final DefaultRaftMember member;
   private long term;
   private long configIndex;
   private long snapshotIndex;
   private long nextSnapshotIndex;
-  private int nextSnapshotOffset;
+  private long nextSnapshotOffset;
+  private SnapshotReader snapshotReader;
+  private int snapshotReaderStart;
+  private int snapshotChunkSize = MIN_SNAPSHOT_CHUNK_SIZE;
+  private int appendBatchSize = MIN_APPEND_BATCH_SIZE;
+  private final Set<Long> filledAppendBatches = new HashSet<>();
   private long matchIndex;
   private long heartbeatTime;
   private int appending;
   private boolean appendSucceeded;
   private long appendTime;
   private boolean configuring;
-  private boolean installing;
+  private int installing;
   private int failures;
   private long failureTime;
   private volatile RaftLogReader reader;
@@ -58,12 +77,16 @@ public final class RaftMemberContext {
     snapshotIndex = 0;
     nextSnapshotIndex = 0;
     nextSnapshotOffset = 0;
+    closeSnapshotReader();
+    snapshotChunkSize = MIN_SNAPSHOT_CHUNK_SIZE;
+    appendBatchSize = MIN_APPEND_BATCH_SIZE;
+    filledAppendBatches.clear();
     matchIndex = 0;
     heartbeatTime = 0;
     appending = 0;
     timeStats.clear();
     configuring = false;
-    installing = false;
+    installing = 0;
     appendSucceeded = false;
     failures = 0;
     failureTime = 0;
@@ -174,7 +197,7 @@ public final class RaftMemberContext {
    *
    * @return The member's snapshot offset.
    */
-  public int getNextSnapshotOffset() {
+  public long getNextSnapshotOffset() {
     return nextSnapshotOffset;
   }
 
@@ -183,10 +206,125 @@ public final class RaftMemberContext {
    *
    * @param nextSnapshotOffset The member's snapshot offset.
    */
-  public void setNextSnapshotOffset(int nextSnapshotOffset) {
+  public void setNextSnapshotOffset(long nextSnapshotOffset) {
     this.nextSnapshotOffset = nextSnapshotOffset;
   }
 
+  /**
+   * Returns the reader with which the snapshot is being replicated to the member.
+   *
+   * @return The member's snapshot reader or {@code null} if no snapshot is being replicated.
+   */
+  public SnapshotReader getSnapshotReader() {
+    return snapshotReader;
+  }
+
+  /**
+   * Sets the reader with which the snapshot is being replicated to the member, closing any prior reader.
+   *
+   * @param snapshotReader The member's snapshot reader.
+   */
+  public void setSnapshotReader(SnapshotReader snapshotReader) {
+    if (this.snapshotReader != null && this.snapshotReader != snapshotReader) {
+      this.snapshotReader.close();
+    }
+    this.snapshotReader = snapshotReader;
+    this.snapshotReaderStart = snapshotReader != null ? snapshotReader.position() : 0;
+  }
+
+  /**
+   * Returns the offset of the member's snapshot reader relative to the start of the snapshot data.
+   *
+   * @return The member's snapshot reader offset.
+   */
+  public long getSnapshotReaderOffset() {
+    return snapshotReader != null ? snapshotReader.position() - snapshotReaderStart : 0;
+  }
+
+  /**
+   * Closes the reader with which the snapshot is being replicated to the member.
+   */
+  public void closeSnapshotReader() {
+    setSnapshotReader(null);
+  }
+
+  /**
+   * Returns the size of the next snapshot chunk to send to the member.
+   *
+   * @return The member's snapshot chunk size.
+   */
+  public int getSnapshotChunkSize() {
+    return snapshotChunkSize;
+  }
+
+  /**
+   * Grows the snapshot chunk size up to the given maximum following a successful install request.
+   *
+   * @param maxChunkSize The maximum snapshot chunk size.
+   */
+  public void growSnapshotChunkSize(int maxChunkSize) {
+    snapshotChunkSize = (int) Math.min((long) snapshotChunkSize * 2, maxChunkSize);
+  }
+
+  /**
+   * Resets the snapshot chunk size following a failed install request.
+   */
+  public void resetSnapshotChunkSize() {
+    snapshotChunkSize = MIN_SNAPSHOT_CHUNK_SIZE;
+  }
+
+  /**
+   * Returns the maximum number of bytes of entries to send to the member in a single append request.
+   *
+   * @return The member's append batch size.
+   */
+  public int getAppendBatchSize() {
+    return appendBatchSize;
+  }
+
+  /**
+   * Grows the append batch size up to the given maximum.
+   *
+   * @param maxBatchSize The maximum append batch size.
+   */
+  public void growAppendBatchSize(int maxBatchSize) {
+    appendBatchSize = (int) Math.min((long) appendBatchSize * 2, maxBatchSize);
+  }
+
+  /**
+   * Records that the append request ending at the given index filled the member's append batch.
+   *
+   * @param lastIndex The index of the last entry in the append request.
+   */
+  public void appendBatchFilled(long lastIndex) {
+    filledAppendBatches.add(lastIndex);
+  }
+
+  /**
+   * Completes the append request ending at the given index, returning whether the request filled the append batch.
+   *
+   * @param lastIndex The index of the last entry in the append request.
+   * @return Indicates whether the append request filled the member's append batch.
+   */
+  public boolean completeAppendBatch(long lastIndex) {
+    return filledAppendBatches.remove(lastIndex);
+  }
+
+  /**
+   * Shrinks the append batch size when appends to the member are slow.
+   */
+  public void shrinkAppendBatchSize() {
+    appendBatchSize = Math.max(appendBatchSize / 2, MIN_APPEND_BATCH_SIZE);
+  }
+
+  /**
+   * Resets the append batch size following a failed append request.
+   */
+  public void resetAppendBatchSize() {
+    appendBatchSize = MIN_APPEND_BATCH_SIZE;
+    filledAppendBatches.clear();
+  }
+
   /**
    * Returns the member's match index.
    *
@@ -208,11 +346,17 @@ public final class RaftMemberContext {
 
   /**
    * Returns a boolean indicating whether an append request can be sent to the member.
+   * <p>
+   * Once an append to the member has succeeded, up to {@code window} append requests may be in flight at once.
+   * Pipelined requests are spaced by the mean append round trip time divided by the window size. After an append
+   * is rejected, no further requests are sent until all in-flight requests have completed, ensuring the member's
+   * rewound next index is not advanced by requests that will also be rejected.
    *
+   * @param window The maximum number of append requests that may be in flight to the member.
    * @return Indicates whether an append request can be sent to the member.
    */
-  public boolean canAppend() {
-    return appending == 0 || (appendSucceeded && appending < MAX_APPENDS && System.currentTimeMillis() - (timeStats.getMean() / MAX_APPENDS) >= appendTime);
+  public boolean canAppend(int window) {
+    return appending == 0 || (appendSucceeded && appending < window && System.currentTimeMillis() - (timeStats.getMean() / window) >= appendTime);
   }
 
   /**
@@ -301,21 +445,31 @@ public final class RaftMemberContext {
    * @return Indicates whether an install request can be sent to the member.
    */
   public boolean canInstall() {
-    return !installing;
+    return canInstall(1);
+  }
+
+  /**
+   * Returns a boolean indicating whether an install request can be sent to the member.
+   *
+   * @param window The maximum number of install requests that may be in flight to the member.
+   * @return Indicates whether an install request can be sent to the member.
+   */
+  public boolean canInstall(int window) {
+    return installing < window;
   }
 
   /**
    * Starts an install request to the member.
    */
   public void startInstall() {
-    installing = true;
+    installing++;
   }
 
   /**
    * Completes an install request to the member.
    */
   public void completeInstall() {
-    installing = false;
+    installing = Math.max(installing - 1, 0);
   }
 
   /**
@@ -384,6 +538,8 @@ public final class RaftMemberContext {
         .add("snapshotIndex", snapshotIndex)
         .add("nextSnapshotIndex", nextSnapshotIndex)
         .add("nextSnapshotOffset", nextSnapshotOffset)
+        .add("snapshotChunkSize", snapshotChunkSize)
+        .add("appendBatchSize", appendBatchSize)
         .add("matchIndex", matchIndex)
         .add("nextIndex", reader != null ? reader.getNextIndex() : matchIndex + 1)
         .add("heartbeatTime", heartbeatTime)
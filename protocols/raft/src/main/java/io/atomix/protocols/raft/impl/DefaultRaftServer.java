@@ -242,6 +242,11 @@ public class DefaultRaftServer implements RaftServer {
       raft.setElectionTimeout(electionTimeout);
       raft.setHeartbeatInterval(heartbeatInterval);
       raft.setSessionTimeout(sessionTimeout);
+      raft.setSnapshotChunkSize(snapshotChunkSize);
+      raft.setSnapshotInstallWindow(snapshotInstallWindow);
+      raft.setAppendWindow(appendWindow);
+      raft.setMaxAppendBatchSize(maxAppendBatchSize);
+      raft.setSessionLeasesEnabled(sessionLeasesEnabled);
 
       return new DefaultRaftServer(raft);
     }
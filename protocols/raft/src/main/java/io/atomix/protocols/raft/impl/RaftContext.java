@@ -42,6 +42,7 @@ import io.atomix.protocols.raft.storage.log.RaftLogWriter;
 import io.atomix.protocols.raft.storage.snapshot.SnapshotStore;
 import io.atomix.protocols.raft.storage.system.MetaStore;
 import io.atomix.protocols.raft.utils.LoadMonitor;
+import io.atomix.utils.concurrent.Scheduled;
 import io.atomix.utils.concurrent.SingleThreadContext;
 import io.atomix.utils.concurrent.ThreadContext;
 import io.atomix.utils.concurrent.ThreadContextFactory;
@@ -51,11 +52,18 @@ import io.atomix.utils.logging.LoggerContext;
 import org.slf4j.Logger;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Objects;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CopyOnWriteArraySet;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -100,15 +108,23 @@ public class RaftContext implements AutoCloseable {
   private final ThreadContext stateContext;
   private final ThreadContext compactionContext;
   protected RaftRole role = new InactiveRole(this);
+  private RaftServer.Role pendingRole;
   private Duration electionTimeout = Duration.ofMillis(500);
   private Duration heartbeatInterval = Duration.ofMillis(150);
   private Duration sessionTimeout = Duration.ofMillis(5000);
+  private int snapshotChunkSize = 1024 * 1024;
+  private int snapshotInstallWindow = 4;
+  private int appendWindow = 4;
+  private int maxAppendBatchSize = 1024 * 1024;
+  private volatile boolean sessionLeasesEnabled;
   private volatile MemberId leader;
   private volatile long term;
   private MemberId lastVotedFor;
   private long commitIndex;
   private volatile long firstCommitIndex;
   private volatile long lastApplied;
+  private final NavigableMap<Long, List<CompletableFuture<Long>>> appliedFutures = new TreeMap<>();
+  private volatile long nextAwaitedIndex = Long.MAX_VALUE;
 
   @SuppressWarnings("unchecked")
   public RaftContext(
@@ -130,12 +146,11 @@ public class RaftContext implements AutoCloseable {
         .build());
 
     String baseThreadName = String.format("raft-server-%s", name);
-    this.threadContext = new SingleThreadContext(namedThreads(baseThreadName, log));
-    this.loadContext = new SingleThreadContext(namedThreads(baseThreadName + "-load", log));
-    this.stateContext = new SingleThreadContext(namedThreads(baseThreadName + "-state", log));
-    this.compactionContext = new SingleThreadContext(namedThreads(baseThreadName + "-compaction", log));
-
     this.threadContextFactory = threadModel.factory(baseThreadName + "-%d", threadPoolSize, log);
+    this.threadContext = createThreadContext(threadModel, baseThreadName);
+    this.loadContext = createThreadContext(threadModel, baseThreadName + "-load");
+    this.stateContext = createThreadContext(threadModel, baseThreadName + "-state");
+    this.compactionContext = createThreadContext(threadModel, baseThreadName + "-compaction");
 
     this.loadMonitor = new LoadMonitor(LOAD_WINDOW_SIZE, HIGH_LOAD_THRESHOLD, loadContext);
 
@@ -163,6 +178,23 @@ public class RaftContext implements AutoCloseable {
     registerHandlers(protocol);
   }
 
+  /**
+   * Creates a server thread context.
+   * <p>
+   * With the {@link ThreadModel#THREAD_PER_CORE} thread model, the server's contexts are multiplexed on the shared
+   * event loops rather than given dedicated threads.
+   *
+   * @param threadModel the server thread model
+   * @param threadName the name of the dedicated thread
+   * @return the server thread context
+   */
+  private ThreadContext createThreadContext(ThreadModel threadModel, String threadName) {
+    if (threadModel == ThreadModel.THREAD_PER_CORE) {
+      return threadContextFactory.createContext();
+    }
+    return new SingleThreadContext(namedThreads(threadName, log));
+  }
+
   /**
    * Returns the server name.
    *
@@ -345,6 +377,100 @@ public class RaftContext implements AutoCloseable {
     this.sessionTimeout = checkNotNull(sessionTimeout, "sessionTimeout cannot be null");
   }
 
+  /**
+   * Returns the maximum size of a snapshot chunk sent in a single install request.
+   *
+   * @return The maximum snapshot chunk size in bytes.
+   */
+  public int getSnapshotChunkSize() {
+    return snapshotChunkSize;
+  }
+
+  /**
+   * Sets the maximum size of a snapshot chunk sent in a single install request.
+   *
+   * @param snapshotChunkSize The maximum snapshot chunk size in bytes.
+   */
+  public void setSnapshotChunkSize(int snapshotChunkSize) {
+    checkArgument(snapshotChunkSize > 0, "snapshotChunkSize must be positive");
+    this.snapshotChunkSize = snapshotChunkSize;
+  }
+
+  /**
+   * Returns the maximum number of snapshot chunks that may be in flight to a single member.
+   *
+   * @return The snapshot install window size.
+   */
+  public int getSnapshotInstallWindow() {
+    return snapshotInstallWindow;
+  }
+
+  /**
+   * Sets the maximum number of snapshot chunks that may be in flight to a single member.
+   *
+   * @param snapshotInstallWindow The snapshot install window size.
+   */
+  public void setSnapshotInstallWindow(int snapshotInstallWindow) {
+    checkArgument(snapshotInstallWindow > 0, "snapshotInstallWindow must be positive");
+    this.snapshotInstallWindow = snapshotInstallWindow;
+  }
+
+  /**
+   * Returns the maximum number of append requests that may be in flight to a single member.
+   *
+   * @return The append window size.
+   */
+  public int getAppendWindow() {
+    return appendWindow;
+  }
+
+  /**
+   * Sets the maximum number of append requests that may be in flight to a single member.
+   *
+   * @param appendWindow The append window size.
+   */
+  public void setAppendWindow(int appendWindow) {
+    checkArgument(appendWindow > 0, "appendWindow must be positive");
+    this.appendWindow = appendWindow;
+  }
+
+  /**
+   * Returns the maximum number of bytes of entries sent to a member in a single append request.
+   *
+   * @return The maximum append batch size in bytes.
+   */
+  public int getMaxAppendBatchSize() {
+    return maxAppendBatchSize;
+  }
+
+  /**
+   * Sets the maximum number of bytes of entries sent to a member in a single append request.
+   *
+   * @param maxAppendBatchSize The maximum append batch size in bytes.
+   */
+  public void setMaxAppendBatchSize(int maxAppendBatchSize) {
+    checkArgument(maxAppendBatchSize > 0, "maxAppendBatchSize must be positive");
+    this.maxAppendBatchSize = maxAppendBatchSize;
+  }
+
+  /**
+   * Returns whether session keep-alives are tracked as leases in the leader's memory.
+   *
+   * @return whether session leases are enabled
+   */
+  public boolean isSessionLeasesEnabled() {
+    return sessionLeasesEnabled;
+  }
+
+  /**
+   * Sets whether session keep-alives are tracked as leases in the leader's memory.
+   *
+   * @param sessionLeasesEnabled whether session leases are enabled
+   */
+  public void setSessionLeasesEnabled(boolean sessionLeasesEnabled) {
+    this.sessionLeasesEnabled = sessionLeasesEnabled;
+  }
+
   /**
    * Sets the state leader.
    *
@@ -513,6 +639,13 @@ public class RaftContext implements AutoCloseable {
    */
   public void setLastApplied(long lastApplied) {
     this.lastApplied = Math.max(this.lastApplied, lastApplied);
+
+    // Applied futures are only accessed on the server thread. Hop to the server thread once the lowest awaited
+    // index has been applied. If the awaited index is registered concurrently, awaitApplied will observe the
+    // updated lastApplied and complete the future itself.
+    if (this.lastApplied >= nextAwaitedIndex) {
+      threadContext.execute(this::completeAppliedFutures);
+    }
     if (state == State.ACTIVE) {
       threadContext.execute(() -> {
         if (state == State.ACTIVE && this.lastApplied >= firstCommitIndex) {
@@ -532,6 +665,87 @@ public class RaftContext implements AutoCloseable {
     return lastApplied;
   }
 
+  /**
+   * Returns a future to be completed once the given index has been applied to the state machine.
+   * <p>
+   * This method must be called on the server thread. Entries are applied on the state machine thread, but the
+   * returned future is always completed on the server thread.
+   *
+   * @param index the index to await
+   * @return a future to be completed with the last applied index once the given index has been applied
+   */
+  public CompletableFuture<Long> awaitApplied(long index) {
+    checkThread();
+    if (lastApplied >= index) {
+      return CompletableFuture.completedFuture(lastApplied);
+    }
+    CompletableFuture<Long> future = new CompletableFuture<>();
+    appliedFutures.computeIfAbsent(index, i -> new ArrayList<>()).add(future);
+    nextAwaitedIndex = appliedFutures.firstKey();
+
+    // Re-check the applied index in case the state machine applied the index before nextAwaitedIndex was updated.
+    if (lastApplied >= index) {
+      completeAppliedFutures();
+    }
+    return future;
+  }
+
+  /**
+   * Returns a future to be completed once the given index has been applied to the state machine within the given
+   * timeout.
+   * <p>
+   * If the index has not been applied once the timeout has elapsed, the returned future is failed with a
+   * {@link TimeoutException} and is no longer tracked by the server.
+   *
+   * @param index   the index to await
+   * @param timeout the maximum time to wait for the index to be applied
+   * @return a future to be completed with the last applied index once the given index has been applied
+   */
+  public CompletableFuture<Long> awaitApplied(long index, Duration timeout) {
+    CompletableFuture<Long> future = awaitApplied(index);
+    if (!future.isDone()) {
+      Scheduled timer = threadContext.schedule(timeout, () -> {
+        if (future.completeExceptionally(new TimeoutException("Timed out waiting for index " + index))) {
+          List<CompletableFuture<Long>> futures = appliedFutures.get(index);
+          if (futures != null) {
+            futures.remove(future);
+            if (futures.isEmpty()) {
+              appliedFutures.remove(index);
+              nextAwaitedIndex = appliedFutures.isEmpty() ? Long.MAX_VALUE : appliedFutures.firstKey();
+            }
+          }
+        }
+      });
+      future.whenComplete((result, error) -> timer.cancel());
+    }
+    return future;
+  }
+
+  /**
+   * Fails all futures awaiting indexes to be applied.
+   */
+  private void failAppliedFutures() {
+    List<CompletableFuture<Long>> futures = new ArrayList<>();
+    appliedFutures.values().forEach(futures::addAll);
+    appliedFutures.clear();
+    nextAwaitedIndex = Long.MAX_VALUE;
+    futures.forEach(future -> future.completeExceptionally(new IllegalStateException("Inactive state")));
+  }
+
+  /**
+   * Completes futures awaiting indexes up to the last applied index.
+   */
+  private void completeAppliedFutures() {
+    long lastApplied = this.lastApplied;
+    Iterator<Map.Entry<Long, List<CompletableFuture<Long>>>> iterator =
+        appliedFutures.headMap(lastApplied, true).entrySet().iterator();
+    while (iterator.hasNext()) {
+      iterator.next().getValue().forEach(future -> future.complete(lastApplied));
+      iterator.remove();
+    }
+    nextAwaitedIndex = appliedFutures.isEmpty() ? Long.MAX_VALUE : appliedFutures.firstKey();
+  }
+
   /**
    * Returns the server load monitor.
    *
@@ -661,6 +875,7 @@ public class RaftContext implements AutoCloseable {
     protocol.registerReconfigureHandler(request -> runOnContext(() -> role.onReconfigure(request)));
     protocol.registerLeaveHandler(request -> runOnContext(() -> role.onLeave(request)));
     protocol.registerTransferHandler(request -> runOnContext(() -> role.onTransfer(request)));
+    protocol.registerReadIndexHandler(request -> runOnContext(() -> role.onReadIndex(request)));
     protocol.registerAppendHandler(request -> runOnContext(() -> role.onAppend(request)));
     protocol.registerPollHandler(request -> runOnContext(() -> role.onPoll(request)));
     protocol.registerVoteHandler(request -> runOnContext(() -> role.onVote(request)));
@@ -696,6 +911,7 @@ public class RaftContext implements AutoCloseable {
     protocol.unregisterReconfigureHandler();
     protocol.unregisterLeaveHandler();
     protocol.unregisterTransferHandler();
+    protocol.unregisterReadIndexHandler();
     protocol.unregisterAppendHandler();
     protocol.unregisterPollHandler();
     protocol.unregisterVoteHandler();
@@ -785,25 +1001,75 @@ public class RaftContext implements AutoCloseable {
   public void transition(RaftServer.Role role) {
     checkThread();
 
+    // If the current role is still stopping, replace the role to start once it has stopped. The latest request wins
+    // and the stopping role is never stopped a second time.
+    if (pendingRole != null) {
+      if (pendingRole != role) {
+        log.info("Transitioning to {}", role);
+        pendingRole = role;
+      }
+      return;
+    }
+
     if (this.role != null && role == this.role.role()) {
       return;
     }
 
     log.info("Transitioning to {}", role);
 
-    // Close the old state.
-    try {
-      this.role.stop().get();
-    } catch (InterruptedException | ExecutionException e) {
-      throw new IllegalStateException("failed to close Raft state", e);
+    // Close the old state. Like role starts, role stops must never block the server thread on another context, since
+    // with the THREAD_PER_CORE thread model the server's contexts may share a single event loop. A role that stops
+    // asynchronously is replaced once it has stopped.
+    RaftRole stoppingRole = this.role;
+    CompletableFuture<Void> stopFuture = stoppingRole.stop();
+    if (stopFuture.isDone()) {
+      try {
+        stopFuture.get();
+      } catch (InterruptedException | ExecutionException e) {
+        throw new IllegalStateException("failed to close Raft state", e);
+      }
+      startRole(role);
+    } else {
+      pendingRole = role;
+      stopFuture.whenCompleteAsync((result, error) -> {
+        if (error != null) {
+          log.error("Failed to close Raft state", error);
+        }
+        RaftServer.Role nextRole = pendingRole;
+        pendingRole = null;
+        if (this.role == stoppingRole) {
+          startRole(nextRole);
+        }
+      }, threadContext);
     }
+  }
 
-    // Force state transitions to occur synchronously in order to prevent race conditions.
-    try {
-      this.role = createRole(role);
-      this.role.start().get();
-    } catch (InterruptedException | ExecutionException e) {
-      throw new IllegalStateException("failed to initialize Raft state", e);
+  /**
+   * Starts the given role once the previous role has been stopped.
+   */
+  private void startRole(RaftServer.Role role) {
+    // Fail operations awaiting the application of entries on behalf of the old state.
+    failAppliedFutures();
+
+    // Force state transitions to occur synchronously in order to prevent race conditions. A role that must wait on
+    // another thread context to start, e.g. a leader waiting for the log to be compacted, completes its start
+    // asynchronously instead.
+    this.role = createRole(role);
+    CompletableFuture<RaftRole> future = this.role.start();
+    if (future.isDone()) {
+      try {
+        future.get();
+      } catch (InterruptedException | ExecutionException e) {
+        throw new IllegalStateException("failed to initialize Raft state", e);
+      }
+    } else {
+      RaftRole startingRole = this.role;
+      future.whenCompleteAsync((result, error) -> {
+        if (error != null && this.role == startingRole) {
+          log.error("Failed to initialize Raft state", error);
+          transition(RaftServer.Role.FOLLOWER);
+        }
+      }, threadContext);
     }
 
     roleChangeListeners.forEach(l -> l.accept(this.role.role()));
@@ -836,6 +1102,10 @@ public class RaftContext implements AutoCloseable {
     // Unregister protocol listeners.
     unregisterHandlers(protocol);
 
+    // Fail operations awaiting the application of entries. The server has already transitioned to the inactive
+    // state, so no further futures are registered.
+    failAppliedFutures();
+
     // Close the log.
     try {
       raftLog.close();
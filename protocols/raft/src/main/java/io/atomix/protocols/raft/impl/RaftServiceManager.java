@@ -16,6 +16,7 @@
 package io.atomix.protocols.raft.impl;
 
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.google.common.primitives.Longs;
 import io.atomix.cluster.MemberId;
 import io.atomix.primitive.PrimitiveId;
@@ -31,6 +32,7 @@ import io.atomix.protocols.raft.session.RaftSession;
 import io.atomix.protocols.raft.storage.log.RaftLog;
 import io.atomix.protocols.raft.storage.log.RaftLogReader;
 import io.atomix.protocols.raft.storage.log.entry.CloseSessionEntry;
+import io.atomix.protocols.raft.storage.log.entry.CommandBatchEntry;
 import io.atomix.protocols.raft.storage.log.entry.CommandEntry;
 import io.atomix.protocols.raft.storage.log.entry.ConfigurationEntry;
 import io.atomix.protocols.raft.storage.log.entry.InitializeEntry;
@@ -57,11 +59,17 @@ import org.slf4j.Logger;
 
 import java.time.Duration;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
@@ -218,7 +226,16 @@ public class RaftServiceManager implements AutoCloseable {
     ComposableFuture<Snapshot> future = new ComposableFuture<>();
     stateContext.execute(() -> {
       try {
-        future.complete(snapshot(index));
+        // Snapshot services that don't support asynchronous snapshots and capture the state of those that do
+        // on the state thread, then write the captured state on the compaction thread while commands are applied.
+        Supplier<Snapshot> snapshot = snapshot(index);
+        compactionContext.execute(() -> {
+          try {
+            future.complete(snapshot.get());
+          } catch (Exception e) {
+            future.completeExceptionally(e);
+          }
+        });
       } catch (Exception e) {
         future.completeExceptionally(e);
       }
@@ -397,8 +414,10 @@ public class RaftServiceManager implements AutoCloseable {
           install(entry.index());
           if (entry.type() == CommandEntry.class) {
             future.complete((T) applyCommand(entry.cast()));
+          } else if (entry.type() == CommandBatchEntry.class) {
+            future.complete((T) applyCommands(entry.cast()));
           } else if (entry.type() == OpenSessionEntry.class) {
-            future.complete((T) (Long) applyOpenSession(entry.cast()));
+            future.complete((T) applyOpenSession(entry.cast()));
           } else if (entry.type() == KeepAliveEntry.class) {
             future.complete((T) applyKeepAlive(entry.cast()));
           } else if (entry.type() == CloseSessionEntry.class) {
@@ -423,39 +442,66 @@ public class RaftServiceManager implements AutoCloseable {
 
   /**
    * Takes snapshots for the given index.
+   * <p>
+   * Services that do not support asynchronous snapshots are written to the snapshot immediately. For services that
+   * do, a point-in-time view of the service is captured, and the returned supplier writes the captured services to
+   * the snapshot and closes the writer. The supplier may be called from any thread.
    *
    * @param index the index for which to take snapshots
+   * @return a supplier with which to complete writing the snapshot
    */
-  private Snapshot snapshot(long index) {
+  private Supplier<Snapshot> snapshot(long index) {
     Snapshot snapshot = raft.getSnapshotStore().newTemporarySnapshot(index, new WallClockTimestamp());
-    try (SnapshotWriter writer = snapshot.openWriter()) {
+    SnapshotWriter writer = snapshot.openWriter();
+    List<Consumer<SnapshotWriter>> pendingServices = new ArrayList<>();
+    try {
       for (RaftServiceContext service : raft.getServices()) {
-        writer.buffer().mark();
-        SnapshotWriter serviceWriter = new SnapshotWriter(writer.buffer().writeInt(0).slice(), writer.snapshot());
-        snapshotService(serviceWriter, service);
-        int length = serviceWriter.buffer().position();
-        writer.buffer().reset().writeInt(length).skip(length);
+        Consumer<SnapshotWriter> serviceSnapshot = service.prepareSnapshot();
+        if (serviceSnapshot != null) {
+          pendingServices.add(serviceWriter -> snapshotService(serviceWriter, service, serviceSnapshot));
+        } else {
+          snapshotService(writer, service, service::takeSnapshot);
+        }
       }
     } catch (Exception e) {
+      writer.close();
       snapshot.close();
       throw e;
     }
-    return snapshot;
+
+    return () -> {
+      try {
+        for (Consumer<SnapshotWriter> pendingService : pendingServices) {
+          pendingService.accept(writer);
+        }
+        writer.close();
+      } catch (Exception e) {
+        writer.close();
+        snapshot.close();
+        throw e;
+      }
+      return snapshot;
+    };
   }
 
   /**
    * Takes a snapshot of the given service.
    *
-   * @param writer  the snapshot writer
-   * @param service the service to snapshot
+   * @param writer          the snapshot writer
+   * @param service         the service to snapshot
+   * @param serviceSnapshot the function with which to write the service state to the service snapshot writer
    */
-  private void snapshotService(SnapshotWriter writer, RaftServiceContext service) {
-    writer.writeLong(service.serviceId().id());
-    writer.writeString(service.serviceType().id());
-    writer.writeString(service.serviceName());
+  private void snapshotService(SnapshotWriter writer, RaftServiceContext service, Consumer<SnapshotWriter> serviceSnapshot) {
+    writer.buffer().mark();
+    SnapshotWriter serviceWriter = new SnapshotWriter(writer.buffer().writeInt(0).slice(), writer.snapshot());
+    serviceWriter.writeLong(service.serviceId().id());
+    serviceWriter.writeString(service.serviceType().id());
+    serviceWriter.writeString(service.serviceName());
     byte[] config = Serializer.using(service.serviceType().namespace()).encode(service.serviceConfig());
-    writer.writeInt(config.length).writeBytes(config);
-    service.takeSnapshot(writer);
+    serviceWriter.writeInt(config.length).writeBytes(config);
+    serviceSnapshot.accept(serviceWriter);
+    int length = serviceWriter.buffer().position();
+    writer.buffer().reset().writeInt(length).skip(length);
   }
 
   /**
@@ -565,26 +611,44 @@ public class RaftServiceManager implements AutoCloseable {
    * Keep alive entries are retained in the log until the next time the client sends a keep alive entry or until the
    * client's session is expired. This ensures for sessions that have long timeouts, keep alive entries cannot be cleaned
    * from the log before they're replicated to some servers.
+   * <p>
+   * Sessions shared by multiple services are kept alive for all of their services, but command sequence numbers and
+   * event indexes are only applied to the services identified in the entry. Clients only send them for services for
+   * which they have new acknowledgements.
    */
   private long[] applyKeepAlive(Indexed<KeepAliveEntry> entry) {
 
     // Store the session/command/event sequence and event index instead of acquiring a reference to the entry.
     long[] sessionIds = entry.entry().sessionIds();
+    long[] serviceIds = entry.entry().services();
     long[] commandSequences = entry.entry().commandSequenceNumbers();
     long[] eventIndexes = entry.entry().eventIndexes();
 
     // Iterate through session identifiers and keep sessions alive.
-    List<Long> successfulSessionIds = new ArrayList<>(sessionIds.length);
+    Set<Long> successfulSessionIds = new LinkedHashSet<>(sessionIds.length);
+    Set<RaftSession> acknowledgedSessions = Collections.newSetFromMap(new IdentityHashMap<>());
     Set<RaftServiceContext> services = new HashSet<>();
     for (int i = 0; i < sessionIds.length; i++) {
       long sessionId = sessionIds[i];
       long commandSequence = commandSequences[i];
       long eventIndex = eventIndexes[i];
 
-      RaftSession session = raft.getSessions().getSession(sessionId);
+      RaftSession session = raft.getSessions().getSession(sessionId, serviceIds[i]);
       if (session != null) {
         if (session.getService().keepAlive(entry.index(), entry.entry().timestamp(), session, commandSequence, eventIndex)) {
           successfulSessionIds.add(sessionId);
+          acknowledgedSessions.add(session);
+          services.add(session.getService());
+        }
+      }
+    }
+
+    // Keep the sessions alive for the services for which the client sent no acknowledgements.
+    for (long sessionId : Sets.newLinkedHashSet(Longs.asList(sessionIds))) {
+      for (RaftSession session : raft.getSessions().getSessions(sessionId)) {
+        if (!acknowledgedSessions.contains(session)
+            && session.getService().keepAlive(entry.index(), entry.entry().timestamp(), session)) {
+          successfulSessionIds.add(sessionId);
           services.add(session.getService());
         }
       }
@@ -636,8 +700,12 @@ public class RaftServiceManager implements AutoCloseable {
 
   /**
    * Applies an open session entry to the state machine.
+   * <p>
+   * If the entry identifies an existing session, the service is added to that session rather than opening a new one.
+   *
+   * @return the session opened for the service
    */
-  private long applyOpenSession(Indexed<OpenSessionEntry> entry) {
+  private RaftSession applyOpenSession(Indexed<OpenSessionEntry> entry) {
     PrimitiveType primitiveType = raft.getPrimitiveTypes().get(entry.entry().serviceType());
     if (primitiveType == null) {
       throw new RaftException.UnknownService("Unknown service type " + entry.entry().serviceType());
@@ -654,6 +722,10 @@ public class RaftServiceManager implements AutoCloseable {
       throw new RaftException.UnknownService("Unknown service type " + entry.entry().serviceType());
     }
 
+    if (entry.entry().session() > 0) {
+      return addSession(entry, service);
+    }
+
     SessionId sessionId = SessionId.from(entry.index());
     RaftSession session = raft.getSessions().addSession(new RaftSession(
         sessionId,
@@ -668,23 +740,69 @@ public class RaftServiceManager implements AutoCloseable {
         service,
         raft,
         threadContextFactory));
-    return service.openSession(entry.index(), entry.entry().timestamp(), session);
+    service.openSession(entry.index(), entry.entry().timestamp(), session);
+    return session;
+  }
+
+  /**
+   * Adds the given service to an existing session.
+   * <p>
+   * The session is registered with the service using the client, read consistency and timeouts with which the
+   * session was opened, so all of a session's services are kept alive and expired together.
+   */
+  private RaftSession addSession(Indexed<OpenSessionEntry> entry, RaftServiceContext service) {
+    RaftSession parent = raft.getSessions().getSession(entry.entry().session());
+    if (parent == null) {
+      throw new RaftException.UnknownSession("Unknown session: " + entry.entry().session());
+    }
+
+    // If the session was already added to the service, return the existing session.
+    RaftSession existingSession = raft.getSessions().getSession(entry.entry().session(), service.serviceId().id());
+    if (existingSession != null) {
+      return existingSession;
+    }
+
+    RaftSession session = new RaftSession(
+        parent.sessionId(),
+        parent.memberId(),
+        entry.entry().serviceName(),
+        service.serviceType(),
+        parent.readConsistency(),
+        parent.minTimeout(),
+        parent.maxTimeout(),
+        entry.entry().timestamp(),
+        service.serializer(),
+        service,
+        raft,
+        threadContextFactory);
+    service.openSession(entry.index(), entry.entry().timestamp(), session);
+    return session;
   }
 
   /**
    * Applies a close session entry to the state machine.
+   * <p>
+   * If the entry does not identify a service, the session is closed for all of the services to which it was added.
    */
   private void applyCloseSession(Indexed<CloseSessionEntry> entry) {
-    RaftSession session = raft.getSessions().getSession(entry.entry().session());
+    Collection<RaftSession> sessions;
+    if (entry.entry().service() == 0) {
+      sessions = new ArrayList<>(raft.getSessions().getSessions(entry.entry().session()));
+    } else {
+      RaftSession session = raft.getSessions().getSession(entry.entry().session(), entry.entry().service());
+      sessions = session != null ? Collections.singletonList(session) : Collections.emptyList();
+    }
 
     // If the server session is null, the session either never existed or already expired.
-    if (session == null) {
+    if (sessions.isEmpty()) {
       throw new RaftException.UnknownSession("Unknown session: " + entry.entry().session());
     }
 
     // Get the state machine executor associated with the session and unregister the session.
-    RaftServiceContext service = session.getService();
-    service.closeSession(entry.index(), entry.entry().timestamp(), session, entry.entry().expired());
+    for (RaftSession session : sessions) {
+      RaftServiceContext service = session.getService();
+      service.closeSession(entry.index(), entry.entry().timestamp(), session, entry.entry().expired());
+    }
   }
 
   /**
@@ -733,8 +851,8 @@ public class RaftServiceManager implements AutoCloseable {
    * commands as they're written to the log, so no sequence number will be skipped.
    */
   private OperationResult applyCommand(Indexed<CommandEntry> entry) {
-    // First check to ensure that the session exists.
-    RaftSession session = raft.getSessions().getSession(entry.entry().session());
+    // First check to ensure that the session exists and has been added to the command's service.
+    RaftSession session = raft.getSessions().getSession(entry.entry().session(), entry.entry().service());
 
     // If the session is null, return an UnknownSessionException. Commands applied to the state machine must
     // have a session. We ensure that session register/unregister entries are not compacted from the log
@@ -759,6 +877,52 @@ public class RaftServiceManager implements AutoCloseable {
             entry.entry().operation());
   }
 
+  /**
+   * Applies a batch of commands to the state machine.
+   * <p>
+   * Commands in the batch are applied in order, each sequenced against its own session. All commands share the batch
+   * entry's log index, and each service assigns the commands it applies distinct logical indexes. Events published
+   * by the commands are committed once all commands in the batch have been applied.
+   *
+   * @param entry the batch entry to apply
+   * @return the results of the commands in the batch, in the order in which the commands were stored
+   */
+  private List<OperationResult> applyCommands(Indexed<CommandBatchEntry> entry) {
+    List<OperationResult> results = new ArrayList<>(entry.entry().commands().size());
+    Set<RaftServiceContext> services = new LinkedHashSet<>();
+    for (CommandEntry command : entry.entry().commands()) {
+      RaftSession session = raft.getSessions().getSession(command.session(), command.service());
+      if (session == null) {
+        logger.debug("Unknown session: " + command.session());
+        results.add(OperationResult.failed(entry.index(), 0,
+            new RaftException.UnknownSession("unknown session: " + command.session())));
+        continue;
+      }
+
+      // Increment the load counter to avoid snapshotting under high load.
+      raft.getLoadMonitor().recordEvent();
+
+      try {
+        results.add(session.getService().executeCommand(
+            entry.index(),
+            command.sequenceNumber(),
+            command.timestamp(),
+            session,
+            command.operation(),
+            false));
+        services.add(session.getService());
+      } catch (RaftException e) {
+        results.add(OperationResult.failed(entry.index(), session.getEventIndex(), e));
+      }
+    }
+
+    // Commit events published by the commands once the complete batch has been applied.
+    for (RaftServiceContext service : services) {
+      service.commitCommands(entry.index());
+    }
+    return results;
+  }
+
   /**
    * Applies a query entry to the state machine.
    * <p>
@@ -778,7 +942,7 @@ public class RaftServiceManager implements AutoCloseable {
    * fault-tolerance and consistency across the cluster.
    */
   private CompletableFuture<OperationResult> applyQuery(Indexed<QueryEntry> entry) {
-    RaftSession session = raft.getSessions().getSession(entry.entry().session());
+    RaftSession session = raft.getSessions().getSession(entry.entry().session(), entry.entry().service());
 
     // If the session is null then that indicates that the session already timed out or it never existed.
     // Return with an UnknownSessionException.
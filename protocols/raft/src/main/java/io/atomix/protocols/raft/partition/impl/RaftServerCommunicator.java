@@ -50,6 +50,8 @@ import io.atomix.protocols.raft.protocol.RaftServerProtocol;
 import io.atomix.protocols.raft.protocol.ReconfigureRequest;
 import io.atomix.protocols.raft.protocol.ReconfigureResponse;
 import io.atomix.protocols.raft.protocol.ResetRequest;
+import io.atomix.protocols.raft.protocol.ReadIndexRequest;
+import io.atomix.protocols.raft.protocol.ReadIndexResponse;
 import io.atomix.protocols.raft.protocol.TransferRequest;
 import io.atomix.protocols.raft.protocol.TransferResponse;
 import io.atomix.protocols.raft.protocol.VoteRequest;
@@ -143,6 +145,11 @@ public class RaftServerCommunicator implements RaftServerProtocol {
     return sendAndReceive(context.transferSubject, request, memberId);
   }
 
+  @Override
+  public CompletableFuture<ReadIndexResponse> readIndex(MemberId memberId, ReadIndexRequest request) {
+    return sendAndReceive(context.readIndexSubject, request, memberId);
+  }
+
   @Override
   public CompletableFuture<PollResponse> poll(MemberId memberId, PollRequest request) {
     return sendAndReceive(context.pollSubject, request, memberId);
@@ -288,6 +295,16 @@ public class RaftServerCommunicator implements RaftServerProtocol {
     clusterCommunicator.unsubscribe(context.transferSubject);
   }
 
+  @Override
+  public void registerReadIndexHandler(Function<ReadIndexRequest, CompletableFuture<ReadIndexResponse>> handler) {
+    clusterCommunicator.subscribe(context.readIndexSubject, serializer::decode, handler, serializer::encode);
+  }
+
+  @Override
+  public void unregisterReadIndexHandler() {
+    clusterCommunicator.unsubscribe(context.readIndexSubject);
+  }
+
   @Override
   public void registerPollHandler(Function<PollRequest, CompletableFuture<PollResponse>> handler) {
     clusterCommunicator.subscribe(context.pollSubject, serializer::decode, handler, serializer::encode);
@@ -29,8 +29,8 @@ public class CloseSessionRequest extends SessionRequest {
     return new Builder();
   }
 
-  public CloseSessionRequest(long session) {
-    super(session);
+  public CloseSessionRequest(long session, long service) {
+    super(session, service);
   }
 
   /**
@@ -40,7 +40,7 @@ public class CloseSessionRequest extends SessionRequest {
     @Override
     public CloseSessionRequest build() {
       validate();
-      return new CloseSessionRequest(session);
+      return new CloseSessionRequest(session, service);
     }
   }
 }
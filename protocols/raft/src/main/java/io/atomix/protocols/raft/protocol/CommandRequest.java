@@ -46,13 +46,13 @@ public class CommandRequest extends OperationRequest {
     return new Builder();
   }
 
-  public CommandRequest(long session, long sequence, PrimitiveOperation operation) {
-    super(session, sequence, operation);
+  public CommandRequest(long session, long service, long sequence, PrimitiveOperation operation) {
+    super(session, service, sequence, operation);
   }
 
   @Override
   public int hashCode() {
-    return Objects.hash(getClass(), session, sequence);
+    return Objects.hash(getClass(), session, service, sequence);
   }
 
   @Override
@@ -60,6 +60,7 @@ public class CommandRequest extends OperationRequest {
     if (object instanceof CommandRequest) {
       CommandRequest request = (CommandRequest) object;
       return request.session == session
+          && request.service == service
           && request.sequence == sequence
           && request.operation.equals(operation);
     }
@@ -70,6 +71,7 @@ public class CommandRequest extends OperationRequest {
   public String toString() {
     return toStringHelper(this)
         .add("session", session)
+        .add("service", service)
         .add("sequence", sequence)
         .add("operation", operation)
         .toString();
@@ -82,7 +84,7 @@ public class CommandRequest extends OperationRequest {
     @Override
     public CommandRequest build() {
       validate();
-      return new CommandRequest(session, sequence, operation);
+      return new CommandRequest(session, service, sequence, operation);
     }
   }
 }
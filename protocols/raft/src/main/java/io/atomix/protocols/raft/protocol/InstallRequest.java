@@ -34,6 +34,10 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * the follower, the snapshot is reconstructed based on the provided {@link #chunkOffset()} and other
  * metadata. The last install request will be sent with {@link #complete()} being {@code true} to
  * indicate that all chunks of the snapshot have been sent.
+ * <p>
+ * The chunk offset is the byte offset of the chunk's data within the snapshot, which allows the leader to
+ * pipeline multiple chunks of varying sizes and to resume an install from the offset reported by the follower
+ * in {@link InstallResponse#nextOffset()}.
  */
 public class InstallRequest extends AbstractRaftRequest {
 
@@ -50,11 +54,11 @@ public class InstallRequest extends AbstractRaftRequest {
   private final MemberId leader;
   private final long index;
   private final long timestamp;
-  private final int offset;
+  private final long offset;
   private final byte[] data;
   private final boolean complete;
 
-  public InstallRequest(long term, MemberId leader, long index, long timestamp, int offset, byte[] data, boolean complete) {
+  public InstallRequest(long term, MemberId leader, long index, long timestamp, long offset, byte[] data, boolean complete) {
     this.term = term;
     this.leader = leader;
     this.index = index;
@@ -101,11 +105,11 @@ public class InstallRequest extends AbstractRaftRequest {
   }
 
   /**
-   * Returns the offset of the snapshot chunk.
+   * Returns the byte offset of the snapshot chunk.
    *
-   * @return The offset of the snapshot chunk.
+   * @return The byte offset of the snapshot chunk.
    */
-  public int chunkOffset() {
+  public long chunkOffset() {
     return offset;
   }
 
@@ -166,7 +170,7 @@ public class InstallRequest extends AbstractRaftRequest {
     private MemberId leader;
     private long index;
     private long timestamp;
-    private int offset;
+    private long offset;
     private byte[] data;
     private boolean complete;
 
@@ -220,12 +224,12 @@ public class InstallRequest extends AbstractRaftRequest {
     }
 
     /**
-     * Sets the request offset.
+     * Sets the request byte offset.
      *
-     * @param offset The request offset.
+     * @param offset The request byte offset.
      * @return The request builder.
      */
-    public Builder withOffset(int offset) {
+    public Builder withOffset(long offset) {
       checkArgument(offset >= 0, "offset must be positive");
       this.offset = offset;
       return this;
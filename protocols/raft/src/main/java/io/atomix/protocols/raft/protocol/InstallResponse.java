@@ -17,12 +17,18 @@ package io.atomix.protocols.raft.protocol;
 
 import io.atomix.protocols.raft.RaftError;
 
+import java.util.Objects;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+
 /**
  * Snapshot installation response.
  * <p>
  * Install responses are sent once a snapshot installation request has been received and processed.
- * Install responses provide no additional metadata aside from indicating whether or not the request
- * was successful.
+ * In addition to indicating whether or not the request was successful, install responses provide the
+ * {@link #nextOffset() next offset} the receiver expects for the snapshot being installed, allowing the
+ * leader to skip chunks the receiver already has or to rewind to the first missing chunk.
  */
 public class InstallResponse extends AbstractRaftResponse {
 
@@ -35,18 +41,81 @@ public class InstallResponse extends AbstractRaftResponse {
     return new Builder();
   }
 
+  private final long nextOffset;
+
   public InstallResponse(Status status, RaftError error) {
+    this(status, error, 0);
+  }
+
+  public InstallResponse(Status status, RaftError error, long nextOffset) {
     super(status, error);
+    this.nextOffset = nextOffset;
+  }
+
+  /**
+   * Returns the next snapshot byte offset expected by the receiver.
+   *
+   * @return The next snapshot byte offset expected by the receiver.
+   */
+  public long nextOffset() {
+    return nextOffset;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(getClass(), status, error, nextOffset);
+  }
+
+  @Override
+  public boolean equals(Object object) {
+    if (object instanceof InstallResponse) {
+      InstallResponse response = (InstallResponse) object;
+      return response.status == status
+          && Objects.equals(response.error, error)
+          && response.nextOffset == nextOffset;
+    }
+    return false;
+  }
+
+  @Override
+  public String toString() {
+    if (status == Status.OK) {
+      return toStringHelper(this)
+          .add("status", status)
+          .add("nextOffset", nextOffset)
+          .toString();
+    } else {
+      return toStringHelper(this)
+          .add("status", status)
+          .add("error", error)
+          .add("nextOffset", nextOffset)
+          .toString();
+    }
   }
 
   /**
    * Install response builder.
    */
   public static class Builder extends AbstractRaftResponse.Builder<Builder, InstallResponse> {
+    private long nextOffset;
+
+    /**
+     * Sets the next snapshot byte offset expected by the receiver.
+     *
+     * @param nextOffset The next snapshot byte offset.
+     * @return The response builder.
+     * @throws IllegalArgumentException if {@code nextOffset} is negative
+     */
+    public Builder withNextOffset(long nextOffset) {
+      checkArgument(nextOffset >= 0, "nextOffset must be positive");
+      this.nextOffset = nextOffset;
+      return this;
+    }
+
     @Override
     public InstallResponse build() {
       validate();
-      return new InstallResponse(status, error);
+      return new InstallResponse(status, error, nextOffset);
     }
   }
 }
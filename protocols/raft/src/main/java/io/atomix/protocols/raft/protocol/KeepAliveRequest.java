@@ -21,6 +21,7 @@ import java.util.Arrays;
 import java.util.Objects;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
 import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
@@ -33,6 +34,10 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * The {@link #commandSequenceNumbers()} number indicates the highest command sequence number for which the client
  * has received a response, and the {@link #eventIndexes()} numbers indicate the highest index for which the
  * client has received an event in proper sequence.
+ * <p>
+ * A session may be shared by multiple services, in which case the {@link #services()} identifiers indicate the
+ * service to which each command sequence number and event index applies. Keeping any service's session alive
+ * keeps the session alive for all of its services.
  */
 public class KeepAliveRequest extends AbstractRaftRequest {
 
@@ -46,11 +51,13 @@ public class KeepAliveRequest extends AbstractRaftRequest {
   }
 
   private final long[] sessionIds;
+  private final long[] services;
   private final long[] commandSequences;
   private final long[] eventIndexes;
 
-  public KeepAliveRequest(long[] sessionIds, long[] commandSequences, long[] eventIndexes) {
+  public KeepAliveRequest(long[] sessionIds, long[] services, long[] commandSequences, long[] eventIndexes) {
     this.sessionIds = sessionIds;
+    this.services = services;
     this.commandSequences = commandSequences;
     this.eventIndexes = eventIndexes;
   }
@@ -64,6 +71,15 @@ public class KeepAliveRequest extends AbstractRaftRequest {
     return sessionIds;
   }
 
+  /**
+   * Returns the service identifiers.
+   *
+   * @return The service identifiers.
+   */
+  public long[] services() {
+    return services;
+  }
+
   /**
    * Returns the command sequence numbers.
    *
@@ -84,7 +100,7 @@ public class KeepAliveRequest extends AbstractRaftRequest {
 
   @Override
   public int hashCode() {
-    return Objects.hash(getClass(), sessionIds, commandSequences, eventIndexes);
+    return Objects.hash(getClass(), sessionIds, services, commandSequences, eventIndexes);
   }
 
   @Override
@@ -92,6 +108,7 @@ public class KeepAliveRequest extends AbstractRaftRequest {
     if (object instanceof KeepAliveRequest) {
       KeepAliveRequest request = (KeepAliveRequest) object;
       return Arrays.equals(request.sessionIds, sessionIds)
+          && Arrays.equals(request.services, services)
           && Arrays.equals(request.commandSequences, commandSequences)
           && Arrays.equals(request.eventIndexes, eventIndexes);
     }
@@ -102,6 +119,7 @@ public class KeepAliveRequest extends AbstractRaftRequest {
   public String toString() {
     return toStringHelper(this)
         .add("sessionIds", ArraySizeHashPrinter.of(sessionIds))
+        .add("services", ArraySizeHashPrinter.of(services))
         .add("commandSequences", ArraySizeHashPrinter.of(commandSequences))
         .add("eventIndexes", ArraySizeHashPrinter.of(eventIndexes))
         .toString();
@@ -112,6 +130,7 @@ public class KeepAliveRequest extends AbstractRaftRequest {
    */
   public static class Builder extends AbstractRaftRequest.Builder<Builder, KeepAliveRequest> {
     private long[] sessionIds;
+    private long[] services;
     private long[] commandSequences;
     private long[] eventIndexes;
 
@@ -127,6 +146,18 @@ public class KeepAliveRequest extends AbstractRaftRequest {
       return this;
     }
 
+    /**
+     * Sets the service identifiers.
+     *
+     * @param services The service identifiers.
+     * @return The request builder.
+     * @throws NullPointerException if {@code services} is {@code null}
+     */
+    public Builder withServices(long[] services) {
+      this.services = checkNotNull(services, "services cannot be null");
+      return this;
+    }
+
     /**
      * Sets the command sequence numbers.
      *
@@ -157,12 +188,16 @@ public class KeepAliveRequest extends AbstractRaftRequest {
       this.sessionIds = checkNotNull(sessionIds, "sessionIds cannot be null");
       this.commandSequences = checkNotNull(commandSequences, "commandSequences cannot be null");
       this.eventIndexes = checkNotNull(eventIndexes, "eventIndexes cannot be null");
+      if (services == null) {
+        services = new long[sessionIds.length];
+      }
+      checkArgument(services.length == sessionIds.length, "services must match sessionIds");
     }
 
     @Override
     public KeepAliveRequest build() {
       validate();
-      return new KeepAliveRequest(sessionIds, commandSequences, eventIndexes);
+      return new KeepAliveRequest(sessionIds, services, commandSequences, eventIndexes);
     }
   }
 }
@@ -27,6 +27,9 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * Open session request.
+ * <p>
+ * If a {@link #session()} identifier is provided, the service is registered with the client's existing session
+ * rather than opening a new session, allowing a single session to be shared by all of a client's primitives.
  */
 public class OpenSessionRequest extends AbstractRaftRequest {
 
@@ -46,8 +49,9 @@ public class OpenSessionRequest extends AbstractRaftRequest {
   private final ReadConsistency readConsistency;
   private final long minTimeout;
   private final long maxTimeout;
+  private final long session;
 
-  public OpenSessionRequest(String node, String name, String typeName, byte[] config, ReadConsistency readConsistency, long minTimeout, long maxTimeout) {
+  public OpenSessionRequest(String node, String name, String typeName, byte[] config, ReadConsistency readConsistency, long minTimeout, long maxTimeout, long session) {
     this.node = node;
     this.name = name;
     this.typeName = typeName;
@@ -55,6 +59,7 @@ public class OpenSessionRequest extends AbstractRaftRequest {
     this.readConsistency = readConsistency;
     this.minTimeout = minTimeout;
     this.maxTimeout = maxTimeout;
+    this.session = session;
   }
 
   /**
@@ -120,9 +125,18 @@ public class OpenSessionRequest extends AbstractRaftRequest {
     return maxTimeout;
   }
 
+  /**
+   * Returns the existing session to which to add the service.
+   *
+   * @return The existing session ID or {@code 0} if a new session is to be opened.
+   */
+  public long session() {
+    return session;
+  }
+
   @Override
   public int hashCode() {
-    return Objects.hash(getClass(), name, typeName, minTimeout, maxTimeout);
+    return Objects.hash(getClass(), name, typeName, minTimeout, maxTimeout, session);
   }
 
   @Override
@@ -134,7 +148,8 @@ public class OpenSessionRequest extends AbstractRaftRequest {
           && request.typeName.equals(typeName)
           && request.readConsistency == readConsistency
           && request.minTimeout == minTimeout
-          && request.maxTimeout == maxTimeout;
+          && request.maxTimeout == maxTimeout
+          && request.session == session;
     }
     return false;
   }
@@ -148,6 +163,7 @@ public class OpenSessionRequest extends AbstractRaftRequest {
         .add("readConsistency", readConsistency)
         .add("minTimeout", minTimeout)
         .add("maxTimeout", maxTimeout)
+        .add("session", session)
         .toString();
   }
 
@@ -162,6 +178,7 @@ public class OpenSessionRequest extends AbstractRaftRequest {
     private ReadConsistency readConsistency = ReadConsistency.LINEARIZABLE;
     private long minTimeout;
     private long maxTimeout;
+    private long session;
 
     /**
      * Sets the client node identifier.
@@ -249,6 +266,19 @@ public class OpenSessionRequest extends AbstractRaftRequest {
       return this;
     }
 
+    /**
+     * Sets the existing session to which to add the service.
+     *
+     * @param session The existing session ID.
+     * @return The open session request builder.
+     * @throws IllegalArgumentException if {@code session} is not positive
+     */
+    public Builder withSession(long session) {
+      checkArgument(session > 0, "session must be positive");
+      this.session = session;
+      return this;
+    }
+
     @Override
     protected void validate() {
       super.validate();
@@ -266,7 +296,7 @@ public class OpenSessionRequest extends AbstractRaftRequest {
     @Override
     public OpenSessionRequest build() {
       validate();
-      return new OpenSessionRequest(memberId, serviceName, serviceType, serviceConfig, readConsistency, minTimeout, maxTimeout);
+      return new OpenSessionRequest(memberId, serviceName, serviceType, serviceConfig, readConsistency, minTimeout, maxTimeout, session);
     }
   }
 }
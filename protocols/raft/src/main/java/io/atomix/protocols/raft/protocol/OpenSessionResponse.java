@@ -37,11 +37,13 @@ public class OpenSessionResponse extends AbstractRaftResponse {
   }
 
   protected final long session;
+  protected final long service;
   protected final long timeout;
 
-  public OpenSessionResponse(Status status, RaftError error, long session, long timeout) {
+  public OpenSessionResponse(Status status, RaftError error, long session, long service, long timeout) {
     super(status, error);
     this.session = session;
+    this.service = service;
     this.timeout = timeout;
   }
 
@@ -54,6 +56,15 @@ public class OpenSessionResponse extends AbstractRaftResponse {
     return session;
   }
 
+  /**
+   * Returns the ID of the service for which the session was opened.
+   *
+   * @return The service ID.
+   */
+  public long service() {
+    return service;
+  }
+
   /**
    * Returns the session timeout.
    *
@@ -65,7 +76,7 @@ public class OpenSessionResponse extends AbstractRaftResponse {
 
   @Override
   public int hashCode() {
-    return Objects.hash(getClass(), error, status, session, timeout);
+    return Objects.hash(getClass(), error, status, session, service, timeout);
   }
 
   @Override
@@ -75,6 +86,7 @@ public class OpenSessionResponse extends AbstractRaftResponse {
       return response.status == status
           && Objects.equals(response.error, error)
           && response.session == session
+          && response.service == service
           && response.timeout == timeout;
     }
     return false;
@@ -86,6 +98,7 @@ public class OpenSessionResponse extends AbstractRaftResponse {
       return toStringHelper(this)
           .add("status", status)
           .add("session", session)
+          .add("service", service)
           .add("timeout", timeout)
           .toString();
     } else {
@@ -101,6 +114,7 @@ public class OpenSessionResponse extends AbstractRaftResponse {
    */
   public static class Builder extends AbstractRaftResponse.Builder<Builder, OpenSessionResponse> {
     private long session;
+    private long service;
     private long timeout;
 
     /**
@@ -116,6 +130,19 @@ public class OpenSessionResponse extends AbstractRaftResponse {
       return this;
     }
 
+    /**
+     * Sets the response service ID.
+     *
+     * @param service The service ID.
+     * @return The register response builder.
+     * @throws IllegalArgumentException if {@code service} is less than 1
+     */
+    public Builder withService(long service) {
+      checkArgument(service > 0, "service must be positive");
+      this.service = service;
+      return this;
+    }
+
     /**
      * Sets the session timeout.
      *
@@ -140,7 +167,7 @@ public class OpenSessionResponse extends AbstractRaftResponse {
     @Override
     public OpenSessionResponse build() {
       validate();
-      return new OpenSessionResponse(status, error, session, timeout);
+      return new OpenSessionResponse(status, error, session, service, timeout);
     }
   }
 }
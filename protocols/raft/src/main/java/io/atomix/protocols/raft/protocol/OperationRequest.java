@@ -33,8 +33,8 @@ public abstract class OperationRequest extends SessionRequest {
   protected final long sequence;
   protected final PrimitiveOperation operation;
 
-  protected OperationRequest(long session, long sequence, PrimitiveOperation operation) {
-    super(session);
+  protected OperationRequest(long session, long service, long sequence, PrimitiveOperation operation) {
+    super(session, service);
     this.sequence = sequence;
     this.operation = operation;
   }
@@ -50,8 +50,8 @@ public class PublishRequest extends SessionRequest {
   private final long previousIndex;
   private final List<PrimitiveEvent> events;
 
-  public PublishRequest(long session, long eventIndex, long previousIndex, List<PrimitiveEvent> events) {
-    super(session);
+  public PublishRequest(long session, long service, long eventIndex, long previousIndex, List<PrimitiveEvent> events) {
+    super(session, service);
     this.eventIndex = eventIndex;
     this.previousIndex = previousIndex;
     this.events = events;
@@ -86,7 +86,7 @@ public class PublishRequest extends SessionRequest {
 
   @Override
   public int hashCode() {
-    return Objects.hash(getClass(), session, eventIndex, previousIndex, events);
+    return Objects.hash(getClass(), session, service, eventIndex, previousIndex, events);
   }
 
   @Override
@@ -94,6 +94,7 @@ public class PublishRequest extends SessionRequest {
     if (object instanceof PublishRequest) {
       PublishRequest request = (PublishRequest) object;
       return request.session == session
+          && request.service == service
           && request.eventIndex == eventIndex
           && request.previousIndex == previousIndex
           && request.events.equals(events);
@@ -105,6 +106,7 @@ public class PublishRequest extends SessionRequest {
   public String toString() {
     return toStringHelper(this)
         .add("session", session)
+        .add("service", service)
         .add("eventIndex", eventIndex)
         .add("previousIndex", previousIndex)
         .add("events", events)
@@ -180,7 +182,7 @@ public class PublishRequest extends SessionRequest {
     @Override
     public PublishRequest build() {
       validate();
-      return new PublishRequest(session, eventIndex, previousIndex, events);
+      return new PublishRequest(session, service, eventIndex, previousIndex, events);
     }
   }
 }
@@ -45,8 +45,8 @@ public class QueryRequest extends OperationRequest {
 
   private final long index;
 
-  public QueryRequest(long session, long sequence, PrimitiveOperation operation, long index) {
-    super(session, sequence, operation);
+  public QueryRequest(long session, long service, long sequence, PrimitiveOperation operation, long index) {
+    super(session, service, sequence, operation);
     this.index = index;
   }
 
@@ -61,7 +61,7 @@ public class QueryRequest extends OperationRequest {
 
   @Override
   public int hashCode() {
-    return Objects.hash(getClass(), session, sequence, operation, index);
+    return Objects.hash(getClass(), session, service, sequence, operation, index);
   }
 
   @Override
@@ -69,6 +69,7 @@ public class QueryRequest extends OperationRequest {
     if (object instanceof QueryRequest) {
       QueryRequest request = (QueryRequest) object;
       return request.session == session
+          && request.service == service
           && request.sequence == sequence
           && request.operation.equals(operation);
     }
@@ -79,6 +80,7 @@ public class QueryRequest extends OperationRequest {
   public String toString() {
     return toStringHelper(this)
         .add("session", session)
+        .add("service", service)
         .add("sequence", sequence)
         .add("operation", operation)
         .add("index", index)
@@ -116,7 +118,7 @@ public class QueryRequest extends OperationRequest {
     @Override
     public QueryRequest build() {
       validate();
-      return new QueryRequest(session, sequence, operation, index);
+      return new QueryRequest(session, service, sequence, operation, index);
     }
   }
 
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.protocols.raft.protocol;
+
+import java.util.Objects;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+/**
+ * Read index request.
+ * <p>
+ * Read index requests are sent by followers to the leader to determine the commit index up to which the follower
+ * must apply entries before it can serve a linearizable query locally. The leader responds with its commit index
+ * once it has confirmed its leadership with a majority of the cluster.
+ */
+public class ReadIndexRequest extends AbstractRaftRequest {
+
+  /**
+   * Returns a new read index request builder.
+   *
+   * @return A new read index request builder.
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(getClass());
+  }
+
+  @Override
+  public boolean equals(Object object) {
+    return object instanceof ReadIndexRequest;
+  }
+
+  @Override
+  public String toString() {
+    return toStringHelper(this).toString();
+  }
+
+  /**
+   * Read index request builder.
+   */
+  public static class Builder extends AbstractRaftRequest.Builder<Builder, ReadIndexRequest> {
+    @Override
+    public ReadIndexRequest build() {
+      validate();
+      return new ReadIndexRequest();
+    }
+  }
+}
@@ -0,0 +1,115 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.protocols.raft.protocol;
+
+import io.atomix.protocols.raft.RaftError;
+
+import java.util.Objects;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+
+/**
+ * Read index response.
+ * <p>
+ * Read index responses are sent by the leader in response to a {@link ReadIndexRequest} and provide the
+ * {@link #readIndex() read index} up to which the requesting server must apply entries before serving a
+ * linearizable query.
+ */
+public class ReadIndexResponse extends AbstractRaftResponse {
+
+  /**
+   * Returns a new read index response builder.
+   *
+   * @return A new read index response builder.
+   */
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  private final long readIndex;
+
+  public ReadIndexResponse(Status status, RaftError error, long readIndex) {
+    super(status, error);
+    this.readIndex = readIndex;
+  }
+
+  /**
+   * Returns the read index.
+   *
+   * @return The index up to which entries must be applied before serving a linearizable query.
+   */
+  public long readIndex() {
+    return readIndex;
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(getClass(), status, error, readIndex);
+  }
+
+  @Override
+  public boolean equals(Object object) {
+    if (object instanceof ReadIndexResponse) {
+      ReadIndexResponse response = (ReadIndexResponse) object;
+      return response.status == status
+          && Objects.equals(response.error, error)
+          && response.readIndex == readIndex;
+    }
+    return false;
+  }
+
+  @Override
+  public String toString() {
+    if (status == Status.OK) {
+      return toStringHelper(this)
+          .add("status", status)
+          .add("readIndex", readIndex)
+          .toString();
+    } else {
+      return toStringHelper(this)
+          .add("status", status)
+          .add("error", error)
+          .toString();
+    }
+  }
+
+  /**
+   * Read index response builder.
+   */
+  public static class Builder extends AbstractRaftResponse.Builder<Builder, ReadIndexResponse> {
+    private long readIndex;
+
+    /**
+     * Sets the read index.
+     *
+     * @param readIndex The read index.
+     * @return The response builder.
+     * @throws IllegalArgumentException if {@code readIndex} is negative
+     */
+    public Builder withReadIndex(long readIndex) {
+      checkArgument(readIndex >= 0, "readIndex must be positive");
+      this.readIndex = readIndex;
+      return this;
+    }
+
+    @Override
+    public ReadIndexResponse build() {
+      validate();
+      return new ReadIndexResponse(status, error, readIndex);
+    }
+  }
+}
@@ -39,8 +39,8 @@ public class ResetRequest extends SessionRequest {
 
   private final long index;
 
-  public ResetRequest(long session, long index) {
-    super(session);
+  public ResetRequest(long session, long service, long index) {
+    super(session, service);
     this.index = index;
   }
 
@@ -55,7 +55,7 @@ public class ResetRequest extends SessionRequest {
 
   @Override
   public int hashCode() {
-    return Objects.hash(getClass(), session, index);
+    return Objects.hash(getClass(), session, service, index);
   }
 
   @Override
@@ -63,6 +63,7 @@ public class ResetRequest extends SessionRequest {
     if (object instanceof ResetRequest) {
       ResetRequest request = (ResetRequest) object;
       return request.session == session
+          && request.service == service
           && request.index == index;
     }
     return false;
@@ -72,6 +73,7 @@ public class ResetRequest extends SessionRequest {
   public String toString() {
     return toStringHelper(this)
         .add("session", session)
+        .add("service", service)
         .add("index", index)
         .toString();
   }
@@ -101,7 +103,7 @@ public class ResetRequest extends SessionRequest {
     @Override
     public ResetRequest build() {
       validate();
-      return new ResetRequest(session, index);
+      return new ResetRequest(session, service, index);
     }
   }
 }
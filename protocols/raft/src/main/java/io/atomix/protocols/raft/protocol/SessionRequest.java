@@ -24,13 +24,20 @@ import static com.google.common.base.Preconditions.checkArgument;
  * Base session request.
  * <p>
  * This is the base request for session-related requests. Many client requests are handled within the
- * context of a {@link #session()} identifier.
+ * context of a {@link #session()} identifier. A session may be shared by multiple primitives, in which case
+ * the {@link #service()} identifier indicates the primitive to which the request is routed.
  */
 public abstract class SessionRequest extends AbstractRaftRequest {
   protected final long session;
+  protected final long service;
 
   protected SessionRequest(long session) {
+    this(session, 0);
+  }
+
+  protected SessionRequest(long session, long service) {
     this.session = session;
+    this.service = service;
   }
 
   /**
@@ -42,9 +49,20 @@ public abstract class SessionRequest extends AbstractRaftRequest {
     return session;
   }
 
+  /**
+   * Returns the service ID.
+   * <p>
+   * If the service ID is {@code 0}, the request applies to the primitive for which the session was opened.
+   *
+   * @return The service ID.
+   */
+  public long service() {
+    return service;
+  }
+
   @Override
   public int hashCode() {
-    return Objects.hash(getClass(), session);
+    return Objects.hash(getClass(), session, service);
   }
 
   @Override
@@ -53,13 +71,14 @@ public abstract class SessionRequest extends AbstractRaftRequest {
     if (object == null || !getClass().isAssignableFrom(object.getClass())) return false;
 
     SessionRequest request = (SessionRequest) object;
-    return request.session == session;
+    return request.session == session && request.service == service;
   }
 
   @Override
   public String toString() {
     return toStringHelper(this)
         .add("session", session)
+        .add("service", service)
         .toString();
   }
 
@@ -68,6 +87,7 @@ public abstract class SessionRequest extends AbstractRaftRequest {
    */
   public static abstract class Builder<T extends Builder<T, U>, U extends SessionRequest> extends AbstractRaftRequest.Builder<T, U> {
     protected long session;
+    protected long service;
 
     /**
      * Sets the session ID.
@@ -83,6 +103,20 @@ public abstract class SessionRequest extends AbstractRaftRequest {
       return (T) this;
     }
 
+    /**
+     * Sets the service ID.
+     *
+     * @param service The service ID.
+     * @return The request builder.
+     * @throws IllegalArgumentException if {@code service} is negative
+     */
+    @SuppressWarnings("unchecked")
+    public T withService(long service) {
+      checkArgument(service >= 0, "service must be positive");
+      this.service = service;
+      return (T) this;
+    }
+
     @Override
     protected void validate() {
       checkArgument(session > 0, "session must be positive");
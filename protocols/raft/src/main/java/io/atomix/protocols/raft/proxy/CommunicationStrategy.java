@@ -86,8 +86,39 @@ public enum  CommunicationStrategy {
       }
       return members;
     }
+  },
+
+  /**
+   * The {@code BALANCED} selection strategy spreads queries across all servers in the cluster. Rather than
+   * persisting a connection to a single server, the client selects a random server for each query. Combined with
+   * servers serving linearizable queries locally using the leader's read index, this strategy spreads the read load
+   * for a partition across all of its replicas.
+   */
+  BALANCED {
+    @Override
+    public List<MemberId> selectConnections(MemberId leader, List<MemberId> members) {
+      Collections.shuffle(members);
+      return members;
+    }
+
+    @Override
+    public boolean isBalanced() {
+      return true;
+    }
   };
 
+  /**
+   * Returns whether the strategy selects a new server for each query.
+   * <p>
+   * Balanced strategies do not persist a connection to a single server once a query has succeeded, so successive
+   * queries are spread across the servers returned by {@link #selectConnections(MemberId, List)}.
+   *
+   * @return whether the strategy selects a new server for each query
+   */
+  public boolean isBalanced() {
+    return false;
+  }
+
   /**
    * Returns a prioritized list of servers to which the client can connect and submit operations.
    * <p>
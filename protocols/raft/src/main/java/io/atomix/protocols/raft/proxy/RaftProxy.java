@@ -28,6 +28,10 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * Raft primitive proxy.
+ * <p>
+ * Proxies opened by the same client with the same read consistency and session timeouts share a single session on
+ * the partition. Each proxy is bound to its primitive's service within the shared session, and operations carry the
+ * service ID so the partition can route them, while keep-alives and session expiration apply to the session as a whole.
  */
 public interface RaftProxy extends PartitionProxy {
 
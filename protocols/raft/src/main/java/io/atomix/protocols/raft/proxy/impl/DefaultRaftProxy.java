@@ -201,6 +201,7 @@ public class DefaultRaftProxy implements RaftProxy {
           RaftProxySequencer sequencer = new RaftProxySequencer(state);
           this.proxyListener = new RaftProxyListener(
               protocol,
+              sessionManager,
               selectorManager.createSelector(CommunicationStrategy.ANY),
               state,
               sequencer,
@@ -233,7 +234,7 @@ public class DefaultRaftProxy implements RaftProxy {
   @Override
   public CompletableFuture<Void> close() {
     if (state != null) {
-      return sessionManager.closeSession(state.getSessionId())
+      return sessionManager.closeSession(state)
           .whenComplete((result, error) -> state.setState(PartitionProxy.State.CLOSED));
     }
     return CompletableFuture.completedFuture(null);
@@ -247,7 +248,7 @@ public class DefaultRaftProxy implements RaftProxy {
   @Override
   public boolean equals(Object object) {
     return object instanceof DefaultRaftProxy
-        && ((DefaultRaftProxy) object).state.getSessionId() == state.getSessionId();
+        && ((DefaultRaftProxy) object).state == state;
   }
 
   @Override
@@ -99,6 +99,15 @@ public final class MemberSelector implements Iterator<MemberId>, AutoCloseable {
     return selection;
   }
 
+  /**
+   * Returns the selector's communication strategy.
+   *
+   * @return The selector's communication strategy.
+   */
+  public CommunicationStrategy strategy() {
+    return strategy;
+  }
+
   /**
    * Returns the current selector leader.
    *
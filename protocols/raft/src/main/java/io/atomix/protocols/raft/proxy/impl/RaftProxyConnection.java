@@ -259,6 +259,12 @@ public class RaftProxyConnection {
       if (COMPLETE_PREDICATE.test(response)) {
         future.complete(response);
         selector.reset();
+
+        // If the selector balances queries across servers, select a new server for the next request. Other
+        // requests stick to the current server to avoid adding a forwarding hop to each request.
+        if (request instanceof QueryRequest && selector.strategy().isBalanced() && this.selectionId == selectionId) {
+          this.currentNode = null;
+        }
       } else {
         retryRequest(response.error().createException(), request, sender, count + 1, selectionId, future);
       }
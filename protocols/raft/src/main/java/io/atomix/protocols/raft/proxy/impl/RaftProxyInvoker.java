@@ -108,6 +108,7 @@ final class RaftProxyInvoker {
   private void invokeCommand(PrimitiveOperation operation, CompletableFuture<byte[]> future) {
     CommandRequest request = CommandRequest.builder()
         .withSession(state.getSessionId().id())
+        .withService(state.getServiceId())
         .withSequence(state.nextCommandRequest())
         .withOperation(operation)
         .build();
@@ -127,6 +128,7 @@ final class RaftProxyInvoker {
   private void invokeQuery(PrimitiveOperation operation, CompletableFuture<byte[]> future) {
     QueryRequest request = QueryRequest.builder()
         .withSession(state.getSessionId().id())
+        .withService(state.getServiceId())
         .withSequence(state.getCommandRequest())
         .withOperation(operation)
         .withIndex(Math.max(state.getResponseIndex(), state.getEventIndex()))
@@ -174,7 +176,7 @@ final class RaftProxyInvoker {
     long responseSequence = state.getCommandResponse();
     if (commandSequence < responseSequence && keepAliveIndex.get() != responseSequence) {
       keepAliveIndex.set(responseSequence);
-      manager.resetIndexes(state.getSessionId()).whenCompleteAsync((result, error) -> {
+      manager.resetIndexes(state).whenCompleteAsync((result, error) -> {
         if (error == null) {
           resubmit(responseSequence, attempt);
         } else {
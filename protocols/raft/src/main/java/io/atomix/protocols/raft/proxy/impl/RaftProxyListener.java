@@ -41,14 +41,16 @@ import static com.google.common.base.Preconditions.checkNotNull;
 final class RaftProxyListener {
   private final Logger log;
   private final RaftClientProtocol protocol;
+  private final RaftProxyManager manager;
   private final MemberSelector memberSelector;
   private final RaftProxyState state;
   private final Map<EventType, Set<Consumer<PrimitiveEvent>>> eventListeners = Maps.newHashMap();
   private final RaftProxySequencer sequencer;
   private final Executor executor;
 
-  public RaftProxyListener(RaftClientProtocol protocol, MemberSelector memberSelector, RaftProxyState state, RaftProxySequencer sequencer, Executor executor) {
+  public RaftProxyListener(RaftClientProtocol protocol, RaftProxyManager manager, MemberSelector memberSelector, RaftProxyState state, RaftProxySequencer sequencer, Executor executor) {
     this.protocol = checkNotNull(protocol, "protocol cannot be null");
+    this.manager = checkNotNull(manager, "manager cannot be null");
     this.memberSelector = checkNotNull(memberSelector, "nodeSelector cannot be null");
     this.state = checkNotNull(state, "state cannot be null");
     this.sequencer = checkNotNull(sequencer, "sequencer cannot be null");
@@ -58,7 +60,7 @@ final class RaftProxyListener {
         .add("type", state.getPrimitiveType())
         .add("name", state.getPrimitiveName())
         .build());
-    protocol.registerPublishListener(state.getSessionId(), this::handlePublish, executor);
+    manager.registerPublishListener(state, this::handlePublish, executor);
   }
 
   /**
@@ -95,6 +97,12 @@ final class RaftProxyListener {
       return;
     }
 
+    // If the request is for another service sharing the session, ignore it.
+    if (request.service() != state.getServiceId()) {
+      log.trace("Inconsistent service ID: {}", request.service());
+      return;
+    }
+
     // Store eventIndex in a local variable to prevent multiple volatile reads.
     long eventIndex = state.getEventIndex();
 
@@ -111,6 +119,7 @@ final class RaftProxyListener {
       log.trace("Inconsistent event index: {}", request.previousIndex());
       ResetRequest resetRequest = ResetRequest.builder()
           .withSession(state.getSessionId().id())
+          .withService(state.getServiceId())
           .withIndex(eventIndex)
           .build();
       log.trace("Sending {}", resetRequest);
@@ -139,7 +148,7 @@ final class RaftProxyListener {
    * @return A completable future to be completed once the listener is closed.
    */
   public CompletableFuture<Void> close() {
-    protocol.unregisterPublishListener(state.getSessionId());
+    manager.unregisterPublishListener(state);
     return CompletableFuture.completedFuture(null);
   }
 }
@@ -16,14 +16,17 @@
 package io.atomix.protocols.raft.proxy.impl;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.google.common.primitives.Longs;
+import com.google.common.util.concurrent.MoreExecutors;
 import io.atomix.cluster.MemberId;
 import io.atomix.primitive.PrimitiveType;
 import io.atomix.primitive.proxy.PartitionProxy;
 import io.atomix.primitive.service.ServiceConfig;
 import io.atomix.primitive.session.SessionId;
 import io.atomix.protocols.raft.RaftClient;
+import io.atomix.protocols.raft.RaftError;
 import io.atomix.protocols.raft.RaftException;
 import io.atomix.protocols.raft.ReadConsistency;
 import io.atomix.protocols.raft.protocol.CloseSessionRequest;
@@ -31,6 +34,7 @@ import io.atomix.protocols.raft.protocol.HeartbeatRequest;
 import io.atomix.protocols.raft.protocol.HeartbeatResponse;
 import io.atomix.protocols.raft.protocol.KeepAliveRequest;
 import io.atomix.protocols.raft.protocol.OpenSessionRequest;
+import io.atomix.protocols.raft.protocol.PublishRequest;
 import io.atomix.protocols.raft.protocol.RaftClientProtocol;
 import io.atomix.protocols.raft.protocol.RaftResponse;
 import io.atomix.protocols.raft.proxy.CommunicationStrategy;
@@ -51,7 +55,9 @@ import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
@@ -59,6 +65,10 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * Client session manager.
+ * <p>
+ * The session manager shares a single session among all the proxies opened by the client with the same read
+ * consistency and session timeouts. Each proxy is bound to its service within the session, and proxy states are
+ * tracked by session ID and service ID.
  */
 public class RaftProxyManager {
   private static final double TIMEOUT_FACTOR = .5;
@@ -72,7 +82,9 @@ public class RaftProxyManager {
   private final ThreadContextFactory threadContextFactory;
   private final ThreadContext threadContext;
   private final MemberSelectorManager selectorManager;
-  private final Map<Long, RaftProxyState> sessions = new ConcurrentHashMap<>();
+  private final Map<Long, Map<Long, RaftProxyState>> sessions = new ConcurrentHashMap<>();
+  private final Map<SessionKey, Long> sharedSessions = new ConcurrentHashMap<>();
+  private final Map<Long, Map<Long, Consumer<PublishRequest>>> publishListeners = Maps.newHashMap();
   private final Map<Long, Scheduled> keepAliveTimers = new ConcurrentHashMap<>();
   private final AtomicBoolean open = new AtomicBoolean();
 
@@ -144,6 +156,9 @@ public class RaftProxyManager {
 
   /**
    * Opens a new session.
+   * <p>
+   * If the client already holds a session with the same read consistency and timeouts that is not yet bound to
+   * the named service, the service is attached to the existing session rather than opening a new one.
    *
    * @param serviceName           The session name.
    * @param primitiveType           The session type.
@@ -165,34 +180,63 @@ public class RaftProxyManager {
     checkNotNull(communicationStrategy, "communicationStrategy cannot be null");
     checkNotNull(maxTimeout, "timeout cannot be null");
 
-    log.debug("Opening session; name: {}, type: {}", serviceName, primitiveType);
-    OpenSessionRequest request = OpenSessionRequest.builder()
+    SessionKey key = new SessionKey(readConsistency, minTimeout.toMillis(), maxTimeout.toMillis());
+    Long sessionId = sharedSessions.get(key);
+    if (sessionId != null && isBound(sessionId, serviceName)) {
+      sessionId = null;
+    }
+
+    CompletableFuture<RaftProxyState> future = new CompletableFuture<>();
+    openSession(key, sessionId != null ? sessionId : 0, serviceName, primitiveType, config, future);
+    return future;
+  }
+
+  /**
+   * Opens a new session or attaches the service to an existing session.
+   */
+  private void openSession(
+      SessionKey key,
+      long sessionId,
+      String serviceName,
+      PrimitiveType primitiveType,
+      ServiceConfig config,
+      CompletableFuture<RaftProxyState> future) {
+    log.debug("Opening session; name: {}, type: {}, session: {}", serviceName, primitiveType, sessionId);
+    OpenSessionRequest.Builder builder = OpenSessionRequest.builder()
         .withMemberId(memberId)
         .withServiceName(serviceName)
         .withServiceType(primitiveType)
         .withServiceConfig(Serializer.using(primitiveType.namespace()).encode(config))
-        .withReadConsistency(readConsistency)
-        .withMinTimeout(minTimeout.toMillis())
-        .withMaxTimeout(maxTimeout.toMillis())
-        .build();
+        .withReadConsistency(key.readConsistency)
+        .withMinTimeout(key.minTimeout)
+        .withMaxTimeout(key.maxTimeout);
+    if (sessionId > 0) {
+      builder.withSession(sessionId);
+    }
+    OpenSessionRequest request = builder.build();
 
-    CompletableFuture<RaftProxyState> future = new CompletableFuture<>();
     ThreadContext proxyContext = threadContextFactory.createContext();
     connection.openSession(request).whenCompleteAsync((response, error) -> {
       if (error == null) {
         if (response.status() == RaftResponse.Status.OK) {
-          // Create and store the proxy state.
+          // Create the proxy state. If another proxy was concurrently bound to the same service within the
+          // shared session, open a separate session for this proxy instead.
           RaftProxyState state = new RaftProxyState(
               clientId,
               SessionId.from(response.session()),
+              response.service(),
               serviceName,
               primitiveType,
               response.timeout());
-          sessions.put(state.getSessionId().id(), state);
+          if (!addState(state)) {
+            openSession(key, 0, serviceName, primitiveType, config, future);
+            return;
+          }
+          sharedSessions.putIfAbsent(key, state.getSessionId().id());
 
           state.addStateChangeListener(s -> {
             if (s == PartitionProxy.State.CLOSED) {
-              sessions.remove(state.getSessionId().id());
+              removeState(state);
             }
           });
 
@@ -200,6 +244,10 @@ public class RaftProxyManager {
           keepAliveSessions(System.currentTimeMillis(), state.getSessionTimeout());
 
           future.complete(state);
+        } else if (sessionId > 0 && response.error().type() == RaftError.Type.UNKNOWN_SESSION) {
+          // If the shared session has been closed or expired, open a new session.
+          sharedSessions.remove(key, sessionId);
+          openSession(key, 0, serviceName, primitiveType, config, future);
         } else {
           future.completeExceptionally(new RaftException.Unavailable(response.error().message()));
         }
@@ -207,31 +255,66 @@ public class RaftProxyManager {
         future.completeExceptionally(new RaftException.Unavailable(error.getMessage()));
       }
     }, proxyContext);
-    return future;
+  }
+
+  /**
+   * Returns a boolean indicating whether the given session is already bound to the named service.
+   */
+  private boolean isBound(long sessionId, String serviceName) {
+    Map<Long, RaftProxyState> states = sessions.get(sessionId);
+    return states != null && states.values().stream().anyMatch(state -> state.getPrimitiveName().equals(serviceName));
+  }
+
+  /**
+   * Adds the given proxy state to the session's bindings.
+   *
+   * @return indicates whether the state was added
+   */
+  private boolean addState(RaftProxyState state) {
+    return sessions.computeIfAbsent(state.getSessionId().id(), id -> new ConcurrentHashMap<>())
+        .putIfAbsent(state.getServiceId(), state) == null;
+  }
+
+  /**
+   * Removes the given proxy state from the session's bindings.
+   */
+  private void removeState(RaftProxyState state) {
+    long sessionId = state.getSessionId().id();
+    sessions.computeIfPresent(sessionId, (id, states) -> {
+      states.remove(state.getServiceId(), state);
+      return states.isEmpty() ? null : states;
+    });
+    if (!sessions.containsKey(sessionId)) {
+      sharedSessions.values().removeIf(id -> id == sessionId);
+    }
   }
 
   /**
    * Closes a session.
+   * <p>
+   * Only the given proxy's binding is closed. The session is closed once no services remain bound to it.
    *
-   * @param sessionId The session identifier.
+   * @param state The proxy state for which to close the session.
    * @return A completable future to be completed once the session is closed.
    */
-  public CompletableFuture<Void> closeSession(SessionId sessionId) {
-    RaftProxyState state = sessions.get(sessionId.id());
-    if (state == null) {
+  public CompletableFuture<Void> closeSession(RaftProxyState state) {
+    SessionId sessionId = state.getSessionId();
+    Map<Long, RaftProxyState> states = sessions.get(sessionId.id());
+    if (states == null || states.get(state.getServiceId()) != state) {
       return Futures.exceptionalFuture(new RaftException.UnknownSession("Unknown session: " + sessionId));
     }
 
     log.info("Closing session {}", sessionId);
     CloseSessionRequest request = CloseSessionRequest.builder()
         .withSession(sessionId.id())
+        .withService(state.getServiceId())
         .build();
 
     CompletableFuture<Void> future = new CompletableFuture<>();
     connection.closeSession(request).whenComplete((response, error) -> {
       if (error == null) {
         if (response.status() == RaftResponse.Status.OK) {
-          sessions.remove(sessionId.id());
+          removeState(state);
           future.complete(null);
         } else {
           future.completeExceptionally(response.error().createException());
@@ -243,14 +326,58 @@ public class RaftProxyManager {
     return future;
   }
 
+  /**
+   * Registers a publish listener for the given proxy state.
+   * <p>
+   * A single listener is registered with the protocol for each session, and events are dispatched to the
+   * proxies sharing the session by service ID.
+   *
+   * @param state    the proxy state
+   * @param listener the publish listener
+   * @param executor the executor with which to call the listener
+   */
+  synchronized void registerPublishListener(RaftProxyState state, Consumer<PublishRequest> listener, Executor executor) {
+    Map<Long, Consumer<PublishRequest>> listeners = publishListeners.computeIfAbsent(state.getSessionId().id(), id -> {
+      Map<Long, Consumer<PublishRequest>> serviceListeners = new ConcurrentHashMap<>();
+      protocol.registerPublishListener(state.getSessionId(), request -> {
+        Consumer<PublishRequest> serviceListener = serviceListeners.get(request.service());
+        if (serviceListener != null) {
+          serviceListener.accept(request);
+        }
+      }, MoreExecutors.directExecutor());
+      return serviceListeners;
+    });
+    listeners.put(state.getServiceId(), request -> executor.execute(() -> listener.accept(request)));
+  }
+
+  /**
+   * Unregisters the publish listener for the given proxy state.
+   *
+   * @param state the proxy state
+   */
+  synchronized void unregisterPublishListener(RaftProxyState state) {
+    Map<Long, Consumer<PublishRequest>> listeners = publishListeners.get(state.getSessionId().id());
+    if (listeners != null) {
+      listeners.remove(state.getServiceId());
+      if (listeners.isEmpty()) {
+        publishListeners.remove(state.getSessionId().id());
+        protocol.unregisterPublishListener(state.getSessionId());
+      }
+    }
+  }
+
   /**
    * Resets indexes for all sessions.
    */
   private synchronized void resetAllIndexes() {
-    Collection<RaftProxyState> sessions = Lists.newArrayList(this.sessions.values());
+    Collection<RaftProxyState> sessions = this.sessions.values()
+        .stream()
+        .flatMap(states -> states.values().stream())
+        .collect(Collectors.toList());
 
-    // Allocate session IDs, command response sequence numbers, and event index arrays.
+    // Allocate session IDs, service IDs, command response sequence numbers, and event index arrays.
     long[] sessionIds = new long[sessions.size()];
+    long[] serviceIds = new long[sessions.size()];
     long[] commandResponses = new long[sessions.size()];
     long[] eventIndexes = new long[sessions.size()];
 
@@ -258,6 +385,7 @@ public class RaftProxyManager {
     int i = 0;
     for (RaftProxyState sessionState : sessions) {
       sessionIds[i] = sessionState.getSessionId().id();
+      serviceIds[i] = sessionState.getServiceId();
       commandResponses[i] = sessionState.getCommandResponse();
       eventIndexes[i] = sessionState.getEventIndex();
       i++;
@@ -267,6 +395,7 @@ public class RaftProxyManager {
 
     KeepAliveRequest request = KeepAliveRequest.builder()
         .withSessionIds(sessionIds)
+        .withServices(serviceIds)
         .withCommandSequences(commandResponses)
         .withEventIndexes(eventIndexes)
         .build();
@@ -276,19 +405,20 @@ public class RaftProxyManager {
   /**
    * Resets indexes for the given session.
    *
-   * @param sessionId The session for which to reset indexes.
+   * @param sessionState The session for which to reset indexes.
    * @return A completable future to be completed once the session's indexes have been reset.
    */
-  CompletableFuture<Void> resetIndexes(SessionId sessionId) {
-    RaftProxyState sessionState = sessions.get(sessionId.id());
-    if (sessionState == null) {
-      return Futures.exceptionalFuture(new IllegalArgumentException("Unknown session: " + sessionId));
+  CompletableFuture<Void> resetIndexes(RaftProxyState sessionState) {
+    Map<Long, RaftProxyState> states = sessions.get(sessionState.getSessionId().id());
+    if (states == null || states.get(sessionState.getServiceId()) != sessionState) {
+      return Futures.exceptionalFuture(new IllegalArgumentException("Unknown session: " + sessionState.getSessionId()));
     }
 
     CompletableFuture<Void> future = new CompletableFuture<>();
 
     KeepAliveRequest request = KeepAliveRequest.builder()
-        .withSessionIds(new long[]{sessionId.id()})
+        .withSessionIds(new long[]{sessionState.getSessionId().id()})
+        .withServices(new long[]{sessionState.getServiceId()})
         .withCommandSequences(new long[]{sessionState.getCommandResponse()})
         .withEventIndexes(new long[]{sessionState.getEventIndex()})
         .build();
@@ -309,11 +439,16 @@ public class RaftProxyManager {
 
   /**
    * Sends a keep-alive request to the cluster.
+   * <p>
+   * Services sharing a session are kept alive by a single keep-alive for the session. Only services that have
+   * received responses or events since their last keep-alive are included in the request, and the session is
+   * included through one of its services if none of them have.
    */
   private synchronized void keepAliveSessions(long lastKeepAliveTime, long sessionTimeout) {
     // Filter the list of sessions by timeout.
     List<RaftProxyState> needKeepAlive = sessions.values()
         .stream()
+        .flatMap(states -> states.values().stream())
         .filter(session -> session.getSessionTimeout() == sessionTimeout)
         .collect(Collectors.toList());
 
@@ -322,24 +457,42 @@ public class RaftProxyManager {
       return;
     }
 
-    // Allocate session IDs, command response sequence numbers, and event index arrays.
-    long[] sessionIds = new long[needKeepAlive.size()];
-    long[] commandResponses = new long[needKeepAlive.size()];
-    long[] eventIndexes = new long[needKeepAlive.size()];
+    // Select the services to include in the request, ensuring each session is included at least once.
+    List<RaftProxyState> keepAlives = Lists.newArrayList();
+    Set<Long> includedSessions = Sets.newHashSet();
+    for (RaftProxyState sessionState : needKeepAlive) {
+      if (sessionState.needsKeepAlive()) {
+        keepAlives.add(sessionState);
+        includedSessions.add(sessionState.getSessionId().id());
+      }
+    }
+    for (RaftProxyState sessionState : needKeepAlive) {
+      if (includedSessions.add(sessionState.getSessionId().id())) {
+        keepAlives.add(sessionState);
+      }
+    }
+
+    // Allocate session IDs, service IDs, command response sequence numbers, and event index arrays.
+    long[] sessionIds = new long[keepAlives.size()];
+    long[] serviceIds = new long[keepAlives.size()];
+    long[] commandResponses = new long[keepAlives.size()];
+    long[] eventIndexes = new long[keepAlives.size()];
 
     // For each session that needs to be kept alive, populate batch request arrays.
     int i = 0;
-    for (RaftProxyState sessionState : needKeepAlive) {
+    for (RaftProxyState sessionState : keepAlives) {
       sessionIds[i] = sessionState.getSessionId().id();
+      serviceIds[i] = sessionState.getServiceId();
       commandResponses[i] = sessionState.getCommandResponse();
       eventIndexes[i] = sessionState.getEventIndex();
       i++;
     }
 
-    log.trace("Keeping {} sessions alive", sessionIds.length);
+    log.trace("Keeping {} sessions alive", includedSessions.size());
 
     KeepAliveRequest request = KeepAliveRequest.builder()
         .withSessionIds(sessionIds)
+        .withServices(serviceIds)
         .withCommandSequences(commandResponses)
         .withEventIndexes(eventIndexes)
         .build();
@@ -353,8 +506,15 @@ public class RaftProxyManager {
           if (response.status() == RaftResponse.Status.OK) {
             selectorManager.resetAll(response.leader(), response.members());
 
-            // Iterate through sessions and close sessions that weren't kept alive by the request (have already been closed).
+            // Record the indexes acknowledged for the services included in the request.
             Set<Long> keptAliveSessions = Sets.newHashSet(Longs.asList(response.sessionIds()));
+            for (int j = 0; j < keepAlives.size(); j++) {
+              if (keptAliveSessions.contains(sessionIds[j])) {
+                keepAlives.get(j).setKeepAlive(commandResponses[j], eventIndexes[j]);
+              }
+            }
+
+            // Iterate through sessions and close sessions that weren't kept alive by the request (have already been closed).
             for (RaftProxyState session : needKeepAlive) {
               if (keptAliveSessions.contains(session.getSessionId().id())) {
                 session.setState(PartitionProxy.State.CONNECTED);
@@ -456,4 +616,32 @@ public class RaftProxyManager {
         .toString();
   }
 
+  /**
+   * Key identifying the session shared by proxies with the same session configuration.
+   */
+  private static final class SessionKey {
+    private final ReadConsistency readConsistency;
+    private final long minTimeout;
+    private final long maxTimeout;
+
+    SessionKey(ReadConsistency readConsistency, long minTimeout, long maxTimeout) {
+      this.readConsistency = readConsistency;
+      this.minTimeout = minTimeout;
+      this.maxTimeout = maxTimeout;
+    }
+
+    @Override
+    public int hashCode() {
+      return Objects.hash(readConsistency, minTimeout, maxTimeout);
+    }
+
+    @Override
+    public boolean equals(Object object) {
+      if (object instanceof SessionKey) {
+        SessionKey key = (SessionKey) object;
+        return key.readConsistency == readConsistency && key.minTimeout == minTimeout && key.maxTimeout == maxTimeout;
+      }
+      return false;
+    }
+  }
 }
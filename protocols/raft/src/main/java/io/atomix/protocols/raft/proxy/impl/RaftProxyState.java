@@ -27,10 +27,14 @@ import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * Client state.
+ * <p>
+ * The state of a primitive's session. A client's session may be shared by multiple primitives, each of which
+ * has its own state identified by the session ID and the ID of the primitive's service.
  */
 public final class RaftProxyState {
   private final String clientId;
   private final SessionId sessionId;
+  private final long serviceId;
   private final String serviceName;
   private final PrimitiveType primitiveType;
   private final long timeout;
@@ -40,11 +44,14 @@ public final class RaftProxyState {
   private volatile long commandResponse;
   private volatile long responseIndex;
   private volatile long eventIndex;
+  private volatile long keepAliveCommandResponse;
+  private volatile long keepAliveEventIndex;
   private final Set<Consumer<PartitionProxy.State>> changeListeners = new CopyOnWriteArraySet<>();
 
-  RaftProxyState(String clientId, SessionId sessionId, String serviceName, PrimitiveType primitiveType, long timeout) {
+  RaftProxyState(String clientId, SessionId sessionId, long serviceId, String serviceName, PrimitiveType primitiveType, long timeout) {
     this.clientId = clientId;
     this.sessionId = sessionId;
+    this.serviceId = serviceId;
     this.serviceName = serviceName;
     this.primitiveType = primitiveType;
     this.timeout = timeout;
@@ -70,6 +77,15 @@ public final class RaftProxyState {
     return sessionId;
   }
 
+  /**
+   * Returns the ID of the service to which the session's operations are routed.
+   *
+   * @return The service ID.
+   */
+  public long getServiceId() {
+    return serviceId;
+  }
+
   /**
    * Returns the session name.
    *
@@ -227,4 +243,24 @@ public final class RaftProxyState {
   public long getEventIndex() {
     return eventIndex;
   }
+
+  /**
+   * Records the command response and event index acknowledged by a successful keep-alive.
+   *
+   * @param commandResponse The command sequence number acknowledged by the keep-alive.
+   * @param eventIndex      The event index acknowledged by the keep-alive.
+   */
+  public void setKeepAlive(long commandResponse, long eventIndex) {
+    this.keepAliveCommandResponse = commandResponse;
+    this.keepAliveEventIndex = eventIndex;
+  }
+
+  /**
+   * Returns a boolean indicating whether responses or events have been received since the last keep-alive.
+   *
+   * @return Indicates whether the session has new responses or events to acknowledge.
+   */
+  public boolean needsKeepAlive() {
+    return commandResponse != keepAliveCommandResponse || eventIndex != keepAliveEventIndex;
+  }
 }
@@ -46,7 +46,6 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * Abstract appender.
  */
 abstract class AbstractAppender implements AutoCloseable {
-  private static final int MAX_BATCH_SIZE = 1024 * 32;
   protected final Logger log;
   protected final RaftContext raft;
   protected boolean open = true;
@@ -131,12 +130,13 @@ abstract class AbstractAppender implements AutoCloseable {
     // Build a list of entries to send to the member.
     final List<RaftLogEntry> entries = new ArrayList<>();
 
-    // Build a list of entries up to the MAX_BATCH_SIZE. Note that entries in the log may
+    // Build a list of entries up to the member's append batch size. Note that entries in the log may
     // be null if they've been compacted and the member to which we're sending entries is just
     // joining the cluster or is otherwise far behind. Null entries are simply skipped and not
     // counted towards the size of the batch.
-    // If there exists an entry in the log with size >= MAX_BATCH_SIZE the logic ensures that
+    // If there exists an entry in the log with size >= the batch size the logic ensures that
     // entry will be sent in a batch of size one
+    final int maxSize = member.getAppendBatchSize();
     int size = 0;
 
     // Iterate through the log until the last index or the end of the log is reached.
@@ -145,7 +145,11 @@ abstract class AbstractAppender implements AutoCloseable {
       Indexed<RaftLogEntry> entry = reader.next();
       entries.add(entry.entry());
       size += entry.size();
-      if (entry.index() == lastIndex || size >= MAX_BATCH_SIZE) {
+      if (size >= maxSize) {
+        // Record that the batch was filled so the batch size can be grown once the append succeeds.
+        member.appendBatchFilled(entry.index());
+        break;
+      } else if (entry.index() == lastIndex) {
         break;
       }
     }
@@ -289,8 +293,9 @@ abstract class AbstractAppender implements AutoCloseable {
    * Updates the match index when a response is received.
    */
   protected void updateMatchIndex(RaftMemberContext member, AppendResponse response) {
-    // If the replica returned a valid match index then update the existing match index.
-    member.setMatchIndex(response.lastLogIndex());
+    // If the replica returned a valid match index then update the existing match index. Pipelined responses may
+    // arrive out of order, so the match index is only ever advanced.
+    member.setMatchIndex(Math.max(member.getMatchIndex(), response.lastLogIndex()));
   }
 
   /**
@@ -405,40 +410,72 @@ abstract class AbstractAppender implements AutoCloseable {
   }
 
   /**
-   * Builds an install request for the given member.
+   * Builds the next install request for the given member.
+   * <p>
+   * The snapshot reader is kept open across chunks so that consecutive chunks can be read without re-seeking the
+   * snapshot. The size of each chunk is determined by the member's adaptive snapshot chunk size.
+   *
+   * @return the next install request or {@code null} if all chunks of the snapshot have been sent
    */
   protected InstallRequest buildInstallRequest(RaftMemberContext member, Snapshot snapshot) {
     if (member.getNextSnapshotIndex() != snapshot.index()) {
       member.setNextSnapshotIndex(snapshot.index());
       member.setNextSnapshotOffset(0);
+      member.closeSnapshotReader();
     }
 
     InstallRequest request;
     synchronized (snapshot) {
-      // Open a new snapshot reader.
-      try (SnapshotReader reader = snapshot.openReader()) {
-        // Skip to the next batch of bytes according to the snapshot chunk size and current offset.
-        reader.skip(member.getNextSnapshotOffset() * MAX_BATCH_SIZE);
-        byte[] data = new byte[Math.min(MAX_BATCH_SIZE, reader.remaining())];
-        reader.read(data);
-
-        // Create the install request, indicating whether this is the last chunk of data based on the number
-        // of bytes remaining in the buffer.
-        DefaultRaftMember leader = raft.getLeader();
-        request = InstallRequest.builder()
-            .withTerm(raft.getTerm())
-            .withLeader(leader != null ? leader.memberId() : null)
-            .withIndex(snapshot.index())
-            .withOffset(member.getNextSnapshotOffset())
-            .withData(data)
-            .withComplete(!reader.hasRemaining())
-            .build();
+      // Open a new snapshot reader if necessary and position it at the member's next snapshot offset.
+      SnapshotReader reader = member.getSnapshotReader();
+      long offset = member.getNextSnapshotOffset();
+      if (reader == null || reader.snapshot() != snapshot || member.getSnapshotReaderOffset() > offset) {
+        reader = snapshot.openReader();
+        member.setSnapshotReader(reader);
+      }
+      if (member.getSnapshotReaderOffset() < offset) {
+        reader.skip((int) Math.min(offset - member.getSnapshotReaderOffset(), reader.remaining()));
       }
+
+      // If the complete snapshot has already been sent, wait for the outstanding requests to complete.
+      if (offset > 0 && !reader.hasRemaining()) {
+        return null;
+      }
+
+      byte[] data = new byte[Math.min(member.getSnapshotChunkSize(), reader.remaining())];
+      reader.read(data);
+      member.setNextSnapshotOffset(offset + data.length);
+
+      // Create the install request, indicating whether this is the last chunk of data based on the number
+      // of bytes remaining in the buffer.
+      DefaultRaftMember leader = raft.getLeader();
+      request = InstallRequest.builder()
+          .withTerm(raft.getTerm())
+          .withLeader(leader != null ? leader.memberId() : null)
+          .withIndex(snapshot.index())
+          .withTimestamp(snapshot.timestamp().unixTimestamp())
+          .withOffset(offset)
+          .withData(data)
+          .withComplete(!reader.hasRemaining())
+          .build();
     }
 
     return request;
   }
 
+  /**
+   * Sends install requests to the given member until the member's install window is full.
+   */
+  protected void sendInstallRequests(RaftMemberContext member, Snapshot snapshot) {
+    while (member.canInstall(raft.getSnapshotInstallWindow())) {
+      InstallRequest request = buildInstallRequest(member, snapshot);
+      if (request == null) {
+        break;
+      }
+      sendInstallRequest(member, request);
+    }
+  }
+
   /**
    * Connects to the member and sends a snapshot request.
    */
@@ -471,10 +508,12 @@ abstract class AbstractAppender implements AutoCloseable {
    * Handles an install response failure.
    */
   protected void handleInstallResponseFailure(RaftMemberContext member, InstallRequest request, Throwable error) {
-    // Reset the member's snapshot index and offset to resend the snapshot from the start
-    // once a connection to the member is re-established.
-    member.setNextSnapshotIndex(0);
-    member.setNextSnapshotOffset(0);
+    // Rewind the member's snapshot offset to resend the snapshot once a connection to the member is
+    // re-established. The member will respond with the offset from which to resume the install.
+    if (member.getNextSnapshotIndex() == request.snapshotIndex()) {
+      member.setNextSnapshotOffset(0);
+      member.resetSnapshotChunkSize();
+    }
 
     // Log the failed attempt to contact the member.
     failAttempt(member, request, error);
@@ -494,21 +533,37 @@ abstract class AbstractAppender implements AutoCloseable {
   /**
    * Handles an OK install response.
    */
-  @SuppressWarnings("unused")
   protected void handleInstallResponseOk(RaftMemberContext member, InstallRequest request, InstallResponse response) {
     // Reset the member failure count and update the member's status if necessary.
     succeedAttempt(member);
 
+    // If the member skipped the chunk because it expects an earlier offset, a prior chunk was lost or reordered.
+    // Rewind to the member's next offset and resume sending the snapshot from there.
+    if (response.nextOffset() < request.chunkOffset() + request.data().length) {
+      if (member.getNextSnapshotIndex() == request.snapshotIndex()
+          && response.nextOffset() < member.getNextSnapshotOffset()) {
+        log.trace("Rewinding snapshot offset for {} to {}", member, response.nextOffset());
+        member.setNextSnapshotOffset(response.nextOffset());
+      }
+    }
     // If the install request was completed successfully, set the member's snapshotIndex and reset
     // the next snapshot index/offset.
-    if (request.complete()) {
-      member.setNextSnapshotIndex(0);
-      member.setNextSnapshotOffset(0);
-      member.setSnapshotIndex(request.snapshotIndex());
+    else if (request.complete()) {
+      if (member.getSnapshotIndex() < request.snapshotIndex()) {
+        member.setSnapshotIndex(request.snapshotIndex());
+      }
+      if (member.getNextSnapshotIndex() == request.snapshotIndex()) {
+        member.setNextSnapshotIndex(0);
+        member.setNextSnapshotOffset(0);
+        member.closeSnapshotReader();
+      }
     }
-    // If more install requests remain, increment the member's snapshot offset.
-    else {
-      member.setNextSnapshotOffset(request.chunkOffset() + 1);
+    // If the member has already received data beyond the next offset (e.g. from a prior leader), skip ahead.
+    else if (member.getNextSnapshotIndex() == request.snapshotIndex()) {
+      member.growSnapshotChunkSize(raft.getSnapshotChunkSize());
+      if (response.nextOffset() > member.getNextSnapshotOffset()) {
+        member.setNextSnapshotOffset(response.nextOffset());
+      }
     }
 
     // Recursively append entries to the member.
@@ -518,11 +573,14 @@ abstract class AbstractAppender implements AutoCloseable {
   /**
    * Handles an ERROR install response.
    */
-  @SuppressWarnings("unused")
   protected void handleInstallResponseError(RaftMemberContext member, InstallRequest request, InstallResponse response) {
     log.warn("Failed to install {}", member.getMember().memberId());
-    member.setNextSnapshotIndex(0);
-    member.setNextSnapshotOffset(0);
+
+    // Rewind the member's snapshot offset to the next offset expected by the member.
+    if (member.getNextSnapshotIndex() == request.snapshotIndex()) {
+      member.setNextSnapshotOffset(response.nextOffset());
+      member.resetSnapshotChunkSize();
+    }
   }
 
   @Override
@@ -46,6 +46,8 @@ import io.atomix.protocols.raft.protocol.RaftResponse;
 import io.atomix.protocols.raft.protocol.RaftResponse.Status;
 import io.atomix.protocols.raft.protocol.ReconfigureRequest;
 import io.atomix.protocols.raft.protocol.ReconfigureResponse;
+import io.atomix.protocols.raft.protocol.ReadIndexRequest;
+import io.atomix.protocols.raft.protocol.ReadIndexResponse;
 import io.atomix.protocols.raft.protocol.TransferRequest;
 import io.atomix.protocols.raft.protocol.TransferResponse;
 import io.atomix.protocols.raft.protocol.VoteRequest;
@@ -174,6 +176,15 @@ public class InactiveRole extends AbstractRole {
         .build()));
   }
 
+  @Override
+  public CompletableFuture<ReadIndexResponse> onReadIndex(ReadIndexRequest request) {
+    logRequest(request);
+    return Futures.completedFuture(logResponse(ReadIndexResponse.builder()
+        .withStatus(Status.ERROR)
+        .withError(RaftError.Type.ILLEGAL_MEMBER_STATE)
+        .build()));
+  }
+
   @Override
   public CompletableFuture<AppendResponse> onAppend(AppendRequest request) {
     logRequest(request);
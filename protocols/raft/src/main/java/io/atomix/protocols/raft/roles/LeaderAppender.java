@@ -26,6 +26,7 @@ import io.atomix.protocols.raft.protocol.ConfigureResponse;
 import io.atomix.protocols.raft.protocol.InstallRequest;
 import io.atomix.protocols.raft.protocol.InstallResponse;
 import io.atomix.protocols.raft.protocol.RaftRequest;
+import io.atomix.protocols.raft.protocol.RaftResponse;
 import io.atomix.protocols.raft.storage.snapshot.Snapshot;
 
 import java.util.ArrayList;
@@ -38,6 +39,10 @@ import java.util.concurrent.CompletableFuture;
 /**
  * The leader appender is responsible for sending {@link AppendRequest}s on behalf of a leader to followers.
  * Append requests are sent by the leader only to other active members of the cluster.
+ * <p>
+ * Append requests are pipelined, with up to {@link RaftServer.Builder#withAppendWindow(int) the append window}
+ * requests in flight to each follower at once. The number of bytes of entries sent in each request is adapted to
+ * the round trip time of appends to the follower.
  */
 final class LeaderAppender extends AbstractAppender {
   private static final long MAX_HEARTBEAT_WAIT = 60000;
@@ -49,6 +54,7 @@ final class LeaderAppender extends AbstractAppender {
   private final long electionTimeout;
   private final long heartbeatInterval;
   private long heartbeatTime;
+  private long flushedIndex;
   private final Map<Long, CompletableFuture<Long>> appendFutures = new HashMap<>();
   private final List<TimestampedFuture<Long>> heartbeatFutures = new ArrayList<>();
 
@@ -132,23 +138,16 @@ final class LeaderAppender extends AbstractAppender {
     }
 
     if (index <= raft.getCommitIndex()) {
-      return CompletableFuture.completedFuture(index);
+      return awaitFlush(index);
     }
 
-    // If there are no other stateful servers in the cluster, immediately commit the index.
-    if (raft.getCluster().getActiveMemberStates().isEmpty() && raft.getCluster().getPassiveMemberStates().isEmpty()) {
-      long previousCommitIndex = raft.getCommitIndex();
-      raft.setCommitIndex(index);
-      completeCommits(previousCommitIndex, index);
-      return CompletableFuture.completedFuture(index);
-    }
-    // If there are no other active members in the cluster, update the commit index and complete the commit.
-    // The updated commit index will be sent to passive/reserve members on heartbeats.
-    else if (raft.getCluster().getActiveMemberStates().isEmpty()) {
-      long previousCommitIndex = raft.getCommitIndex();
-      raft.setCommitIndex(index);
-      completeCommits(previousCommitIndex, index);
-      return CompletableFuture.completedFuture(index);
+    // If there are no other active members in the cluster, commit the index once it's been stored on the leader.
+    // When group commit is enabled, the index is committed once the leader's flush completes. The updated commit
+    // index will be sent to passive/reserve members on heartbeats.
+    if (raft.getCluster().getActiveMemberStates().isEmpty()) {
+      CompletableFuture<Long> future = appendFutures.computeIfAbsent(index, i -> new CompletableFuture<>());
+      commitEntries();
+      return future;
     }
 
     // Only send entry-specific AppendRequests to active members of the cluster.
@@ -160,6 +159,36 @@ final class LeaderAppender extends AbstractAppender {
     });
   }
 
+  /**
+   * Flushes entries up to the given index to the leader's disk in parallel with replication to followers.
+   * <p>
+   * When group commit is enabled, the leader begins flushing an entry as soon as it's appended rather than once it's
+   * committed, and counts itself towards the commit quorum only once the entry has been flushed. This overlaps the
+   * leader's flush with the round trip to followers. Otherwise, entries are flushed when committed.
+   *
+   * @param index The index up to which to flush entries.
+   */
+  public void flushEntries(long index) {
+    raft.checkThread();
+    if (!raft.getLog().isGroupCommit()) {
+      return;
+    }
+
+    awaitFlush(index).whenComplete((result, error) -> {
+      if (open && error == null && index > flushedIndex) {
+        flushedIndex = index;
+        commitEntries();
+      }
+    });
+  }
+
+  /**
+   * Returns the highest index in the leader's log that can be counted towards the commit quorum.
+   */
+  private long getLocalMatchIndex() {
+    return raft.getLog().isGroupCommit() ? flushedIndex : raft.getLogWriter().getLastIndex();
+  }
+
   @Override
   protected void appendEntries(RaftMemberContext member) {
     // Prevent recursive, asynchronous appends from being executed if the appender has been closed.
@@ -195,18 +224,18 @@ final class LeaderAppender extends AbstractAppender {
         || member.getMember().getType() == RaftMember.Type.PASSIVE) {
       Snapshot snapshot = raft.getSnapshotStore().getCurrentSnapshot();
       if (snapshot != null && member.getSnapshotIndex() < snapshot.index() && snapshot.index() >= member.getLogReader().getCurrentIndex()) {
-        if (!member.canInstall()) {
+        if (!member.canInstall(raft.getSnapshotInstallWindow())) {
           return;
         }
 
         log.debug("Replicating snapshot {} to {}", snapshot.index(), member.getMember().memberId());
-        sendInstallRequest(member, buildInstallRequest(member, snapshot));
-      } else if (member.canAppend()) {
+        sendInstallRequests(member, snapshot);
+      } else if (member.canAppend(raft.getAppendWindow())) {
         sendAppendRequest(member, buildAppendRequest(member, -1));
       }
     }
     // If no AppendRequest is already being sent, send an AppendRequest.
-    else if (member.canAppend()) {
+    else if (member.canAppend(raft.getAppendWindow())) {
       sendAppendRequest(member, buildAppendRequest(member, -1));
     }
   }
@@ -313,10 +342,10 @@ final class LeaderAppender extends AbstractAppender {
     List<RaftMemberContext> members = raft.getCluster().getActiveMemberStates((m1, m2) ->
         Long.compare(m2.getMatchIndex() != 0 ? m2.getMatchIndex() : 0L, m1.getMatchIndex() != 0 ? m1.getMatchIndex() : 0L));
 
-    // If the active members list is empty (a configuration change occurred between an append request/response)
-    // ensure all commit futures are completed and cleared.
+    // If the active members list is empty (the leader is the only active member or a configuration change occurred
+    // between an append request/response) commit all entries stored on the leader.
     if (members.isEmpty()) {
-      long commitIndex = raft.getLogWriter().getLastIndex();
+      long commitIndex = getLocalMatchIndex();
       long previousCommitIndex = raft.setCommitIndex(commitIndex);
       if (commitIndex > previousCommitIndex) {
         log.trace("Committed entries up to {}", commitIndex);
@@ -325,8 +354,11 @@ final class LeaderAppender extends AbstractAppender {
       return;
     }
 
-    // Calculate the current commit index as the median matchIndex.
-    long commitIndex = members.get(getQuorumIndex()).getMatchIndex();
+    // Calculate the current commit index as the index stored on a quorum of the cluster, including the leader.
+    // The leader's own index counts towards the quorum only once it's been flushed to disk, so if the leader's
+    // flush lags behind the followers the commit index is the next highest follower matchIndex.
+    long commitIndex = computeCommitIndex(
+        getLocalMatchIndex(), members.stream().mapToLong(RaftMemberContext::getMatchIndex).toArray(), getQuorumIndex());
 
     // If the commit index has increased then update the commit index. Note that in order to ensure
     // the leader completeness property holds, we verify that the commit index is greater than or equal to
@@ -339,30 +371,97 @@ final class LeaderAppender extends AbstractAppender {
     }
   }
 
+  /**
+   * Computes the highest index stored on a quorum of the cluster.
+   *
+   * @param localMatchIndex the highest index on the leader that can be counted towards the quorum
+   * @param matchIndexes the match indexes of the other active members, sorted in descending order
+   * @param quorumIndex the position in {@code matchIndexes} at which a quorum is reached including the leader
+   * @return the highest index stored on a quorum of the cluster
+   */
+  static long computeCommitIndex(long localMatchIndex, long[] matchIndexes, int quorumIndex) {
+    long commitIndex = Math.min(localMatchIndex, matchIndexes[quorumIndex]);
+    if (quorumIndex + 1 < matchIndexes.length) {
+      commitIndex = Math.max(commitIndex, matchIndexes[quorumIndex + 1]);
+    }
+    return commitIndex;
+  }
+
   /**
    * Completes append entries attempts up to the given index.
+   * <p>
+   * When group commit is enabled, the commit futures are completed once the log has been flushed up to the
+   * commit index.
    */
   private void completeCommits(long previousCommitIndex, long commitIndex) {
-    for (long i = previousCommitIndex + 1; i <= commitIndex; i++) {
-      CompletableFuture<Long> future = appendFutures.remove(i);
-      if (future != null) {
-        future.complete(i);
+    awaitFlush(commitIndex).whenComplete((result, error) -> {
+      for (long i = previousCommitIndex + 1; i <= commitIndex; i++) {
+        CompletableFuture<Long> future = appendFutures.remove(i);
+        if (future != null) {
+          if (error == null) {
+            future.complete(i);
+          } else {
+            future.completeExceptionally(error);
+          }
+        }
       }
+    });
+  }
+
+  /**
+   * Returns a future to be completed on the Raft thread once the log has been flushed up to the given index.
+   */
+  private CompletableFuture<Long> awaitFlush(long index) {
+    CompletableFuture<Long> flushFuture = raft.getLogWriter().awaitFlush(index);
+    if (flushFuture.isDone()) {
+      return flushFuture;
     }
+
+    CompletableFuture<Long> future = new CompletableFuture<>();
+    flushFuture.whenComplete((result, error) -> raft.getThreadContext().execute(() -> {
+      if (error == null) {
+        future.complete(index);
+      } else {
+        future.completeExceptionally(error);
+      }
+    }));
+    return future;
   }
 
   @Override
   protected void handleAppendResponseFailure(RaftMemberContext member, AppendRequest request, Throwable error) {
+    member.resetAppendBatchSize();
     failHeartbeat();
     super.handleAppendResponseFailure(member, request, error);
   }
 
   @Override
   protected void handleAppendResponse(RaftMemberContext member, AppendRequest request, AppendResponse response, long timestamp) {
+    if (!request.entries().isEmpty()) {
+      boolean filled = member.completeAppendBatch(request.prevLogIndex() + request.entries().size());
+      if (response.status() == RaftResponse.Status.OK && response.succeeded()) {
+        updateAppendBatchSize(member, filled, System.currentTimeMillis() - timestamp);
+      }
+    }
     super.handleAppendResponse(member, request, response, timestamp);
     recordHeartbeat(member, timestamp);
   }
 
+  /**
+   * Adapts the member's append batch size to the round trip time of a successful append.
+   * <p>
+   * Batches grow while appends that filled the batch complete within half a heartbeat interval, so followers on
+   * fast links receive more entries per round trip, and shrink once appends take longer than a heartbeat interval.
+   * Appends that did not fill the batch say nothing about whether a larger batch could be sent in the same time.
+   */
+  private void updateAppendBatchSize(RaftMemberContext member, boolean filled, long time) {
+    if (filled && time < heartbeatInterval / 2) {
+      member.growAppendBatchSize(raft.getMaxAppendBatchSize());
+    } else if (time > heartbeatInterval) {
+      member.shrinkAppendBatchSize();
+    }
+  }
+
   @Override
   protected void handleAppendResponseOk(RaftMemberContext member, AppendRequest request, AppendResponse response) {
     // Reset the member failure count and update the member's availability status if necessary.
@@ -450,6 +549,7 @@ final class LeaderAppender extends AbstractAppender {
   @Override
   public void close() {
     super.close();
+    raft.getCluster().getRemoteMemberStates().forEach(RaftMemberContext::closeSnapshotReader);
     appendFutures.values().forEach(future ->
         future.completeExceptionally(new IllegalStateException("Inactive state")));
     heartbeatFutures.forEach(future ->
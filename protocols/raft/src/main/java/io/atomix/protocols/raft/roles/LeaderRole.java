@@ -16,6 +16,7 @@
 package io.atomix.protocols.raft.roles;
 
 import com.google.common.collect.Sets;
+import com.google.common.primitives.Longs;
 import io.atomix.cluster.ClusterMembershipEvent;
 import io.atomix.cluster.ClusterMembershipEventListener;
 import io.atomix.primitive.session.SessionId;
@@ -52,12 +53,15 @@ import io.atomix.protocols.raft.protocol.QueryResponse;
 import io.atomix.protocols.raft.protocol.RaftResponse;
 import io.atomix.protocols.raft.protocol.ReconfigureRequest;
 import io.atomix.protocols.raft.protocol.ReconfigureResponse;
+import io.atomix.protocols.raft.protocol.ReadIndexRequest;
+import io.atomix.protocols.raft.protocol.ReadIndexResponse;
 import io.atomix.protocols.raft.protocol.TransferRequest;
 import io.atomix.protocols.raft.protocol.TransferResponse;
 import io.atomix.protocols.raft.protocol.VoteRequest;
 import io.atomix.protocols.raft.protocol.VoteResponse;
 import io.atomix.protocols.raft.session.RaftSession;
 import io.atomix.protocols.raft.storage.log.entry.CloseSessionEntry;
+import io.atomix.protocols.raft.storage.log.entry.CommandBatchEntry;
 import io.atomix.protocols.raft.storage.log.entry.CommandEntry;
 import io.atomix.protocols.raft.storage.log.entry.ConfigurationEntry;
 import io.atomix.protocols.raft.storage.log.entry.InitializeEntry;
@@ -74,7 +78,17 @@ import io.atomix.utils.concurrent.Scheduled;
 
 import java.time.Duration;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
@@ -86,6 +100,8 @@ import java.util.stream.Collectors;
 public final class LeaderRole extends ActiveRole {
   private static final int MAX_PENDING_COMMANDS = 1000;
   private static final int MAX_APPEND_ATTEMPTS = 5;
+  private static final int MAX_COMMAND_BATCH_SIZE = 1000;
+  private static final int MAX_COMMAND_BATCH_BYTES = 1024 * 1024;
 
   private final ClusterMembershipEventListener clusterListener = this::handleClusterEvent;
   private final LeaderAppender appender;
@@ -93,6 +109,14 @@ public final class LeaderRole extends ActiveRole {
   private final Set<SessionId> expiring = Sets.newHashSet();
   private long configuring;
   private boolean transferring;
+  private List<PendingRead> pendingReads = new ArrayList<>();
+  private boolean confirmingReads;
+  private List<BatchedCommand> commandBatch = new ArrayList<>();
+  private int commandBatchBytes;
+  private Scheduled sessionLeaseTimer;
+  private final Map<Long, Long> sessionLeases = new HashMap<>();
+  private final Map<Long, Map<Long, long[]>> pendingKeepAlives = new LinkedHashMap<>();
+  private final Map<Long, Map<Long, long[]>> committedKeepAlives = new HashMap<>();
 
   public LeaderRole(RaftContext context) {
     super(context);
@@ -110,17 +134,26 @@ public final class LeaderRole extends ActiveRole {
     takeLeadership();
 
     // Append initial entries to the log, including an initial no-op entry and the server's configuration.
-    appendInitialEntries().join();
+    // If the log is out of disk space, the entries are appended once the log has been compacted. Compaction runs on
+    // other thread contexts which may share an event loop with the server thread, so the leader must not block
+    // waiting for the entries to be appended.
+    return appendInitialEntries().thenCompose(v -> {
+      // If the leader was stopped while the initial entries were being appended, don't start the leader.
+      if (raft.getRaftRole() != this) {
+        return CompletableFuture.completedFuture(this);
+      }
 
-    // Commit the initial leader entries.
-    commitInitialEntries();
+      // Commit the initial leader entries.
+      commitInitialEntries();
 
-    // Register the cluster event listener.
-    raft.getMembershipService().addListener(clusterListener);
+      // Register the cluster event listener.
+      raft.getMembershipService().addListener(clusterListener);
 
-    return super.start()
-        .thenRun(this::startAppendTimer)
-        .thenApply(v -> this);
+      return super.start()
+          .thenRun(this::startAppendTimer)
+          .thenRun(this::startSessionLeaseTimer)
+          .thenApply(result -> this);
+    });
   }
 
   /**
@@ -185,6 +218,92 @@ public final class LeaderRole extends ActiveRole {
     }
   }
 
+  /**
+   * Starts the session lease timer if session leases are enabled.
+   */
+  private void startSessionLeaseTimer() {
+    if (raft.isSessionLeasesEnabled()) {
+      log.trace("Starting session lease timer");
+      sessionLeaseTimer = raft.getThreadContext().schedule(raft.getHeartbeatInterval(), raft.getHeartbeatInterval(), this::checkSessionLeases);
+    }
+  }
+
+  /**
+   * Expires sessions whose leases have lapsed and commits pending keep-alives.
+   * <p>
+   * Sessions that have not yet been seen by this leader are granted a full lease, so clients of a previous leader
+   * have a session timeout in which to find the new leader.
+   */
+  private void checkSessionLeases() {
+    raft.checkThread();
+    if (!isRunning()) {
+      return;
+    }
+
+    long currentTime = System.currentTimeMillis();
+    Set<Long> sessionIds = new HashSet<>();
+    for (RaftSession session : raft.getSessions().getSessions()) {
+      long sessionId = session.sessionId().id();
+      sessionIds.add(sessionId);
+      long leaseTime = sessionLeases.computeIfAbsent(sessionId, id -> currentTime);
+      if (currentTime - leaseTime > session.maxTimeout()) {
+        expireSession(session);
+      }
+    }
+
+    // Discard the state of sessions that have been closed or expired.
+    sessionLeases.keySet().retainAll(sessionIds);
+    pendingKeepAlives.keySet().retainAll(sessionIds);
+    committedKeepAlives.keySet().retainAll(sessionIds);
+
+    commitKeepAlives();
+  }
+
+  /**
+   * Commits the pending keep-alives to the log in a single entry.
+   */
+  private void commitKeepAlives() {
+    if (pendingKeepAlives.isEmpty()) {
+      return;
+    }
+
+    int size = pendingKeepAlives.values().stream().mapToInt(Map::size).sum();
+    long[] sessionIds = new long[size];
+    long[] services = new long[size];
+    long[] commandSequences = new long[size];
+    long[] eventIndexes = new long[size];
+    int i = 0;
+    for (Map.Entry<Long, Map<Long, long[]>> session : pendingKeepAlives.entrySet()) {
+      for (Map.Entry<Long, long[]> service : session.getValue().entrySet()) {
+        sessionIds[i] = session.getKey();
+        services[i] = service.getKey();
+        commandSequences[i] = service.getValue()[0];
+        eventIndexes[i] = service.getValue()[1];
+        i++;
+      }
+      committedKeepAlives.computeIfAbsent(session.getKey(), id -> new HashMap<>()).putAll(session.getValue());
+    }
+    pendingKeepAlives.clear();
+
+    appendAndCompact(new KeepAliveEntry(raft.getTerm(), System.currentTimeMillis(), sessionIds, services, commandSequences, eventIndexes))
+        .whenCompleteAsync((entry, error) -> {
+          if (error != null) {
+            // Forget the failed keep-alives so they're committed again on the next keep-alive from each client.
+            for (long sessionId : sessionIds) {
+              committedKeepAlives.remove(sessionId);
+            }
+            return;
+          }
+
+          appender.appendEntries(entry.index()).whenComplete((commitIndex, commitError) -> {
+            raft.checkThread();
+            if (isRunning() && commitError == null) {
+              raft.getServiceManager().apply(entry.index());
+            }
+          });
+        }, raft.getThreadContext());
+  }
+
   /**
    * Handles a cluster event.
    */
@@ -203,7 +322,7 @@ public final class LeaderRole extends ActiveRole {
   private void expireSession(RaftSession session) {
     if (expiring.add(session.sessionId())) {
       log.debug("Expiring session due to heartbeat failure: {}", session);
-      appendAndCompact(new CloseSessionEntry(raft.getTerm(), System.currentTimeMillis(), session.sessionId().id(), true))
+      appendAndCompact(new CloseSessionEntry(raft.getTerm(), System.currentTimeMillis(), session.sessionId().id(), 0, true))
               .whenCompleteAsync((entry, error) -> {
                 if (error != null) {
                   expiring.remove(session.sessionId());
@@ -593,8 +712,9 @@ public final class LeaderRole extends ActiveRole {
           .build()));
     }
 
-    // Get the client's server session. If the session doesn't exist, return an unknown session error.
-    RaftSession session = raft.getSessions().getSession(request.session());
+    // Get the client's server session for the command's service. If the session doesn't exist, return an unknown
+    // session error.
+    RaftSession session = raft.getSessions().getSession(request.session(), request.service());
     if (session == null) {
       return CompletableFuture.completedFuture(logResponse(CommandResponse.builder()
           .withStatus(RaftResponse.Status.ERROR)
@@ -678,15 +798,120 @@ public final class LeaderRole extends ActiveRole {
 
   /**
    * Commits a command.
+   * <p>
+   * Commands are queued and appended to the log once the current turn of the Raft thread has completed. Commands
+   * received from any number of sessions within the same turn are coalesced into a single {@link CommandBatchEntry}.
    *
    * @param request the command request
    * @param future  the command response future
    */
   private void commitCommand(CommandRequest request, CompletableFuture<CommandResponse> future) {
+    if (commandBatch.isEmpty()) {
+      raft.getThreadContext().execute(this::flushCommands);
+    }
+
+    commandBatch.add(new BatchedCommand(request, System.currentTimeMillis(), future));
+    commandBatchBytes += request.operation().value() != null ? request.operation().value().length : 0;
+    if (commandBatch.size() >= MAX_COMMAND_BATCH_SIZE || commandBatchBytes >= MAX_COMMAND_BATCH_BYTES) {
+      flushCommands();
+    }
+  }
+
+  /**
+   * Appends queued commands to the log.
+   */
+  private void flushCommands() {
+    if (commandBatch.isEmpty()) {
+      return;
+    }
+
+    List<BatchedCommand> batch = commandBatch;
+    commandBatch = new ArrayList<>();
+    commandBatchBytes = 0;
+
+    if (!isRunning()) {
+      failCommands(batch);
+    } else if (batch.size() == 1) {
+      BatchedCommand command = batch.get(0);
+      appendCommand(command.request, command.timestamp, command.future);
+    } else {
+      appendCommands(batch);
+    }
+  }
+
+  /**
+   * Appends a batch of commands to the log as a single entry.
+   * <p>
+   * The batch is stored, replicated and applied as one {@link CommandBatchEntry}. Each command is still sequenced
+   * against its own session and applied at its own logical index by the service to which it's submitted.
+   *
+   * @param batch the commands to append
+   */
+  private void appendCommands(List<BatchedCommand> batch) {
     final long term = raft.getTerm();
     final long timestamp = System.currentTimeMillis();
 
-    appendAndCompact(new CommandEntry(term, timestamp, request.session(), request.sequenceNumber(), request.operation()))
+    List<CommandEntry> commands = new ArrayList<>(batch.size());
+    for (BatchedCommand command : batch) {
+      commands.add(new CommandEntry(
+          term,
+          command.timestamp,
+          command.request.session(),
+          command.request.service(),
+          command.request.sequenceNumber(),
+          command.request.operation()));
+    }
+
+    appendAndCompact(new CommandBatchEntry(term, timestamp, commands))
+        .whenCompleteAsync((entry, error) -> {
+          if (error != null) {
+            failCommands(batch);
+            return;
+          }
+
+          // Replicate the batch to followers.
+          appender.appendEntries(entry.index()).whenComplete((commitIndex, commitError) -> {
+            raft.checkThread();
+            if (isRunning() && commitError == null) {
+              // If the batch was successfully committed, apply it to the state machine and complete each command
+              // with its own result.
+              raft.getServiceManager().<List<OperationResult>>apply(entry.index()).whenComplete((results, e) -> {
+                for (int i = 0; i < batch.size(); i++) {
+                  completeOperation(results != null ? results.get(i) : null, CommandResponse.builder(), e, batch.get(i).future);
+                }
+              });
+            } else {
+              failCommands(batch);
+            }
+          });
+        }, raft.getThreadContext());
+  }
+
+  /**
+   * Fails the given batch of commands.
+   *
+   * @param batch the commands to fail
+   */
+  private void failCommands(List<BatchedCommand> batch) {
+    for (BatchedCommand command : batch) {
+      command.future.complete(CommandResponse.builder()
+          .withStatus(RaftResponse.Status.ERROR)
+          .withError(RaftError.Type.COMMAND_FAILURE)
+          .build());
+    }
+  }
+
+  /**
+   * Appends a single command to the log.
+   *
+   * @param request   the command request
+   * @param timestamp the time at which the command was received
+   * @param future    the command response future
+   */
+  private void appendCommand(CommandRequest request, long timestamp, CompletableFuture<CommandResponse> future) {
+    final long term = raft.getTerm();
+
+    appendAndCompact(new CommandEntry(term, timestamp, request.session(), request.service(), request.sequenceNumber(), request.operation()))
         .whenCompleteAsync((entry, error) -> {
           if (error != null) {
             future.complete(CommandResponse.builder()
@@ -696,8 +921,6 @@ public final class LeaderRole extends ActiveRole {
             return;
           }
 
-
-
           // Replicate the command to followers.
           appender.appendEntries(entry.index()).whenComplete((commitIndex, commitError) -> {
             raft.checkThread();
@@ -739,7 +962,7 @@ public final class LeaderRole extends ActiveRole {
     }
 
     // Look up the client's session.
-    RaftSession session = raft.getSessions().getSession(request.session());
+    RaftSession session = raft.getSessions().getSession(request.session(), request.service());
     if (session == null) {
       log.warn("Unknown session {}", request.session());
       return CompletableFuture.completedFuture(logResponse(QueryResponse.builder()
@@ -754,6 +977,7 @@ public final class LeaderRole extends ActiveRole {
             raft.getTerm(),
             System.currentTimeMillis(),
             request.session(),
+            request.service(),
             request.sequenceNumber(),
             request.operation()), 0);
 
@@ -788,17 +1012,99 @@ public final class LeaderRole extends ActiveRole {
   /**
    * Executes a linearizable query.
    * <p>
-   * Linearizable queries are first sequenced with commands and then applied to the state machine. Once
-   * applied, we verify the node's leadership prior to responding successfully to the query.
+   * Linearizable queries are served using the ReadIndex protocol. The commit index is recorded as the query's read
+   * index when the query arrives, and all queries that arrive while leadership is being confirmed are batched behind
+   * a single heartbeat to a majority of the cluster. Once leadership has been confirmed, each query is applied to the
+   * state machine after the read index has been applied.
    */
   private CompletableFuture<QueryResponse> queryLinearizable(Indexed<QueryEntry> entry) {
-    return applyQuery(entry)
-        .thenComposeAsync(response -> appender.appendEntries()
-            .thenApply(index -> response)
-            .exceptionally(error -> QueryResponse.builder()
+    CompletableFuture<QueryResponse> future = new CompletableFuture<>();
+    readIndex()
+        .thenCompose(raft::awaitApplied)
+        .thenCompose(index -> applyQuery(entry))
+        .whenComplete((response, error) -> {
+          if (error == null) {
+            future.complete(response);
+          } else {
+            future.complete(QueryResponse.builder()
                 .withStatus(RaftResponse.Status.ERROR)
                 .withError(RaftError.Type.QUERY_FAILURE, error.getMessage())
-                .build()), raft.getThreadContext());
+                .build());
+          }
+        });
+    return future;
+  }
+
+  @Override
+  public CompletableFuture<ReadIndexResponse> onReadIndex(ReadIndexRequest request) {
+    raft.checkThread();
+    logRequest(request);
+
+    CompletableFuture<ReadIndexResponse> future = new CompletableFuture<>();
+    readIndex().whenComplete((readIndex, error) -> {
+      if (error == null) {
+        future.complete(logResponse(ReadIndexResponse.builder()
+            .withStatus(RaftResponse.Status.OK)
+            .withReadIndex(readIndex)
+            .build()));
+      } else {
+        future.complete(logResponse(ReadIndexResponse.builder()
+            .withStatus(RaftResponse.Status.ERROR)
+            .withError(RaftError.Type.QUERY_FAILURE, error.getMessage())
+            .build()));
+      }
+    });
+    return future;
+  }
+
+  /**
+   * Returns a future to be completed with the current read index once leadership has been confirmed.
+   * <p>
+   * The commit index is recorded as the read index when this method is called, and all reads that arrive while
+   * leadership is being confirmed are batched behind a single heartbeat to a majority of the cluster.
+   */
+  private CompletableFuture<Long> readIndex() {
+    // The read index must be at least the index of the leader's initial entry to ensure entries committed by
+    // prior leaders are visible to the read.
+    long readIndex = Math.max(raft.getCommitIndex(), appender.getIndex());
+    CompletableFuture<Long> future = new CompletableFuture<>();
+    pendingReads.add(new PendingRead(readIndex, future));
+    if (!confirmingReads) {
+      confirmReads();
+    }
+    return future;
+  }
+
+  /**
+   * Confirms the leader's leadership for the current batch of pending reads.
+   */
+  private void confirmReads() {
+    List<PendingRead> reads = pendingReads;
+    pendingReads = new ArrayList<>();
+    confirmingReads = true;
+    appender.appendEntries().whenCompleteAsync((result, error) -> {
+      confirmingReads = false;
+      if (error == null) {
+        reads.forEach(read -> read.future.complete(read.readIndex));
+      } else {
+        reads.forEach(read -> read.future.completeExceptionally(error));
+      }
+
+      // If additional reads arrived while leadership was being confirmed, confirm leadership for the next batch.
+      if (!pendingReads.isEmpty() && isRunning()) {
+        confirmReads();
+      }
+    }, raft.getThreadContext());
+  }
+
+  /**
+   * Fails reads that are awaiting leadership confirmation.
+   */
+  private void failPendingReads() {
+    List<PendingRead> reads = pendingReads;
+    pendingReads = new ArrayList<>();
+    reads.forEach(read -> read.future.completeExceptionally(
+        new RaftException.ProtocolException("Leader stepped down")));
   }
 
   @Override
@@ -829,7 +1135,8 @@ public final class LeaderRole extends ActiveRole {
         request.serviceConfig(),
         request.readConsistency(),
         minTimeout,
-        maxTimeout))
+        maxTimeout,
+        request.session()))
         .whenCompleteAsync((entry, error) -> {
           if (error != null) {
             future.complete(logResponse(OpenSessionResponse.builder()
@@ -843,12 +1150,13 @@ public final class LeaderRole extends ActiveRole {
             raft.checkThread();
             if (isRunning()) {
               if (commitError == null) {
-                raft.getServiceManager().<Long>apply(entry.index()).whenComplete((sessionId, sessionError) -> {
+                raft.getServiceManager().<RaftSession>apply(entry.index()).whenComplete((session, sessionError) -> {
                   if (sessionError == null) {
                     future.complete(logResponse(OpenSessionResponse.builder()
                         .withStatus(RaftResponse.Status.OK)
-                        .withSession(sessionId)
-                        .withTimeout(maxTimeout)
+                        .withSession(session.sessionId().id())
+                        .withService(session.getService().serviceId().id())
+                        .withTimeout(session.maxTimeout())
                         .build()));
                   } else if (sessionError instanceof CompletionException && sessionError.getCause() instanceof RaftException) {
                     future.complete(logResponse(OpenSessionResponse.builder()
@@ -893,8 +1201,12 @@ public final class LeaderRole extends ActiveRole {
     raft.checkThread();
     logRequest(request);
 
+    if (raft.isSessionLeasesEnabled()) {
+      return CompletableFuture.completedFuture(renewSessionLeases(request, timestamp));
+    }
+
     CompletableFuture<KeepAliveResponse> future = new CompletableFuture<>();
-    appendAndCompact(new KeepAliveEntry(term, timestamp, request.sessionIds(), request.commandSequenceNumbers(), request.eventIndexes()))
+    appendAndCompact(new KeepAliveEntry(term, timestamp, request.sessionIds(), request.services(), request.commandSequenceNumbers(), request.eventIndexes()))
         .whenCompleteAsync((entry, error) -> {
           if (error != null) {
             future.complete(logResponse(KeepAliveResponse.builder()
@@ -961,6 +1273,69 @@ public final class LeaderRole extends ActiveRole {
     return future;
   }
 
+  /**
+   * Renews the leases of the sessions in the given keep-alive request without writing to the log.
+   * <p>
+   * Only command sequence numbers and event indexes that differ from those last committed for a session are queued
+   * to be committed by the session lease timer, so idle sessions generate no log entries. Sessions that are lagging
+   * behind the events published to them have their events resent without writing to the log.
+   * <p>
+   * A session shared by multiple services has its lease renewed for all of its services. Services omitted from the
+   * request have no new acknowledgements, so only their unacknowledged events are resent.
+   */
+  private KeepAliveResponse renewSessionLeases(KeepAliveRequest request, long timestamp) {
+    long[] sessionIds = request.sessionIds();
+    long[] serviceIds = request.services();
+    long[] commandSequences = request.commandSequenceNumbers();
+    long[] eventIndexes = request.eventIndexes();
+
+    Set<Long> liveSessionIds = new LinkedHashSet<>(sessionIds.length);
+    Set<RaftSession> acknowledgedSessions = Collections.newSetFromMap(new IdentityHashMap<>());
+    for (int i = 0; i < sessionIds.length; i++) {
+      long sessionId = sessionIds[i];
+      RaftSession session = raft.getSessions().getSession(sessionId, serviceIds[i]);
+      if (session != null && !expiring.contains(session.sessionId())) {
+        sessionLeases.put(sessionId, timestamp);
+        long serviceId = session.getService().serviceId().id();
+        long[] keepAlive = new long[]{commandSequences[i], eventIndexes[i]};
+        Map<Long, long[]> committedKeepAlive = committedKeepAlives.get(sessionId);
+        if (!Arrays.equals(keepAlive, committedKeepAlive != null ? committedKeepAlive.get(serviceId) : null)) {
+          pendingKeepAlives.computeIfAbsent(sessionId, id -> new LinkedHashMap<>()).put(serviceId, keepAlive);
+        } else if (session.getEventIndex() > eventIndexes[i]) {
+          // The client is still missing events since the committed keep-alive, which will not be committed again.
+          // Resend the events directly, as is done when a client resets its session.
+          long eventIndex = eventIndexes[i];
+          raft.getServiceManager().executor().execute(() -> session.resendEvents(eventIndex));
+        }
+        acknowledgedSessions.add(session);
+        liveSessionIds.add(sessionId);
+      }
+    }
+
+    // Renew the leases of the services for which the client sent no acknowledgements.
+    for (long sessionId : Sets.newLinkedHashSet(Longs.asList(sessionIds))) {
+      for (RaftSession session : raft.getSessions().getSessions(sessionId)) {
+        if (!acknowledgedSessions.contains(session) && !expiring.contains(session.sessionId())) {
+          sessionLeases.put(sessionId, timestamp);
+          if (session.getLastCompleted() < session.getEventIndex()) {
+            raft.getServiceManager().executor().execute(session::resendEvents);
+          }
+          liveSessionIds.add(sessionId);
+        }
+      }
+    }
+
+    return logResponse(KeepAliveResponse.builder()
+        .withStatus(RaftResponse.Status.OK)
+        .withLeader(raft.getCluster().getMember().memberId())
+        .withMembers(raft.getCluster().getMembers().stream()
+            .map(RaftMember::memberId)
+            .filter(m -> m != null)
+            .collect(Collectors.toList()))
+        .withSessionIds(Longs.toArray(liveSessionIds))
+        .build());
+  }
+
   @Override
   public CompletableFuture<CloseSessionResponse> onCloseSession(CloseSessionRequest request) {
     final long term = raft.getTerm();
@@ -970,7 +1345,7 @@ public final class LeaderRole extends ActiveRole {
     logRequest(request);
 
     CompletableFuture<CloseSessionResponse> future = new CompletableFuture<>();
-    appendAndCompact(new CloseSessionEntry(term, timestamp, request.session(), false))
+    appendAndCompact(new CloseSessionEntry(term, timestamp, request.session(), request.service(), false))
         .whenCompleteAsync((entry, error) -> {
           if (error != null) {
             future.complete(logResponse(CloseSessionResponse.builder()
@@ -1051,11 +1426,13 @@ public final class LeaderRole extends ActiveRole {
         return CompletableFuture.completedFuture(raft.getLogWriter().append(entry))
             .thenApply(indexed -> {
               log.trace("Appended {}", indexed);
+              appender.flushEntries(indexed.index());
               return indexed;
             });
       } catch (StorageException.OutOfDiskSpace e) {
         log.warn("Caught OutOfDiskSpace error! Force compacting logs...");
-        return raft.getServiceManager().compact().thenCompose(v -> appendAndCompact(entry, attempt + 1));
+        return raft.getServiceManager().compact()
+            .thenComposeAsync(v -> appendAndCompact(entry, attempt + 1), raft.getThreadContext());
       }
     }
   }
@@ -1070,6 +1447,16 @@ public final class LeaderRole extends ActiveRole {
     }
   }
 
+  /**
+   * Cancels the session lease timer.
+   */
+  private void cancelSessionLeaseTimer() {
+    if (sessionLeaseTimer != null) {
+      log.trace("Cancelling session lease timer");
+      sessionLeaseTimer.cancel();
+    }
+  }
+
   /**
    * Ensures the local server is not the leader.
    */
@@ -1083,6 +1470,11 @@ public final class LeaderRole extends ActiveRole {
    * Fails pending commands.
    */
   private void failPendingCommands() {
+    List<BatchedCommand> batch = commandBatch;
+    commandBatch = new ArrayList<>();
+    commandBatchBytes = 0;
+    failCommands(batch);
+
     for (RaftSession session : raft.getSessions().getSessions()) {
       for (PendingCommand command : session.clearCommands()) {
         command.future().complete(logResponse(CommandResponse.builder()
@@ -1100,7 +1492,37 @@ public final class LeaderRole extends ActiveRole {
     return super.stop()
         .thenRun(appender::close)
         .thenRun(this::cancelAppendTimer)
+        .thenRun(this::cancelSessionLeaseTimer)
         .thenRun(this::stepDown)
-        .thenRun(this::failPendingCommands);
+        .thenRun(this::failPendingCommands)
+        .thenRun(this::failPendingReads);
+  }
+
+  /**
+   * Command awaiting a batched append.
+   */
+  private static final class BatchedCommand {
+    private final CommandRequest request;
+    private final long timestamp;
+    private final CompletableFuture<CommandResponse> future;
+
+    BatchedCommand(CommandRequest request, long timestamp, CompletableFuture<CommandResponse> future) {
+      this.request = request;
+      this.timestamp = timestamp;
+      this.future = future;
+    }
+  }
+
+  /**
+   * Read awaiting leadership confirmation.
+   */
+  private static final class PendingRead {
+    private final long readIndex;
+    private final CompletableFuture<Long> future;
+
+    PendingRead(long readIndex, CompletableFuture<Long> future) {
+      this.readIndex = readIndex;
+      this.future = future;
+    }
   }
 }
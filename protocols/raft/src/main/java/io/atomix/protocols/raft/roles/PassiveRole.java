@@ -42,6 +42,8 @@ import static com.google.common.base.MoreObjects.toStringHelper;
  * Passive state.
  */
 public class PassiveRole extends InactiveRole {
+  private static final long MAX_READ_INDEX_LAG = 1000;
+
   private PendingSnapshot pendingSnapshot;
 
   public PassiveRole(RaftContext context) {
@@ -351,14 +353,25 @@ public class PassiveRole extends InactiveRole {
       return queryForward(request);
     }
 
-    // Look up the client's session.
-    RaftSession session = raft.getSessions().getSession(request.session());
+    // Look up the client's session for the queried service.
+    RaftSession session = raft.getSessions().getSession(request.session(), request.service());
     if (session == null) {
       log.trace("State out of sync, forwarding query to leader");
       return queryForward(request);
     }
 
-    // If the session's consistency level is SEQUENTIAL, handle the request here, otherwise forward it.
+    final Indexed<QueryEntry> entry = new Indexed<>(
+        request.index(),
+        new QueryEntry(
+            raft.getTerm(),
+            System.currentTimeMillis(),
+            request.session(),
+            request.service(),
+            request.sequenceNumber(),
+            request.operation()), 0);
+
+    // If the session's consistency level is SEQUENTIAL, handle the request here, otherwise read the leader's
+    // commit index and handle the request once the commit index has been applied locally.
     if (session.readConsistency() == ReadConsistency.SEQUENTIAL) {
 
       // If the commit index is not in the log then we've fallen too far behind the leader to perform a local query.
@@ -367,20 +380,64 @@ public class PassiveRole extends InactiveRole {
         log.trace("State out of sync, forwarding query to leader");
         return queryForward(request);
       }
-
-      final Indexed<QueryEntry> entry = new Indexed<>(
-          request.index(),
-          new QueryEntry(
-              raft.getTerm(),
-              System.currentTimeMillis(),
-              request.session(),
-              request.sequenceNumber(),
-              request.operation()), 0);
-
       return applyQuery(entry).thenApply(this::logResponse);
     } else {
+      return queryReadIndex(request, entry);
+    }
+  }
+
+  /**
+   * Performs a linearizable query locally using the leader's read index.
+   * <p>
+   * The leader is asked for its current commit index, which it returns once it has confirmed its leadership. The
+   * query is applied once the local state machine has applied entries up to that index. If the read index cannot
+   * be obtained, the query is forwarded to the leader. The query is also forwarded to the leader if the local state
+   * machine lags too far behind the read index or does not apply the read index within an election timeout.
+   */
+  private CompletableFuture<QueryResponse> queryReadIndex(QueryRequest request, Indexed<QueryEntry> entry) {
+    if (raft.getLeader() == null) {
       return queryForward(request);
     }
+
+    CompletableFuture<QueryResponse> future = new CompletableFuture<>();
+    forward(ReadIndexRequest.builder().build(), raft.getProtocol()::readIndex).whenComplete((response, error) -> {
+      if (error != null || response.status() != RaftResponse.Status.OK) {
+        log.trace("Failed to read the leader's read index, forwarding query to leader");
+        queryForward(request, future);
+      } else if (response.readIndex() - raft.getLastApplied() > MAX_READ_INDEX_LAG) {
+        log.trace("State out of sync, forwarding query to leader");
+        queryForward(request, future);
+      } else {
+        raft.awaitApplied(response.readIndex(), raft.getElectionTimeout()).whenComplete((index, applyError) -> {
+          if (applyError != null) {
+            log.trace("Failed to apply the leader's read index, forwarding query to leader");
+            queryForward(request, future);
+          } else {
+            applyQuery(entry).whenComplete((queryResponse, queryError) -> {
+              if (queryError == null) {
+                future.complete(logResponse(queryResponse));
+              } else {
+                future.completeExceptionally(queryError);
+              }
+            });
+          }
+        });
+      }
+    });
+    return future;
+  }
+
+  /**
+   * Forwards the query to the leader and completes the given future with the leader's response.
+   */
+  private void queryForward(QueryRequest request, CompletableFuture<QueryResponse> future) {
+    queryForward(request).whenComplete((queryResponse, queryError) -> {
+      if (queryError == null) {
+        future.complete(queryResponse);
+      } else {
+        future.completeExceptionally(queryError);
+      }
+    });
   }
 
   /**
@@ -476,11 +533,12 @@ public class PassiveRole extends InactiveRole {
     }
 
     // If the snapshot already exists locally, do not overwrite it with a replicated snapshot. Simply reply to the
-    // request successfully.
+    // request successfully, acknowledging the chunk.
     Snapshot existingSnapshot = raft.getSnapshotStore().getSnapshot(request.snapshotIndex());
     if (existingSnapshot != null) {
       return CompletableFuture.completedFuture(logResponse(InstallResponse.builder()
           .withStatus(RaftResponse.Status.OK)
+          .withNextOffset(request.chunkOffset() + request.data().length)
           .build()));
     }
 
@@ -497,11 +555,12 @@ public class PassiveRole extends InactiveRole {
 
     // If there is no pending snapshot, create a new snapshot.
     if (pendingSnapshot == null) {
-      // For new snapshots, the initial snapshot offset must be 0.
+      // For new snapshots, the initial snapshot offset must be 0. Chunks may be pipelined, so a later chunk may
+      // arrive first. Skip the chunk and indicate that the leader should resume sending the snapshot from the start.
       if (request.chunkOffset() > 0) {
         return CompletableFuture.completedFuture(logResponse(InstallResponse.builder()
-            .withStatus(RaftResponse.Status.ERROR)
-            .withError(RaftError.Type.ILLEGAL_MEMBER_STATE, "Request chunk offset is invalid")
+            .withStatus(RaftResponse.Status.OK)
+            .withNextOffset(0)
             .build()));
       }
 
@@ -511,35 +570,37 @@ public class PassiveRole extends InactiveRole {
       pendingSnapshot = new PendingSnapshot(snapshot);
     }
 
-    // If the request offset is greater than the next expected snapshot offset, fail the request.
+    // If the request offset is greater than the next expected snapshot offset, a prior chunk was lost or
+    // reordered. Skip the chunk and indicate the offset from which the leader should resume sending the snapshot.
     if (request.chunkOffset() > pendingSnapshot.nextOffset()) {
       return CompletableFuture.completedFuture(logResponse(InstallResponse.builder()
-          .withStatus(RaftResponse.Status.ERROR)
-          .withError(RaftError.Type.ILLEGAL_MEMBER_STATE, "Request chunk offset does not match the next chunk offset")
+          .withStatus(RaftResponse.Status.OK)
+          .withNextOffset(pendingSnapshot.nextOffset())
           .build()));
     }
-    // If the request offset has already been written, return OK to skip to the next chunk.
-    else if (request.chunkOffset() < pendingSnapshot.nextOffset()) {
+
+    // If the chunk has already been written, return OK to skip to the next chunk.
+    long chunkEnd = request.chunkOffset() + request.data().length;
+    if (chunkEnd < pendingSnapshot.nextOffset() || (chunkEnd == pendingSnapshot.nextOffset() && !request.complete())) {
       return CompletableFuture.completedFuture(logResponse(InstallResponse.builder()
           .withStatus(RaftResponse.Status.OK)
+          .withNextOffset(pendingSnapshot.nextOffset())
           .build()));
     }
 
-    // Write the data to the snapshot.
-    try (SnapshotWriter writer = pendingSnapshot.snapshot().openWriter()) {
-      writer.write(request.data());
-    }
+    // Write the portion of the chunk that has not yet been written directly to the snapshot.
+    pendingSnapshot.write(request.data(), (int) (pendingSnapshot.nextOffset() - request.chunkOffset()));
 
-    // If the snapshot is complete, store the snapshot and reset state, otherwise update the next snapshot offset.
+    // If the snapshot is complete, store the snapshot and reset state.
+    long nextOffset = pendingSnapshot.nextOffset();
     if (request.complete()) {
       pendingSnapshot.commit();
       pendingSnapshot = null;
-    } else {
-      pendingSnapshot.incrementOffset();
     }
 
     return CompletableFuture.completedFuture(logResponse(InstallResponse.builder()
         .withStatus(RaftResponse.Status.OK)
+        .withNextOffset(nextOffset)
         .build()));
   }
 
@@ -736,9 +797,13 @@ public class PassiveRole extends InactiveRole {
 
   /**
    * Pending snapshot.
+   * <p>
+   * A single writer is held open for the lifetime of the pending snapshot so that chunks are appended directly
+   * to the snapshot without reopening or flushing the snapshot for each chunk.
    */
   private static class PendingSnapshot {
     private final Snapshot snapshot;
+    private SnapshotWriter writer;
     private long nextOffset;
 
     public PendingSnapshot(Snapshot snapshot) {
@@ -755,25 +820,36 @@ public class PassiveRole extends InactiveRole {
     }
 
     /**
-     * Returns and increments the next snapshot offset.
+     * Returns the next snapshot offset.
      *
-     * @return the next snapshot offset
+     * @return the byte offset of the next chunk expected by the snapshot
      */
     public long nextOffset() {
       return nextOffset;
     }
 
     /**
-     * Increments the next snapshot offset.
+     * Writes the given data to the snapshot, starting at the given offset within the data.
+     *
+     * @param data the data to write
+     * @param offset the offset within the data from which to write
      */
-    public void incrementOffset() {
-      nextOffset++;
+    public void write(byte[] data, int offset) {
+      if (writer == null) {
+        writer = snapshot.openWriter();
+      }
+      writer.write(data, offset, data.length - offset);
+      nextOffset += data.length - offset;
     }
 
     /**
      * Commits the snapshot to disk.
      */
     public void commit() {
+      if (writer == null) {
+        writer = snapshot.openWriter();
+      }
+      writer.close();
       snapshot.complete();
     }
 
@@ -781,6 +857,9 @@ public class PassiveRole extends InactiveRole {
      * Closes and deletes the snapshot.
      */
     public void rollback() {
+      if (writer != null) {
+        writer.close();
+      }
       snapshot.close();
       snapshot.delete();
     }
@@ -21,10 +21,12 @@ import io.atomix.primitive.PrimitiveId;
 import io.atomix.primitive.PrimitiveType;
 import io.atomix.primitive.operation.OperationType;
 import io.atomix.primitive.operation.PrimitiveOperation;
+import io.atomix.primitive.service.BackupOutput;
 import io.atomix.primitive.service.Commit;
 import io.atomix.primitive.service.PrimitiveService;
 import io.atomix.primitive.service.ServiceConfig;
 import io.atomix.primitive.service.ServiceContext;
+import io.atomix.primitive.service.ServiceSnapshot;
 import io.atomix.primitive.service.impl.DefaultBackupInput;
 import io.atomix.primitive.service.impl.DefaultBackupOutput;
 import io.atomix.primitive.service.impl.DefaultCommit;
@@ -49,7 +51,11 @@ import io.atomix.utils.time.WallClock;
 import io.atomix.utils.time.WallClockTimestamp;
 import org.slf4j.Logger;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkNotNull;
@@ -58,6 +64,14 @@ import static com.google.common.base.Preconditions.checkNotNull;
  * Raft server state machine executor.
  */
 public class RaftServiceContext implements ServiceContext {
+  /**
+   * The version of the service snapshot format.
+   * <p>
+   * Unversioned snapshots begin the service's state with its non-negative session count. Versioned snapshots write
+   * the negated version in its place, followed by the logical operation index.
+   */
+  private static final int SNAPSHOT_VERSION = 1;
+
   private final Logger log;
   private final PrimitiveId primitiveId;
   private final String serviceName;
@@ -68,13 +82,15 @@ public class RaftServiceContext implements ServiceContext {
   private final RaftSessionRegistry sessions;
   private final ThreadContextFactory threadContextFactory;
   private long currentIndex;
+  private long operationIndex;
+  private long commandIndex;
   private PrimitiveSession currentSession;
   private long currentTimestamp;
   private OperationType currentOperation;
   private final LogicalClock logicalClock = new LogicalClock() {
     @Override
     public LogicalTimestamp getTime() {
-      return new LogicalTimestamp(currentIndex);
+      return new LogicalTimestamp(operationIndex);
     }
   };
   private final WallClock wallClock = new WallClock() {
@@ -133,8 +149,32 @@ public class RaftServiceContext implements ServiceContext {
     return service.serializer();
   }
 
+  /**
+   * Returns the logical index of the current operation.
+   * <p>
+   * Services use the current index to version and identify state, so each command is applied at a distinct index.
+   * Commands stored in a {@link io.atomix.protocols.raft.storage.log.entry.CommandBatchEntry} share the log index of
+   * the batch entry and are therefore assigned consecutive logical indexes that may run ahead of the log index.
+   * Once a batch has been applied, the logical index stays ahead of the log until a later entry's log index catches
+   * up with it, so the current index must not be treated as a log index. Use {@link #currentEntryIndex()} for the
+   * index of the log entry being applied.
+   *
+   * @return the logical index of the current operation
+   */
   @Override
   public long currentIndex() {
+    return operationIndex;
+  }
+
+  /**
+   * Returns the index of the log entry currently being applied.
+   * <p>
+   * Session events are indexed by the log entry that published them, so clients can sequence events against the
+   * log indexes of command and query responses.
+   *
+   * @return the index of the log entry currently being applied
+   */
+  public long currentEntryIndex() {
     return currentIndex;
   }
 
@@ -171,7 +211,7 @@ public class RaftServiceContext implements ServiceContext {
    * Executes scheduled callbacks based on the provided time.
    */
   private void tick(long index, long timestamp) {
-    this.currentIndex = index;
+    setIndex(index);
     this.currentTimestamp = Math.max(currentTimestamp, timestamp);
 
     // Set the current operation type to COMMAND to allow events to be sent.
@@ -180,15 +220,33 @@ public class RaftServiceContext implements ServiceContext {
     service.tick(WallClockTimestamp.from(timestamp));
   }
 
+  /**
+   * Sets the index of the log entry currently being applied.
+   * <p>
+   * The logical operation index advances to the entry's index, or past the last index assigned to a batched
+   * command if that is greater.
+   */
+  private void setIndex(long index) {
+    if (index != currentIndex) {
+      this.currentIndex = index;
+      this.operationIndex = Math.max(index, operationIndex + 1);
+    }
+  }
+
   /**
    * Expires sessions that have timed out.
    */
   private void expireSessions(long timestamp) {
+    // When session leases are enabled, sessions are expired only by the leader via CloseSessionEntry.
+    if (raft.isSessionLeasesEnabled()) {
+      return;
+    }
+
     // Iterate through registered sessions.
     for (RaftSession session : sessions.getSessions(primitiveId)) {
       if (session.isTimedOut(timestamp)) {
         log.debug("Session expired in {} milliseconds: {}", timestamp - session.getLastUpdated(), session);
-        session = sessions.removeSession(session.sessionId());
+        session = sessions.removeSession(session.sessionId(), primitiveId);
         if (session != null) {
           session.expire();
           service.expire(session.sessionId());
@@ -205,7 +263,23 @@ public class RaftServiceContext implements ServiceContext {
     reader.skip(Bytes.LONG); // Skip the service ID
     PrimitiveType primitiveType = raft.getPrimitiveTypes().get(reader.readString());
     String serviceName = reader.readString();
-    int sessionCount = reader.readInt();
+
+    // Snapshots written before the logical operation index was introduced start with the session count. Their
+    // services never applied batched commands, so the operation index is the snapshot index.
+    long operationIndex;
+    int sessionCount;
+    int header = reader.readInt();
+    if (header < 0) {
+      int version = -header;
+      if (version > SNAPSHOT_VERSION) {
+        throw new IllegalStateException("Unsupported service snapshot version " + version);
+      }
+      operationIndex = reader.readLong();
+      sessionCount = reader.readInt();
+    } else {
+      operationIndex = reader.snapshot().index();
+      sessionCount = header;
+    }
     for (int i = 0; i < sessionCount; i++) {
       SessionId sessionId = SessionId.from(reader.readLong());
       MemberId node = MemberId.from(reader.readString());
@@ -239,6 +313,7 @@ public class RaftServiceContext implements ServiceContext {
       service.register(sessions.addSession(session));
     }
     currentIndex = reader.snapshot().index();
+    this.operationIndex = operationIndex;
     currentTimestamp = reader.snapshot().timestamp().unixTimestamp();
     service.restore(new DefaultBackupInput(reader, service.serializer()));
   }
@@ -248,25 +323,64 @@ public class RaftServiceContext implements ServiceContext {
    */
   public void takeSnapshot(SnapshotWriter writer) {
     log.debug("Taking snapshot {}", writer.snapshot().index());
+    writeSnapshot(writer, operationIndex, snapshotSessions(), service::backup);
+  }
+
+  /**
+   * Prepares an asynchronous snapshot of the service state.
+   * <p>
+   * If the service supports asynchronous snapshots, the service's sessions and a point-in-time view of the service
+   * state are captured on the service thread, and the returned consumer can be used to write the snapshot from any
+   * thread while the service continues to apply commands. If the service does not support asynchronous snapshots,
+   * {@code null} is returned and the service must be snapshotted via {@link #takeSnapshot(SnapshotWriter)}.
+   *
+   * @return a consumer with which to write the captured snapshot or {@code null} if the service must be snapshotted
+   * synchronously
+   */
+  public Consumer<SnapshotWriter> prepareSnapshot() {
+    ServiceSnapshot snapshot = service.snapshot();
+    if (snapshot == null) {
+      return null;
+    }
+
+    long operationIndex = this.operationIndex;
+    List<SessionSnapshot> sessions = snapshotSessions();
+    return writer -> {
+      log.debug("Taking asynchronous snapshot {}", writer.snapshot().index());
+      writeSnapshot(writer, operationIndex, sessions, snapshot::backup);
+    };
+  }
+
+  /**
+   * Captures the state of the service's sessions.
+   * <p>
+   * Only sessions opened on this service are written to its snapshot. Sessions of other services on the partition
+   * are written to the snapshots of their own services.
+   */
+  private List<SessionSnapshot> snapshotSessions() {
+    Collection<RaftSession> serviceSessions = sessions.getRegisteredSessions(primitiveId);
+    List<SessionSnapshot> snapshots = new ArrayList<>(serviceSessions.size());
+    for (RaftSession session : serviceSessions) {
+      snapshots.add(new SessionSnapshot(session));
+    }
+    return snapshots;
+  }
 
+  /**
+   * Writes a snapshot of the service state.
+   */
+  private void writeSnapshot(SnapshotWriter writer, long operationIndex, List<SessionSnapshot> sessions, Consumer<BackupOutput> backup) {
     // Serialize sessions to the in-memory snapshot and request a snapshot from the state machine.
     writer.writeLong(primitiveId.id());
     writer.writeString(primitiveType.id());
     writer.writeString(serviceName);
-    writer.writeInt(sessions.getSessions().size());
-    for (RaftSession session : sessions.getSessions()) {
-      writer.writeLong(session.sessionId().id());
-      writer.writeString(session.memberId().id());
-      writer.writeString(session.readConsistency().name());
-      writer.writeLong(session.minTimeout());
-      writer.writeLong(session.maxTimeout());
-      writer.writeLong(session.getLastUpdated());
-      writer.writeLong(session.getRequestSequence());
-      writer.writeLong(session.getCommandSequence());
-      writer.writeLong(session.getEventIndex());
-      writer.writeLong(session.getLastCompleted());
+    writer.writeInt(-SNAPSHOT_VERSION);
+    writer.writeLong(operationIndex);
+    writer.writeInt(sessions.size());
+    for (SessionSnapshot session : sessions) {
+      session.write(writer);
     }
-    service.backup(new DefaultBackupOutput(writer, service.serializer()));
+    backup.accept(new DefaultBackupOutput(writer, service.serializer()));
   }
 
   /**
@@ -345,6 +459,32 @@ public class RaftServiceContext implements ServiceContext {
     }
   }
 
+  /**
+   * Keeps the given session alive without acknowledging any command results or events.
+   * <p>
+   * This is used to keep alive the services of a shared session for which the client sent no acknowledgements.
+   *
+   * @param index     The index of the keep-alive.
+   * @param timestamp The timestamp of the keep-alive.
+   * @param session   The session to keep-alive.
+   */
+  public boolean keepAlive(long index, long timestamp, RaftSession session) {
+    // Update the state machine index/timestamp.
+    tick(index, timestamp);
+
+    // The session may have been closed by the time this update was executed on the service thread.
+    if (session.getState() != PrimitiveSession.State.CLOSED) {
+      // Update the session's timestamp to prevent it from being expired.
+      session.setLastUpdated(timestamp);
+
+      // The client did not acknowledge any new events for this service, so resend the events it's missing.
+      session.resendEvents();
+      return true;
+    } else {
+      return false;
+    }
+  }
+
   /**
    * Completes a keep-alive.
    *
@@ -371,7 +511,7 @@ public class RaftServiceContext implements ServiceContext {
   public void keepAliveSessions(long index, long timestamp) {
     log.debug("Resetting session timeouts");
 
-    this.currentIndex = index;
+    setIndex(index);
     this.currentTimestamp = Math.max(currentTimestamp, timestamp);
 
     for (RaftSession session : sessions.getSessions(primitiveId)) {
@@ -401,13 +541,13 @@ public class RaftServiceContext implements ServiceContext {
 
     // Remove the session from the sessions list.
     if (expired) {
-      session = sessions.removeSession(session.sessionId());
+      session = sessions.removeSession(session.sessionId(), primitiveId);
       if (session != null) {
         session.expire();
         service.expire(session.sessionId());
       }
     } else {
-      session = sessions.removeSession(session.sessionId());
+      session = sessions.removeSession(session.sessionId(), primitiveId);
       if (session != null) {
         session.close();
         service.close(session.sessionId());
@@ -429,6 +569,26 @@ public class RaftServiceContext implements ServiceContext {
    * @return A future to be completed with the command result.
    */
   public OperationResult executeCommand(long index, long sequence, long timestamp, RaftSession session, PrimitiveOperation operation) {
+    return executeCommand(index, sequence, timestamp, session, operation, true);
+  }
+
+  /**
+   * Executes the given command on the state machine.
+   * <p>
+   * Commands stored in a batch entry share the batch entry's index. Events published by the commands must then be
+   * committed once after all the commands in the batch have been applied to avoid publishing multiple event batches
+   * with the same index to a session.
+   *
+   * @param index        The index of the command.
+   * @param timestamp    The timestamp of the command.
+   * @param sequence     The command sequence number.
+   * @param session      The session that submitted the command.
+   * @param operation    The command to execute.
+   * @param commitEvents Whether to commit events published by the command.
+   * @return A future to be completed with the command result.
+   * @see #commitCommands(long)
+   */
+  public OperationResult executeCommand(long index, long sequence, long timestamp, RaftSession session, PrimitiveOperation operation, boolean commitEvents) {
     // Update the session's timestamp to prevent it from being expired.
     session.setLastUpdated(timestamp);
 
@@ -453,7 +613,18 @@ public class RaftServiceContext implements ServiceContext {
     else {
       // Execute the command in the state machine thread. Once complete, the CompletableFuture callback will be completed
       // in the state machine thread. Register the result in that thread and then complete the future in the caller's thread.
-      return applyCommand(index, sequence, timestamp, operation, session);
+      return applyCommand(index, sequence, timestamp, operation, session, commitEvents);
+    }
+  }
+
+  /**
+   * Commits events published by commands applied at the given index.
+   *
+   * @param index the index of the applied commands
+   */
+  public void commitCommands(long index) {
+    if (index == currentIndex) {
+      commit();
     }
   }
 
@@ -471,8 +642,15 @@ public class RaftServiceContext implements ServiceContext {
   /**
    * Applies the given commit to the state machine.
    */
-  private OperationResult applyCommand(long index, long sequence, long timestamp, PrimitiveOperation operation, RaftSession session) {
-    Commit<byte[]> commit = new DefaultCommit<>(index, operation.id(), operation.value(), session, timestamp);
+  private OperationResult applyCommand(long index, long sequence, long timestamp, PrimitiveOperation operation, RaftSession session, boolean commitEvents) {
+    // If a command has already been applied at this index, the command was stored in the same batch entry.
+    // Assign it the next logical index.
+    if (commandIndex == index) {
+      operationIndex++;
+    }
+    commandIndex = index;
+
+    Commit<byte[]> commit = new DefaultCommit<>(operationIndex, operation.id(), operation.value(), session, timestamp);
 
     long eventIndex = session.getEventIndex();
 
@@ -494,7 +672,9 @@ public class RaftServiceContext implements ServiceContext {
 
     // Once the operation has been applied to the state machine, commit events published by the command.
     // The state machine context will build a composite future for events published to all sessions.
-    commit();
+    if (commitEvents) {
+      commit();
+    }
 
     // Register the result in the session to ensure retries receive the same output for the command.
     session.registerResult(sequence, result);
@@ -580,7 +760,7 @@ public class RaftServiceContext implements ServiceContext {
     // Set the current operation type to QUERY to prevent events from being sent to clients.
     setOperation(OperationType.QUERY);
 
-    Commit<byte[]> commit = new DefaultCommit<>(currentIndex, operation.id(), operation.value(), session, timestamp);
+    Commit<byte[]> commit = new DefaultCommit<>(operationIndex, operation.id(), operation.value(), session, timestamp);
 
     long eventIndex = session.getEventIndex();
 
@@ -616,4 +796,49 @@ public class RaftServiceContext implements ServiceContext {
         .add("id", primitiveId)
         .toString();
   }
+
+  /**
+   * Point-in-time session state.
+   */
+  private static class SessionSnapshot {
+    private final long sessionId;
+    private final String memberId;
+    private final String readConsistency;
+    private final long minTimeout;
+    private final long maxTimeout;
+    private final long lastUpdated;
+    private final long requestSequence;
+    private final long commandSequence;
+    private final long eventIndex;
+    private final long lastCompleted;
+
+    SessionSnapshot(RaftSession session) {
+      this.sessionId = session.sessionId().id();
+      this.memberId = session.memberId().id();
+      this.readConsistency = session.readConsistency().name();
+      this.minTimeout = session.minTimeout();
+      this.maxTimeout = session.maxTimeout();
+      this.lastUpdated = session.getLastUpdated();
+      this.requestSequence = session.getRequestSequence();
+      this.commandSequence = session.getCommandSequence();
+      this.eventIndex = session.getEventIndex();
+      this.lastCompleted = session.getLastCompleted();
+    }
+
+    /**
+     * Writes the session state to the given snapshot writer.
+     */
+    void write(SnapshotWriter writer) {
+      writer.writeLong(sessionId);
+      writer.writeString(memberId);
+      writer.writeString(readConsistency);
+      writer.writeLong(minTimeout);
+      writer.writeLong(maxTimeout);
+      writer.writeLong(lastUpdated);
+      writer.writeLong(requestSequence);
+      writer.writeLong(commandSequence);
+      writer.writeLong(eventIndex);
+      writer.writeLong(lastCompleted);
+    }
+  }
 }
@@ -29,6 +29,7 @@ import io.atomix.protocols.raft.impl.PendingCommand;
 import io.atomix.protocols.raft.impl.RaftContext;
 import io.atomix.protocols.raft.protocol.PublishRequest;
 import io.atomix.protocols.raft.protocol.RaftServerProtocol;
+import io.atomix.protocols.raft.protocol.ResetRequest;
 import io.atomix.protocols.raft.service.RaftServiceContext;
 import io.atomix.utils.concurrent.ThreadContext;
 import io.atomix.utils.concurrent.ThreadContextFactory;
@@ -51,6 +52,10 @@ import static com.google.common.base.Preconditions.checkState;
 
 /**
  * Raft session.
+ * <p>
+ * A client's session may be shared by multiple services. Each service to which the session has been added has its
+ * own {@code RaftSession} with the same {@link SessionId}, which sequences the commands, caches the results and
+ * publishes the events of that service.
  */
 public class RaftSession implements PrimitiveSession {
   private final Logger log;
@@ -311,6 +316,13 @@ public class RaftSession implements PrimitiveSession {
    * @param index The session index.
    */
   public void setLastApplied(long index) {
+    // If no queries are waiting on an index, skip directly to the given index. Sessions added to a service
+    // after they were opened start far behind the service's index.
+    if (indexQueries.isEmpty()) {
+      lastApplied = Math.max(lastApplied, index);
+      return;
+    }
+
     // Query callbacks for this session are added to the indexQueries map to be executed once the required index
     // for the query is reached. For each increment of the index, trigger query callbacks that are dependent
     // on the specific index.
@@ -475,14 +487,14 @@ public class RaftSession implements PrimitiveSession {
 
     // If the client acked an index greater than the current event sequence number since we know the
     // client must have received it from another server.
-    if (completeIndex > context.currentIndex()) {
+    if (completeIndex > context.currentEntryIndex()) {
       return;
     }
 
     // If no event has been published for this index yet, create a new event holder.
-    if (this.currentEventList == null || this.currentEventList.eventIndex != context.currentIndex()) {
+    if (this.currentEventList == null || this.currentEventList.eventIndex != context.currentEntryIndex()) {
       long previousIndex = eventIndex;
-      eventIndex = context.currentIndex();
+      eventIndex = context.currentEntryIndex();
       this.currentEventList = new EventHolder(eventIndex, previousIndex);
     }
 
@@ -550,6 +562,13 @@ public class RaftSession implements PrimitiveSession {
    */
   public void resendEvents(long index) {
     clearEvents(index);
+    resendEvents();
+  }
+
+  /**
+   * Resends all events that have not been acknowledged by the client.
+   */
+  public void resendEvents() {
     for (EventHolder event : events) {
       sendEvents(event);
     }
@@ -564,6 +583,7 @@ public class RaftSession implements PrimitiveSession {
       eventExecutor.execute(() -> {
         PublishRequest request = PublishRequest.builder()
             .withSession(sessionId().id())
+            .withService(context.serviceId().id())
             .withEventIndex(event.eventIndex)
             .withPreviousIndex(event.previousIndex)
             .withEvents(event.events)
@@ -580,7 +600,26 @@ public class RaftSession implements PrimitiveSession {
    */
   public void open() {
     setState(State.OPEN);
-    protocol.registerResetListener(sessionId, request -> resendEvents(request.index()), server.getServiceManager().executor());
+    protocol.registerResetListener(sessionId, this::handleReset, server.getServiceManager().executor());
+  }
+
+  /**
+   * Handles a reset request for any of the services to which the session has been added.
+   */
+  private void handleReset(ResetRequest request) {
+    RaftSession session = server.getSessions().getSession(request.session(), request.service());
+    if (session != null) {
+      session.resendEvents(request.index());
+    }
+  }
+
+  /**
+   * Unregisters the reset listener once the session has been removed from all of its services.
+   */
+  private void unregisterResetListener() {
+    if (server.getSessions().getSession(sessionId.id()) == null) {
+      protocol.unregisterResetListener(sessionId);
+    }
   }
 
   /**
@@ -588,7 +627,7 @@ public class RaftSession implements PrimitiveSession {
    */
   public void expire() {
     setState(State.EXPIRED);
-    protocol.unregisterResetListener(sessionId);
+    unregisterResetListener();
   }
 
   /**
@@ -596,7 +635,7 @@ public class RaftSession implements PrimitiveSession {
    */
   public void close() {
     setState(State.CLOSED);
-    protocol.unregisterResetListener(sessionId);
+    unregisterResetListener();
   }
 
   @Override
@@ -19,29 +19,62 @@ import io.atomix.primitive.PrimitiveId;
 import io.atomix.primitive.session.SessionId;
 
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 
 /**
  * Session manager.
+ * <p>
+ * A session may be shared by multiple services, in which case the session is registered once for each service to
+ * which it's been added. Sessions are indexed both by session ID and by the service to which they belong, so
+ * per-service lookups scale with the number of sessions open on the service rather than the number of sessions
+ * open on the partition.
  */
 public class RaftSessionRegistry {
-  private final Map<Long, RaftSession> sessions = new ConcurrentHashMap<>();
+  private final Map<Long, Map<PrimitiveId, RaftSession>> sessions = new ConcurrentHashMap<>();
+  private final Map<PrimitiveId, Map<Long, RaftSession>> serviceSessions = new ConcurrentHashMap<>();
 
   /**
    * Adds a session.
    */
   public RaftSession addSession(RaftSession session) {
-    RaftSession existingSession = sessions.putIfAbsent(session.sessionId().id(), session);
-    return existingSession != null ? existingSession : session;
+    RaftSession existingSession = sessions.computeIfAbsent(session.sessionId().id(), id -> new ConcurrentHashMap<>())
+        .putIfAbsent(session.getService().serviceId(), session);
+    if (existingSession != null) {
+      return existingSession;
+    }
+    serviceSessions.computeIfAbsent(session.getService().serviceId(), id -> new ConcurrentHashMap<>())
+        .put(session.sessionId().id(), session);
+    return session;
   }
 
   /**
-   * Closes a session.
+   * Closes a session for the given service.
    */
-  public RaftSession removeSession(SessionId sessionId) {
-    return sessions.remove(sessionId.id());
+  public RaftSession removeSession(SessionId sessionId, PrimitiveId primitiveId) {
+    RaftSession session = removeSession(sessionId.id(), primitiveId);
+    if (session != null) {
+      serviceSessions.computeIfPresent(primitiveId, (id, sessions) -> {
+        sessions.remove(sessionId.id());
+        return sessions.isEmpty() ? null : sessions;
+      });
+    }
+    return session;
+  }
+
+  /**
+   * Removes the given service from the session index.
+   */
+  private RaftSession removeSession(long sessionId, PrimitiveId primitiveId) {
+    RaftSession[] session = new RaftSession[1];
+    sessions.computeIfPresent(sessionId, (id, services) -> {
+      session[0] = services.remove(primitiveId);
+      return services.isEmpty() ? null : services;
+    });
+    return session[0];
   }
 
   /**
@@ -56,12 +89,45 @@ public class RaftSessionRegistry {
 
   /**
    * Gets a session by session ID.
+   * <p>
+   * If the session has been added to multiple services, the session of an arbitrary service is returned.
    *
    * @param sessionId The session ID.
    * @return The session or {@code null} if the session doesn't exist.
    */
   public RaftSession getSession(long sessionId) {
-    return sessions.get(sessionId);
+    Map<PrimitiveId, RaftSession> services = sessions.get(sessionId);
+    if (services == null) {
+      return null;
+    }
+    Iterator<RaftSession> iterator = services.values().iterator();
+    return iterator.hasNext() ? iterator.next() : null;
+  }
+
+  /**
+   * Gets a session by session ID and service ID.
+   *
+   * @param sessionId The session ID.
+   * @param serviceId The service ID, or {@code 0} to get the session of an arbitrary service.
+   * @return The session or {@code null} if the session doesn't exist or has not been added to the service.
+   */
+  public RaftSession getSession(long sessionId, long serviceId) {
+    if (serviceId == 0) {
+      return getSession(sessionId);
+    }
+    Map<PrimitiveId, RaftSession> services = sessions.get(sessionId);
+    return services != null ? services.get(PrimitiveId.from(serviceId)) : null;
+  }
+
+  /**
+   * Returns the sessions registered for each of the services to which the given session has been added.
+   *
+   * @param sessionId The session ID.
+   * @return The sessions registered for the given session ID.
+   */
+  public Collection<RaftSession> getSessions(long sessionId) {
+    Map<PrimitiveId, RaftSession> services = sessions.get(sessionId);
+    return services != null ? services.values() : Collections.emptyList();
   }
 
   /**
@@ -70,7 +136,9 @@ public class RaftSessionRegistry {
    * @return The collection of registered sessions.
    */
   public Collection<RaftSession> getSessions() {
-    return sessions.values();
+    return sessions.values().stream()
+        .flatMap(services -> services.values().stream())
+        .collect(Collectors.toList());
   }
 
   /**
@@ -80,18 +148,35 @@ public class RaftSessionRegistry {
    * @return a collection of sessions associated with the given service
    */
   public Collection<RaftSession> getSessions(PrimitiveId primitiveId) {
+    Map<Long, RaftSession> sessions = serviceSessions.get(primitiveId);
+    if (sessions == null) {
+      return Collections.emptySet();
+    }
     return sessions.values().stream()
-        .filter(session -> session.getService().serviceId().equals(primitiveId))
         .filter(session -> session.getState().active())
         .collect(Collectors.toSet());
   }
 
+  /**
+   * Returns all sessions registered for the given service, regardless of their state.
+   *
+   * @param primitiveId the service identifier
+   * @return a collection of sessions registered for the given service
+   */
+  public Collection<RaftSession> getRegisteredSessions(PrimitiveId primitiveId) {
+    Map<Long, RaftSession> sessions = serviceSessions.get(primitiveId);
+    return sessions != null ? sessions.values() : Collections.emptyList();
+  }
+
   /**
    * Removes all sessions registered for the given service.
    *
    * @param primitiveId the service identifier
    */
   public void removeSessions(PrimitiveId primitiveId) {
-    sessions.entrySet().removeIf(e -> e.getValue().getService().serviceId().equals(primitiveId));
+    Map<Long, RaftSession> sessions = serviceSessions.remove(primitiveId);
+    if (sessions != null) {
+      sessions.keySet().forEach(sessionId -> removeSession(sessionId, primitiveId));
+    }
   }
 }
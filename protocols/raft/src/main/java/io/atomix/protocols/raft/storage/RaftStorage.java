@@ -29,6 +29,7 @@ import io.atomix.storage.statistics.StorageStatistics;
 import java.io.File;
 import java.io.IOException;
 import java.nio.file.Files;
+import java.time.Duration;
 import java.util.function.Predicate;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
@@ -80,6 +81,10 @@ public class RaftStorage {
   private final boolean dynamicCompaction;
   private final double freeDiskBuffer;
   private final boolean flushOnCommit;
+  private final boolean groupCommit;
+  private final Duration maxFlushDelay;
+  private final int maxFlushBatchSize;
+  private final boolean persistentIndex;
   private final boolean retainStaleSnapshots;
   private final StorageStatistics statistics;
 
@@ -93,6 +98,10 @@ public class RaftStorage {
       boolean dynamicCompaction,
       double freeDiskBuffer,
       boolean flushOnCommit,
+      boolean groupCommit,
+      Duration maxFlushDelay,
+      int maxFlushBatchSize,
+      boolean persistentIndex,
       boolean retainStaleSnapshots) {
     this.prefix = prefix;
     this.storageLevel = storageLevel;
@@ -103,6 +112,10 @@ public class RaftStorage {
     this.dynamicCompaction = dynamicCompaction;
     this.freeDiskBuffer = freeDiskBuffer;
     this.flushOnCommit = flushOnCommit;
+    this.groupCommit = groupCommit;
+    this.maxFlushDelay = maxFlushDelay;
+    this.maxFlushBatchSize = maxFlushBatchSize;
+    this.persistentIndex = persistentIndex;
     this.retainStaleSnapshots = retainStaleSnapshots;
     this.statistics = new StorageStatistics(directory);
     directory.mkdirs();
@@ -201,6 +214,42 @@ public class RaftStorage {
     return flushOnCommit;
   }
 
+  /**
+   * Returns whether commit flushes are coalesced into group commits.
+   *
+   * @return Whether commit flushes are coalesced into group commits.
+   */
+  public boolean isGroupCommit() {
+    return groupCommit;
+  }
+
+  /**
+   * Returns the maximum time for which to delay a group commit flush while waiting for more commits.
+   *
+   * @return The maximum group commit flush delay.
+   */
+  public Duration maxFlushDelay() {
+    return maxFlushDelay;
+  }
+
+  /**
+   * Returns the maximum number of commits to coalesce into a single group commit flush.
+   *
+   * @return The maximum group commit batch size.
+   */
+  public int maxFlushBatchSize() {
+    return maxFlushBatchSize;
+  }
+
+  /**
+   * Returns whether segment indexes are persisted to disk for fast log recovery.
+   *
+   * @return Whether segment indexes are persisted to disk.
+   */
+  public boolean isPersistentIndex() {
+    return persistentIndex;
+  }
+
   /**
    * Returns a boolean value indicating whether to retain stale snapshots on disk.
    * <p>
@@ -288,6 +337,10 @@ public class RaftStorage {
         .withMaxSegmentSize(maxSegmentSize)
         .withMaxEntriesPerSegment(maxEntriesPerSegment)
         .withFlushOnCommit(flushOnCommit)
+        .withGroupCommit(groupCommit)
+        .withMaxFlushDelay(maxFlushDelay)
+        .withMaxFlushBatchSize(maxFlushBatchSize)
+        .withPersistentIndex(persistentIndex)
         .build();
   }
 
@@ -298,7 +351,7 @@ public class RaftStorage {
    * Deleting log files does not involve rebuilding indexes or reading any logs into memory.
    */
   public void deleteLog() {
-    deleteFiles(f -> JournalSegmentFile.isSegmentFile(prefix, f));
+    deleteFiles(f -> JournalSegmentFile.isSegmentFile(prefix, f) || JournalSegmentFile.isIndexFile(prefix, f));
   }
 
   /**
@@ -348,6 +401,10 @@ public class RaftStorage {
     private static final boolean DEFAULT_DYNAMIC_COMPACTION = true;
     private static final double DEFAULT_FREE_DISK_BUFFER = .2;
     private static final boolean DEFAULT_FLUSH_ON_COMMIT = true;
+    private static final boolean DEFAULT_GROUP_COMMIT = false;
+    private static final Duration DEFAULT_MAX_FLUSH_DELAY = Duration.ofMillis(2);
+    private static final int DEFAULT_MAX_FLUSH_BATCH_SIZE = 1024;
+    private static final boolean DEFAULT_PERSISTENT_INDEX = false;
     private static final boolean DEFAULT_RETAIN_STALE_SNAPSHOTS = false;
 
     private String prefix = DEFAULT_PREFIX;
@@ -359,6 +416,10 @@ public class RaftStorage {
     private boolean dynamicCompaction = DEFAULT_DYNAMIC_COMPACTION;
     private double freeDiskBuffer = DEFAULT_FREE_DISK_BUFFER;
     private boolean flushOnCommit = DEFAULT_FLUSH_ON_COMMIT;
+    private boolean groupCommit = DEFAULT_GROUP_COMMIT;
+    private Duration maxFlushDelay = DEFAULT_MAX_FLUSH_DELAY;
+    private int maxFlushBatchSize = DEFAULT_MAX_FLUSH_BATCH_SIZE;
+    private boolean persistentIndex = DEFAULT_PERSISTENT_INDEX;
     private boolean retainStaleSnapshots = DEFAULT_RETAIN_STALE_SNAPSHOTS;
 
     private Builder() {
@@ -538,6 +599,92 @@ public class RaftStorage {
       return this;
     }
 
+    /**
+     * Enables group commit, returning the builder for method chaining.
+     * <p>
+     * When group commit is enabled along with flush-on-commit, flushes triggered by commits from many sessions
+     * are coalesced and performed by a dedicated flusher thread, and commits are only acknowledged once the
+     * flush covering them has completed. The leader begins flushing entries as soon as they're appended, in
+     * parallel with replication to followers.
+     *
+     * @return The storage builder.
+     */
+    public Builder withGroupCommit() {
+      return withGroupCommit(true);
+    }
+
+    /**
+     * Sets whether to enable group commit, returning the builder for method chaining.
+     * <p>
+     * When group commit is enabled along with flush-on-commit, flushes triggered by commits from many sessions
+     * are coalesced and performed by a dedicated flusher thread, and commits are only acknowledged once the
+     * flush covering them has completed. The leader begins flushing entries as soon as they're appended, in
+     * parallel with replication to followers.
+     *
+     * @param groupCommit Whether to enable group commit.
+     * @return The storage builder.
+     */
+    public Builder withGroupCommit(boolean groupCommit) {
+      this.groupCommit = groupCommit;
+      return this;
+    }
+
+    /**
+     * Sets the maximum time for which to delay a group commit flush while waiting for more commits.
+     *
+     * @param maxFlushDelay The maximum group commit flush delay.
+     * @return The storage builder.
+     * @throws NullPointerException if the delay is {@code null}
+     * @throws IllegalArgumentException if the delay is negative
+     */
+    public Builder withMaxFlushDelay(Duration maxFlushDelay) {
+      checkNotNull(maxFlushDelay, "maxFlushDelay cannot be null");
+      checkArgument(!maxFlushDelay.isNegative(), "maxFlushDelay cannot be negative");
+      this.maxFlushDelay = maxFlushDelay;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of commits to coalesce into a single group commit flush.
+     *
+     * @param maxFlushBatchSize The maximum group commit batch size.
+     * @return The storage builder.
+     * @throws IllegalArgumentException if the batch size is not positive
+     */
+    public Builder withMaxFlushBatchSize(int maxFlushBatchSize) {
+      checkArgument(maxFlushBatchSize > 0, "maxFlushBatchSize must be positive");
+      this.maxFlushBatchSize = maxFlushBatchSize;
+      return this;
+    }
+
+    /**
+     * Enables persisting log segment indexes to disk, returning the builder for method chaining.
+     * <p>
+     * When index persistence is enabled, each sealed log segment's index and last entry position are written to a
+     * checksummed sidecar file. When the log is reopened, sealed segments are verified against their sidecar files
+     * rather than scanned, and only the active segment is scanned.
+     *
+     * @return The storage builder.
+     */
+    public Builder withPersistentIndex() {
+      return withPersistentIndex(true);
+    }
+
+    /**
+     * Sets whether to persist log segment indexes to disk, returning the builder for method chaining.
+     * <p>
+     * When index persistence is enabled, each sealed log segment's index and last entry position are written to a
+     * checksummed sidecar file. When the log is reopened, sealed segments are verified against their sidecar files
+     * rather than scanned, and only the active segment is scanned.
+     *
+     * @param persistentIndex Whether to persist log segment indexes to disk.
+     * @return The storage builder.
+     */
+    public Builder withPersistentIndex(boolean persistentIndex) {
+      this.persistentIndex = persistentIndex;
+      return this;
+    }
+
     /**
      * Enables retaining stale snapshots on disk, returning the builder for method chaining.
      * <p>
@@ -587,6 +734,10 @@ public class RaftStorage {
           dynamicCompaction,
           freeDiskBuffer,
           flushOnCommit,
+          groupCommit,
+          maxFlushDelay,
+          maxFlushBatchSize,
+          persistentIndex,
           retainStaleSnapshots);
     }
   }
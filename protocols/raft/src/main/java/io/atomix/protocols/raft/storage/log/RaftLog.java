@@ -19,9 +19,14 @@ import io.atomix.protocols.raft.storage.log.entry.RaftLogEntry;
 import io.atomix.utils.serializer.Serializer;
 import io.atomix.storage.StorageLevel;
 import io.atomix.storage.journal.DelegatingJournal;
+import io.atomix.storage.journal.JournalFlusher;
 import io.atomix.storage.journal.SegmentedJournal;
 
 import java.io.File;
+import java.time.Duration;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
 
 /**
  * Raft log.
@@ -44,13 +49,26 @@ public class RaftLog extends DelegatingJournal<RaftLogEntry> {
 
   private final SegmentedJournal<RaftLogEntry> journal;
   private final boolean flushOnCommit;
+  private final JournalFlusher flusher;
   private final RaftLogWriter writer;
   private volatile long commitIndex;
 
   protected RaftLog(SegmentedJournal<RaftLogEntry> journal, boolean flushOnCommit) {
+    this(journal, flushOnCommit, false, null, 0);
+  }
+
+  protected RaftLog(
+      SegmentedJournal<RaftLogEntry> journal,
+      boolean flushOnCommit,
+      boolean groupCommit,
+      Duration maxFlushDelay,
+      int maxFlushBatchSize) {
     super(journal);
     this.journal = journal;
     this.flushOnCommit = flushOnCommit;
+    this.flusher = flushOnCommit && groupCommit
+        ? new JournalFlusher(journal.name(), journal.writer(), maxFlushDelay, maxFlushBatchSize)
+        : null;
     this.writer = new RaftLogWriter(journal.writer(), this);
   }
 
@@ -84,6 +102,51 @@ public class RaftLog extends DelegatingJournal<RaftLogEntry> {
     return flushOnCommit;
   }
 
+  /**
+   * Returns the group commit flusher for the log.
+   *
+   * @return the group commit flusher or {@code null} if group commit is disabled
+   */
+  JournalFlusher flusher() {
+    return flusher;
+  }
+
+  /**
+   * Returns whether group commit is enabled for the log.
+   *
+   * @return indicates whether group commit is enabled for the log
+   */
+  public boolean isGroupCommit() {
+    return flusher != null;
+  }
+
+  /**
+   * Returns the average number of commits coalesced into a single flush when group commit is enabled.
+   *
+   * @return the average flush batch size
+   */
+  public double getAverageFlushBatchSize() {
+    return flusher != null ? flusher.getAverageBatchSize() : 0;
+  }
+
+  /**
+   * Returns the average time taken to flush a batch of commits to disk when group commit is enabled.
+   *
+   * @return the average flush latency
+   */
+  public Duration getAverageFlushLatency() {
+    return flusher != null ? flusher.getAverageFlushLatency() : Duration.ZERO;
+  }
+
+  /**
+   * Returns the maximum time taken to flush a batch of commits to disk when group commit is enabled.
+   *
+   * @return the maximum flush latency
+   */
+  public Duration getMaxFlushLatency() {
+    return flusher != null ? flusher.getMaxFlushLatency() : Duration.ZERO;
+  }
+
   /**
    * Commits entries up to the given index.
    *
@@ -133,14 +196,28 @@ public class RaftLog extends DelegatingJournal<RaftLogEntry> {
     journal.compact(index);
   }
 
+  @Override
+  public void close() {
+    if (flusher != null) {
+      flusher.close();
+    }
+    super.close();
+  }
+
   /**
    * Raft log builder.
    */
   public static class Builder implements io.atomix.utils.Builder<RaftLog> {
     private static final boolean DEFAULT_FLUSH_ON_COMMIT = false;
+    private static final boolean DEFAULT_GROUP_COMMIT = false;
+    private static final Duration DEFAULT_MAX_FLUSH_DELAY = Duration.ofMillis(2);
+    private static final int DEFAULT_MAX_FLUSH_BATCH_SIZE = 1024;
 
     private final SegmentedJournal.Builder<RaftLogEntry> journalBuilder = SegmentedJournal.builder();
     private boolean flushOnCommit = DEFAULT_FLUSH_ON_COMMIT;
+    private boolean groupCommit = DEFAULT_GROUP_COMMIT;
+    private Duration maxFlushDelay = DEFAULT_MAX_FLUSH_DELAY;
+    private int maxFlushBatchSize = DEFAULT_MAX_FLUSH_BATCH_SIZE;
 
     protected Builder() {
     }
@@ -260,6 +337,20 @@ public class RaftLog extends DelegatingJournal<RaftLogEntry> {
       return this;
     }
 
+    /**
+     * Sets whether to persist segment indexes to disk.
+     * <p>
+     * When index persistence is enabled, each segment's index is written to a sidecar file when the segment is
+     * sealed and when the log is closed, allowing the log to be recovered by scanning only the active segment.
+     *
+     * @param persistentIndex whether to persist segment indexes to disk
+     * @return the log builder
+     */
+    public Builder withPersistentIndex(boolean persistentIndex) {
+      journalBuilder.withPersistentIndex(persistentIndex);
+      return this;
+    }
+
     /**
      * Sets the log cache size.
      *
@@ -300,9 +391,63 @@ public class RaftLog extends DelegatingJournal<RaftLogEntry> {
       return this;
     }
 
+    /**
+     * Enables group commit, returning the builder for method chaining.
+     * <p>
+     * When group commit is enabled and flush-on-commit is enabled, flushes triggered by commits are coalesced
+     * into batches and performed by a dedicated flusher thread rather than synchronously on commit.
+     *
+     * @return The storage builder.
+     */
+    public Builder withGroupCommit() {
+      return withGroupCommit(true);
+    }
+
+    /**
+     * Sets whether to enable group commit, returning the builder for method chaining.
+     * <p>
+     * When group commit is enabled and flush-on-commit is enabled, flushes triggered by commits are coalesced
+     * into batches and performed by a dedicated flusher thread rather than synchronously on commit.
+     *
+     * @param groupCommit Whether to enable group commit.
+     * @return The storage builder.
+     */
+    public Builder withGroupCommit(boolean groupCommit) {
+      this.groupCommit = groupCommit;
+      return this;
+    }
+
+    /**
+     * Sets the maximum time for which to delay a group commit flush while waiting for more commits.
+     *
+     * @param maxFlushDelay The maximum group commit flush delay.
+     * @return The storage builder.
+     * @throws NullPointerException if the delay is {@code null}
+     * @throws IllegalArgumentException if the delay is negative
+     */
+    public Builder withMaxFlushDelay(Duration maxFlushDelay) {
+      checkNotNull(maxFlushDelay, "maxFlushDelay cannot be null");
+      checkArgument(!maxFlushDelay.isNegative(), "maxFlushDelay cannot be negative");
+      this.maxFlushDelay = maxFlushDelay;
+      return this;
+    }
+
+    /**
+     * Sets the maximum number of commits to coalesce into a single group commit flush.
+     *
+     * @param maxFlushBatchSize The maximum group commit batch size.
+     * @return The storage builder.
+     * @throws IllegalArgumentException if the batch size is not positive
+     */
+    public Builder withMaxFlushBatchSize(int maxFlushBatchSize) {
+      checkArgument(maxFlushBatchSize > 0, "maxFlushBatchSize must be positive");
+      this.maxFlushBatchSize = maxFlushBatchSize;
+      return this;
+    }
+
     @Override
     public RaftLog build() {
-      return new RaftLog(journalBuilder.build(), flushOnCommit);
+      return new RaftLog(journalBuilder.build(), flushOnCommit, groupCommit, maxFlushDelay, maxFlushBatchSize);
     }
   }
 }
@@ -19,6 +19,8 @@ import io.atomix.protocols.raft.storage.log.entry.RaftLogEntry;
 import io.atomix.storage.journal.DelegatingJournalWriter;
 import io.atomix.storage.journal.SegmentedJournalWriter;
 
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Raft log writer.
  */
@@ -39,6 +41,9 @@ public class RaftLogWriter extends DelegatingJournalWriter<RaftLogEntry> {
    */
   public void reset(long index) {
     writer.reset(index);
+    if (log.isGroupCommit()) {
+      log.flusher().reset(index - 1);
+    }
   }
 
   /**
@@ -50,16 +55,39 @@ public class RaftLogWriter extends DelegatingJournalWriter<RaftLogEntry> {
     if (index > log.getCommitIndex()) {
       log.setCommitIndex(index);
       if (log.isFlushOnCommit()) {
-        flush();
+        if (log.isGroupCommit()) {
+          log.flusher().flush(index);
+        } else {
+          flush();
+        }
       }
     }
   }
 
+  /**
+   * Returns a future to be completed once entries up to the given index have been flushed to disk.
+   * <p>
+   * If group commit is not enabled, entries are flushed synchronously when committed and the returned future will
+   * already be complete. When group commit is enabled, the returned future will be completed on the flusher thread.
+   *
+   * @param index The index up to which to await the flush.
+   * @return A future to be completed once entries up to the given index have been flushed to disk.
+   */
+  public CompletableFuture<Long> awaitFlush(long index) {
+    if (log.isGroupCommit()) {
+      return log.flusher().flush(index);
+    }
+    return CompletableFuture.completedFuture(index);
+  }
+
   @Override
   public void truncate(long index) {
     if (index < log.getCommitIndex()) {
       throw new IndexOutOfBoundsException("Cannot truncate committed index: " + index);
     }
     super.truncate(index);
+    if (log.isGroupCommit()) {
+      log.flusher().reset(index);
+    }
   }
 }
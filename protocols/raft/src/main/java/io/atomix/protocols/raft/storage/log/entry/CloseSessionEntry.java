@@ -21,12 +21,14 @@ import static com.google.common.base.MoreObjects.toStringHelper;
 
 /**
  * Close session entry.
+ * <p>
+ * If the entry's {@link #service()} is {@code 0}, the session is closed for all of its services.
  */
 public class CloseSessionEntry extends SessionEntry {
   private final boolean expired;
 
-  public CloseSessionEntry(long term, long timestamp, long session, boolean expired) {
-    super(term, timestamp, session);
+  public CloseSessionEntry(long term, long timestamp, long session, long service, boolean expired) {
+    super(term, timestamp, session, service);
     this.expired = expired;
   }
 
@@ -45,6 +47,7 @@ public class CloseSessionEntry extends SessionEntry {
         .add("term", term)
         .add("timestamp", new TimestampPrinter(timestamp))
         .add("session", session)
+        .add("service", service)
         .add("expired", expired)
         .toString();
   }
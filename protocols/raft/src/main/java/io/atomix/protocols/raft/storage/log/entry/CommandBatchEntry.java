@@ -0,0 +1,57 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.protocols.raft.storage.log.entry;
+
+import io.atomix.utils.misc.TimestampPrinter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+/**
+ * Stores a batch of state machine commands.
+ * <p>
+ * The {@code CommandBatchEntry} is used by the leader to store commands from many sessions in a single log entry.
+ * Commands within the batch are applied to the state machine in the order in which they're stored, and each
+ * command is sequenced against its own session as if it had been stored in an individual {@link CommandEntry}.
+ */
+public class CommandBatchEntry extends TimestampedEntry {
+  private final ArrayList<CommandEntry> commands;
+
+  public CommandBatchEntry(long term, long timestamp, List<CommandEntry> commands) {
+    super(term, timestamp);
+    this.commands = new ArrayList<>(commands);
+  }
+
+  /**
+   * Returns the commands in the batch.
+   *
+   * @return The commands in the batch.
+   */
+  public List<CommandEntry> commands() {
+    return commands;
+  }
+
+  @Override
+  public String toString() {
+    return toStringHelper(this)
+        .add("term", term)
+        .add("timestamp", new TimestampPrinter(timestamp))
+        .add("commands", commands.size())
+        .toString();
+  }
+}
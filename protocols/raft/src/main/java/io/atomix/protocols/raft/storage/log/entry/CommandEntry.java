@@ -24,7 +24,7 @@ import io.atomix.primitive.operation.PrimitiveOperation;
  * client along with information relevant to sequencing the command in the server state machine.
  */
 public class CommandEntry extends OperationEntry {
-  public CommandEntry(long term, long timestamp, long session, long sequence, PrimitiveOperation operation) {
-    super(term, timestamp, session, sequence, operation);
+  public CommandEntry(long term, long timestamp, long session, long service, long sequence, PrimitiveOperation operation) {
+    super(term, timestamp, session, service, sequence, operation);
   }
 }
\ No newline at end of file
@@ -25,12 +25,14 @@ import static com.google.common.base.MoreObjects.toStringHelper;
  */
 public class KeepAliveEntry extends TimestampedEntry {
   private final long[] sessionIds;
+  private final long[] services;
   private final long[] commandSequences;
   private final long[] eventIndexes;
 
-  public KeepAliveEntry(long term, long timestamp, long[] sessionIds, long[] commandSequences, long[] eventIndexes) {
+  public KeepAliveEntry(long term, long timestamp, long[] sessionIds, long[] services, long[] commandSequences, long[] eventIndexes) {
     super(term, timestamp);
     this.sessionIds = sessionIds;
+    this.services = services;
     this.commandSequences = commandSequences;
     this.eventIndexes = eventIndexes;
   }
@@ -44,6 +46,15 @@ public class KeepAliveEntry extends TimestampedEntry {
     return sessionIds;
   }
 
+  /**
+   * Returns the service identifiers.
+   *
+   * @return The service identifiers.
+   */
+  public long[] services() {
+    return services;
+  }
+
   /**
    * Returns the command sequence numbers.
    *
@@ -68,6 +79,7 @@ public class KeepAliveEntry extends TimestampedEntry {
         .add("term", term)
         .add("timestamp", new TimestampPrinter(timestamp))
         .add("sessionIds", ArraySizeHashPrinter.of(sessionIds))
+        .add("services", ArraySizeHashPrinter.of(services))
         .add("commandSequences", ArraySizeHashPrinter.of(commandSequences))
         .add("eventIndexes", ArraySizeHashPrinter.of(eventIndexes))
         .toString();
@@ -20,6 +20,6 @@ package io.atomix.protocols.raft.storage.log.entry;
  */
 public class MetadataEntry extends SessionEntry {
   public MetadataEntry(long term, long timestamp, long session) {
-    super(term, timestamp, session);
+    super(term, timestamp, session, 0);
   }
 }
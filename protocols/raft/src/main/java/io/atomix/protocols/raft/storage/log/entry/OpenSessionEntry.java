@@ -23,6 +23,9 @@ import static com.google.common.base.MoreObjects.toStringHelper;
 
 /**
  * Open session entry.
+ * <p>
+ * If the entry's {@link #session()} is non-zero, the service is added to the existing session rather than
+ * opening a new session.
  */
 public class OpenSessionEntry extends TimestampedEntry {
   private final String memberId;
@@ -32,6 +35,7 @@ public class OpenSessionEntry extends TimestampedEntry {
   private final ReadConsistency readConsistency;
   private final long minTimeout;
   private final long maxTimeout;
+  private final long session;
 
   public OpenSessionEntry(
       long term,
@@ -42,7 +46,8 @@ public class OpenSessionEntry extends TimestampedEntry {
       byte[] serviceConfig,
       ReadConsistency readConsistency,
       long minTimeout,
-      long maxTimeout) {
+      long maxTimeout,
+      long session) {
     super(term, timestamp);
     this.memberId = memberId;
     this.serviceName = serviceName;
@@ -51,6 +56,7 @@ public class OpenSessionEntry extends TimestampedEntry {
     this.readConsistency = readConsistency;
     this.minTimeout = minTimeout;
     this.maxTimeout = maxTimeout;
+    this.session = session;
   }
 
   /**
@@ -116,6 +122,15 @@ public class OpenSessionEntry extends TimestampedEntry {
     return maxTimeout;
   }
 
+  /**
+   * Returns the existing session to which to add the service.
+   *
+   * @return The existing session ID or {@code 0} if a new session is to be opened.
+   */
+  public long session() {
+    return session;
+  }
+
   @Override
   public String toString() {
     return toStringHelper(this)
@@ -128,6 +143,7 @@ public class OpenSessionEntry extends TimestampedEntry {
         .add("readConsistency", readConsistency)
         .add("minTimeout", minTimeout)
         .add("maxTimeout", maxTimeout)
+        .add("session", session)
         .toString();
   }
 }
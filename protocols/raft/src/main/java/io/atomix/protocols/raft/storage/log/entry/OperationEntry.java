@@ -33,8 +33,8 @@ public abstract class OperationEntry extends SessionEntry {
   protected final long sequence;
   protected final PrimitiveOperation operation;
 
-  public OperationEntry(long term, long timestamp, long session, long sequence, PrimitiveOperation operation) {
-    super(term, timestamp, session);
+  public OperationEntry(long term, long timestamp, long session, long service, long sequence, PrimitiveOperation operation) {
+    super(term, timestamp, session, service);
     this.sequence = sequence;
     this.operation = operation;
   }
@@ -63,6 +63,7 @@ public abstract class OperationEntry extends SessionEntry {
         .add("term", term)
         .add("timestamp", new TimestampPrinter(timestamp))
         .add("session", session)
+        .add("service", service)
         .add("sequence", sequence)
         .add("operation", operation)
         .toString();
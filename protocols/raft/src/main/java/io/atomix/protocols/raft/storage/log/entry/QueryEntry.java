@@ -26,7 +26,7 @@ import io.atomix.primitive.operation.PrimitiveOperation;
  * are used to sequence queries as they're applied to the user state machine.
  */
 public class QueryEntry extends OperationEntry {
-  public QueryEntry(long term, long timestamp, long session, long sequence, PrimitiveOperation operation) {
-    super(term, timestamp, session, sequence, operation);
+  public QueryEntry(long term, long timestamp, long session, long service, long sequence, PrimitiveOperation operation) {
+    super(term, timestamp, session, service, sequence, operation);
   }
 }
\ No newline at end of file
@@ -21,13 +21,18 @@ import static com.google.common.base.MoreObjects.toStringHelper;
 
 /**
  * Base class for session-related entries.
+ * <p>
+ * A session may be shared by multiple services, in which case the {@link #service()} identifies the service
+ * to which the entry is routed.
  */
 public abstract class SessionEntry extends TimestampedEntry {
   protected final long session;
+  protected final long service;
 
-  public SessionEntry(long term, long timestamp, long session) {
+  public SessionEntry(long term, long timestamp, long session, long service) {
     super(term, timestamp);
     this.session = session;
+    this.service = service;
   }
 
   /**
@@ -39,12 +44,24 @@ public abstract class SessionEntry extends TimestampedEntry {
     return session;
   }
 
+  /**
+   * Returns the service ID.
+   * <p>
+   * If the service ID is {@code 0}, the entry applies to the service for which the session was opened.
+   *
+   * @return The service ID.
+   */
+  public long service() {
+    return service;
+  }
+
   @Override
   public String toString() {
     return toStringHelper(this)
         .add("term", term)
         .add("timestamp", new TimestampPrinter(timestamp))
         .add("session", session)
+        .add("service", service)
         .toString();
   }
 }
@@ -47,8 +47,10 @@ import io.atomix.protocols.raft.cluster.RaftClusterEvent;
 import io.atomix.protocols.raft.cluster.RaftMember;
 import io.atomix.protocols.raft.cluster.impl.DefaultRaftMember;
 import io.atomix.protocols.raft.protocol.TestRaftProtocolFactory;
+import io.atomix.protocols.raft.proxy.CommunicationStrategy;
 import io.atomix.protocols.raft.storage.RaftStorage;
 import io.atomix.protocols.raft.storage.log.entry.CloseSessionEntry;
+import io.atomix.protocols.raft.storage.log.entry.CommandBatchEntry;
 import io.atomix.protocols.raft.storage.log.entry.CommandEntry;
 import io.atomix.protocols.raft.storage.log.entry.ConfigurationEntry;
 import io.atomix.protocols.raft.storage.log.entry.InitializeEntry;
@@ -79,6 +81,7 @@ import java.nio.file.attribute.BasicFileAttributes;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
@@ -93,6 +96,7 @@ import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Matchers.any;
@@ -106,6 +110,7 @@ public class RaftTest extends ConcurrentTestCase {
   private static final Serializer storageSerializer = Serializer.using(KryoNamespace.builder()
       .register(CloseSessionEntry.class)
       .register(CommandEntry.class)
+      .register(CommandBatchEntry.class)
       .register(ConfigurationEntry.class)
       .register(InitializeEntry.class)
       .register(KeepAliveEntry.class)
@@ -136,6 +141,7 @@ public class RaftTest extends ConcurrentTestCase {
   protected volatile List<RaftServer> servers = new ArrayList<>();
   protected volatile TestRaftProtocolFactory protocolFactory;
   protected volatile ThreadContext context;
+  protected volatile boolean sessionLeases;
 
   /**
    * Tests getting session metadata.
@@ -158,6 +164,38 @@ public class RaftTest extends ConcurrentTestCase {
     assertEquals(2, serviceSessions.size());
   }
 
+  /**
+   * Tests that proxies for different services opened by the same client share a session.
+   */
+  @Test
+  public void testSharedSession() throws Throwable {
+    createServers(3);
+    RaftClient client = createClient();
+    PartitionProxy session1 = createSession(client, "test1", ReadConsistency.LINEARIZABLE, CommunicationStrategy.LEADER);
+    PartitionProxy session2 = createSession(client, "test2", ReadConsistency.LINEARIZABLE, CommunicationStrategy.LEADER);
+    PartitionProxy session3 = createSession(client, "test1", ReadConsistency.LINEARIZABLE, CommunicationStrategy.LEADER);
+    assertEquals(session1.sessionId(), session2.sessionId());
+    assertNotEquals(session1.sessionId(), session3.sessionId());
+
+    TestPrimitive primitive1 = createPrimitive(session1);
+    TestPrimitive primitive2 = createPrimitive(session2);
+    primitive1.onEvent(event -> threadFail("event published to the wrong service")).join();
+    primitive2.onEvent(event -> {
+      threadAssertNotNull(event);
+      resume();
+    }).join();
+
+    primitive2.sendEvent(true).thenRun(this::resume);
+    await(5000, 2);
+
+    primitive1.write("Hello world!").thenRun(this::resume);
+    await(5000);
+
+    session1.close().join();
+    primitive2.write("Hello world again!").thenRun(this::resume);
+    await(5000);
+  }
+
   /**
    * Tests starting several members individually.
    */
@@ -301,6 +339,33 @@ public class RaftTest extends ConcurrentTestCase {
     threadAssertTrue(session.getState() == PartitionProxy.State.CONNECTED);
   }
 
+  /**
+   * Tests keeping a client session alive with session leases held by the leader.
+   */
+  @Test
+  public void testClientKeepAliveWithSessionLeases() throws Throwable {
+    sessionLeases = true;
+    createServers(3);
+    RaftClient client1 = createClient();
+    TestPrimitive primitive1 = createPrimitive(client1);
+    primitive1.write("Hello world!").get(5, TimeUnit.SECONDS);
+
+    // Wait for the keep-alive acknowledging the write to be committed.
+    Thread.sleep(Duration.ofSeconds(5).toMillis());
+
+    // Idle keep-alives renew the session's lease without appending entries to the log.
+    long index = primitive1.read().get(5, TimeUnit.SECONDS);
+    Thread.sleep(Duration.ofSeconds(10).toMillis());
+    threadAssertEquals(index, primitive1.read().get(5, TimeUnit.SECONDS));
+
+    // The leader expires a session once its lease has lapsed.
+    RaftClient client2 = createClient();
+    createSession(client2);
+    primitive1.onExpire(event -> resume()).thenRun(this::resume);
+    client2.close().thenRun(this::resume);
+    await(Duration.ofSeconds(10).toMillis(), 3);
+  }
+
   /**
    * Tests an active member joining the cluster.
    */
@@ -464,6 +529,39 @@ public class RaftTest extends ConcurrentTestCase {
     await(30000);
   }
 
+  /**
+   * Tests that commands batched by the leader are each applied at a distinct index.
+   */
+  @Test
+  public void testSubmitBatchedCommands() throws Throwable {
+    createServers(3);
+
+    RaftClient client1 = createClient();
+    RaftClient client2 = createClient();
+    TestPrimitive primitive1 = createPrimitive(client1);
+    TestPrimitive primitive2 = createPrimitive(client2);
+
+    // Submit commands concurrently from multiple sessions so that they're batched by the leader.
+    List<CompletableFuture<Long>> futures1 = new ArrayList<>();
+    List<CompletableFuture<Long>> futures2 = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      futures1.add(primitive1.write("Hello world!"));
+      futures2.add(primitive2.write("Hello world!"));
+    }
+
+    Set<Long> indexes = new HashSet<>();
+    for (List<CompletableFuture<Long>> futures : Arrays.asList(futures1, futures2)) {
+      long previousIndex = 0;
+      for (CompletableFuture<Long> future : futures) {
+        long index = future.get(30, TimeUnit.SECONDS);
+        assertTrue(index > previousIndex);
+        assertTrue(indexes.add(index));
+        previousIndex = index;
+      }
+    }
+    assertEquals(200, indexes.size());
+  }
+
   /**
    * Tests submitting a command.
    */
@@ -634,6 +732,22 @@ public class RaftTest extends ConcurrentTestCase {
     await(30000);
   }
 
+  /**
+   * Tests linearizable queries balanced across followers using the leader's read index.
+   */
+  @Test
+  public void testBalancedLinearizableQueries() throws Throwable {
+    createServers(3);
+
+    RaftClient client = createClient();
+    TestPrimitive primitive = createPrimitive(client, ReadConsistency.LINEARIZABLE, CommunicationStrategy.BALANCED);
+    for (int i = 0; i < 100; i++) {
+      long writeIndex = primitive.write("Hello world!").get(10, TimeUnit.SECONDS);
+      long readIndex = primitive.read().get(10, TimeUnit.SECONDS);
+      assertTrue(readIndex >= writeIndex);
+    }
+  }
+
   /**
    * Tests submitting a sequential event.
    */
@@ -1225,7 +1339,8 @@ public class RaftTest extends ConcurrentTestCase {
             .withMaxSegmentSize(1024 * 10)
             .withMaxEntriesPerSegment(10)
             .build())
-        .addPrimitiveType(TestPrimitiveType.INSTANCE);
+        .addPrimitiveType(TestPrimitiveType.INSTANCE)
+        .withSessionLeases(sessionLeases);
 
     RaftServer server = builder.build();
     servers.add(server);
@@ -1259,8 +1374,25 @@ public class RaftTest extends ConcurrentTestCase {
    * Creates a test session.
    */
   private PartitionProxy createSession(RaftClient client, ReadConsistency consistency) throws Exception {
-    return client.proxyBuilder("test", TestPrimitiveType.INSTANCE, new ServiceConfig())
+    return createSession(client, consistency, CommunicationStrategy.LEADER);
+  }
+
+  /**
+   * Creates a test session.
+   */
+  private PartitionProxy createSession(
+      RaftClient client, ReadConsistency consistency, CommunicationStrategy communicationStrategy) throws Exception {
+    return createSession(client, "test", consistency, communicationStrategy);
+  }
+
+  /**
+   * Creates a test session for the named service.
+   */
+  private PartitionProxy createSession(
+      RaftClient client, String name, ReadConsistency consistency, CommunicationStrategy communicationStrategy) throws Exception {
+    return client.proxyBuilder(name, TestPrimitiveType.INSTANCE, new ServiceConfig())
         .withReadConsistency(consistency)
+        .withCommunicationStrategy(communicationStrategy)
         .withMinTimeout(Duration.ofMillis(250))
         .withMaxTimeout(Duration.ofSeconds(5))
         .build()
@@ -1279,7 +1411,21 @@ public class RaftTest extends ConcurrentTestCase {
    * Creates a new primitive instance.
    */
   private TestPrimitive createPrimitive(RaftClient client, ReadConsistency consistency) throws Exception {
-    PartitionProxy partition = createSession(client, consistency);
+    return createPrimitive(client, consistency, CommunicationStrategy.LEADER);
+  }
+
+  /**
+   * Creates a new primitive instance.
+   */
+  private TestPrimitive createPrimitive(
+      RaftClient client, ReadConsistency consistency, CommunicationStrategy communicationStrategy) throws Exception {
+    return createPrimitive(createSession(client, consistency, communicationStrategy));
+  }
+
+  /**
+   * Creates a new primitive instance for the given session.
+   */
+  private TestPrimitive createPrimitive(PartitionProxy partition) throws Exception {
     PrimitiveProxy proxy = mock(PrimitiveProxy.class);
     when(proxy.type()).thenReturn(TestPrimitiveType.INSTANCE);
     when(proxy.getPartitions()).thenReturn(Collections.singletonList(partition));
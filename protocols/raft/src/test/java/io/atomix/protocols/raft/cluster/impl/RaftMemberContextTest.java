@@ -0,0 +1,146 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.protocols.raft.cluster.impl;
+
+import io.atomix.cluster.MemberId;
+import io.atomix.protocols.raft.RaftServer;
+import io.atomix.protocols.raft.cluster.RaftMember;
+import org.junit.Test;
+
+import java.time.Instant;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Raft member context test.
+ */
+public class RaftMemberContextTest {
+
+  /**
+   * Tests pipelining append requests within the append window.
+   */
+  @Test
+  public void testAppendWindow() throws Exception {
+    RaftMemberContext member = createMember();
+    assertTrue(member.canAppend(4));
+
+    // Only a single append may be in flight until an append to the member has succeeded.
+    member.startAppend();
+    assertFalse(member.canAppend(4));
+    member.completeAppend(0);
+    member.appendSucceeded();
+
+    // Once an append has succeeded, appends are pipelined up to the window size.
+    for (int i = 0; i < 4; i++) {
+      assertTrue(member.canAppend(4));
+      member.startAppend();
+    }
+    assertFalse(member.canAppend(4));
+
+    // Once an append has been rejected, no appends are sent until all in-flight appends have completed.
+    member.completeAppend(0);
+    member.appendFailed();
+    assertFalse(member.canAppend(4));
+    for (int i = 0; i < 3; i++) {
+      member.completeAppend(0);
+    }
+    assertTrue(member.canAppend(4));
+  }
+
+  /**
+   * Tests growing and shrinking the append batch size.
+   */
+  @Test
+  public void testAppendBatchSize() throws Exception {
+    RaftMemberContext member = createMember();
+    int minSize = RaftMemberContext.MIN_APPEND_BATCH_SIZE;
+    assertEquals(minSize, member.getAppendBatchSize());
+
+    member.growAppendBatchSize(minSize * 3);
+    assertEquals(minSize * 2, member.getAppendBatchSize());
+    member.growAppendBatchSize(minSize * 3);
+    assertEquals(minSize * 3, member.getAppendBatchSize());
+    member.growAppendBatchSize(minSize * 3);
+    assertEquals(minSize * 3, member.getAppendBatchSize());
+
+    member.shrinkAppendBatchSize();
+    assertEquals(minSize * 3 / 2, member.getAppendBatchSize());
+    member.shrinkAppendBatchSize();
+    assertEquals(minSize, member.getAppendBatchSize());
+
+    member.growAppendBatchSize(minSize * 3);
+    member.resetAppendBatchSize();
+    assertEquals(minSize, member.getAppendBatchSize());
+  }
+
+  /**
+   * Tests tracking append requests that filled the append batch.
+   */
+  @Test
+  public void testFilledAppendBatches() throws Exception {
+    RaftMemberContext member = createMember();
+    member.appendBatchFilled(10);
+    member.appendBatchFilled(20);
+    assertFalse(member.completeAppendBatch(5));
+    assertTrue(member.completeAppendBatch(10));
+    assertFalse(member.completeAppendBatch(10));
+
+    member.resetAppendBatchSize();
+    assertFalse(member.completeAppendBatch(20));
+  }
+
+  /**
+   * Tests that a maximum append batch size below the minimum batch size is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testMaxAppendBatchSizeBelowMinimum() throws Exception {
+    RaftServer.builder(MemberId.from("1")).withMaxAppendBatchSize(RaftMemberContext.MIN_APPEND_BATCH_SIZE - 1);
+  }
+
+  /**
+   * Tests growing the snapshot chunk size up to the configured maximum.
+   */
+  @Test
+  public void testSnapshotChunkSize() throws Exception {
+    RaftMemberContext member = createMember();
+    int minSize = RaftMemberContext.MIN_SNAPSHOT_CHUNK_SIZE;
+    assertEquals(minSize, member.getSnapshotChunkSize());
+
+    member.growSnapshotChunkSize(minSize * 3);
+    assertEquals(minSize * 2, member.getSnapshotChunkSize());
+    member.growSnapshotChunkSize(minSize * 3);
+    assertEquals(minSize * 3, member.getSnapshotChunkSize());
+    member.growSnapshotChunkSize(minSize * 3);
+    assertEquals(minSize * 3, member.getSnapshotChunkSize());
+
+    member.resetSnapshotChunkSize();
+    assertEquals(minSize, member.getSnapshotChunkSize());
+  }
+
+  /**
+   * Tests that a snapshot chunk size below the minimum chunk size is rejected.
+   */
+  @Test(expected = IllegalArgumentException.class)
+  public void testSnapshotChunkSizeBelowMinimum() throws Exception {
+    RaftServer.builder(MemberId.from("1")).withSnapshotChunkSize(RaftMemberContext.MIN_SNAPSHOT_CHUNK_SIZE - 1);
+  }
+
+  private RaftMemberContext createMember() {
+    return new RaftMemberContext(new DefaultRaftMember(MemberId.from("1"), RaftMember.Type.ACTIVE, Instant.now()), null);
+  }
+}
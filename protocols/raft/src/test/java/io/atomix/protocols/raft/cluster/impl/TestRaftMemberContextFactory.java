@@ -0,0 +1,40 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.protocols.raft.cluster.impl;
+
+import io.atomix.cluster.MemberId;
+import io.atomix.protocols.raft.cluster.RaftMember;
+
+import java.time.Instant;
+
+/**
+ * Test Raft member context factory.
+ */
+public final class TestRaftMemberContextFactory {
+
+  /**
+   * Returns a new member context for an active member that is not bound to a cluster.
+   *
+   * @param memberId the member identifier
+   * @return a new member context
+   */
+  public static RaftMemberContext newMemberContext(MemberId memberId) {
+    return new RaftMemberContext(new DefaultRaftMember(memberId, RaftMember.Type.ACTIVE, Instant.now()), null);
+  }
+
+  private TestRaftMemberContextFactory() {
+  }
+}
@@ -44,6 +44,7 @@ public class TestRaftServerProtocol extends TestRaftProtocol implements RaftServ
   private Function<ReconfigureRequest, CompletableFuture<ReconfigureResponse>> reconfigureHandler;
   private Function<InstallRequest, CompletableFuture<InstallResponse>> installHandler;
   private Function<TransferRequest, CompletableFuture<TransferResponse>> transferHandler;
+  private Function<ReadIndexRequest, CompletableFuture<ReadIndexResponse>> readIndexHandler;
   private Function<PollRequest, CompletableFuture<PollResponse>> pollHandler;
   private Function<VoteRequest, CompletableFuture<VoteResponse>> voteHandler;
   private Function<AppendRequest, CompletableFuture<AppendResponse>> appendHandler;
@@ -136,6 +137,11 @@ public class TestRaftServerProtocol extends TestRaftProtocol implements RaftServ
     return scheduleTimeout(getServer(memberId).thenCompose(listener -> listener.transfer(request)));
   }
 
+  @Override
+  public CompletableFuture<ReadIndexResponse> readIndex(MemberId memberId, ReadIndexRequest request) {
+    return scheduleTimeout(getServer(memberId).thenCompose(listener -> listener.readIndex(request)));
+  }
+
   @Override
   public CompletableFuture<PollResponse> poll(MemberId memberId, PollRequest request) {
     return scheduleTimeout(getServer(memberId).thenCompose(listener -> listener.poll(request)));
@@ -377,6 +383,24 @@ public class TestRaftServerProtocol extends TestRaftProtocol implements RaftServ
     this.transferHandler = null;
   }
 
+  CompletableFuture<ReadIndexResponse> readIndex(ReadIndexRequest request) {
+    if (readIndexHandler != null) {
+      return readIndexHandler.apply(request);
+    } else {
+      return Futures.exceptionalFuture(new ConnectException());
+    }
+  }
+
+  @Override
+  public void registerReadIndexHandler(Function<ReadIndexRequest, CompletableFuture<ReadIndexResponse>> handler) {
+    this.readIndexHandler = handler;
+  }
+
+  @Override
+  public void unregisterReadIndexHandler() {
+    this.readIndexHandler = null;
+  }
+
   CompletableFuture<PollResponse> poll(PollRequest request) {
     if (pollHandler != null) {
       return pollHandler.apply(request);
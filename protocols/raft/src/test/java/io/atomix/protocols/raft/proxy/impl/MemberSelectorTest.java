@@ -107,6 +107,24 @@ public class MemberSelectorTest {
     assertFalse(selector.hasNext());
   }
 
+  /**
+   * Tests selecting members using the BALANCED selector.
+   */
+  @Test
+  public void testSelectBalanced() throws Exception {
+    MemberSelectorManager selectorManager = new MemberSelectorManager();
+    MemberSelector selector = selectorManager.createSelector(CommunicationStrategy.BALANCED);
+    assertTrue(selector.strategy().isBalanced());
+
+    selectorManager.resetAll(MemberId.from("a"), Arrays.asList(MemberId.from("a"), MemberId.from("b"), MemberId.from("c")));
+    assertEquals(MemberId.from("a"), selector.leader());
+    assertTrue(selector.hasNext());
+    assertNotNull(selector.next());
+    assertNotNull(selector.next());
+    assertNotNull(selector.next());
+    assertFalse(selector.hasNext());
+  }
+
   /**
    * Tests the member selector.
    */
@@ -65,7 +65,7 @@ public class RaftProxyInvokerTest {
         .withResult("Hello world!".getBytes())
         .build()));
 
-    RaftProxyState state = new RaftProxyState("test", SessionId.from(1), UUID.randomUUID().toString(), new TestPrimitiveType(), 1000);
+    RaftProxyState state = new RaftProxyState("test", SessionId.from(1), 1, UUID.randomUUID().toString(), new TestPrimitiveType(), 1000);
     RaftProxyManager manager = mock(RaftProxyManager.class);
     ThreadContext threadContext = new TestContext();
 
@@ -89,7 +89,7 @@ public class RaftProxyInvokerTest {
       .thenReturn(future1)
       .thenReturn(future2);
 
-    RaftProxyState state = new RaftProxyState("test", SessionId.from(1), UUID.randomUUID().toString(), new TestPrimitiveType(), 1000);
+    RaftProxyState state = new RaftProxyState("test", SessionId.from(1), 1, UUID.randomUUID().toString(), new TestPrimitiveType(), 1000);
     RaftProxyManager manager = mock(RaftProxyManager.class);
     ThreadContext threadContext = new TestContext();
 
@@ -140,7 +140,7 @@ public class RaftProxyInvokerTest {
         .withResult("Hello world!".getBytes())
         .build()));
 
-    RaftProxyState state = new RaftProxyState("test", SessionId.from(1), UUID.randomUUID().toString(), new TestPrimitiveType(), 1000);
+    RaftProxyState state = new RaftProxyState("test", SessionId.from(1), 1, UUID.randomUUID().toString(), new TestPrimitiveType(), 1000);
     RaftProxyManager manager = mock(RaftProxyManager.class);
     ThreadContext threadContext = new TestContext();
 
@@ -162,7 +162,7 @@ public class RaftProxyInvokerTest {
       .thenReturn(future1)
       .thenReturn(future2);
 
-    RaftProxyState state = new RaftProxyState("test", SessionId.from(1), UUID.randomUUID().toString(), new TestPrimitiveType(), 1000);
+    RaftProxyState state = new RaftProxyState("test", SessionId.from(1), 1, UUID.randomUUID().toString(), new TestPrimitiveType(), 1000);
     RaftProxyManager manager = mock(RaftProxyManager.class);
     ThreadContext threadContext = new TestContext();
 
@@ -209,7 +209,7 @@ public class RaftProxyInvokerTest {
       .thenReturn(future1)
       .thenReturn(future2);
 
-    RaftProxyState state = new RaftProxyState("test", SessionId.from(1), UUID.randomUUID().toString(), new TestPrimitiveType(), 1000);
+    RaftProxyState state = new RaftProxyState("test", SessionId.from(1), 1, UUID.randomUUID().toString(), new TestPrimitiveType(), 1000);
     RaftProxyManager manager = mock(RaftProxyManager.class);
     ThreadContext threadContext = new TestContext();
 
@@ -247,7 +247,7 @@ public class RaftProxyInvokerTest {
     RaftProxyConnection connection = mock(RaftProxyConnection.class);
     Mockito.when(connection.command(any(CommandRequest.class))).thenReturn(future);
 
-    RaftProxyState state = new RaftProxyState("test", SessionId.from(1), UUID.randomUUID().toString(), new TestPrimitiveType(), 1000);
+    RaftProxyState state = new RaftProxyState("test", SessionId.from(1), 1, UUID.randomUUID().toString(), new TestPrimitiveType(), 1000);
     RaftProxyManager manager = mock(RaftProxyManager.class);
     ThreadContext threadContext = new TestContext();
 
@@ -275,7 +275,7 @@ public class RaftProxyInvokerTest {
     Mockito.when(connection.query(any(QueryRequest.class)))
       .thenReturn(future);
 
-    RaftProxyState state = new RaftProxyState("test", SessionId.from(1), UUID.randomUUID().toString(), new TestPrimitiveType(), 1000);
+    RaftProxyState state = new RaftProxyState("test", SessionId.from(1), 1, UUID.randomUUID().toString(), new TestPrimitiveType(), 1000);
     RaftProxyManager manager = mock(RaftProxyManager.class);
     ThreadContext threadContext = new TestContext();
 
@@ -43,7 +43,7 @@ public class RaftProxySequencerTest {
    */
   @Test
   public void testSequenceEventBeforeCommand() throws Throwable {
-    RaftProxySequencer sequencer = new RaftProxySequencer(new RaftProxyState("test", SessionId.from(1), UUID.randomUUID().toString(), new TestPrimitiveType(), 1000));
+    RaftProxySequencer sequencer = new RaftProxySequencer(new RaftProxyState("test", SessionId.from(1), 1, UUID.randomUUID().toString(), new TestPrimitiveType(), 1000));
     long sequence = sequencer.nextRequest();
 
     PublishRequest request = PublishRequest.builder()
@@ -70,7 +70,7 @@ public class RaftProxySequencerTest {
    */
   @Test
   public void testSequenceEventAfterCommand() throws Throwable {
-    RaftProxySequencer sequencer = new RaftProxySequencer(new RaftProxyState("test", SessionId.from(1), UUID.randomUUID().toString(), new TestPrimitiveType(), 1000));
+    RaftProxySequencer sequencer = new RaftProxySequencer(new RaftProxyState("test", SessionId.from(1), 1, UUID.randomUUID().toString(), new TestPrimitiveType(), 1000));
     long sequence = sequencer.nextRequest();
 
     PublishRequest request = PublishRequest.builder()
@@ -97,7 +97,7 @@ public class RaftProxySequencerTest {
    */
   @Test
   public void testSequenceEventAtCommand() throws Throwable {
-    RaftProxySequencer sequencer = new RaftProxySequencer(new RaftProxyState("test", SessionId.from(1), UUID.randomUUID().toString(), new TestPrimitiveType(), 1000));
+    RaftProxySequencer sequencer = new RaftProxySequencer(new RaftProxyState("test", SessionId.from(1), 1, UUID.randomUUID().toString(), new TestPrimitiveType(), 1000));
     long sequence = sequencer.nextRequest();
 
     PublishRequest request = PublishRequest.builder()
@@ -124,7 +124,7 @@ public class RaftProxySequencerTest {
    */
   @Test
   public void testSequenceEventAfterAllCommands() throws Throwable {
-    RaftProxySequencer sequencer = new RaftProxySequencer(new RaftProxyState("test", SessionId.from(1), UUID.randomUUID().toString(), new TestPrimitiveType(), 1000));
+    RaftProxySequencer sequencer = new RaftProxySequencer(new RaftProxyState("test", SessionId.from(1), 1, UUID.randomUUID().toString(), new TestPrimitiveType(), 1000));
     long sequence = sequencer.nextRequest();
 
     PublishRequest request1 = PublishRequest.builder()
@@ -159,7 +159,7 @@ public class RaftProxySequencerTest {
    */
   @Test
   public void testSequenceEventAbsentCommand() throws Throwable {
-    RaftProxySequencer sequencer = new RaftProxySequencer(new RaftProxyState("test", SessionId.from(1), UUID.randomUUID().toString(), new TestPrimitiveType(), 1000));
+    RaftProxySequencer sequencer = new RaftProxySequencer(new RaftProxyState("test", SessionId.from(1), 1, UUID.randomUUID().toString(), new TestPrimitiveType(), 1000));
 
     PublishRequest request1 = PublishRequest.builder()
         .withSession(1)
@@ -186,7 +186,7 @@ public class RaftProxySequencerTest {
    */
   @Test
   public void testSequenceResponses() throws Throwable {
-    RaftProxySequencer sequencer = new RaftProxySequencer(new RaftProxyState("test", SessionId.from(1), UUID.randomUUID().toString(), new TestPrimitiveType(), 1000));
+    RaftProxySequencer sequencer = new RaftProxySequencer(new RaftProxyState("test", SessionId.from(1), 1, UUID.randomUUID().toString(), new TestPrimitiveType(), 1000));
     long sequence1 = sequencer.nextRequest();
     long sequence2 = sequencer.nextRequest();
     assertTrue(sequence2 == sequence1 + 1);
@@ -35,7 +35,7 @@ public class RaftProxyStateTest {
   @Test
   public void testSessionStateDefaults() {
     String sessionName = UUID.randomUUID().toString();
-    RaftProxyState state = new RaftProxyState("test", SessionId.from(1), sessionName, new TestPrimitiveType(), 1000);
+    RaftProxyState state = new RaftProxyState("test", SessionId.from(1), 1, sessionName, new TestPrimitiveType(), 1000);
     assertEquals(state.getSessionId(), SessionId.from(1));
     assertEquals(state.getPrimitiveName(), sessionName);
     assertEquals(state.getPrimitiveType().id(), "test");
@@ -50,7 +50,7 @@ public class RaftProxyStateTest {
    */
   @Test
   public void testSessionState() {
-    RaftProxyState state = new RaftProxyState("test", SessionId.from(1), UUID.randomUUID().toString(), new TestPrimitiveType(), 1000);
+    RaftProxyState state = new RaftProxyState("test", SessionId.from(1), 1, UUID.randomUUID().toString(), new TestPrimitiveType(), 1000);
     assertEquals(state.getSessionId(), SessionId.from(1));
     assertEquals(state.getResponseIndex(), 1);
     assertEquals(state.getEventIndex(), 1);
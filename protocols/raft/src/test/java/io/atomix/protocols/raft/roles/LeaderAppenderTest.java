@@ -0,0 +1,95 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.protocols.raft.roles;
+
+import io.atomix.cluster.MemberId;
+import io.atomix.protocols.raft.cluster.impl.RaftMemberContext;
+import io.atomix.protocols.raft.cluster.impl.TestRaftMemberContextFactory;
+import io.atomix.protocols.raft.impl.RaftContext;
+import io.atomix.protocols.raft.protocol.AppendResponse;
+import io.atomix.protocols.raft.protocol.RaftResponse;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Leader appender test.
+ */
+public class LeaderAppenderTest {
+
+  /**
+   * Tests that entries are committed by a quorum of followers while the leader's flush lags.
+   */
+  @Test
+  public void testCommitWhileLeaderFlushLags() throws Exception {
+    // Three member cluster: the leader plus one follower form a quorum.
+    assertEquals(10, LeaderAppender.computeCommitIndex(0, new long[]{10, 10}, 0));
+    assertEquals(8, LeaderAppender.computeCommitIndex(5, new long[]{10, 8}, 0));
+    assertEquals(0, LeaderAppender.computeCommitIndex(0, new long[]{10, 0}, 0));
+
+    // Five member cluster: the leader plus two followers form a quorum.
+    assertEquals(10, LeaderAppender.computeCommitIndex(5, new long[]{10, 10, 10, 0}, 1));
+    assertEquals(5, LeaderAppender.computeCommitIndex(5, new long[]{10, 10, 0, 0}, 1));
+  }
+
+  /**
+   * Tests that the leader's flushed entries count towards the commit quorum.
+   */
+  @Test
+  public void testCommitWithLeaderFlushed() throws Exception {
+    assertEquals(10, LeaderAppender.computeCommitIndex(10, new long[]{10, 0}, 0));
+    assertEquals(7, LeaderAppender.computeCommitIndex(10, new long[]{7, 0}, 0));
+    assertEquals(10, LeaderAppender.computeCommitIndex(10, new long[]{12, 10, 0, 0}, 1));
+  }
+
+  /**
+   * Tests that pipelined append responses received out of order never move the match index backwards.
+   */
+  @Test
+  public void testReorderedAppendResponses() throws Exception {
+    RaftContext raft = mock(RaftContext.class);
+    when(raft.getName()).thenReturn("test");
+    AbstractAppender appender = new AbstractAppender(raft) {
+      @Override
+      protected void appendEntries(RaftMemberContext member) {
+      }
+
+      @Override
+      protected boolean hasMoreEntries(RaftMemberContext member) {
+        return false;
+      }
+    };
+
+    RaftMemberContext member = TestRaftMemberContextFactory.newMemberContext(MemberId.from("1"));
+
+    // Two pipelined requests were sent for entries 1-10 and 11-20, and their responses arrive in reverse order.
+    appender.updateMatchIndex(member, createAppendResponse(20));
+    assertEquals(20, member.getMatchIndex());
+    appender.updateMatchIndex(member, createAppendResponse(10));
+    assertEquals(20, member.getMatchIndex());
+  }
+
+  private AppendResponse createAppendResponse(long lastLogIndex) {
+    return AppendResponse.builder()
+        .withStatus(RaftResponse.Status.OK)
+        .withTerm(1)
+        .withSucceeded(true)
+        .withLastLogIndex(lastLogIndex)
+        .build();
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.protocols.raft.roles;
+
+import io.atomix.cluster.MemberId;
+import io.atomix.protocols.raft.cluster.RaftMember;
+import io.atomix.protocols.raft.cluster.impl.DefaultRaftMember;
+import io.atomix.protocols.raft.impl.RaftContext;
+import io.atomix.protocols.raft.protocol.InstallRequest;
+import io.atomix.protocols.raft.protocol.InstallResponse;
+import io.atomix.protocols.raft.protocol.RaftResponse;
+import io.atomix.protocols.raft.storage.RaftStorage;
+import io.atomix.protocols.raft.storage.snapshot.Snapshot;
+import io.atomix.protocols.raft.storage.snapshot.SnapshotReader;
+import io.atomix.protocols.raft.storage.snapshot.SnapshotStore;
+import io.atomix.storage.StorageLevel;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Passive role test.
+ */
+public class PassiveRoleTest {
+  private static final MemberId LEADER = MemberId.from("leader");
+
+  private SnapshotStore snapshotStore;
+  private PassiveRole role;
+
+  @Before
+  public void setupRole() throws Exception {
+    snapshotStore = new SnapshotStore(RaftStorage.builder()
+        .withPrefix("test")
+        .withStorageLevel(StorageLevel.MEMORY)
+        .build());
+
+    RaftContext raft = mock(RaftContext.class);
+    when(raft.getName()).thenReturn("test");
+    when(raft.getTerm()).thenReturn(1L);
+    when(raft.getLeader()).thenReturn(new DefaultRaftMember(LEADER, RaftMember.Type.ACTIVE, Instant.now()));
+    when(raft.getSnapshotStore()).thenReturn(snapshotStore);
+    role = new PassiveRole(raft);
+  }
+
+  /**
+   * Tests installing a snapshot from out-of-order, duplicate and overlapping chunks.
+   */
+  @Test
+  public void testInstallSnapshotChunks() throws Exception {
+    byte[] data = new byte[32];
+    for (int i = 0; i < data.length; i++) {
+      data[i] = (byte) i;
+    }
+
+    InstallResponse response = install(data, 0, 10, false);
+    assertEquals(RaftResponse.Status.OK, response.status());
+    assertEquals(10, response.nextOffset());
+
+    // A duplicate chunk is acknowledged without being written again.
+    response = install(data, 0, 10, false);
+    assertEquals(RaftResponse.Status.OK, response.status());
+    assertEquals(10, response.nextOffset());
+
+    // A chunk past the next offset is skipped and acknowledged with the offset from which to resume.
+    response = install(data, 20, 32, true);
+    assertEquals(RaftResponse.Status.OK, response.status());
+    assertEquals(10, response.nextOffset());
+    assertNull(snapshotStore.getSnapshot(1));
+
+    // Resuming from the next offset with an overlapping chunk only writes the missing bytes.
+    response = install(data, 5, 20, false);
+    assertEquals(RaftResponse.Status.OK, response.status());
+    assertEquals(20, response.nextOffset());
+
+    response = install(data, 20, 32, true);
+    assertEquals(RaftResponse.Status.OK, response.status());
+    assertEquals(32, response.nextOffset());
+
+    Snapshot snapshot = snapshotStore.getSnapshot(1);
+    assertNotNull(snapshot);
+    try (SnapshotReader reader = snapshot.openReader()) {
+      byte[] bytes = new byte[reader.remaining()];
+      reader.read(bytes);
+      assertArrayEquals(data, bytes);
+    }
+  }
+
+  /**
+   * Tests that a new snapshot must be installed from the first chunk.
+   */
+  @Test
+  public void testInstallSnapshotFromInvalidOffset() throws Exception {
+    byte[] data = new byte[32];
+    InstallResponse response = install(data, 10, 32, true);
+    assertEquals(RaftResponse.Status.OK, response.status());
+    assertEquals(0, response.nextOffset());
+    assertNull(snapshotStore.getSnapshot(1));
+  }
+
+  private InstallResponse install(byte[] data, int start, int end, boolean complete) throws Exception {
+    return role.onInstall(InstallRequest.builder()
+        .withTerm(1)
+        .withLeader(LEADER)
+        .withIndex(1)
+        .withTimestamp(System.currentTimeMillis())
+        .withOffset(start)
+        .withData(Arrays.copyOfRange(data, start, end))
+        .withComplete(complete)
+        .build())
+        .get();
+  }
+}
@@ -33,6 +33,7 @@ import org.junit.Test;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -50,15 +51,61 @@ public class RaftSessionRegistryTest {
     assertEquals(0, sessionManager.getSessions(PrimitiveId.from(1)).size());
     session.open();
     assertEquals(1, sessionManager.getSessions(PrimitiveId.from(1)).size());
-    sessionManager.removeSession(SessionId.from(1));
+    sessionManager.removeSession(SessionId.from(1), PrimitiveId.from(1));
     assertNull(sessionManager.getSession(1));
+    assertEquals(0, sessionManager.getRegisteredSessions(PrimitiveId.from(1)).size());
+  }
+
+  @Test
+  public void testServiceSessions() throws Exception {
+    RaftSessionRegistry sessionManager = new RaftSessionRegistry();
+    sessionManager.addSession(createSession(1, 1));
+    sessionManager.addSession(createSession(2, 1));
+    sessionManager.addSession(createSession(3, 2));
+    assertEquals(2, sessionManager.getRegisteredSessions(PrimitiveId.from(1)).size());
+    assertEquals(1, sessionManager.getRegisteredSessions(PrimitiveId.from(2)).size());
+
+    sessionManager.removeSessions(PrimitiveId.from(1));
+    assertNull(sessionManager.getSession(1));
+    assertNull(sessionManager.getSession(2));
+    assertNotNull(sessionManager.getSession(3));
+    assertEquals(0, sessionManager.getRegisteredSessions(PrimitiveId.from(1)).size());
+    assertEquals(1, sessionManager.getSessions().size());
+  }
+
+  @Test
+  public void testSharedSession() throws Exception {
+    RaftSessionRegistry sessionManager = new RaftSessionRegistry();
+    RaftSession session1 = createSession(1, 1);
+    RaftSession session2 = createSession(1, 2);
+    assertSame(session1, sessionManager.addSession(session1));
+    assertSame(session2, sessionManager.addSession(session2));
+    assertSame(session1, sessionManager.addSession(createSession(1, 1)));
+    assertEquals(2, sessionManager.getSessions(1).size());
+    assertSame(session1, sessionManager.getSession(1, 1));
+    assertSame(session2, sessionManager.getSession(1, 2));
+    assertNotNull(sessionManager.getSession(1, 0));
+    assertNull(sessionManager.getSession(1, 3));
+
+    sessionManager.removeSession(SessionId.from(1), PrimitiveId.from(1));
+    assertNull(sessionManager.getSession(1, 1));
+    assertSame(session2, sessionManager.getSession(1));
+    assertEquals(1, sessionManager.getRegisteredSessions(PrimitiveId.from(2)).size());
+
+    sessionManager.removeSession(SessionId.from(1), PrimitiveId.from(2));
+    assertNull(sessionManager.getSession(1));
+    assertEquals(0, sessionManager.getSessions().size());
   }
 
   private RaftSession createSession(long sessionId) {
+    return createSession(sessionId, 1);
+  }
+
+  private RaftSession createSession(long sessionId, long serviceId) {
     RaftServiceContext context = mock(RaftServiceContext.class);
     when(context.serviceType()).thenReturn(new TestPrimitiveType());
     when(context.serviceName()).thenReturn("test");
-    when(context.serviceId()).thenReturn(PrimitiveId.from(1));
+    when(context.serviceId()).thenReturn(PrimitiveId.from(serviceId));
 
     RaftContext server = mock(RaftContext.class);
     when(server.getProtocol()).thenReturn(mock(RaftServerProtocol.class));
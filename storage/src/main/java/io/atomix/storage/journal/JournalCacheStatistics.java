@@ -0,0 +1,92 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.storage.journal;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+/**
+ * Journal entry cache statistics.
+ * <p>
+ * Statistics are shared by the caches of all segments in a journal and record the number of reads that were served
+ * from the cache and the number of reads that had to be read from the segment. The hit rate can be used to size the
+ * journal cache via {@link SegmentedJournal.Builder#withCacheSize(int)}.
+ */
+public class JournalCacheStatistics {
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  /**
+   * Records a cache hit.
+   */
+  void hit() {
+    hits.increment();
+  }
+
+  /**
+   * Records a cache miss.
+   */
+  void miss() {
+    misses.increment();
+  }
+
+  /**
+   * Returns the number of reads served from the cache.
+   *
+   * @return the number of cache hits
+   */
+  public long hitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * Returns the number of reads that were not served from the cache.
+   *
+   * @return the number of cache misses
+   */
+  public long missCount() {
+    return misses.sum();
+  }
+
+  /**
+   * Returns the ratio of cache hits to total cache reads.
+   *
+   * @return the cache hit rate or {@code 0} if the cache has not been read
+   */
+  public double hitRate() {
+    long hits = hitCount();
+    long total = hits + missCount();
+    return total > 0 ? hits / (double) total : 0;
+  }
+
+  /**
+   * Resets the cache statistics.
+   */
+  public void reset() {
+    hits.reset();
+    misses.reset();
+  }
+
+  @Override
+  public String toString() {
+    return toStringHelper(this)
+        .add("hitCount", hitCount())
+        .add("missCount", missCount())
+        .add("hitRate", hitRate())
+        .toString();
+  }
+}
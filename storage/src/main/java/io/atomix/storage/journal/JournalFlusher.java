@@ -0,0 +1,316 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.storage.journal;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.atomix.utils.concurrent.Threads.namedThreads;
+
+/**
+ * Group commit journal flusher.
+ * <p>
+ * The flusher coalesces flush requests for a journal into batches and flushes each batch to disk with a single
+ * call to {@link JournalWriter#flush()} on a dedicated flusher thread. Requests are batched until either the
+ * configured maximum batch delay has elapsed since the first request in the batch or the batch reaches the
+ * configured maximum size. The future returned for each request is completed on the flusher thread once a
+ * flush covering the requested index has completed.
+ * <p>
+ * Requests made before the flusher is closed are flushed before {@link #close()} returns. Requests made after the
+ * flusher has been closed fail immediately.
+ */
+public class JournalFlusher implements AutoCloseable {
+  private static final FlushRequest CLOSE = new FlushRequest(0);
+
+  private final Logger log = LoggerFactory.getLogger(getClass());
+  private final JournalWriter<?> writer;
+  private final long maxBatchDelay;
+  private final int maxBatchSize;
+  private final BlockingQueue<FlushRequest> requests = new LinkedBlockingQueue<>();
+  private final Thread thread;
+  private volatile long flushedIndex;
+  private long resetCount;
+  private boolean open = true;
+
+  private volatile long flushCount;
+  private volatile long requestCount;
+  private volatile long totalFlushTime;
+  private volatile long maxFlushTime;
+  private volatile int lastBatchSize;
+
+  public JournalFlusher(String name, JournalWriter<?> writer, Duration maxBatchDelay, int maxBatchSize) {
+    checkNotNull(name, "name cannot be null");
+    checkNotNull(maxBatchDelay, "maxBatchDelay cannot be null");
+    checkArgument(!maxBatchDelay.isNegative(), "maxBatchDelay cannot be negative");
+    checkArgument(maxBatchSize > 0, "maxBatchSize must be positive");
+    this.writer = checkNotNull(writer, "writer cannot be null");
+    this.maxBatchDelay = maxBatchDelay.toNanos();
+    this.maxBatchSize = maxBatchSize;
+    this.thread = namedThreads(name + "-flusher", log).newThread(this::run);
+    this.thread.start();
+  }
+
+  /**
+   * Returns the highest index known to have been flushed to disk.
+   *
+   * @return the highest index known to have been flushed to disk
+   */
+  public long getFlushedIndex() {
+    return flushedIndex;
+  }
+
+  /**
+   * Requests a flush of all entries up to the given index.
+   * <p>
+   * This method must be called after the entry at the given index has been written to the journal.
+   *
+   * @param index the index up to which to flush the journal
+   * @return a future to be completed once entries up to the given index have been flushed to disk
+   */
+  public CompletableFuture<Long> flush(long index) {
+    if (index <= flushedIndex) {
+      return CompletableFuture.completedFuture(index);
+    }
+    FlushRequest request = new FlushRequest(index);
+
+    // Requests are enqueued while holding the lock so that none can be enqueued after the close request.
+    synchronized (this) {
+      if (!open) {
+        request.future.completeExceptionally(new IllegalStateException("flusher closed"));
+        return request.future;
+      }
+      requests.add(request);
+    }
+    return request.future;
+  }
+
+  /**
+   * Resets the flushed index after the journal has been truncated.
+   * <p>
+   * This method must be called when entries following the given index are removed from the journal, so entries
+   * subsequently written at those indexes are not considered flushed until they've been flushed again. A flush in
+   * progress when the flusher is reset will not advance the flushed index.
+   *
+   * @param index the index after which entries were removed from the journal
+   */
+  public synchronized void reset(long index) {
+    resetCount++;
+    if (index < flushedIndex) {
+      flushedIndex = index;
+    }
+  }
+
+  /**
+   * Returns the total number of flushes performed by the flusher.
+   *
+   * @return the total number of flushes performed
+   */
+  public long getFlushCount() {
+    return flushCount;
+  }
+
+  /**
+   * Returns the number of flush requests in the most recent batch.
+   *
+   * @return the number of flush requests in the most recent batch
+   */
+  public int getLastBatchSize() {
+    return lastBatchSize;
+  }
+
+  /**
+   * Returns the average number of flush requests completed by a single flush.
+   *
+   * @return the average flush batch size
+   */
+  public double getAverageBatchSize() {
+    long flushCount = this.flushCount;
+    return flushCount > 0 ? requestCount / (double) flushCount : 0;
+  }
+
+  /**
+   * Returns the average time taken to flush a batch to disk.
+   *
+   * @return the average flush latency
+   */
+  public Duration getAverageFlushLatency() {
+    long flushCount = this.flushCount;
+    return Duration.ofNanos(flushCount > 0 ? totalFlushTime / flushCount : 0);
+  }
+
+  /**
+   * Returns the maximum time taken to flush a batch to disk.
+   *
+   * @return the maximum flush latency
+   */
+  public Duration getMaxFlushLatency() {
+    return Duration.ofNanos(maxFlushTime);
+  }
+
+  /**
+   * Runs the flusher loop.
+   */
+  private void run() {
+    List<FlushRequest> batch = new ArrayList<>(maxBatchSize);
+    boolean running = true;
+    while (running) {
+      try {
+        FlushRequest first = requests.take();
+        if (first == CLOSE) {
+          break;
+        }
+        batch.add(first);
+
+        // Wait for more requests until the batch is full or the first request has waited the maximum delay.
+        long deadline = first.timestamp + maxBatchDelay;
+        while (batch.size() < maxBatchSize) {
+          long remaining = deadline - System.nanoTime();
+          if (remaining <= 0) {
+            break;
+          }
+          FlushRequest next = requests.poll(remaining, TimeUnit.NANOSECONDS);
+          if (next == null) {
+            break;
+          }
+          batch.add(next);
+          if (next == CLOSE) {
+            break;
+          }
+        }
+        requests.drainTo(batch, maxBatchSize - batch.size());
+
+        // The close request is always the last request in the queue, so once it has been dequeued all requests
+        // made before the flusher was closed are in this batch.
+        if (batch.remove(CLOSE)) {
+          running = false;
+        }
+        if (!batch.isEmpty()) {
+          flush(batch);
+        }
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        break;
+      } finally {
+        batch.clear();
+      }
+    }
+
+    // If the thread was interrupted, complete any requests that remain in the queue.
+    requests.drainTo(batch);
+    batch.remove(CLOSE);
+    if (!batch.isEmpty()) {
+      flush(batch);
+    }
+  }
+
+  /**
+   * Flushes the journal and completes the given batch of requests.
+   */
+  private void flush(List<FlushRequest> batch) {
+    long index = 0;
+    for (FlushRequest request : batch) {
+      index = Math.max(index, request.index);
+    }
+
+    long resetCount;
+    synchronized (this) {
+      resetCount = this.resetCount;
+    }
+
+    long startTime = System.nanoTime();
+    try {
+      if (index > flushedIndex) {
+        writer.flush();
+      }
+    } catch (Exception e) {
+      log.warn("Failed to flush journal", e);
+      for (FlushRequest request : batch) {
+        request.future.completeExceptionally(e);
+      }
+      return;
+    }
+    long flushTime = System.nanoTime() - startTime;
+
+    flushCount++;
+    requestCount += batch.size();
+    totalFlushTime += flushTime;
+    maxFlushTime = Math.max(maxFlushTime, flushTime);
+    lastBatchSize = batch.size();
+
+    // If the journal was truncated during the flush, entries rewritten after the truncation may not have been
+    // flushed, so the flushed index can only be advanced by a subsequent flush.
+    synchronized (this) {
+      if (resetCount == this.resetCount && index > flushedIndex) {
+        flushedIndex = index;
+      }
+    }
+    for (FlushRequest request : batch) {
+      request.future.complete(request.index);
+    }
+  }
+
+  @Override
+  public void close() {
+    // Enqueue a close request behind any pending requests. The flusher thread flushes the pending requests and
+    // exits once it reaches the close request.
+    synchronized (this) {
+      if (!open) {
+        return;
+      }
+      open = false;
+      requests.add(CLOSE);
+    }
+    try {
+      thread.join();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Override
+  public String toString() {
+    return toStringHelper(this)
+        .add("flushedIndex", flushedIndex)
+        .add("flushCount", flushCount)
+        .add("averageBatchSize", getAverageBatchSize())
+        .add("averageFlushLatency", getAverageFlushLatency())
+        .toString();
+  }
+
+  /**
+   * Flush request.
+   */
+  private static class FlushRequest {
+    private final long index;
+    private final long timestamp = System.nanoTime();
+    private final CompletableFuture<Long> future = new CompletableFuture<>();
+
+    FlushRequest(long index) {
+      this.index = index;
+    }
+  }
+}
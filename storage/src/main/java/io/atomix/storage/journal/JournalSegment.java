@@ -16,8 +16,9 @@
 package io.atomix.storage.journal;
 
 import io.atomix.utils.serializer.Serializer;
-import io.atomix.storage.journal.index.JournalIndex;
-import io.atomix.storage.journal.index.SparseJournalIndex;
+import io.atomix.storage.journal.index.DenseJournalIndex;
+
+import java.io.File;
 
 import static com.google.common.base.MoreObjects.toStringHelper;
 import static com.google.common.base.Preconditions.checkState;
@@ -32,19 +33,55 @@ public class JournalSegment<E> implements AutoCloseable {
 
   protected final JournalSegmentFile file;
   protected final JournalSegmentDescriptor descriptor;
-  protected final JournalIndex index;
+  protected final DenseJournalIndex index;
   protected final Serializer serializer;
+  private final boolean persistIndex;
   private final JournalSegmentWriter<E> writer;
   private final JournalSegmentCache cache;
+  private boolean sealed;
   private boolean open = true;
 
-  public JournalSegment(JournalSegmentFile file, JournalSegmentDescriptor descriptor, double indexDensity, int cacheSize, Serializer serializer) {
+  public JournalSegment(
+      JournalSegmentFile file,
+      JournalSegmentDescriptor descriptor,
+      double indexDensity,
+      boolean persistIndex,
+      int cacheSize,
+      Serializer serializer) {
+    this(file, descriptor, indexDensity, persistIndex, cacheSize, new JournalCacheStatistics(), serializer);
+  }
+
+  public JournalSegment(
+      JournalSegmentFile file,
+      JournalSegmentDescriptor descriptor,
+      double indexDensity,
+      boolean persistIndex,
+      int cacheSize,
+      JournalCacheStatistics cacheStatistics,
+      Serializer serializer) {
     this.file = file;
     this.descriptor = descriptor;
-    this.index = new SparseJournalIndex(indexDensity);
+    this.index = new DenseJournalIndex(descriptor.index(), indexDensity);
+    this.persistIndex = persistIndex;
+    if (persistIndex) {
+      // If the segment was sealed, load the persisted index to allow the writer to locate the end of the segment
+      // without scanning it. If the sidecar file is missing or invalid, the segment is scanned.
+      sealed = index.load(file.indexFile());
+    } else {
+      // If index persistence was disabled, any existing sidecar file may become stale.
+      deleteIndex();
+    }
+    long sealedIndex = index.lastIndex();
     this.serializer = serializer;
-    this.cache = new JournalSegmentCache(descriptor.index(), cacheSize);
+    this.cache = new JournalSegmentCache(descriptor.index(), cacheSize, cacheStatistics);
     this.writer = new JournalSegmentWriter<>(descriptor, cache, index, serializer);
+
+    // If the last entry recorded in the sidecar file could not be verified, the writer rebuilt the index by
+    // scanning the segment. Discard the stale sidecar file.
+    if (sealed && writer.getLastIndex() != sealedIndex) {
+      deleteIndex();
+      sealed = false;
+    }
   }
 
   /**
@@ -157,6 +194,44 @@ public class JournalSegment<E> implements AutoCloseable {
     return new JournalSegmentReader<>(descriptor, cache, index, serializer);
   }
 
+  /**
+   * Returns a boolean indicating whether the segment is sealed.
+   * <p>
+   * A sealed segment has a persisted index describing the entries in the segment and must not be modified until
+   * it's {@link #unseal() unsealed}.
+   *
+   * @return indicates whether the segment is sealed
+   */
+  public boolean isSealed() {
+    return sealed;
+  }
+
+  /**
+   * Seals the segment.
+   * <p>
+   * The segment is flushed to disk and its index, including the position of the last entry in the segment, is
+   * persisted to the segment's sidecar index file.
+   */
+  void seal() {
+    checkOpen();
+    if (persistIndex && !sealed) {
+      writer.flush();
+      index.persist(file.indexFile());
+      sealed = true;
+    }
+  }
+
+  /**
+   * Unseals the segment, deleting the sidecar index file before the segment is modified.
+   */
+  void unseal() {
+    checkOpen();
+    if (sealed) {
+      deleteIndex();
+      sealed = false;
+    }
+  }
+
   /**
    * Checks whether the segment is open.
    */
@@ -178,6 +253,9 @@ public class JournalSegment<E> implements AutoCloseable {
    */
   @Override
   public void close() {
+    if (open) {
+      seal();
+    }
     writer.close();
     descriptor.close();
     open = false;
@@ -188,6 +266,17 @@ public class JournalSegment<E> implements AutoCloseable {
    */
   public void delete() {
     writer.delete();
+    deleteIndex();
+  }
+
+  /**
+   * Deletes the segment's sidecar index file if it exists.
+   */
+  private void deleteIndex() {
+    File indexFile = file.indexFile();
+    if (indexFile.exists()) {
+      indexFile.delete();
+    }
   }
 
   @Override
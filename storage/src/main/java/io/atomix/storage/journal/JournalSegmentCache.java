@@ -15,37 +15,65 @@
  */
 package io.atomix.storage.journal;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import static com.google.common.base.MoreObjects.toStringHelper;
 
 /**
  * Journal segment cache.
+ * <p>
+ * The cache stores the most recently written entries in a fixed-capacity ring buffer. The slot for each entry is
+ * computed from the entry's offset from the first index in the segment, so reads, writes and truncations are constant
+ * time. The cache always holds a contiguous range of indexes.
  */
 class JournalSegmentCache {
+  private final long segmentIndex;
   private final int size;
-  private final Map<Long, Indexed> entries;
-  private long firstIndex;
+  private final Indexed[] entries;
+  private final JournalCacheStatistics statistics;
+  private volatile long firstIndex;
+  private volatile long nextIndex;
 
   JournalSegmentCache(long index, int size) {
+    this(index, size, new JournalCacheStatistics());
+  }
+
+  JournalSegmentCache(long index, int size, JournalCacheStatistics statistics) {
+    this.segmentIndex = index;
     this.size = size;
-    this.entries = new HashMap<>(size);
+    this.entries = new Indexed[size];
+    this.statistics = statistics;
     this.firstIndex = index;
+    this.nextIndex = index;
+  }
+
+  /**
+   * Returns the slot for the given index.
+   */
+  private int slot(long index) {
+    return (int) ((index - segmentIndex) % size);
   }
 
   /**
    * Adds an entry to the cache.
+   * <p>
+   * If the entry does not immediately follow the last entry in the cache, the cache is reset to begin at the entry.
    *
    * @param indexed the entry to add to the cache
    */
   public void put(Indexed indexed) {
-    if (indexed.index() == firstIndex + entries.size()) {
-      entries.put(indexed.index(), indexed);
+    if (size == 0) {
+      return;
     }
-    if (entries.size() > size) {
-      entries.remove(firstIndex);
-      firstIndex++;
+
+    final long index = indexed.index();
+    entries[slot(index)] = indexed;
+    if (index == nextIndex) {
+      nextIndex = index + 1;
+      if (nextIndex - firstIndex > size) {
+        firstIndex = nextIndex - size;
+      }
+    } else {
+      firstIndex = index;
+      nextIndex = index + 1;
     }
   }
 
@@ -56,7 +84,16 @@ class JournalSegmentCache {
    * @return the indexed entry
    */
   public Indexed get(long index) {
-    return entries.get(index);
+    if (index >= firstIndex && index < nextIndex) {
+      // Verify the index of the entry in case the slot was overwritten by a concurrent write.
+      Indexed entry = entries[slot(index)];
+      if (entry != null && entry.index() == index) {
+        statistics.hit();
+        return entry;
+      }
+    }
+    statistics.miss();
+    return null;
   }
 
   /**
@@ -67,12 +104,9 @@ class JournalSegmentCache {
   public void truncate(long index) {
     if (index < firstIndex) {
       firstIndex = index + 1;
-      entries.clear();
-    } else {
-      int size = entries.size();
-      for (long i = index + 1; i < firstIndex + size; i++) {
-        entries.remove(i);
-      }
+      nextIndex = index + 1;
+    } else if (index < nextIndex) {
+      nextIndex = index + 1;
     }
   }
 
@@ -80,6 +114,8 @@ class JournalSegmentCache {
   public String toString() {
     return toStringHelper(this)
         .add("size", size)
+        .add("firstIndex", firstIndex)
+        .add("nextIndex", nextIndex)
         .toString();
   }
 }
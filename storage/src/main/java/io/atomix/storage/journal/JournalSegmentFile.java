@@ -28,6 +28,7 @@ public final class JournalSegmentFile {
   private static final char PART_SEPARATOR = '-';
   private static final char EXTENSION_SEPARATOR = '.';
   private static final String EXTENSION = "log";
+  private static final String INDEX_EXTENSION = "idx";
   private final File file;
 
   /**
@@ -69,6 +70,19 @@ public final class JournalSegmentFile {
     return fileName.startsWith(journalName);
   }
 
+  /**
+   * Returns a boolean value indicating whether the given file appears to be a segment index file.
+   *
+   * @param journalName the name of the journal
+   * @param file the file to check
+   * @throws NullPointerException if {@code file} is null
+   */
+  public static boolean isIndexFile(String journalName, File file) {
+    checkNotNull(journalName, "journalName cannot be null");
+    String fileName = checkNotNull(file, "file cannot be null").getName();
+    return fileName.startsWith(journalName) && fileName.endsWith(EXTENSION_SEPARATOR + INDEX_EXTENSION);
+  }
+
   /**
    * Creates a segment file for the given directory, log name, segment ID, and segment version.
    */
@@ -91,4 +105,18 @@ public final class JournalSegmentFile {
   public File file() {
     return file;
   }
+
+  /**
+   * Returns the sidecar index file for the segment.
+   *
+   * @return The segment index file.
+   */
+  public File indexFile() {
+    String name = file.getName();
+    int extensionSeparator = name.lastIndexOf(EXTENSION_SEPARATOR);
+    if (extensionSeparator != -1) {
+      name = name.substring(0, extensionSeparator);
+    }
+    return new File(file.getParentFile(), name + EXTENSION_SEPARATOR + INDEX_EXTENSION);
+  }
 }
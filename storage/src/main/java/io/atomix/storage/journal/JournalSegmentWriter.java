@@ -17,14 +17,17 @@ package io.atomix.storage.journal;
 
 import io.atomix.utils.serializer.Serializer;
 import io.atomix.storage.buffer.Buffer;
+import io.atomix.storage.buffer.ByteBufferBytes;
+import io.atomix.storage.buffer.Bytes;
 import io.atomix.storage.buffer.FileBuffer;
-import io.atomix.storage.buffer.HeapBuffer;
 import io.atomix.storage.buffer.MappedBuffer;
 import io.atomix.storage.buffer.SlicedBuffer;
 import io.atomix.storage.journal.index.JournalIndex;
+import io.atomix.storage.journal.index.Position;
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.util.zip.CRC32;
-import java.util.zip.Checksum;
 
 /**
  * Segment writer.
@@ -38,16 +41,25 @@ import java.util.zip.Checksum;
  * <li>8-bit signed entry type ID</li>
  * <li>n-bit entry bytes</li>
  * </ul>
+ * <p>
+ * When the segment is backed by a {@link ByteBufferBytes} instance (i.e. memory mapped or heap segments), entries
+ * are serialized directly into the segment after a reserved length/checksum header, and the header is written once
+ * the entry has been serialized. Other segments serialize entries into a reusable in-memory buffer before copying
+ * them into the segment.
  *
  * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
  */
 public class JournalSegmentWriter<E> implements JournalWriter<E> {
+  private static final int ENTRY_HEADER_BYTES = Bytes.INTEGER + Bytes.INTEGER;
+  private static final int DEFAULT_MEMORY_SIZE = 1024 * 8;
+
   private final JournalSegmentDescriptor descriptor;
   private final JournalSegmentCache cache;
   private final JournalIndex index;
   private final Buffer buffer;
   private final Serializer serializer;
-  private final HeapBuffer memory = HeapBuffer.allocate();
+  private final CRC32 crc32 = new CRC32();
+  private ByteBuffer memory = ByteBuffer.allocate(DEFAULT_MEMORY_SIZE);
   private final long firstIndex;
   private Indexed<E> lastEntry;
 
@@ -67,10 +79,19 @@ public class JournalSegmentWriter<E> implements JournalWriter<E> {
   @SuppressWarnings("unchecked")
   private void reset(long index) {
     long nextIndex = firstIndex;
+    lastEntry = null;
 
     // Clear the buffer indexes.
     buffer.clear();
 
+    // If the index contains the position of an entry at or before the given index, begin reading from that
+    // entry rather than scanning the segment from the beginning.
+    final Position indexed = this.index.lookup(index == 0 ? Long.MAX_VALUE : index);
+    if (indexed != null) {
+      nextIndex = indexed.index();
+      buffer.position(indexed.position());
+    }
+
     // Record the current buffer position.
     int position = buffer.position();
 
@@ -83,17 +104,18 @@ public class JournalSegmentWriter<E> implements JournalWriter<E> {
       // Read the checksum of the entry.
       final long checksum = buffer.readUnsignedInt();
 
-      // Read the entry into memory.
-      buffer.read(memory.clear().limit(length));
-      memory.flip();
+      // Read a view of the entry bytes.
+      final ByteBuffer bytes = readEntry(length);
 
       // Compute the checksum for the entry bytes.
-      final Checksum crc32 = new CRC32();
-      crc32.update(memory.array(), 0, length);
+      crc32.reset();
+      bytes.mark();
+      crc32.update(bytes);
+      bytes.reset();
 
       // If the stored checksum equals the computed checksum, return the entry.
       if (checksum == crc32.getValue()) {
-        final E entry = serializer.decode(memory.array());
+        final E entry = serializer.decode(bytes);
         lastEntry = new Indexed<>(nextIndex, entry, length);
         this.index.index(nextIndex, position);
         nextIndex++;
@@ -108,6 +130,43 @@ public class JournalSegmentWriter<E> implements JournalWriter<E> {
 
     // Reset the buffer to the previous mark.
     buffer.reset();
+
+    // If the indexed entry could not be read, the index is invalid. Rebuild it from the start of the segment.
+    if (indexed != null && (lastEntry == null || lastEntry.index() < indexed.index())) {
+      this.index.truncate(firstIndex - 1);
+      reset(index);
+    }
+  }
+
+  /**
+   * Reads the entry of the given length at the current buffer position.
+   * <p>
+   * If the segment is backed by a {@link ByteBuffer}, the returned buffer is a view of the segment bytes. Otherwise,
+   * the entry is copied into the reusable in-memory buffer.
+   *
+   * @param length the length of the entry to read
+   * @return a buffer positioned at the start of the entry and limited to its end
+   */
+  private ByteBuffer readEntry(int length) {
+    final int position = buffer.position();
+
+    // Advance the buffer past the entry, ensuring the underlying bytes are large enough to hold it.
+    buffer.position(position + length);
+
+    if (buffer.bytes() instanceof ByteBufferBytes) {
+      final int offset = buffer.offset() + position;
+      final ByteBuffer bytes = ((ByteBufferBytes) buffer.bytes()).byteBuffer().duplicate();
+      bytes.clear();
+      bytes.limit(offset + length).position(offset);
+      return bytes;
+    }
+
+    if (memory.capacity() < length) {
+      memory = ByteBuffer.allocate(length);
+    }
+    memory.clear().limit(length);
+    buffer.read(position, memory.array(), 0, length);
+    return memory;
   }
 
   @Override
@@ -187,22 +246,13 @@ public class JournalSegmentWriter<E> implements JournalWriter<E> {
     // Store the entry index.
     final long index = getNextIndex();
 
-    // Serialize the entry.
-    final byte[] bytes = serializer.encode(entry);
-    final int length = bytes.length;
-
-    // Compute the checksum for the entry.
-    final Checksum crc32 = new CRC32();
-    crc32.update(bytes, 0, length);
-    final long checksum = crc32.getValue();
-
     // Record the current buffer position;
-    int position = buffer.position();
+    final int position = buffer.position();
 
-    // Write the entry length and entry to the segment.
-    buffer.writeInt(length)
-        .writeUnsignedInt(checksum)
-        .write(bytes);
+    // Serialize the entry and write the entry length and checksum to the segment.
+    final int length = buffer.bytes() instanceof ByteBufferBytes
+        ? appendDirect(entry, position)
+        : appendMemory(entry);
 
     // Update the last entry with the correct index/term/length.
     Indexed<E> indexedEntry = new Indexed<>(index, entry, length);
@@ -212,6 +262,89 @@ public class JournalSegmentWriter<E> implements JournalWriter<E> {
     return (Indexed<T>) indexedEntry;
   }
 
+  /**
+   * Serializes the given entry directly into the segment's underlying {@link ByteBuffer}.
+   * <p>
+   * The entry is written after a reserved header, and the length and checksum are written to the header once the
+   * entry has been serialized. Until the header is written, the zeroed length marks the end of the segment.
+   *
+   * @param entry the entry to write
+   * @param position the position at which to write the entry
+   * @return the length of the serialized entry
+   */
+  private int appendDirect(Object entry, int position) {
+    final int offset = buffer.offset() + position + ENTRY_HEADER_BYTES;
+
+    // Ensure the underlying bytes are large enough to hold the entry header.
+    if (position + ENTRY_HEADER_BYTES > buffer.capacity()) {
+      buffer.capacity(position + ENTRY_HEADER_BYTES);
+    }
+
+    ByteBuffer bytes;
+    for (;;) {
+      bytes = ((ByteBufferBytes) buffer.bytes()).byteBuffer().duplicate();
+      bytes.clear().position(offset);
+      try {
+        serializer.encode(entry, bytes);
+        break;
+      } catch (BufferOverflowException e) {
+        // If the entry did not fit in the underlying bytes, expand the buffer and try again.
+        final int capacity = bytes.capacity() - buffer.offset();
+        if (capacity >= buffer.maxCapacity()) {
+          throw e;
+        }
+        buffer.capacity((int) Math.min(buffer.maxCapacity(), (long) capacity * 2));
+      }
+    }
+
+    final int length = bytes.position() - offset;
+
+    // Compute the checksum over the written region.
+    bytes.limit(offset + length).position(offset);
+    crc32.reset();
+    crc32.update(bytes);
+
+    // Advance the buffer past the entry and patch the entry header.
+    buffer.position(position + ENTRY_HEADER_BYTES + length);
+    buffer.writeInt(position, length)
+        .writeUnsignedInt(position + Bytes.INTEGER, crc32.getValue());
+    return length;
+  }
+
+  /**
+   * Serializes the given entry into the reusable in-memory buffer and copies it into the segment.
+   *
+   * @param entry the entry to write
+   * @return the length of the serialized entry
+   */
+  private int appendMemory(Object entry) {
+    for (;;) {
+      memory.clear();
+      try {
+        serializer.encode(entry, memory);
+        break;
+      } catch (BufferOverflowException e) {
+        // If the entry did not fit in memory, expand the memory buffer and try again.
+        if (memory.capacity() >= buffer.maxCapacity()) {
+          throw e;
+        }
+        memory = ByteBuffer.allocate((int) Math.min(buffer.maxCapacity(), (long) memory.capacity() * 2));
+      }
+    }
+
+    final int length = memory.position();
+
+    // Compute the checksum for the entry.
+    crc32.reset();
+    crc32.update(memory.array(), 0, length);
+
+    // Write the entry length and entry to the segment.
+    buffer.writeInt(length)
+        .writeUnsignedInt(crc32.getValue())
+        .write(memory.array(), 0, length);
+    return length;
+  }
+
   @Override
   @SuppressWarnings("unchecked")
   public void truncate(long index) {
@@ -67,7 +67,9 @@ public class SegmentedJournal<E> implements Journal<E> {
   private final int maxSegmentSize;
   private final int maxEntriesPerSegment;
   private final double indexDensity;
+  private final boolean persistentIndex;
   private final int cacheSize;
+  private final JournalCacheStatistics cacheStatistics = new JournalCacheStatistics();
 
   private final NavigableMap<Long, JournalSegment<E>> segments = new ConcurrentSkipListMap<>();
   private final Collection<SegmentedJournalReader<E>> readers = Sets.newConcurrentHashSet();
@@ -84,6 +86,7 @@ public class SegmentedJournal<E> implements Journal<E> {
       int maxSegmentSize,
       int maxEntriesPerSegment,
       double indexDensity,
+      boolean persistentIndex,
       int cacheSize) {
     this.name = checkNotNull(name, "name cannot be null");
     this.storageLevel = checkNotNull(storageLevel, "storageLevel cannot be null");
@@ -92,6 +95,7 @@ public class SegmentedJournal<E> implements Journal<E> {
     this.maxSegmentSize = maxSegmentSize;
     this.maxEntriesPerSegment = maxEntriesPerSegment;
     this.indexDensity = indexDensity;
+    this.persistentIndex = persistentIndex;
     this.cacheSize = cacheSize;
     open();
     this.writer = openWriter();
@@ -154,6 +158,18 @@ public class SegmentedJournal<E> implements Journal<E> {
     return maxEntriesPerSegment;
   }
 
+  /**
+   * Returns the journal entry cache statistics.
+   * <p>
+   * The statistics record cache hits and misses for reads from all segments in the journal and can be used to size
+   * the journal cache.
+   *
+   * @return The journal entry cache statistics.
+   */
+  public JournalCacheStatistics cacheStatistics() {
+    return cacheStatistics;
+  }
+
   /**
    * Opens a new journal writer.
    *
@@ -375,7 +391,14 @@ public class SegmentedJournal<E> implements Journal<E> {
    * @return The segment instance.
    */
   protected JournalSegment<E> newSegment(JournalSegmentFile segmentFile, JournalSegmentDescriptor descriptor) {
-    return new JournalSegment<>(segmentFile, descriptor, indexDensity, cacheSize, serializer);
+    return new JournalSegment<>(
+        segmentFile,
+        descriptor,
+        indexDensity,
+        persistentIndex && storageLevel != StorageLevel.MEMORY,
+        cacheSize,
+        cacheStatistics,
+        serializer);
   }
 
   /**
@@ -667,6 +690,7 @@ public class SegmentedJournal<E> implements Journal<E> {
     private static final int DEFAULT_MAX_SEGMENT_SIZE = 1024 * 1024 * 32;
     private static final int DEFAULT_MAX_ENTRIES_PER_SEGMENT = 1024 * 1024;
     private static final double DEFAULT_INDEX_DENSITY = .005;
+    private static final boolean DEFAULT_PERSISTENT_INDEX = false;
     private static final int DEFAULT_CACHE_SIZE = 1024;
 
     protected String name = DEFAULT_NAME;
@@ -676,6 +700,7 @@ public class SegmentedJournal<E> implements Journal<E> {
     protected int maxSegmentSize = DEFAULT_MAX_SEGMENT_SIZE;
     protected int maxEntriesPerSegment = DEFAULT_MAX_ENTRIES_PER_SEGMENT;
     protected double indexDensity = DEFAULT_INDEX_DENSITY;
+    protected boolean persistentIndex = DEFAULT_PERSISTENT_INDEX;
     protected int cacheSize = DEFAULT_CACHE_SIZE;
 
     protected Builder() {
@@ -788,18 +813,48 @@ public class SegmentedJournal<E> implements Journal<E> {
      * Sets the journal index density.
      * <p>
      * The index density is the frequency at which the position of entries written to the journal will be recorded in
-     * an in-memory index for faster seeking.
+     * an in-memory index for faster seeking. A density of {@code 1} indexes every entry.
      *
      * @param indexDensity the index density
      * @return the journal builder
      * @throws IllegalArgumentException if the density is not between 0 and 1
      */
     public Builder<E> withIndexDensity(double indexDensity) {
-      checkArgument(indexDensity > 0 && indexDensity < 1, "index density must be between 0 and 1");
+      checkArgument(indexDensity > 0 && indexDensity <= 1, "index density must be between 0 and 1");
       this.indexDensity = indexDensity;
       return this;
     }
 
+    /**
+     * Enables persisting segment indexes to disk, returning the builder for method chaining.
+     * <p>
+     * When index persistence is enabled, each segment's index is written to a sidecar file when the segment is
+     * sealed, i.e. when the journal rolls over to a new segment, and when the journal is closed. On recovery, a
+     * sealed segment is trusted once its last entry has been verified against the sidecar file, so only the
+     * active tail segment needs to be scanned after a crash.
+     *
+     * @return the journal builder
+     */
+    public Builder<E> withPersistentIndex() {
+      return withPersistentIndex(true);
+    }
+
+    /**
+     * Sets whether to persist segment indexes to disk, returning the builder for method chaining.
+     * <p>
+     * When index persistence is enabled, each segment's index is written to a sidecar file when the segment is
+     * sealed, i.e. when the journal rolls over to a new segment, and when the journal is closed. On recovery, a
+     * sealed segment is trusted once its last entry has been verified against the sidecar file, so only the
+     * active tail segment needs to be scanned after a crash.
+     *
+     * @param persistentIndex whether to persist segment indexes to disk
+     * @return the journal builder
+     */
+    public Builder<E> withPersistentIndex(boolean persistentIndex) {
+      this.persistentIndex = persistentIndex;
+      return this;
+    }
+
     /**
      * Sets the journal cache size.
      *
@@ -820,7 +875,16 @@ public class SegmentedJournal<E> implements Journal<E> {
      */
     @Override
     public SegmentedJournal<E> build() {
-      return new SegmentedJournal<>(name, storageLevel, directory, serializer, maxSegmentSize, maxEntriesPerSegment, indexDensity, cacheSize);
+      return new SegmentedJournal<>(
+          name,
+          storageLevel,
+          directory,
+          serializer,
+          maxSegmentSize,
+          maxEntriesPerSegment,
+          indexDensity,
+          persistentIndex,
+          cacheSize);
     }
   }
 }
\ No newline at end of file
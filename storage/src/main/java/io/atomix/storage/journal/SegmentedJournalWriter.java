@@ -19,17 +19,23 @@ import java.nio.BufferOverflowException;
 
 /**
  * Log writer.
+ * <p>
+ * Entries must be appended, truncated and reset by a single thread, but {@link #flush()} may be called concurrently
+ * from another thread such as a {@link JournalFlusher}. Flushes are serialized with operations that switch, close or
+ * remove the current segment, so a flush always targets an open segment. Segments are flushed before they're
+ * replaced by the next segment, so flushing the current segment flushes all entries written before the flush.
  *
  * @author <a href="http://github.com/kuujo">Jordan Halterman</a>
  */
 public class SegmentedJournalWriter<E> implements JournalWriter<E> {
   private final SegmentedJournal<E> journal;
   private JournalSegment<E> currentSegment;
-  private JournalSegmentWriter<E> currentWriter;
+  private volatile JournalSegmentWriter<E> currentWriter;
 
   public SegmentedJournalWriter(SegmentedJournal<E> journal) {
     this.journal = journal;
     this.currentSegment = journal.getLastSegment();
+    this.currentSegment.unseal();
     this.currentWriter = currentSegment.writer();
   }
 
@@ -53,7 +59,7 @@ public class SegmentedJournalWriter<E> implements JournalWriter<E> {
    *
    * @param index the index to which to reset the head of the journal
    */
-  public void reset(long index) {
+  public synchronized void reset(long index) {
     currentWriter.close();
     currentSegment = journal.resetSegments(index);
     currentWriter = currentSegment.writer();
@@ -64,18 +70,14 @@ public class SegmentedJournalWriter<E> implements JournalWriter<E> {
   public <T extends E> Indexed<T> append(T entry) {
     try {
       if (currentWriter.isFull()) {
-        currentWriter.flush();
-        currentSegment = journal.getNextSegment();
-        currentWriter = currentSegment.writer();
+        nextSegment();
       }
       return currentWriter.append(entry);
     } catch (BufferOverflowException e) {
       if (currentWriter.firstIndex() == currentWriter.getNextIndex()) {
         throw e;
       }
-      currentWriter.flush();
-      currentSegment = journal.getNextSegment();
-      currentWriter = currentSegment.writer();
+      nextSegment();
       return currentWriter.append(entry);
     }
   }
@@ -84,24 +86,30 @@ public class SegmentedJournalWriter<E> implements JournalWriter<E> {
   public void append(Indexed<E> entry) {
     try {
       if (currentWriter.isFull()) {
-        currentWriter.flush();
-        currentSegment = journal.getNextSegment();
-        currentWriter = currentSegment.writer();
+        nextSegment();
       }
       currentWriter.append(entry);
     } catch (BufferOverflowException e) {
       if (currentWriter.firstIndex() == currentWriter.getNextIndex()) {
         throw e;
       }
-      currentWriter.flush();
-      currentSegment = journal.getNextSegment();
-      currentWriter = currentSegment.writer();
+      nextSegment();
       currentWriter.append(entry);
     }
   }
 
+  /**
+   * Seals the current segment and rolls over to the next segment.
+   */
+  private synchronized void nextSegment() {
+    currentWriter.flush();
+    currentSegment.seal();
+    currentSegment = journal.getNextSegment();
+    currentWriter = currentSegment.writer();
+  }
+
   @Override
-  public void truncate(long index) {
+  public synchronized void truncate(long index) {
     // Delete all segments with first indexes greater than the given index.
     while (index < currentWriter.firstIndex() - 1) {
       currentWriter.close();
@@ -110,6 +118,9 @@ public class SegmentedJournalWriter<E> implements JournalWriter<E> {
       currentWriter = currentSegment.writer();
     }
 
+    // If the truncation moved back into a sealed segment, unseal it before modifying it.
+    currentSegment.unseal();
+
     // Truncate the current index.
     currentWriter.truncate(index);
 
@@ -118,12 +129,12 @@ public class SegmentedJournalWriter<E> implements JournalWriter<E> {
   }
 
   @Override
-  public void flush() {
+  public synchronized void flush() {
     currentWriter.flush();
   }
 
   @Override
-  public void close() {
+  public synchronized void close() {
     currentWriter.close();
   }
 }
\ No newline at end of file
@@ -0,0 +1,254 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.storage.journal.index;
+
+import io.atomix.storage.StorageException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+import static com.google.common.base.MoreObjects.toStringHelper;
+
+/**
+ * Dense segment index.
+ * <p>
+ * The dense index stores positions in a primitive, append-only array, where the slot for each indexed entry is
+ * computed from the entry's offset from the first index in the segment. Lookups and truncations are constant time,
+ * and truncation simply resets the index's high-water mark.
+ * <p>
+ * In addition to the sampled positions, the index tracks the exact position of the last indexed entry. Lookups at
+ * or beyond the last entry resolve to that position, allowing the end of a segment to be located without scanning.
+ * <p>
+ * The index can be persisted to and loaded from a sidecar file to avoid rebuilding the index when a segment is
+ * reopened.
+ * <p>
+ * The index is written by a single segment writer but may be read concurrently by segment readers. The position of
+ * the last entry is published as a single immutable {@link Position} so readers never observe an index and position
+ * from different entries, and a slot is always written (and the array grown) before {@code size} is published.
+ */
+public class DenseJournalIndex implements JournalIndex {
+  private static final int MIN_DENSITY = 1000;
+  private static final int INITIAL_CAPACITY = 64;
+  private static final int VERSION = 2;
+
+  private final long firstIndex;
+  private final int density;
+  private volatile int[] positions = new int[INITIAL_CAPACITY];
+  private volatile int size;
+  private volatile Position last;
+
+  public DenseJournalIndex(long firstIndex, double density) {
+    this.firstIndex = firstIndex;
+    this.density = (int) Math.ceil(MIN_DENSITY / (density * MIN_DENSITY));
+  }
+
+  /**
+   * Returns the number of positions stored in the index.
+   *
+   * @return the number of positions stored in the index
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Returns the index of the last entry whose position is known to the index.
+   *
+   * @return the last indexed entry index or {@code firstIndex - 1} if the last entry is unknown
+   */
+  public long lastIndex() {
+    Position last = this.last;
+    return last != null ? last.index() : firstIndex - 1;
+  }
+
+  @Override
+  public void index(long index, int position) {
+    long offset = index - firstIndex;
+    if (offset < 0) {
+      return;
+    }
+
+    // Always track the last entry so the end of the segment can be found without a scan.
+    last = new Position(index, position);
+
+    if (offset % density != 0) {
+      return;
+    }
+
+    // Positions must be indexed sequentially. If a slot would be skipped, ignore the position.
+    int slot = (int) (offset / density);
+    if (slot > size) {
+      return;
+    }
+
+    // Write the slot before publishing the grown array and the new size to readers.
+    int[] positions = this.positions;
+    if (slot == positions.length) {
+      positions = Arrays.copyOf(positions, positions.length * 2);
+      positions[slot] = position;
+      this.positions = positions;
+    } else {
+      positions[slot] = position;
+    }
+    size = slot + 1;
+  }
+
+  @Override
+  public Position lookup(long index) {
+    long offset = index - firstIndex;
+    if (offset < 0) {
+      return null;
+    }
+    Position last = this.last;
+    if (last != null && index >= last.index()) {
+      return last;
+    }
+    // Read the size before the array so the array is at least as new as the size.
+    int size = this.size;
+    if (size == 0) {
+      return null;
+    }
+    int[] positions = this.positions;
+    int slot = (int) Math.min(offset / density, size - 1);
+    return new Position(firstIndex + (long) slot * density, positions[slot]);
+  }
+
+  @Override
+  public void truncate(long index) {
+    long offset = index - firstIndex;
+    if (offset < 0) {
+      size = 0;
+    } else {
+      size = (int) Math.min(size, offset / density + 1);
+    }
+
+    // The position of the new last entry is unknown until it's indexed again.
+    Position last = this.last;
+    if (last != null && index < last.index()) {
+      this.last = null;
+    }
+  }
+
+  /**
+   * Writes the index to the given file.
+   * <p>
+   * The index is written to a temporary file which is then atomically moved to the given file.
+   *
+   * @param file the file to which to write the index
+   * @throws StorageException if the index cannot be written
+   */
+  public void persist(File file) {
+    File tempFile = new File(file.getParentFile(), file.getName() + ".tmp");
+    CRC32 checksum = new CRC32();
+    try (DataOutputStream output = new DataOutputStream(new CheckedOutputStream(
+        new BufferedOutputStream(new FileOutputStream(tempFile)), checksum))) {
+      output.writeInt(VERSION);
+      output.writeLong(firstIndex);
+      output.writeInt(density);
+      Position last = this.last;
+      int size = this.size;
+      int[] positions = this.positions;
+      output.writeLong(last != null ? last.index() : firstIndex - 1);
+      output.writeInt(last != null ? last.position() : 0);
+      output.writeInt(size);
+      for (int i = 0; i < size; i++) {
+        output.writeInt(positions[i]);
+      }
+      output.flush();
+      output.writeLong(checksum.getValue());
+    } catch (IOException e) {
+      throw new StorageException(e);
+    }
+
+    try {
+      Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException e) {
+      throw new StorageException(e);
+    }
+  }
+
+  /**
+   * Loads the index from the given file.
+   * <p>
+   * If the file does not exist or does not contain a valid index for this segment, the index is left unchanged.
+   *
+   * @param file the file from which to load the index
+   * @return indicates whether the index was loaded
+   */
+  public boolean load(File file) {
+    if (!file.exists()) {
+      return false;
+    }
+
+    CRC32 checksum = new CRC32();
+    try (DataInputStream input = new DataInputStream(new CheckedInputStream(
+        new BufferedInputStream(new FileInputStream(file)), checksum))) {
+      if (input.readInt() != VERSION || input.readLong() != firstIndex || input.readInt() != density) {
+        return false;
+      }
+
+      long lastIndex = input.readLong();
+      int lastPosition = input.readInt();
+      if (lastIndex < firstIndex - 1 || lastPosition < 0) {
+        return false;
+      }
+
+      int size = input.readInt();
+      if (size < 0 || size > file.length() / Integer.BYTES) {
+        return false;
+      }
+
+      int[] positions = new int[Math.max(INITIAL_CAPACITY, Integer.highestOneBit(Math.max(size, 1)) << 1)];
+      for (int i = 0; i < size; i++) {
+        positions[i] = input.readInt();
+      }
+
+      long value = checksum.getValue();
+      if (input.readLong() != value) {
+        return false;
+      }
+
+      this.positions = positions;
+      this.size = size;
+      this.last = lastIndex >= firstIndex ? new Position(lastIndex, lastPosition) : null;
+      return true;
+    } catch (IOException e) {
+      return false;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return toStringHelper(this)
+        .add("firstIndex", firstIndex)
+        .add("density", density)
+        .add("size", size)
+        .add("lastIndex", lastIndex())
+        .toString();
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.storage.journal;
+
+import io.atomix.storage.StorageLevel;
+import io.atomix.utils.serializer.KryoNamespace;
+import io.atomix.utils.serializer.Serializer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Journal flusher test.
+ */
+public class JournalFlusherTest {
+  private static final Path PATH = Paths.get("target/test-logs/");
+  private static final Serializer serializer = Serializer.using(KryoNamespace.builder()
+      .register(TestEntry.class)
+      .register(byte[].class)
+      .build());
+
+  private SegmentedJournal<TestEntry> createJournal() {
+    return SegmentedJournal.<TestEntry>builder()
+        .withName("test")
+        .withDirectory(PATH.toFile())
+        .withSerializer(serializer)
+        .withStorageLevel(StorageLevel.DISK)
+        .build();
+  }
+
+  @Test
+  public void testGroupCommit() throws Exception {
+    SegmentedJournal<TestEntry> journal = createJournal();
+    JournalFlusher flusher = new JournalFlusher("test", journal.writer(), Duration.ofMillis(100), 10);
+
+    List<CompletableFuture<Long>> futures = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      long index = journal.writer().append(new TestEntry(32)).index();
+      futures.add(flusher.flush(index));
+    }
+
+    for (int i = 0; i < futures.size(); i++) {
+      assertEquals(i + 1, futures.get(i).get(10, TimeUnit.SECONDS).longValue());
+    }
+    assertEquals(10, flusher.getFlushedIndex());
+    assertTrue(flusher.getFlushCount() > 0);
+    assertTrue(flusher.getAverageBatchSize() >= 1);
+    assertEquals(10, flusher.flush(10).getNow(0L).longValue());
+
+    flusher.close();
+    journal.close();
+  }
+
+  @Test
+  public void testResetAfterTruncate() throws Exception {
+    SegmentedJournal<TestEntry> journal = createJournal();
+    JournalFlusher flusher = new JournalFlusher("test", journal.writer(), Duration.ZERO, 10);
+
+    for (int i = 0; i < 10; i++) {
+      journal.writer().append(new TestEntry(32));
+    }
+    assertEquals(10, flusher.flush(10).get(10, TimeUnit.SECONDS).longValue());
+    assertEquals(10, flusher.getFlushedIndex());
+
+    // Truncated indexes must not be considered flushed once they've been rewritten.
+    journal.writer().truncate(5);
+    flusher.reset(5);
+    assertEquals(5, flusher.getFlushedIndex());
+
+    long flushCount = flusher.getFlushCount();
+    assertEquals(6, journal.writer().append(new TestEntry(32)).index());
+    CompletableFuture<Long> future = flusher.flush(6);
+    assertEquals(6, future.get(10, TimeUnit.SECONDS).longValue());
+    assertEquals(flushCount + 1, flusher.getFlushCount());
+    assertEquals(6, flusher.getFlushedIndex());
+
+    flusher.close();
+    journal.close();
+  }
+
+  @Test
+  public void testCloseCompletesPendingFlushes() throws Exception {
+    SegmentedJournal<TestEntry> journal = createJournal();
+    JournalFlusher flusher = new JournalFlusher("test", journal.writer(), Duration.ofSeconds(30), 10);
+
+    for (int i = 0; i < 5; i++) {
+      journal.writer().append(new TestEntry(32));
+    }
+
+    // Requests made before the flusher is closed are flushed by the time it has been closed.
+    CompletableFuture<Long> future = flusher.flush(5);
+    flusher.close();
+    assertTrue(future.isDone());
+    assertEquals(5, future.getNow(0L).longValue());
+    assertEquals(5, flusher.getFlushedIndex());
+
+    // Requests made after the flusher has been closed fail immediately.
+    journal.writer().append(new TestEntry(32));
+    CompletableFuture<Long> closedFuture = flusher.flush(6);
+    assertTrue(closedFuture.isCompletedExceptionally());
+
+    flusher.close();
+    journal.close();
+  }
+
+  @Before
+  @After
+  public void cleanupStorage() throws IOException {
+    if (Files.exists(PATH)) {
+      Files.walkFileTree(PATH, new SimpleFileVisitor<Path>() {
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+          Files.delete(file);
+          return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+          Files.delete(dir);
+          return FileVisitResult.CONTINUE;
+        }
+      });
+    }
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * Copyright 2017-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.storage.journal;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Journal segment cache test.
+ */
+public class JournalSegmentCacheTest {
+  @Test
+  public void testCacheEviction() throws Exception {
+    JournalCacheStatistics statistics = new JournalCacheStatistics();
+    JournalSegmentCache cache = new JournalSegmentCache(1, 4, statistics);
+    assertNull(cache.get(1));
+    for (int i = 1; i <= 6; i++) {
+      cache.put(new Indexed<>(i, new TestEntry(32), 32));
+    }
+    assertNull(cache.get(1));
+    assertNull(cache.get(2));
+    assertEquals(3, cache.get(3).index());
+    assertEquals(6, cache.get(6).index());
+    assertNull(cache.get(7));
+    assertEquals(2, statistics.hitCount());
+    assertEquals(4, statistics.missCount());
+    assertEquals(1 / 3d, statistics.hitRate(), .001);
+  }
+
+  @Test
+  public void testCacheTruncate() throws Exception {
+    JournalSegmentCache cache = new JournalSegmentCache(1, 4);
+    for (int i = 1; i <= 4; i++) {
+      cache.put(new Indexed<>(i, new TestEntry(32), 32));
+    }
+    cache.truncate(2);
+    assertEquals(2, cache.get(2).index());
+    assertNull(cache.get(3));
+
+    Indexed<TestEntry> entry = new Indexed<>(3, new TestEntry(32), 32);
+    cache.put(entry);
+    assertSame(entry, cache.get(3));
+    assertNull(cache.get(4));
+
+    cache.truncate(0);
+    assertNull(cache.get(1));
+    assertNull(cache.get(3));
+  }
+
+  @Test
+  public void testCacheReset() throws Exception {
+    JournalSegmentCache cache = new JournalSegmentCache(1, 4);
+    cache.put(new Indexed<>(1, new TestEntry(32), 32));
+    cache.put(new Indexed<>(10, new TestEntry(32), 32));
+    assertNull(cache.get(1));
+    assertEquals(10, cache.get(10).index());
+  }
+
+  @Test
+  public void testEmptyCache() throws Exception {
+    JournalSegmentCache cache = new JournalSegmentCache(1, 0);
+    cache.put(new Indexed<>(1, new TestEntry(32), 32));
+    assertNull(cache.get(1));
+  }
+}
@@ -22,6 +22,7 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.io.File;
 import java.io.IOException;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
@@ -178,6 +179,119 @@ public class JournalTest {
     assertFalse(reader.hasNext());
   }
 
+  @Test
+  public void testWriteRecoverMapped() throws Exception {
+    testWriteRecover(StorageLevel.MAPPED);
+  }
+
+  @Test
+  public void testWriteRecoverDisk() throws Exception {
+    testWriteRecover(StorageLevel.DISK);
+  }
+
+  private void testWriteRecover(StorageLevel storageLevel) throws Exception {
+    SegmentedJournal<TestEntry> journal = createJournal(storageLevel);
+    JournalWriter<TestEntry> writer = journal.writer();
+    writer.append(new TestEntry(32));
+    writer.append(new TestEntry(1024 * 128));
+    writer.append(new TestEntry(32));
+    writer.flush();
+    journal.close();
+
+    journal = createJournal(storageLevel);
+    assertEquals(3, journal.writer().getLastIndex());
+    JournalReader<TestEntry> reader = journal.openReader(1);
+    assertEquals(1, reader.next().index());
+    assertEquals(2, reader.next().index());
+    assertEquals(3, reader.next().index());
+    assertFalse(reader.hasNext());
+
+    journal.writer().append(new TestEntry(32));
+    assertEquals(4, reader.next().index());
+    journal.close();
+  }
+
+  @Test
+  public void testPersistentIndex() throws Exception {
+    SegmentedJournal<TestEntry> journal = SegmentedJournal.<TestEntry>builder()
+        .withName("test")
+        .withDirectory(PATH.toFile())
+        .withSerializer(serializer)
+        .withStorageLevel(StorageLevel.DISK)
+        .withIndexDensity(1)
+        .withPersistentIndex()
+        .build();
+    for (int i = 0; i < 100; i++) {
+      journal.writer().append(new TestEntry(32));
+    }
+    journal.close();
+    assertTrue(JournalSegmentFile.isIndexFile("test", new File(PATH.toFile(), "test-1.idx")));
+    assertTrue(new File(PATH.toFile(), "test-1.idx").exists());
+
+    journal = SegmentedJournal.<TestEntry>builder()
+        .withName("test")
+        .withDirectory(PATH.toFile())
+        .withSerializer(serializer)
+        .withStorageLevel(StorageLevel.DISK)
+        .withIndexDensity(1)
+        .withPersistentIndex()
+        .build();
+    assertFalse(new File(PATH.toFile(), "test-1.idx").exists());
+    assertEquals(100, journal.writer().getLastIndex());
+    JournalReader<TestEntry> reader = journal.openReader(50);
+    assertEquals(50, reader.next().index());
+
+    journal.writer().truncate(75);
+    assertEquals(75, journal.writer().getLastIndex());
+    assertEquals(76, journal.writer().append(new TestEntry(32)).index());
+    journal.close();
+  }
+
+  @Test
+  public void testSealedSegments() throws Exception {
+    SegmentedJournal<TestEntry> journal = createSealedJournal();
+    for (int i = 0; i < 35; i++) {
+      journal.writer().append(new TestEntry(32));
+    }
+    assertTrue(new File(PATH.toFile(), "test-1.idx").exists());
+    assertTrue(new File(PATH.toFile(), "test-3.idx").exists());
+    assertFalse(new File(PATH.toFile(), "test-4.idx").exists());
+    journal.close();
+    assertTrue(new File(PATH.toFile(), "test-4.idx").exists());
+
+    journal = createSealedJournal();
+    assertTrue(new File(PATH.toFile(), "test-3.idx").exists());
+    assertFalse(new File(PATH.toFile(), "test-4.idx").exists());
+    assertEquals(35, journal.writer().getLastIndex());
+    JournalReader<TestEntry> reader = journal.openReader(5);
+    for (int i = 5; i <= 35; i++) {
+      assertEquals(i, reader.next().index());
+    }
+    assertFalse(reader.hasNext());
+
+    journal.writer().truncate(15);
+    assertTrue(new File(PATH.toFile(), "test-1.idx").exists());
+    assertFalse(new File(PATH.toFile(), "test-2.idx").exists());
+    assertFalse(new File(PATH.toFile(), "test-3.idx").exists());
+    assertEquals(16, journal.writer().append(new TestEntry(32)).index());
+    journal.close();
+
+    journal = createSealedJournal();
+    assertEquals(16, journal.writer().getLastIndex());
+    journal.close();
+  }
+
+  private SegmentedJournal<TestEntry> createSealedJournal() {
+    return SegmentedJournal.<TestEntry>builder()
+        .withName("test")
+        .withDirectory(PATH.toFile())
+        .withSerializer(serializer)
+        .withStorageLevel(StorageLevel.DISK)
+        .withMaxEntriesPerSegment(10)
+        .withPersistentIndex()
+        .build();
+  }
+
   @Before
   @After
   public void cleanupStorage() throws IOException {
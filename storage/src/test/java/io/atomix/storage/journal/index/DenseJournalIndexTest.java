@@ -0,0 +1,115 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.storage.journal.index;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Dense journal index test.
+ */
+public class DenseJournalIndexTest {
+  @Test
+  public void testDenseJournalIndex() throws Exception {
+    JournalIndex index = new DenseJournalIndex(1, 1);
+    assertNull(index.lookup(1));
+    index.index(1, 2);
+    assertEquals(1, index.lookup(1).index());
+    assertEquals(2, index.lookup(1).position());
+    index.index(2, 4);
+    index.index(3, 6);
+    assertEquals(3, index.lookup(3).index());
+    assertEquals(6, index.lookup(3).position());
+    assertEquals(3, index.lookup(10).index());
+    index.truncate(2);
+    assertEquals(2, index.lookup(3).index());
+    assertEquals(4, index.lookup(3).position());
+    index.index(3, 8);
+    assertEquals(8, index.lookup(3).position());
+    index.truncate(0);
+    assertNull(index.lookup(1));
+  }
+
+  @Test
+  public void testSparseDenseJournalIndex() throws Exception {
+    JournalIndex index = new DenseJournalIndex(101, .2);
+    assertNull(index.lookup(100));
+    index.index(101, 2);
+    assertNull(index.lookup(100));
+    index.index(102, 4);
+    index.index(103, 6);
+    index.index(104, 8);
+    index.index(105, 10);
+    assertEquals(101, index.lookup(104).index());
+    assertEquals(2, index.lookup(104).position());
+    assertEquals(105, index.lookup(105).index());
+    assertEquals(10, index.lookup(105).position());
+    index.index(106, 12);
+    index.index(107, 14);
+    index.index(108, 16);
+    assertEquals(106, index.lookup(107).index());
+    assertEquals(12, index.lookup(107).position());
+    assertEquals(108, index.lookup(200).index());
+    assertEquals(16, index.lookup(200).position());
+    index.index(109, 18);
+    index.index(110, 20);
+    index.index(111, 22);
+    assertEquals(111, index.lookup(111).index());
+    assertEquals(22, index.lookup(111).position());
+    index.truncate(110);
+    assertEquals(106, index.lookup(110).index());
+    assertEquals(12, index.lookup(111).position());
+    index.truncate(104);
+    assertEquals(101, index.lookup(108).index());
+    index.truncate(100);
+    assertNull(index.lookup(101));
+  }
+
+  @Test
+  public void testPersistIndex() throws Exception {
+    File directory = Files.createTempDirectory("atomix-index").toFile();
+    File file = new File(directory, "test-1.idx");
+    try {
+      DenseJournalIndex index = new DenseJournalIndex(1, 1);
+      for (int i = 1; i <= 1000; i++) {
+        index.index(i, i * 10);
+      }
+      index.persist(file);
+
+      DenseJournalIndex loaded = new DenseJournalIndex(1, 1);
+      assertTrue(loaded.load(file));
+      assertEquals(1000, loaded.size());
+      assertEquals(500, loaded.lookup(500).index());
+      assertEquals(5000, loaded.lookup(500).position());
+      assertEquals(1000, loaded.lastIndex());
+      assertEquals(10000, loaded.lookup(Long.MAX_VALUE).position());
+
+      assertFalse(new DenseJournalIndex(2, 1).load(file));
+      assertFalse(new DenseJournalIndex(1, .5).load(file));
+      assertFalse(new DenseJournalIndex(1, 1).load(new File(directory, "missing.idx")));
+    } finally {
+      file.delete();
+      directory.delete();
+    }
+  }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.cluster.messaging.test;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import io.atomix.cluster.messaging.MessagingConfig;
+import io.atomix.cluster.messaging.MessagingService;
+import io.atomix.cluster.messaging.impl.NettyMessagingService;
+import io.atomix.utils.net.Address;
+import io.netty.channel.epoll.Epoll;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+
+/**
+ * Messaging transport performance test.
+ * <p>
+ * Sends messages between two messaging services over the loopback interface and reports the request latency and
+ * throughput for each available transport.
+ */
+public class MessagingPerformanceTest implements Runnable {
+
+  private static final MessagingConfig.TransportType[] TRANSPORTS = new MessagingConfig.TransportType[]{
+      MessagingConfig.TransportType.NIO,
+      MessagingConfig.TransportType.EPOLL
+  };
+
+  private static final int PAYLOAD_SIZE = 128;
+  private static final int WARMUP_OPERATIONS = 10000;
+  private static final int LATENCY_OPERATIONS = 100000;
+  private static final int THROUGHPUT_OPERATIONS = 1000000;
+  private static final int MAX_OUTSTANDING_REQUESTS = 1000;
+  private static final String SUBJECT = "echo";
+
+  private int port = 6000;
+
+  /**
+   * Runs the test.
+   */
+  public static void main(String[] args) {
+    new MessagingPerformanceTest().run();
+  }
+
+  @Override
+  public void run() {
+    for (MessagingConfig.TransportType transport : TRANSPORTS) {
+      if (transport == MessagingConfig.TransportType.EPOLL && !Epoll.isAvailable()) {
+        System.out.println(String.format("transport: %s, unavailable: %s", transport, Epoll.unavailabilityCause()));
+        continue;
+      }
+
+      try {
+        runTransport(transport);
+      } catch (Exception e) {
+        e.printStackTrace();
+      }
+    }
+  }
+
+  /**
+   * Runs the test for the given transport.
+   */
+  private void runTransport(MessagingConfig.TransportType transport) throws Exception {
+    Address serverAddress = Address.from("localhost", ++port);
+    Address clientAddress = Address.from("localhost", ++port);
+    NettyMessagingService server = createService(serverAddress, transport);
+    NettyMessagingService client = createService(clientAddress, transport);
+    try {
+      server.registerHandler(SUBJECT, (BiFunction<Address, byte[], byte[]>) (address, payload) -> payload, MoreExecutors.directExecutor());
+
+      byte[] payload = new byte[PAYLOAD_SIZE];
+      for (int i = 0; i < WARMUP_OPERATIONS; i++) {
+        client.sendAndReceive(serverAddress, SUBJECT, payload).join();
+      }
+
+      long[] latencies = measureLatency(client, serverAddress, payload);
+      long throughput = measureThroughput(client, serverAddress, payload);
+      System.out.println(String.format("transport: %s, p50: %dus, p99: %dus, p999: %dus, throughput: %d ops/sec",
+          transport,
+          TimeUnit.NANOSECONDS.toMicros(percentile(latencies, .5)),
+          TimeUnit.NANOSECONDS.toMicros(percentile(latencies, .99)),
+          TimeUnit.NANOSECONDS.toMicros(percentile(latencies, .999)),
+          throughput));
+    } finally {
+      client.stop().join();
+      server.stop().join();
+    }
+  }
+
+  /**
+   * Creates a messaging service using the given transport.
+   */
+  private NettyMessagingService createService(Address address, MessagingConfig.TransportType transport) {
+    return (NettyMessagingService) NettyMessagingService.builder()
+        .withAddress(address)
+        .withMessagingConfig(new MessagingConfig()
+            .setTransportType(transport)
+            .setTcpQuickAck(transport == MessagingConfig.TransportType.EPOLL))
+        .build()
+        .start()
+        .join();
+  }
+
+  /**
+   * Sends requests one at a time, returning the sorted latency of each request in nanoseconds.
+   */
+  private long[] measureLatency(MessagingService client, Address address, byte[] payload) {
+    long[] latencies = new long[LATENCY_OPERATIONS];
+    for (int i = 0; i < LATENCY_OPERATIONS; i++) {
+      long startTime = System.nanoTime();
+      client.sendAndReceive(address, SUBJECT, payload).join();
+      latencies[i] = System.nanoTime() - startTime;
+    }
+    Arrays.sort(latencies);
+    return latencies;
+  }
+
+  /**
+   * Sends requests with a bounded number of outstanding requests, returning the number of requests per second.
+   */
+  private long measureThroughput(MessagingService client, Address address, byte[] payload) throws InterruptedException {
+    Semaphore permits = new Semaphore(MAX_OUTSTANDING_REQUESTS);
+    long startTime = System.nanoTime();
+    for (int i = 0; i < THROUGHPUT_OPERATIONS; i++) {
+      permits.acquire();
+      CompletableFuture<byte[]> future = client.sendAndReceive(address, SUBJECT, payload);
+      future.whenComplete((result, error) -> permits.release());
+    }
+    permits.acquire(MAX_OUTSTANDING_REQUESTS);
+    long time = System.nanoTime() - startTime;
+    return (long) (THROUGHPUT_OPERATIONS / (time / (double) TimeUnit.SECONDS.toNanos(1)));
+  }
+
+  /**
+   * Returns the given percentile of the given sorted latencies.
+   */
+  private long percentile(long[] latencies, double percentile) {
+    return latencies[Math.min(latencies.length - 1, (int) (latencies.length * percentile))];
+  }
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.protocols.raft.test;
+
+import com.google.common.collect.Maps;
+import io.atomix.cluster.MemberId;
+import io.atomix.primitive.proxy.PartitionProxy;
+import io.atomix.primitive.service.ServiceConfig;
+import io.atomix.protocols.raft.RaftClient;
+import io.atomix.protocols.raft.RaftServer;
+import io.atomix.protocols.raft.storage.RaftStorage;
+import io.atomix.protocols.raft.test.protocol.LocalRaftProtocolFactory;
+import io.atomix.storage.StorageLevel;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static io.atomix.primitive.operation.PrimitiveOperation.operation;
+
+/**
+ * Raft commit latency test.
+ * <p>
+ * Runs a sequential write workload against a three node cluster on disk with simulated network latency between
+ * servers, and reports the commit latency when the leader flushes its log on commit, when the leader flushes its
+ * log in parallel with replication using group commit, and without flushing for reference.
+ */
+public class RaftCommitLatencyTest implements Runnable {
+
+  private static final FlushMode[] FLUSH_MODES = FlushMode.values();
+  private static final long[] APPEND_LATENCIES = new long[]{0, 1, 2, 5};
+  private static final int NUM_SERVERS = 3;
+  private static final int WARMUP_OPERATIONS = 500;
+  private static final int OPERATIONS = 5000;
+
+  private static final Path PATH = Paths.get("target/latency-logs/");
+
+  /**
+   * Runs the test.
+   */
+  public static void main(String[] args) {
+    new RaftCommitLatencyTest().run();
+  }
+
+  @Override
+  public void run() {
+    try {
+      for (long appendLatency : APPEND_LATENCIES) {
+        for (FlushMode flushMode : FLUSH_MODES) {
+          cleanup();
+          runIteration(flushMode, Duration.ofMillis(appendLatency));
+        }
+      }
+    } catch (Exception e) {
+      e.printStackTrace();
+    } finally {
+      try {
+        cleanup();
+      } catch (IOException e) {
+        e.printStackTrace();
+      }
+    }
+  }
+
+  /**
+   * Runs the workload using the given flush mode and simulated append latency.
+   */
+  private void runIteration(FlushMode flushMode, Duration appendLatency) throws Exception {
+    LocalRaftProtocolFactory protocolFactory = new LocalRaftProtocolFactory(
+        RaftPerformanceTest.protocolSerializer, appendLatency);
+    List<RaftServer> servers = new ArrayList<>();
+    RaftClient client = null;
+    try {
+      List<MemberId> members = IntStream.rangeClosed(1, NUM_SERVERS)
+          .mapToObj(i -> MemberId.from(String.valueOf(i)))
+          .collect(Collectors.toList());
+
+      List<CompletableFuture<RaftServer>> futures = new ArrayList<>();
+      for (MemberId memberId : members) {
+        RaftServer server = RaftServer.builder(memberId)
+            .withProtocol(protocolFactory.newServerProtocol(memberId))
+            .withMembershipService(new RaftPartitionScalingTest.LocalMembershipService(memberId))
+            .withStorage(RaftStorage.builder()
+                .withStorageLevel(StorageLevel.DISK)
+                .withDirectory(PATH.resolve(memberId.id()).toFile())
+                .withSerializer(RaftPerformanceTest.storageSerializer)
+                .withFlushOnCommit(flushMode.flushOnCommit)
+                .withGroupCommit(flushMode.groupCommit)
+                .withMaxFlushDelay(Duration.ZERO)
+                .build())
+            .addPrimitiveType(RaftPerformanceTest.TestPrimitiveType.INSTANCE)
+            .build();
+        servers.add(server);
+        futures.add(server.bootstrap(members));
+      }
+      CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).join();
+
+      MemberId clientId = MemberId.from("client");
+      client = RaftClient.builder()
+          .withMemberId(clientId)
+          .withProtocol(protocolFactory.newClientProtocol(clientId))
+          .build();
+      client.connect(members).join();
+
+      PartitionProxy proxy = client
+          .proxyBuilder("test", RaftPerformanceTest.TestPrimitiveType.INSTANCE, new ServiceConfig())
+          .build()
+          .connect()
+          .join();
+
+      write(proxy, new long[WARMUP_OPERATIONS]);
+      long[] latencies = new long[OPERATIONS];
+      long startTime = System.nanoTime();
+      write(proxy, latencies);
+      long runTime = System.nanoTime() - startTime;
+
+      Arrays.sort(latencies);
+      System.out.println(String.format("flushMode: %s, appendLatency: %dms, throughput: %d ops/s, "
+              + "p50: %.2fms, p99: %.2fms, max: %.2fms",
+          flushMode,
+          appendLatency.toMillis(),
+          latencies.length * TimeUnit.SECONDS.toNanos(1) / runTime,
+          percentile(latencies, .5),
+          percentile(latencies, .99),
+          percentile(latencies, 1)));
+    } finally {
+      if (client != null) {
+        try {
+          client.close().get(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+        }
+      }
+      servers.forEach(server -> {
+        try {
+          server.shutdown().get(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+        }
+      });
+      protocolFactory.close();
+    }
+  }
+
+  /**
+   * Sequentially submits writes to the proxy, recording the latency of each write.
+   */
+  private void write(PartitionProxy proxy, long[] latencies) {
+    for (int i = 0; i < latencies.length; i++) {
+      byte[] value = RaftPerformanceTest.clientSerializer.encode(
+          Maps.immutableEntry(UUID.randomUUID().toString(), UUID.randomUUID().toString()));
+      long startTime = System.nanoTime();
+      proxy.execute(operation(RaftPerformanceTest.PUT, value)).join();
+      latencies[i] = System.nanoTime() - startTime;
+    }
+  }
+
+  /**
+   * Returns the given percentile of the sorted latencies in milliseconds.
+   */
+  private static double percentile(long[] latencies, double percentile) {
+    int index = (int) Math.min(latencies.length - 1, Math.ceil(latencies.length * percentile) - 1);
+    return latencies[Math.max(index, 0)] / (double) TimeUnit.MILLISECONDS.toNanos(1);
+  }
+
+  /**
+   * Deletes the test logs.
+   */
+  private void cleanup() throws IOException {
+    if (Files.exists(PATH)) {
+      Files.walkFileTree(PATH, new SimpleFileVisitor<Path>() {
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+          Files.delete(file);
+          return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+          Files.delete(dir);
+          return FileVisitResult.CONTINUE;
+        }
+      });
+    }
+  }
+
+  /**
+   * Leader log flush mode.
+   */
+  private enum FlushMode {
+    /**
+     * Entries are not flushed on commit.
+     */
+    NONE(false, false),
+
+    /**
+     * The leader flushes its log when entries are committed, after replication to followers.
+     */
+    SERIAL(true, false),
+
+    /**
+     * The leader flushes its log in parallel with replication to followers.
+     */
+    PARALLEL(true, true);
+
+    private final boolean flushOnCommit;
+    private final boolean groupCommit;
+
+    FlushMode(boolean flushOnCommit, boolean groupCommit) {
+      this.flushOnCommit = flushOnCommit;
+      this.groupCommit = groupCommit;
+    }
+  }
+}
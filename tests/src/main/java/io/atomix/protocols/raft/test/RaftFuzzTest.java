@@ -67,6 +67,8 @@ import io.atomix.protocols.raft.protocol.PollResponse;
 import io.atomix.protocols.raft.protocol.PublishRequest;
 import io.atomix.protocols.raft.protocol.QueryRequest;
 import io.atomix.protocols.raft.protocol.QueryResponse;
+import io.atomix.protocols.raft.protocol.ReadIndexRequest;
+import io.atomix.protocols.raft.protocol.ReadIndexResponse;
 import io.atomix.protocols.raft.protocol.RaftClientProtocol;
 import io.atomix.protocols.raft.protocol.RaftResponse;
 import io.atomix.protocols.raft.protocol.RaftServerProtocol;
@@ -78,6 +80,7 @@ import io.atomix.protocols.raft.protocol.VoteResponse;
 import io.atomix.protocols.raft.proxy.CommunicationStrategy;
 import io.atomix.protocols.raft.storage.RaftStorage;
 import io.atomix.protocols.raft.storage.log.entry.CloseSessionEntry;
+import io.atomix.protocols.raft.storage.log.entry.CommandBatchEntry;
 import io.atomix.protocols.raft.storage.log.entry.CommandEntry;
 import io.atomix.protocols.raft.storage.log.entry.ConfigurationEntry;
 import io.atomix.protocols.raft.storage.log.entry.InitializeEntry;
@@ -168,6 +171,8 @@ public class RaftFuzzTest implements Runnable {
       .register(ReconfigureResponse.class)
       .register(InstallRequest.class)
       .register(InstallResponse.class)
+      .register(ReadIndexRequest.class)
+      .register(ReadIndexResponse.class)
       .register(PollRequest.class)
       .register(PollResponse.class)
       .register(VoteRequest.class)
@@ -185,6 +190,7 @@ public class RaftFuzzTest implements Runnable {
       .register(long[].class)
       .register(CloseSessionEntry.class)
       .register(CommandEntry.class)
+      .register(CommandBatchEntry.class)
       .register(ConfigurationEntry.class)
       .register(InitializeEntry.class)
       .register(KeepAliveEntry.class)
@@ -210,6 +216,7 @@ public class RaftFuzzTest implements Runnable {
   private static final Serializer storageSerializer = Serializer.using(KryoNamespace.builder()
       .register(CloseSessionEntry.class)
       .register(CommandEntry.class)
+      .register(CommandBatchEntry.class)
       .register(ConfigurationEntry.class)
       .register(InitializeEntry.class)
       .register(KeepAliveEntry.class)
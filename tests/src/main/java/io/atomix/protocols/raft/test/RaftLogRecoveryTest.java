@@ -0,0 +1,163 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.protocols.raft.test;
+
+import io.atomix.primitive.operation.OperationId;
+import io.atomix.primitive.operation.OperationType;
+import io.atomix.primitive.operation.PrimitiveOperation;
+import io.atomix.primitive.operation.impl.DefaultOperationId;
+import io.atomix.protocols.raft.storage.RaftStorage;
+import io.atomix.protocols.raft.storage.log.RaftLog;
+import io.atomix.protocols.raft.storage.log.RaftLogWriter;
+import io.atomix.protocols.raft.storage.log.entry.CommandEntry;
+import io.atomix.storage.StorageLevel;
+import io.atomix.utils.serializer.KryoNamespace;
+import io.atomix.utils.serializer.Serializer;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+
+import static io.atomix.primitive.operation.PrimitiveOperation.operation;
+
+/**
+ * Raft log recovery performance test.
+ * <p>
+ * Writes logs of increasing size and measures the time taken to reopen each log both by scanning every segment
+ * and by verifying sealed segments against their persisted indexes.
+ */
+public class RaftLogRecoveryTest implements Runnable {
+
+  private static final StorageLevel STORAGE_LEVEL = StorageLevel.DISK;
+  private static final int[] LOG_SIZES = new int[]{100000, 500000, 1000000, 2000000};
+  private static final int ENTRY_SIZE = 1024;
+  private static final int ITERATIONS = 3;
+
+  private static final Path PATH = Paths.get("target/recovery-logs/");
+  private static final OperationId PUT = OperationId.command("put");
+
+  private static final Serializer storageSerializer = Serializer.using(KryoNamespace.builder()
+      .register(CommandEntry.class)
+      .register(PrimitiveOperation.class)
+      .register(DefaultOperationId.class)
+      .register(OperationType.class)
+      .register(byte[].class)
+      .build());
+
+  /**
+   * Runs the test.
+   */
+  public static void main(String[] args) {
+    new RaftLogRecoveryTest().run();
+  }
+
+  @Override
+  public void run() {
+    try {
+      for (int logSize : LOG_SIZES) {
+        cleanup();
+        writeLog(logSize);
+
+        // Recover using the persisted indexes first, since disabling index persistence deletes the sidecar files.
+        long sealedTime = recover(true, logSize);
+        long scanTime = recover(false, logSize);
+        System.out.println(String.format("entries: %d, size: %dMB, scanRecoveryTime: %dms, sealedRecoveryTime: %dms",
+            logSize,
+            (long) logSize * ENTRY_SIZE / (1024 * 1024),
+            scanTime,
+            sealedTime));
+      }
+    } catch (Exception e) {
+      e.printStackTrace();
+    } finally {
+      try {
+        cleanup();
+      } catch (IOException e) {
+        e.printStackTrace();
+      }
+    }
+  }
+
+  /**
+   * Creates the storage for the test log.
+   */
+  private RaftStorage createStorage(boolean persistentIndex) {
+    return RaftStorage.builder()
+        .withPrefix("test")
+        .withDirectory(PATH.toFile())
+        .withStorageLevel(STORAGE_LEVEL)
+        .withSerializer(storageSerializer)
+        .withPersistentIndex(persistentIndex)
+        .build();
+  }
+
+  /**
+   * Writes a log with the given number of entries.
+   */
+  private void writeLog(int entries) {
+    byte[] value = new byte[ENTRY_SIZE];
+    try (RaftLog log = createStorage(true).openLog()) {
+      RaftLogWriter writer = log.writer();
+      for (int i = 0; i < entries; i++) {
+        writer.append(new CommandEntry(1, System.currentTimeMillis(), 1, 0, i, operation(PUT, value)));
+      }
+      writer.flush();
+    }
+  }
+
+  /**
+   * Reopens the log the given number of times, returning the average recovery time.
+   */
+  private long recover(boolean persistentIndex, int entries) {
+    long totalTime = 0;
+    for (int i = 0; i < ITERATIONS; i++) {
+      long startTime = System.currentTimeMillis();
+      try (RaftLog log = createStorage(persistentIndex).openLog()) {
+        long lastIndex = log.writer().getLastIndex();
+        totalTime += System.currentTimeMillis() - startTime;
+        if (lastIndex != entries) {
+          throw new IllegalStateException("Recovered " + lastIndex + " entries, expected " + entries);
+        }
+      }
+    }
+    return totalTime / ITERATIONS;
+  }
+
+  /**
+   * Deletes the test logs.
+   */
+  private void cleanup() throws IOException {
+    if (Files.exists(PATH)) {
+      Files.walkFileTree(PATH, new SimpleFileVisitor<Path>() {
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+          Files.delete(file);
+          return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+          Files.delete(dir);
+          return FileVisitResult.CONTINUE;
+        }
+      });
+    }
+  }
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.protocols.raft.test;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import io.atomix.cluster.ClusterMembershipEventListener;
+import io.atomix.cluster.ClusterMembershipService;
+import io.atomix.cluster.Member;
+import io.atomix.cluster.MemberId;
+import io.atomix.primitive.proxy.PartitionProxy;
+import io.atomix.primitive.service.ServiceConfig;
+import io.atomix.protocols.raft.RaftClient;
+import io.atomix.protocols.raft.RaftServer;
+import io.atomix.protocols.raft.storage.RaftStorage;
+import io.atomix.protocols.raft.test.protocol.LocalRaftProtocolFactory;
+import io.atomix.storage.StorageLevel;
+import io.atomix.utils.concurrent.ThreadModel;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static io.atomix.primitive.operation.PrimitiveOperation.operation;
+
+/**
+ * Multi-Raft partition scaling test.
+ * <p>
+ * Runs a write workload against an increasing number of in-process Raft partitions, each replicated on three
+ * servers, and reports the live thread count, throughput and write latency for each thread model.
+ */
+public class RaftPartitionScalingTest implements Runnable {
+
+  private static final ThreadModel[] THREAD_MODELS = new ThreadModel[]{
+      ThreadModel.THREAD_PER_SERVICE,
+      ThreadModel.SHARED_THREAD_POOL,
+      ThreadModel.THREAD_PER_CORE,
+  };
+  private static final int[] PARTITION_COUNTS = new int[]{1, 2, 4, 8, 16, 32, 64, 128, 256};
+  private static final int NUM_SERVERS = 3;
+  private static final int OPERATIONS_PER_PARTITION = 1000;
+
+  private static final Path PATH = Paths.get("target/scaling-logs/");
+
+  /**
+   * Runs the test.
+   */
+  public static void main(String[] args) {
+    new RaftPartitionScalingTest().run();
+  }
+
+  @Override
+  public void run() {
+    try {
+      for (ThreadModel threadModel : THREAD_MODELS) {
+        for (int partitions : PARTITION_COUNTS) {
+          cleanup();
+          runIteration(threadModel, partitions);
+        }
+      }
+    } catch (Exception e) {
+      e.printStackTrace();
+    } finally {
+      try {
+        cleanup();
+      } catch (IOException e) {
+        e.printStackTrace();
+      }
+    }
+  }
+
+  /**
+   * Runs the workload against the given number of partitions using the given thread model.
+   */
+  private void runIteration(ThreadModel threadModel, int partitions) throws Exception {
+    List<RaftServer> servers = new ArrayList<>();
+    List<RaftClient> clients = new ArrayList<>();
+    try {
+      List<PartitionProxy> proxies = new ArrayList<>();
+      for (int partition = 1; partition <= partitions; partition++) {
+        proxies.add(createPartition(partition, threadModel, servers, clients));
+      }
+
+      int threads = ManagementFactory.getThreadMXBean().getThreadCount();
+      long[] latencies = new long[partitions * OPERATIONS_PER_PARTITION];
+      AtomicInteger latencyIndex = new AtomicInteger();
+
+      long startTime = System.nanoTime();
+      CompletableFuture[] futures = proxies.stream()
+          .map(proxy -> runProxy(proxy, OPERATIONS_PER_PARTITION, latencies, latencyIndex))
+          .toArray(CompletableFuture[]::new);
+      CompletableFuture.allOf(futures).join();
+      long runTime = System.nanoTime() - startTime;
+
+      Arrays.sort(latencies);
+      System.out.println(String.format("threadModel: %s, partitions: %d, threads: %d, throughput: %d ops/s, "
+              + "p50: %.2fms, p99: %.2fms, max: %.2fms",
+          threadModel,
+          partitions,
+          threads,
+          latencies.length * TimeUnit.SECONDS.toNanos(1) / runTime,
+          percentile(latencies, .5),
+          percentile(latencies, .99),
+          percentile(latencies, 1)));
+    } finally {
+      clients.forEach(client -> {
+        try {
+          client.close().get(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+        }
+      });
+      servers.forEach(server -> {
+        try {
+          server.shutdown().get(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+        }
+      });
+    }
+  }
+
+  /**
+   * Creates a partition's servers and client, returning a connected proxy for the partition.
+   */
+  private PartitionProxy createPartition(
+      int partition, ThreadModel threadModel, List<RaftServer> servers, List<RaftClient> clients) {
+    LocalRaftProtocolFactory protocolFactory = new LocalRaftProtocolFactory(RaftPerformanceTest.protocolSerializer);
+    List<MemberId> members = IntStream.rangeClosed(1, NUM_SERVERS)
+        .mapToObj(i -> MemberId.from(String.valueOf(i)))
+        .collect(Collectors.toList());
+
+    List<CompletableFuture<RaftServer>> futures = new ArrayList<>();
+    for (MemberId memberId : members) {
+      RaftServer server = RaftServer.builder(memberId)
+          .withName(String.format("partition-%d", partition))
+          .withProtocol(protocolFactory.newServerProtocol(memberId))
+          .withThreadModel(threadModel)
+          .withMembershipService(new LocalMembershipService(memberId))
+          .withStorage(RaftStorage.builder()
+              .withPrefix(String.format("partition-%d", partition))
+              .withStorageLevel(StorageLevel.MEMORY)
+              .withDirectory(PATH.resolve(String.format("%d/%s", partition, memberId)).toFile())
+              .withSerializer(RaftPerformanceTest.storageSerializer)
+              .build())
+          .addPrimitiveType(RaftPerformanceTest.TestPrimitiveType.INSTANCE)
+          .build();
+      servers.add(server);
+      futures.add(server.bootstrap(members));
+    }
+    CompletableFuture.allOf(futures.toArray(new CompletableFuture[futures.size()])).join();
+
+    MemberId clientId = MemberId.from(String.format("client-%d", partition));
+    RaftClient client = RaftClient.builder()
+        .withMemberId(clientId)
+        .withProtocol(protocolFactory.newClientProtocol(clientId))
+        .withThreadModel(threadModel)
+        .build();
+    client.connect(members).join();
+    clients.add(client);
+
+    return client.proxyBuilder("test", RaftPerformanceTest.TestPrimitiveType.INSTANCE, new ServiceConfig())
+        .build()
+        .connect()
+        .join();
+  }
+
+  /**
+   * Sequentially submits the given number of writes to the proxy, recording the latency of each write.
+   */
+  private CompletableFuture<Void> runProxy(PartitionProxy proxy, int remaining, long[] latencies, AtomicInteger latencyIndex) {
+    if (remaining == 0) {
+      return CompletableFuture.completedFuture(null);
+    }
+    long startTime = System.nanoTime();
+    byte[] value = RaftPerformanceTest.clientSerializer.encode(
+        Maps.immutableEntry(UUID.randomUUID().toString(), UUID.randomUUID().toString()));
+    return proxy.execute(operation(RaftPerformanceTest.PUT, value))
+        .thenCompose(result -> {
+          latencies[latencyIndex.getAndIncrement()] = System.nanoTime() - startTime;
+          return runProxy(proxy, remaining - 1, latencies, latencyIndex);
+        });
+  }
+
+  /**
+   * Returns the given percentile of the sorted latencies in milliseconds.
+   */
+  private static double percentile(long[] latencies, double percentile) {
+    int index = (int) Math.min(latencies.length - 1, Math.ceil(latencies.length * percentile) - 1);
+    return latencies[Math.max(index, 0)] / (double) TimeUnit.MILLISECONDS.toNanos(1);
+  }
+
+  /**
+   * Deletes the test logs.
+   */
+  private void cleanup() throws IOException {
+    if (Files.exists(PATH)) {
+      Files.walkFileTree(PATH, new SimpleFileVisitor<Path>() {
+        @Override
+        public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+          Files.delete(file);
+          return FileVisitResult.CONTINUE;
+        }
+
+        @Override
+        public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+          Files.delete(dir);
+          return FileVisitResult.CONTINUE;
+        }
+      });
+    }
+  }
+
+  /**
+   * Static membership service for the local Raft servers.
+   */
+  static class LocalMembershipService implements ClusterMembershipService {
+    private final Member localMember;
+
+    LocalMembershipService(MemberId memberId) {
+      this.localMember = Member.builder(memberId).withAddress("localhost", 5000).build();
+    }
+
+    @Override
+    public Member getLocalMember() {
+      return localMember;
+    }
+
+    @Override
+    public Set<Member> getMembers() {
+      return ImmutableSet.of(localMember);
+    }
+
+    @Override
+    public Member getMember(MemberId memberId) {
+      return localMember.id().equals(memberId) ? localMember : null;
+    }
+
+    @Override
+    public void addListener(ClusterMembershipEventListener listener) {
+    }
+
+    @Override
+    public void removeListener(ClusterMembershipEventListener listener) {
+    }
+  }
+}
@@ -74,6 +74,8 @@ import io.atomix.protocols.raft.protocol.PollResponse;
 import io.atomix.protocols.raft.protocol.PublishRequest;
 import io.atomix.protocols.raft.protocol.QueryRequest;
 import io.atomix.protocols.raft.protocol.QueryResponse;
+import io.atomix.protocols.raft.protocol.ReadIndexRequest;
+import io.atomix.protocols.raft.protocol.ReadIndexResponse;
 import io.atomix.protocols.raft.protocol.RaftClientProtocol;
 import io.atomix.protocols.raft.protocol.RaftResponse;
 import io.atomix.protocols.raft.protocol.RaftServerProtocol;
@@ -85,6 +87,7 @@ import io.atomix.protocols.raft.protocol.VoteResponse;
 import io.atomix.protocols.raft.proxy.CommunicationStrategy;
 import io.atomix.protocols.raft.storage.RaftStorage;
 import io.atomix.protocols.raft.storage.log.entry.CloseSessionEntry;
+import io.atomix.protocols.raft.storage.log.entry.CommandBatchEntry;
 import io.atomix.protocols.raft.storage.log.entry.CommandEntry;
 import io.atomix.protocols.raft.storage.log.entry.ConfigurationEntry;
 import io.atomix.protocols.raft.storage.log.entry.InitializeEntry;
@@ -125,6 +128,7 @@ import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
@@ -155,7 +159,7 @@ public class RaftPerformanceTest implements Runnable {
     new RaftPerformanceTest().run();
   }
 
-  private static final Serializer protocolSerializer = Serializer.using(KryoNamespace.builder()
+  static final Serializer protocolSerializer = Serializer.using(KryoNamespace.builder()
       .register(HeartbeatRequest.class)
       .register(HeartbeatResponse.class)
       .register(OpenSessionRequest.class)
@@ -180,6 +184,8 @@ public class RaftPerformanceTest implements Runnable {
       .register(ReconfigureResponse.class)
       .register(InstallRequest.class)
       .register(InstallResponse.class)
+      .register(ReadIndexRequest.class)
+      .register(ReadIndexResponse.class)
       .register(PollRequest.class)
       .register(PollResponse.class)
       .register(VoteRequest.class)
@@ -197,6 +203,7 @@ public class RaftPerformanceTest implements Runnable {
       .register(long[].class)
       .register(CloseSessionEntry.class)
       .register(CommandEntry.class)
+      .register(CommandBatchEntry.class)
       .register(ConfigurationEntry.class)
       .register(InitializeEntry.class)
       .register(KeepAliveEntry.class)
@@ -219,9 +226,10 @@ public class RaftPerformanceTest implements Runnable {
       .register(Configuration.class)
       .build());
 
-  private static final Serializer storageSerializer = Serializer.using(KryoNamespace.builder()
+  static final Serializer storageSerializer = Serializer.using(KryoNamespace.builder()
       .register(CloseSessionEntry.class)
       .register(CommandEntry.class)
+      .register(CommandBatchEntry.class)
       .register(ConfigurationEntry.class)
       .register(InitializeEntry.class)
       .register(KeepAliveEntry.class)
@@ -244,7 +252,7 @@ public class RaftPerformanceTest implements Runnable {
       .register(long[].class)
       .build());
 
-  private static final Serializer clientSerializer = Serializer.using(KryoNamespace.builder()
+  static final Serializer clientSerializer = Serializer.using(KryoNamespace.builder()
       .register(ReadConsistency.class)
       .register(Maps.immutableEntry("", "").getClass())
       .build());
@@ -263,6 +271,8 @@ public class RaftPerformanceTest implements Runnable {
   private final AtomicInteger totalOperations = new AtomicInteger();
   private final AtomicInteger writeCount = new AtomicInteger();
   private final AtomicInteger readCount = new AtomicInteger();
+  private final AtomicLong appendCount = new AtomicLong();
+  private final AtomicLong heartbeatCount = new AtomicLong();
 
   static {
     for (int i = 0; i < 1024; i++) {
@@ -324,6 +334,11 @@ public class RaftPerformanceTest implements Runnable {
         writeCount.get(),
         TOTAL_OPERATIONS,
         runTime));
+    System.out.println(String.format("appendCount: %d, heartbeatCount: %d, appendsPerRead: %.2f, heartbeatsPerRead: %.2f",
+        appendCount.get(),
+        heartbeatCount.get(),
+        readCount.get() > 0 ? appendCount.get() / (double) readCount.get() : 0,
+        readCount.get() > 0 ? heartbeatCount.get() / (double) readCount.get() : 0));
     return runTime;
   }
 
@@ -359,6 +374,8 @@ public class RaftPerformanceTest implements Runnable {
     totalOperations.set(0);
     readCount.set(0);
     writeCount.set(0);
+    appendCount.set(0);
+    heartbeatCount.set(0);
 
     shutdown();
 
@@ -478,7 +495,13 @@ public class RaftPerformanceTest implements Runnable {
           .start()
           .join();
       messagingServices.add(messagingService);
-      protocol = new RaftServerMessagingProtocol(messagingService, protocolSerializer, addressMap::get);
+      protocol = new RaftServerMessagingProtocol(messagingService, protocolSerializer, addressMap::get) {
+        @Override
+        public CompletableFuture<AppendResponse> append(MemberId memberId, AppendRequest request) {
+          recordAppend(request);
+          return super.append(memberId, request);
+        }
+      };
     } else {
       protocol = protocolFactory.newServerProtocol(member.id());
     }
@@ -506,6 +529,16 @@ public class RaftPerformanceTest implements Runnable {
     return server;
   }
 
+  /**
+   * Records an append request sent by a server.
+   */
+  private void recordAppend(AppendRequest request) {
+    appendCount.incrementAndGet();
+    if (request.entries().isEmpty()) {
+      heartbeatCount.incrementAndGet();
+    }
+  }
+
   /**
    * Creates a Raft client.
    */
@@ -541,7 +574,7 @@ public class RaftPerformanceTest implements Runnable {
         .build();
   }
 
-  private static final OperationId PUT = OperationId.command("put");
+  static final OperationId PUT = OperationId.command("put");
   private static final OperationId GET = OperationId.query("get");
   private static final OperationId REMOVE = OperationId.command("remove");
   private static final OperationId INDEX = OperationId.command("index");
@@ -549,7 +582,7 @@ public class RaftPerformanceTest implements Runnable {
   /**
    * Test primitive type.
    */
-  private static class TestPrimitiveType implements PrimitiveType {
+  static class TestPrimitiveType implements PrimitiveType {
     static final TestPrimitiveType INSTANCE = new TestPrimitiveType();
 
     @Override
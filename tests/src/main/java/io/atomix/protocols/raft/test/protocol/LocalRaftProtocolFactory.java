@@ -21,18 +21,42 @@ import io.atomix.protocols.raft.protocol.RaftClientProtocol;
 import io.atomix.protocols.raft.protocol.RaftServerProtocol;
 import io.atomix.utils.serializer.Serializer;
 
+import java.time.Duration;
 import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
 
+import static com.google.common.base.Preconditions.checkArgument;
 /**
  * Test Raft protocol factory.
  */
 public class LocalRaftProtocolFactory {
   private final Serializer serializer;
+  private final Duration appendLatency;
+  private final ScheduledExecutorService latencyExecutor;
   private final Map<MemberId, LocalRaftServerProtocol> servers = Maps.newConcurrentMap();
   private final Map<MemberId, LocalRaftClientProtocol> clients = Maps.newConcurrentMap();
 
   public LocalRaftProtocolFactory(Serializer serializer) {
+    this(serializer, Duration.ZERO);
+  }
+
+  /**
+   * Creates a protocol factory that delays append requests between servers by the given latency.
+   *
+   * @param serializer the protocol serializer
+   * @param appendLatency the simulated round trip latency for append requests
+   */
+  public LocalRaftProtocolFactory(Serializer serializer, Duration appendLatency) {
+    checkArgument(!appendLatency.isNegative(), "appendLatency cannot be negative");
     this.serializer = serializer;
+    this.appendLatency = appendLatency;
+    this.latencyExecutor = appendLatency.isZero() ? null
+        : Executors.newSingleThreadScheduledExecutor(runnable -> {
+          Thread thread = new Thread(runnable, "raft-test-latency");
+          thread.setDaemon(true);
+          return thread;
+        });
   }
 
   /**
@@ -52,6 +76,15 @@ public class LocalRaftProtocolFactory {
    * @return a new test server protocol
    */
   public RaftServerProtocol newServerProtocol(MemberId memberId) {
-    return new LocalRaftServerProtocol(memberId, serializer, servers, clients);
+    return new LocalRaftServerProtocol(memberId, serializer, servers, clients, appendLatency, latencyExecutor);
+  }
+
+  /**
+   * Closes the protocol factory.
+   */
+  public void close() {
+    if (latencyExecutor != null) {
+      latencyExecutor.shutdownNow();
+    }
   }
 }
@@ -49,6 +49,8 @@ import io.atomix.protocols.raft.protocol.RaftServerProtocol;
 import io.atomix.protocols.raft.protocol.ReconfigureRequest;
 import io.atomix.protocols.raft.protocol.ReconfigureResponse;
 import io.atomix.protocols.raft.protocol.ResetRequest;
+import io.atomix.protocols.raft.protocol.ReadIndexRequest;
+import io.atomix.protocols.raft.protocol.ReadIndexResponse;
 import io.atomix.protocols.raft.protocol.TransferRequest;
 import io.atomix.protocols.raft.protocol.TransferResponse;
 import io.atomix.protocols.raft.protocol.VoteRequest;
@@ -57,9 +59,12 @@ import io.atomix.utils.serializer.Serializer;
 import io.atomix.utils.concurrent.Futures;
 
 import java.net.ConnectException;
+import java.time.Duration;
 import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
@@ -81,11 +86,26 @@ public class LocalRaftServerProtocol extends LocalRaftProtocol implements RaftSe
   private Function<PollRequest, CompletableFuture<PollResponse>> pollHandler;
   private Function<VoteRequest, CompletableFuture<VoteResponse>> voteHandler;
   private Function<TransferRequest, CompletableFuture<TransferResponse>> transferHandler;
+  private Function<ReadIndexRequest, CompletableFuture<ReadIndexResponse>> readIndexHandler;
   private Function<AppendRequest, CompletableFuture<AppendResponse>> appendHandler;
   private final Map<Long, Consumer<ResetRequest>> resetListeners = Maps.newConcurrentMap();
+  private final Duration appendLatency;
+  private final ScheduledExecutorService latencyExecutor;
 
   public LocalRaftServerProtocol(MemberId memberId, Serializer serializer, Map<MemberId, LocalRaftServerProtocol> servers, Map<MemberId, LocalRaftClientProtocol> clients) {
+    this(memberId, serializer, servers, clients, Duration.ZERO, null);
+  }
+
+  public LocalRaftServerProtocol(
+      MemberId memberId,
+      Serializer serializer,
+      Map<MemberId, LocalRaftServerProtocol> servers,
+      Map<MemberId, LocalRaftClientProtocol> clients,
+      Duration appendLatency,
+      ScheduledExecutorService latencyExecutor) {
     super(serializer, servers, clients);
+    this.appendLatency = appendLatency;
+    this.latencyExecutor = latencyExecutor;
     servers.put(memberId, this);
   }
 
@@ -167,6 +187,11 @@ public class LocalRaftServerProtocol extends LocalRaftProtocol implements RaftSe
     return getServer(memberId).thenCompose(listener -> listener.install(encode(request))).thenApply(this::decode);
   }
 
+  @Override
+  public CompletableFuture<ReadIndexResponse> readIndex(MemberId memberId, ReadIndexRequest request) {
+    return getServer(memberId).thenCompose(listener -> listener.readIndex(encode(request))).thenApply(this::decode);
+  }
+
   @Override
   public CompletableFuture<PollResponse> poll(MemberId memberId, PollRequest request) {
     return getServer(memberId).thenCompose(listener -> listener.poll(encode(request))).thenApply(this::decode);
@@ -179,7 +204,24 @@ public class LocalRaftServerProtocol extends LocalRaftProtocol implements RaftSe
 
   @Override
   public CompletableFuture<AppendResponse> append(MemberId memberId, AppendRequest request) {
-    return getServer(memberId).thenCompose(listener -> listener.append(encode(request))).thenApply(this::decode);
+    if (appendLatency.isZero()) {
+      return getServer(memberId).thenCompose(listener -> listener.append(encode(request))).thenApply(this::decode);
+    }
+
+    // Simulate the network round trip by delaying delivery of the request. Requests are delayed by the same amount
+    // on a single thread, so they're still delivered in order.
+    byte[] bytes = encode(request);
+    CompletableFuture<byte[]> future = new CompletableFuture<>();
+    latencyExecutor.schedule(() -> getServer(memberId)
+        .thenCompose(listener -> listener.append(bytes))
+        .whenComplete((response, error) -> {
+          if (error == null) {
+            future.complete(response);
+          } else {
+            future.completeExceptionally(error);
+          }
+        }), appendLatency.toNanos(), TimeUnit.NANOSECONDS);
+    return future.thenApply(this::decode);
   }
 
   @Override
@@ -444,6 +486,24 @@ public class LocalRaftServerProtocol extends LocalRaftProtocol implements RaftSe
     }
   }
 
+  @Override
+  public void registerReadIndexHandler(Function<ReadIndexRequest, CompletableFuture<ReadIndexResponse>> handler) {
+    this.readIndexHandler = handler;
+  }
+
+  @Override
+  public void unregisterReadIndexHandler() {
+    this.readIndexHandler = null;
+  }
+
+  CompletableFuture<byte[]> readIndex(byte[] request) {
+    if (readIndexHandler != null) {
+      return readIndexHandler.apply(decode(request)).thenApply(this::encode);
+    } else {
+      return Futures.exceptionalFuture(new ConnectException());
+    }
+  }
+
   CompletableFuture<byte[]> append(byte[] request) {
     if (appendHandler != null) {
       return appendHandler.apply(decode(request)).thenApply(this::encode);
@@ -0,0 +1,157 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.utils.concurrent;
+
+import com.google.common.collect.Sets;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.LinkedList;
+import java.util.Set;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.base.Preconditions.checkNotNull;
+
+/**
+ * Event loop context.
+ * <p>
+ * This is a {@link ThreadContext} implementation that multiplexes events on a single threaded event loop which may
+ * be shared with other contexts. Because every event is executed on the same event loop thread, the context retains
+ * the semantics of a {@link SingleThreadContext} without owning a thread. To prevent a busy context from starving
+ * other contexts on the same event loop, the context yields the event loop after executing a bounded number of
+ * events.
+ */
+public class EventLoopContext implements ThreadContext {
+  private static final Logger LOGGER = LoggerFactory.getLogger(EventLoopContext.class);
+  private static final int MAX_EVENTS_PER_RUN = 64;
+
+  private final ScheduledExecutorService eventLoop;
+  private final Runnable closeCallback;
+  private final Runnable runner = this::run;
+  private final LinkedList<Runnable> tasks = new LinkedList<>();
+  private final Set<ScheduledFuture<?>> periodicTasks = Sets.newConcurrentHashSet();
+  private boolean running;
+  private volatile boolean closed;
+
+  /**
+   * Creates a new event loop context.
+   *
+   * @param eventLoop The single threaded event loop on which to execute events.
+   */
+  public EventLoopContext(ScheduledExecutorService eventLoop) {
+    this(eventLoop, () -> {
+    });
+  }
+
+  EventLoopContext(ScheduledExecutorService eventLoop, Runnable closeCallback) {
+    this.eventLoop = checkNotNull(eventLoop, "eventLoop cannot be null");
+    this.closeCallback = checkNotNull(closeCallback, "closeCallback cannot be null");
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    if (closed) {
+      return;
+    }
+    synchronized (tasks) {
+      tasks.add(command);
+      if (!running) {
+        running = true;
+        submit();
+      }
+    }
+  }
+
+  /**
+   * Submits the context runner to the event loop.
+   */
+  private void submit() {
+    try {
+      eventLoop.execute(runner);
+    } catch (RejectedExecutionException e) {
+      synchronized (tasks) {
+        tasks.clear();
+        running = false;
+      }
+    }
+  }
+
+  /**
+   * Executes a bounded batch of events on the event loop.
+   */
+  private void run() {
+    ((AtomixThread) Thread.currentThread()).setContext(this);
+    for (int i = 0; i < MAX_EVENTS_PER_RUN; i++) {
+      final Runnable task;
+      synchronized (tasks) {
+        task = tasks.poll();
+        if (task == null) {
+          running = false;
+          return;
+        }
+      }
+
+      try {
+        task.run();
+      } catch (Throwable t) {
+        LOGGER.error("An uncaught exception occurred", t);
+      }
+    }
+
+    // Yield the event loop to other contexts, resuming once their pending events have been executed.
+    synchronized (tasks) {
+      if (tasks.isEmpty()) {
+        running = false;
+        return;
+      }
+    }
+    submit();
+  }
+
+  @Override
+  public Scheduled schedule(Duration delay, Runnable runnable) {
+    ScheduledFuture<?> future = eventLoop.schedule(() -> execute(runnable), delay.toMillis(), TimeUnit.MILLISECONDS);
+    return () -> future.cancel(false);
+  }
+
+  @Override
+  public Scheduled schedule(Duration delay, Duration interval, Runnable runnable) {
+    ScheduledFuture<?> future = eventLoop.scheduleAtFixedRate(
+        () -> execute(runnable), delay.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    periodicTasks.add(future);
+    return () -> {
+      future.cancel(false);
+      periodicTasks.remove(future);
+    };
+  }
+
+  @Override
+  public void close() {
+    if (!closed) {
+      closed = true;
+      periodicTasks.forEach(future -> future.cancel(false));
+      periodicTasks.clear();
+      synchronized (tasks) {
+        tasks.clear();
+      }
+      closeCallback.run();
+    }
+  }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.utils.concurrent;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.google.common.base.Preconditions.checkArgument;
+import static com.google.common.base.Preconditions.checkNotNull;
+import static io.atomix.utils.concurrent.Threads.namedThreads;
+
+/**
+ * Event loop context factory.
+ * <p>
+ * The factory multiplexes {@link EventLoopContext}s on a fixed set of single threaded event loops. Each context is
+ * bound to one event loop for its lifetime and is assigned to the event loop with the fewest open contexts, so the
+ * number of threads remains fixed regardless of the number of contexts.
+ * <p>
+ * Factories created with {@link #EventLoopContextFactory()} share a single set of event loops per process with one
+ * event loop per available processor. The shared event loops are created by the first such factory and shut down
+ * once all of them have been closed.
+ */
+public class EventLoopContextFactory implements ThreadContextFactory {
+  private static final Logger LOGGER = LoggerFactory.getLogger(EventLoopContextFactory.class);
+  private static final Object SHARED_LOCK = new Object();
+  private static EventLoop[] sharedEventLoops;
+  private static int sharedReferences;
+
+  private final EventLoop[] eventLoops;
+  private final boolean shared;
+  private final AtomicBoolean closed = new AtomicBoolean();
+
+  public EventLoopContextFactory() {
+    this.eventLoops = acquireSharedEventLoops();
+    this.shared = true;
+  }
+
+  public EventLoopContextFactory(String nameFormat, int eventLoops, Logger logger) {
+    this(eventLoops, namedThreads(nameFormat, logger));
+  }
+
+  public EventLoopContextFactory(int eventLoops, ThreadFactory threadFactory) {
+    checkArgument(eventLoops > 0, "eventLoops must be positive");
+    checkNotNull(threadFactory, "threadFactory cannot be null");
+    this.eventLoops = createEventLoops(eventLoops, threadFactory);
+    this.shared = false;
+  }
+
+  /**
+   * Acquires a reference to the shared event loops, creating them if necessary.
+   */
+  private static EventLoop[] acquireSharedEventLoops() {
+    synchronized (SHARED_LOCK) {
+      if (sharedReferences++ == 0) {
+        sharedEventLoops = createEventLoops(
+            Runtime.getRuntime().availableProcessors(), namedThreads("atomix-event-loop-%d", LOGGER));
+      }
+      return sharedEventLoops;
+    }
+  }
+
+  /**
+   * Releases a reference to the shared event loops, shutting them down if no references remain.
+   */
+  private static void releaseSharedEventLoops() {
+    synchronized (SHARED_LOCK) {
+      if (--sharedReferences == 0) {
+        shutdown(sharedEventLoops);
+        sharedEventLoops = null;
+      }
+    }
+  }
+
+  /**
+   * Creates the given number of event loops.
+   */
+  private static EventLoop[] createEventLoops(int count, ThreadFactory threadFactory) {
+    EventLoop[] eventLoops = new EventLoop[count];
+    for (int i = 0; i < count; i++) {
+      eventLoops[i] = new EventLoop(threadFactory);
+    }
+    return eventLoops;
+  }
+
+  /**
+   * Shuts down the given event loops.
+   */
+  private static void shutdown(EventLoop[] eventLoops) {
+    for (EventLoop eventLoop : eventLoops) {
+      eventLoop.executor.shutdownNow();
+    }
+  }
+
+  @Override
+  public ThreadContext createContext() {
+    EventLoop eventLoop = eventLoops[0];
+    for (int i = 1; i < eventLoops.length; i++) {
+      if (eventLoops[i].contexts.get() < eventLoop.contexts.get()) {
+        eventLoop = eventLoops[i];
+      }
+    }
+    eventLoop.contexts.incrementAndGet();
+    return new EventLoopContext(eventLoop.executor, eventLoop.contexts::decrementAndGet);
+  }
+
+  @Override
+  public void close() {
+    if (closed.compareAndSet(false, true)) {
+      if (shared) {
+        releaseSharedEventLoops();
+      } else {
+        shutdown(eventLoops);
+      }
+    }
+  }
+
+  /**
+   * Single threaded event loop.
+   */
+  private static class EventLoop {
+    private final ScheduledThreadPoolExecutor executor;
+    private final AtomicInteger contexts = new AtomicInteger();
+
+    EventLoop(ThreadFactory threadFactory) {
+      this.executor = new ScheduledThreadPoolExecutor(1, threadFactory);
+      this.executor.setRemoveOnCancelPolicy(true);
+    }
+  }
+}
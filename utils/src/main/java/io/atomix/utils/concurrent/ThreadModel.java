@@ -43,6 +43,19 @@ public enum ThreadModel {
     public ThreadContextFactory factory(String nameFormat, int threadPoolSize, Logger logger) {
       return new SingleThreadContextFactory(nameFormat, logger);
     }
+  },
+
+  /**
+   * A thread model that multiplexes all services on a fixed set of event loops shared by the process.
+   * <p>
+   * One event loop is created per available processor, and the thread pool size is ignored. Each thread context
+   * is bound to a single event loop and therefore retains single-threaded semantics.
+   */
+  THREAD_PER_CORE {
+    @Override
+    public ThreadContextFactory factory(String nameFormat, int threadPoolSize, Logger logger) {
+      return new EventLoopContextFactory();
+    }
   };
 
   /**
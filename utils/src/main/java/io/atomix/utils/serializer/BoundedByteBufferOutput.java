@@ -0,0 +1,43 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.utils.serializer;
+
+import com.esotericsoftware.kryo.io.ByteBufferOutput;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Byte buffer output that fails with a {@link BufferOverflowException} once the underlying buffer is full.
+ * <p>
+ * Kryo's {@link ByteBufferOutput} reports a full buffer with a generic {@code KryoException}. This output checks the
+ * required space against the buffer's capacity before each write, so callers can distinguish a lack of space from
+ * other serialization failures.
+ */
+final class BoundedByteBufferOutput extends ByteBufferOutput {
+
+  BoundedByteBufferOutput(ByteBuffer buffer) {
+    super(buffer);
+  }
+
+  @Override
+  protected boolean require(int required) {
+    if (capacity - position < required) {
+      throw new BufferOverflowException();
+    }
+    return false;
+  }
+}
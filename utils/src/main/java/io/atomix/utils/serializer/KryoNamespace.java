@@ -16,6 +16,7 @@
 package io.atomix.utils.serializer;
 
 import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.KryoException;
 import com.esotericsoftware.kryo.Registration;
 import com.esotericsoftware.kryo.Serializer;
 import com.esotericsoftware.kryo.io.ByteBufferInput;
@@ -34,6 +35,7 @@ import org.slf4j.Logger;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -335,18 +337,41 @@ public final class KryoNamespace implements Namespace, KryoFactory, KryoPool {
    *
    * @param obj    Object to serialize
    * @param buffer to write to
+   * @throws BufferOverflowException if the buffer does not have enough remaining space
    */
   public void serialize(final Object obj, final ByteBuffer buffer) {
-    ByteBufferOutput out = new ByteBufferOutput(buffer);
+    ByteBufferOutput out = new BoundedByteBufferOutput(buffer);
     Kryo kryo = borrow();
     try {
       kryo.writeClassAndObject(out, obj);
       out.flush();
+    } catch (KryoException e) {
+      if (isBufferOverflow(e)) {
+        throw new BufferOverflowException();
+      }
+      throw e;
     } finally {
       release(kryo);
     }
   }
 
+  /**
+   * Returns a boolean indicating whether the given exception was caused by a lack of space in the output buffer.
+   * <p>
+   * Kryo wraps exceptions thrown while serializing nested objects, so the {@link BufferOverflowException} thrown by
+   * the output may be the cause of the given exception.
+   */
+  private static boolean isBufferOverflow(KryoException e) {
+    Throwable cause = e.getCause();
+    while (cause != null) {
+      if (cause instanceof BufferOverflowException) {
+        return true;
+      }
+      cause = cause.getCause();
+    }
+    return false;
+  }
+
   /**
    * Serializes given object to OutputStream using Kryo instance in pool.
    *
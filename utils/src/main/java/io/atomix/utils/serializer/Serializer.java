@@ -16,6 +16,9 @@
 
 package io.atomix.utils.serializer;
 
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
 /**
  * Interface for serialization of store artifacts.
  */
@@ -39,6 +42,42 @@ public interface Serializer {
    */
   <T> T decode(byte[] bytes);
 
+  /**
+   * Serialize the specified object directly into the given buffer.
+   * <p>
+   * The object is written starting at the buffer's current position, and the buffer's position is advanced
+   * past the serialized bytes. If the buffer does not have enough remaining space to hold the serialized
+   * object, a {@link BufferOverflowException} is thrown and the contents of the buffer beyond its original
+   * position are undefined.
+   *
+   * @param object object to serialize.
+   * @param buffer buffer to which to write the object.
+   * @param <T>    encoded type
+   * @throws BufferOverflowException if the buffer does not have enough remaining space
+   */
+  default <T> void encode(T object, ByteBuffer buffer) {
+    byte[] bytes = encode(object);
+    if (bytes.length > buffer.remaining()) {
+      throw new BufferOverflowException();
+    }
+    buffer.put(bytes);
+  }
+
+  /**
+   * Deserialize an object directly from the given buffer.
+   * <p>
+   * The object is read from the buffer's current position up to its limit.
+   *
+   * @param buffer buffer from which to read the object.
+   * @param <T>    decoded type
+   * @return deserialized object.
+   */
+  default <T> T decode(ByteBuffer buffer) {
+    byte[] bytes = new byte[buffer.remaining()];
+    buffer.get(bytes);
+    return decode(bytes);
+  }
+
   /**
    * Creates a new Serializer instance from a Namespace.
    *
@@ -56,6 +95,16 @@ public interface Serializer {
       public <T> T decode(byte[] bytes) {
         return namespace.deserialize(bytes);
       }
+
+      @Override
+      public <T> void encode(T object, ByteBuffer buffer) {
+        namespace.serialize(object, buffer);
+      }
+
+      @Override
+      public <T> T decode(ByteBuffer buffer) {
+        return namespace.deserialize(buffer);
+      }
     };
   }
 
@@ -0,0 +1,101 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.utils.concurrent;
+
+import org.junit.Test;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Event loop context test.
+ */
+public class EventLoopContextTest {
+
+  /**
+   * Tests that many contexts are multiplexed on a fixed set of threads while retaining ordering.
+   */
+  @Test
+  public void testMultiplexedContexts() throws Exception {
+    EventLoopContextFactory factory = new EventLoopContextFactory(
+        "test-event-loop-%d", 2, LoggerFactory.getLogger(EventLoopContextTest.class));
+    Set<Thread> threads = ConcurrentHashMap.newKeySet();
+    AtomicBoolean failed = new AtomicBoolean();
+    CountDownLatch latch = new CountDownLatch(10);
+
+    List<ThreadContext> contexts = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      ThreadContext context = factory.createContext();
+      contexts.add(context);
+      AtomicInteger counter = new AtomicInteger();
+      for (int j = 0; j < 1000; j++) {
+        int expected = j;
+        context.execute(() -> {
+          threads.add(Thread.currentThread());
+          if (!context.isCurrentContext() || counter.getAndIncrement() != expected) {
+            failed.set(true);
+          }
+          if (expected == 999) {
+            latch.countDown();
+          }
+        });
+      }
+    }
+
+    assertTrue(latch.await(10, TimeUnit.SECONDS));
+    assertFalse(failed.get());
+    assertEquals(2, threads.size());
+
+    contexts.forEach(ThreadContext::close);
+    factory.close();
+  }
+
+  /**
+   * Tests that periodic tasks are cancelled when a context is closed.
+   */
+  @Test
+  public void testCloseCancelsScheduledTasks() throws Exception {
+    EventLoopContextFactory factory = new EventLoopContextFactory(
+        "test-event-loop-%d", 1, LoggerFactory.getLogger(EventLoopContextTest.class));
+    ThreadContext context = factory.createContext();
+    AtomicInteger counter = new AtomicInteger();
+    CountDownLatch latch = new CountDownLatch(3);
+    context.schedule(Duration.ofMillis(10), Duration.ofMillis(10), () -> {
+      counter.incrementAndGet();
+      latch.countDown();
+    });
+    assertTrue(latch.await(10, TimeUnit.SECONDS));
+
+    context.close();
+    Thread.sleep(50);
+    int count = counter.get();
+    Thread.sleep(100);
+    assertEquals(count, counter.get());
+    factory.close();
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright 2018-present Open Networking Foundation
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package io.atomix.utils.serializer;
+
+import org.junit.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * Kryo namespace test.
+ */
+public class KryoNamespaceTest {
+
+  @Test
+  public void testSerializeToBuffer() {
+    ByteBuffer buffer = ByteBuffer.allocate(1024);
+    KryoNamespaces.BASIC.serialize("Hello world!", buffer);
+    buffer.flip();
+    assertEquals("Hello world!", KryoNamespaces.BASIC.deserialize(buffer));
+  }
+
+  @Test
+  public void testSerializeBufferOverflow() {
+    try {
+      KryoNamespaces.BASIC.serialize(new byte[1024], ByteBuffer.allocate(64));
+      fail();
+    } catch (BufferOverflowException e) {
+    }
+
+    // Overflows while serializing nested objects are wrapped by Kryo.
+    try {
+      KryoNamespaces.BASIC.serialize(new ArrayList<>(Arrays.asList(new byte[1024])), ByteBuffer.allocate(64));
+      fail();
+    } catch (BufferOverflowException e) {
+    }
+  }
+}